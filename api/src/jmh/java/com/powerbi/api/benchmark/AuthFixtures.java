@@ -0,0 +1,79 @@
+package com.powerbi.api.benchmark;
+
+import com.powerbi.api.config.JwtUtil;
+import com.powerbi.api.config.TokenCache;
+import com.powerbi.api.config.TokenRevocationStore;
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.service.CookieService;
+import com.powerbi.api.service.UserService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds the authentication components outside of Spring, with the same settings as application.properties.
+ * The user service is replaced by a stub, so the benchmarks measure token handling rather than database access.
+ */
+final class AuthFixtures {
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+    static final String USERNAME = "user@example.com";
+    static final Long USER_ID = 42L;
+
+    private AuthFixtures() {
+    }
+
+    /**
+     * Creates a JwtUtil minting access tokens that expire after the given number of seconds.
+     * A negative lifetime mints tokens that are already expired.
+     *
+     * @param expiration the access token lifetime in seconds
+     * @return the configured JwtUtil
+     */
+    static JwtUtil jwtUtil(long expiration) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604800L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshWindow", 300L);
+        return jwtUtil;
+    }
+
+    static TokenCache tokenCache() {
+        TokenCache tokenCache = new TokenCache();
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 10000);
+        return tokenCache;
+    }
+
+    static TokenRevocationStore revocationStore() {
+        TokenRevocationStore revocationStore = new TokenRevocationStore();
+        ReflectionTestUtils.setField(revocationStore, "expectedTokens", 100000);
+        return revocationStore;
+    }
+
+    static UserService userService() {
+        return new UserService() {
+            @Override
+            public UserPrincipal getPrincipal(Long userId, String email) {
+                return new UserPrincipal(userId, email, false);
+            }
+
+            @Override
+            public boolean userExists(Long userId) {
+                return true;
+            }
+
+            @Override
+            public UserPrincipal getPrincipal(String email) {
+                return new UserPrincipal(USER_ID, email, false);
+            }
+        };
+    }
+
+    static CookieService cookieService(JwtUtil jwtUtil, UserService userService, TokenRevocationStore revocationStore) {
+        CookieService cookieService = new CookieService();
+        ReflectionTestUtils.setField(cookieService, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(cookieService, "userService", userService);
+        ReflectionTestUtils.setField(cookieService, "revocationStore", revocationStore);
+        ReflectionTestUtils.setField(cookieService, "expiration", 3600);
+        ReflectionTestUtils.setField(cookieService, "refreshExpiration", 604800);
+        return cookieService;
+    }
+}
@@ -0,0 +1,44 @@
+package com.powerbi.api.benchmark;
+
+import com.powerbi.api.config.JwtUtil;
+import com.powerbi.api.service.CookieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CookieService#refreshTokens(String, jakarta.servlet.http.HttpServletResponse)}:
+ * verifying the refresh token, minting a new token pair and writing both cookies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CookieServiceBenchmark {
+    private CookieService cookieService;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = AuthFixtures.jwtUtil(3600);
+        cookieService = AuthFixtures.cookieService(jwtUtil, AuthFixtures.userService(), AuthFixtures.revocationStore());
+        refreshToken = jwtUtil.generateRefreshToken(AuthFixtures.USERNAME, AuthFixtures.USER_ID);
+    }
+
+    @Benchmark
+    public String refreshTokens() {
+        return cookieService.refreshTokens(refreshToken, new MockHttpServletResponse());
+    }
+}
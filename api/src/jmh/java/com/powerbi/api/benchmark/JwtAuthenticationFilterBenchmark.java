@@ -0,0 +1,99 @@
+package com.powerbi.api.benchmark;
+
+import com.powerbi.api.config.JwtAuthenticationFilter;
+import com.powerbi.api.config.JwtUtil;
+import com.powerbi.api.config.TokenCache;
+import com.powerbi.api.config.TokenRevocationStore;
+import com.powerbi.api.service.CookieService;
+import com.powerbi.api.service.UserService;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full pass through {@link JwtAuthenticationFilter} with mock servlet objects.
+ * The mock request, response and filter chain are created per invocation, as the container would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    /**
+     * Cookies carried by the request.
+     * VALID: unexpired access token, served from the token cache after the first request.
+     * VALID_UNCACHED: unexpired access token whose signature is verified on every request.
+     * EXPIRED: expired access token and no refresh token, so the request stays unauthenticated.
+     * EXPIRED_WITH_REFRESH: expired access token and a valid refresh token, so new tokens are minted.
+     * REFRESH_ONLY: no access token and a valid refresh token.
+     */
+    @Param({"VALID", "VALID_UNCACHED", "EXPIRED", "EXPIRED_WITH_REFRESH", "REFRESH_ONLY"})
+    public String scenario;
+
+    private JwtAuthenticationFilter filter;
+    private TokenCache tokenCache;
+    private Cookie[] cookies;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = AuthFixtures.jwtUtil(3600);
+        UserService userService = AuthFixtures.userService();
+        TokenRevocationStore revocationStore = AuthFixtures.revocationStore();
+        CookieService cookieService = AuthFixtures.cookieService(jwtUtil, userService, revocationStore);
+        tokenCache = AuthFixtures.tokenCache();
+        filter = new JwtAuthenticationFilter(jwtUtil, cookieService, tokenCache, revocationStore, userService);
+
+        String validToken = jwtUtil.generateToken(AuthFixtures.USERNAME, AuthFixtures.USER_ID);
+        String expiredToken = AuthFixtures.jwtUtil(-60).generateToken(AuthFixtures.USERNAME, AuthFixtures.USER_ID);
+        Cookie refreshCookie = new Cookie("refreshToken",
+                jwtUtil.generateRefreshToken(AuthFixtures.USERNAME, AuthFixtures.USER_ID));
+
+        accessToken = scenario.startsWith("VALID") ? validToken : expiredToken;
+        cookies = switch (scenario) {
+            case "VALID", "VALID_UNCACHED" -> new Cookie[] {new Cookie("token", validToken)};
+            case "EXPIRED" -> new Cookie[] {new Cookie("token", expiredToken)};
+            case "EXPIRED_WITH_REFRESH" -> new Cookie[] {new Cookie("token", expiredToken), refreshCookie};
+            case "REFRESH_ONLY" -> new Cookie[] {refreshCookie};
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws ServletException, IOException {
+        if ("VALID_UNCACHED".equals(scenario)) {
+            tokenCache.remove(accessToken);
+        }
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/channels");
+        request.setServletPath("/api/channels");
+        request.setCookies(cookies);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package com.powerbi.api.benchmark;
+
+import com.powerbi.api.config.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures token minting and verification in {@link JwtUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private JwtUtil jwtUtil;
+    private String validToken;
+    private String expiredToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = AuthFixtures.jwtUtil(3600);
+        validToken = jwtUtil.generateToken(AuthFixtures.USERNAME, AuthFixtures.USER_ID);
+        expiredToken = AuthFixtures.jwtUtil(-60).generateToken(AuthFixtures.USERNAME, AuthFixtures.USER_ID);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(AuthFixtures.USERNAME, AuthFixtures.USER_ID);
+    }
+
+    @Benchmark
+    public Boolean validateToken_Valid() {
+        return jwtUtil.validateToken(validToken, AuthFixtures.USERNAME);
+    }
+
+    @Benchmark
+    public Object validateToken_Expired() {
+        try {
+            return jwtUtil.validateToken(expiredToken, AuthFixtures.USERNAME);
+        } catch (JwtException e) {
+            return e;
+        }
+    }
+}
@@ -4,14 +4,17 @@ import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.web.config.EnableSpringDataWebSupport;
 
 /**
  * Entry point for the Power BI API application.
  * This class initializes and starts the Spring Boot application.
  * It also enables autoconfiguration and scans for components within the specified base package.
+ * Paged responses are serialized as their content plus a stable {@code page} metadata object.
  */
 @SpringBootApplication(scanBasePackages = {"com.powerbi.api"})
 @EnableAutoConfiguration
+@EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
 public class ApiApplication {
 	/**
      * Main method that serves as the entry point for the Power BI API application.
@@ -0,0 +1,23 @@
+package com.powerbi.api.config;
+
+import java.io.Serial;
+
+/**
+ * Thrown when the credentials presented at login cannot be verified, such as an ID token with
+ * a bad signature, issuer or audience. Mapped to a 401 Unauthorized response by
+ * {@link GlobalExceptionHandler}.
+ */
+public class AuthenticationFailedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception with a message naming the failed check and its cause.
+     *
+     * @param message the message returned to the client
+     * @param cause   the failure reported by the check
+     */
+    public AuthenticationFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
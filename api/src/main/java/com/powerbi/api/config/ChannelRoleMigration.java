@@ -0,0 +1,92 @@
+package com.powerbi.api.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * One-off migration folding the legacy {@code channel_owner}, {@code channel_admin} and
+ * {@code channel_member} tables into the unified {@code channel_role} table.
+ *
+ * Runs at startup, after Hibernate has created {@code channel_role} and {@link SequenceIdMigration}
+ * has restored its rows, and before requests are served.
+ * Owners are copied first, then admins, then members, so a user holding several legacy roles in
+ * a channel keeps the highest one. Each legacy table is dropped once its rows are copied, which
+ * makes the migration a no-op on every later start.
+ */
+@Component
+@DependsOn({"entityManagerFactory", "sequenceIdMigration"})
+public class ChannelRoleMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ChannelRoleMigration.class);
+
+    /** Legacy tables with the role their rows fold into, highest role first. */
+    private static final List<String[]> LEGACY_TABLES = List.of(
+            new String[] {"channel_owner", "OWNER"},
+            new String[] {"channel_admin", "ADMIN"},
+            new String[] {"channel_member", "MEMBER"}
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Copies every legacy role row not yet in {@code channel_role}, then drops the legacy tables.
+     */
+    @PostConstruct
+    public void migrate() {
+        for (String[] legacyTable : LEGACY_TABLES) {
+            String table = legacyTable[0];
+            String role = legacyTable[1];
+            if (!tableExists(table)) {
+                continue;
+            }
+
+            Integer copied = transactionTemplate.execute(status -> {
+                // Duplicate legacy rows collapse to the earliest one
+                // IDs are drawn from the sequence Hibernate allocates them from; it cannot sit next to GROUP BY
+                int rows = jdbcTemplate.update(
+                        "INSERT INTO channel_role (id, role, user_id, channel_id, date_created) "
+                                + "SELECT NEXT VALUE FOR channel_role_seq, ?, g.user_id, g.channel_id, g.date_created FROM ("
+                                + "SELECT l.user_id, l.channel_id, MIN(l.date_created) AS date_created FROM " + table + " l "
+                                + "WHERE NOT EXISTS (SELECT 1 FROM channel_role r "
+                                + "WHERE r.user_id = l.user_id AND r.channel_id = l.channel_id) "
+                                + "GROUP BY l.user_id, l.channel_id) g",
+                        role
+                );
+                jdbcTemplate.execute("DROP TABLE " + table);
+                return rows;
+            });
+            logger.info("Folded {} rows of {} into channel_role as {}", copied, table, role);
+        }
+    }
+
+    /**
+     * Checks for a table in the current schema, whatever case the database reports names in.
+     */
+    private boolean tableExists(String table) {
+        Boolean exists = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : List.of(table, table.toUpperCase())) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[] {"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
@@ -20,6 +20,9 @@ import java.util.NoSuchElementException;
  * - AccessDeniedException: Returns a 403 Forbidden status.
  * - NoSuchElementException: Returns a 404 Not Found status.
  * - ResourceNotFoundException: Returns a 404 Not Found status.
+ * - InvalidRequestException: Returns a 400 Bad Request status.
+ * - AuthenticationFailedException: Returns a 401 Unauthorized status.
+ * - UpstreamServiceException: Returns a 502 Bad Gateway status.
  * - RuntimeException: Returns a 500 Internal Server Error status.
  */
 @ControllerAdvice
@@ -72,6 +75,42 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>("Resource not found: " + ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles InvalidRequestException, such as an unknown sort property or a malformed paging cursor, and returns a 400 Bad Request response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error message and HTTP status
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleInvalidRequestException(InvalidRequestException ex) {
+        return new ResponseEntity<>("Bad request: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles AuthenticationFailedException, such as a login ID token that fails verification, and returns a 401 Unauthorized response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error message and HTTP status
+     */
+    @ExceptionHandler(AuthenticationFailedException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ResponseEntity<String> handleAuthenticationFailedException(AuthenticationFailedException ex) {
+        return new ResponseEntity<>("Authentication failed: " + ex.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
+
+    /**
+     * Handles UpstreamServiceException, such as Azure AD failing to answer a login, and returns a 502 Bad Gateway response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error message and HTTP status
+     */
+    @ExceptionHandler(UpstreamServiceException.class)
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public ResponseEntity<String> handleUpstreamServiceException(UpstreamServiceException ex) {
+        return new ResponseEntity<>("Bad gateway: " + ex.getMessage(), HttpStatus.BAD_GATEWAY);
+    }
+
     /**
      * Handles RuntimeException and returns a 500 Internal Server Error response.
      *
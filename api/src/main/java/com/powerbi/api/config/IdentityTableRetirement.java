@@ -0,0 +1,176 @@
+package com.powerbi.api.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * First half of the one-off migration from identity columns to sequence-generated IDs, see
+ * {@link SequenceIdMigration} for the second half.
+ *
+ * SQL Server cannot drop the identity property of a column in place, so before Hibernate builds
+ * its schema every entity table whose {@code id} is still an identity column is renamed to
+ * {@code <table>_identity}, after dropping the foreign keys and unique constraints touching it,
+ * whose names would otherwise clash with the ones Hibernate recreates. Its sequence is created
+ * starting one allocation past the highest ID in use, so the first pooled block Hibernate takes
+ * begins right after it. Hibernate then creates the tables afresh, with plain {@code id} columns,
+ * and the rows are copied back once it is done.
+ *
+ * Each table is retired in its own transaction, which SQL Server applies to its DDL as well, and
+ * every step first checks whether it is still needed: a start cut short leaves each table either
+ * untouched or fully retired, and the next start carries on from there. A retired table whose
+ * sequence is missing, as an earlier version of this migration could leave behind, gets one too.
+ * Databases without identity tables are left alone. The first start after this change needs the
+ * application's exclusive use of the database until both halves have run.
+ */
+@Component
+public class IdentityTableRetirement {
+    private static final Logger logger = LoggerFactory.getLogger(IdentityTableRetirement.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Retires every entity table that still has an identity {@code id} column, and makes sure
+     * every retired table has its sequence.
+     */
+    @PostConstruct
+    public void retire() {
+        // Runs before the entity manager factory, and with it the application's transaction manager, exists
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        boolean sqlServer = "Microsoft SQL Server".equals(
+                jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName()));
+        for (Map.Entry<String, String> table : SequenceIdMigration.TABLES.entrySet()) {
+            transactionTemplate.executeWithoutResult(status -> retire(table.getKey(), table.getValue(), sqlServer));
+        }
+    }
+
+    /**
+     * Renames one table out of the way if its {@code id} is still an identity column, then
+     * creates its sequence if the retired table has none yet.
+     */
+    private void retire(String table, String sequence, boolean sqlServer) {
+        String current = findTable(table);
+        if (current != null && isIdentity(current)) {
+            dropConstraints(current);
+            String retired = current + (current.equals(current.toUpperCase(Locale.ROOT))
+                    ? SequenceIdMigration.RETIRED_SUFFIX.toUpperCase(Locale.ROOT)
+                    : SequenceIdMigration.RETIRED_SUFFIX);
+            jdbcTemplate.execute(sqlServer
+                    ? "EXEC sp_rename '[" + current + "]', '" + retired + "'"
+                    : "ALTER TABLE \"" + current + "\" RENAME TO \"" + retired + "\"");
+            logger.info("Retired identity table {}", table);
+        }
+
+        String retired = findTable(table + SequenceIdMigration.RETIRED_SUFFIX);
+        if (retired != null && !sequenceExists(sequence)) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM \"" + retired + "\"", Long.class);
+            jdbcTemplate.execute("CREATE SEQUENCE " + sequence
+                    + " START WITH " + (maxId + SequenceIdMigration.ALLOCATION_SIZE)
+                    + " INCREMENT BY " + SequenceIdMigration.ALLOCATION_SIZE);
+            logger.info("Created sequence {} past the IDs of {}, up to {}", sequence, table, maxId);
+        }
+    }
+
+    /**
+     * Drops the foreign keys of a table and referencing it, then its unique constraints, so no
+     * unique constraint is still referenced when it is dropped.
+     */
+    private void dropConstraints(String table) {
+        Map<String, String> constraints = new LinkedHashMap<>();  // Name to the table it belongs to
+        jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (ResultSet keys : List.of(
+                    metaData.getImportedKeys(connection.getCatalog(), null, table),
+                    metaData.getExportedKeys(connection.getCatalog(), null, table))) {
+                try (keys) {
+                    while (keys.next()) {
+                        constraints.put(keys.getString("FK_NAME"), keys.getString("FKTABLE_NAME"));
+                    }
+                }
+            }
+            return null;
+        });
+        jdbcTemplate.queryForList(
+                "SELECT constraint_name FROM information_schema.table_constraints "
+                        + "WHERE table_name = ? AND constraint_type = 'UNIQUE'",
+                String.class, table
+        ).forEach(name -> constraints.put(name, table));
+
+        constraints.forEach((name, owner) ->
+                jdbcTemplate.execute("ALTER TABLE \"" + owner + "\" DROP CONSTRAINT \"" + name + "\""));
+    }
+
+    /**
+     * Finds a table in the current schema under its name or its upper-case name, as databases
+     * differ in the case they store unquoted names in.
+     *
+     * @return the name the table is stored under, or null if it does not exist
+     */
+    @Nullable
+    private String findTable(String table) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : List.of(table, table.toUpperCase(Locale.ROOT))) {
+                try (ResultSet rows = metaData.getTables(connection.getCatalog(), null, name, null)) {
+                    while (rows.next()) {
+                        // The name is a pattern, in which "_" matches any character
+                        if (rows.getString("TABLE_NAME").equals(name)) {
+                            return name;
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private boolean isIdentity(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, table, null)) {
+                while (columns.next()) {
+                    if (columns.getString("COLUMN_NAME").equalsIgnoreCase("id")) {
+                        return "YES".equals(columns.getString("IS_AUTOINCREMENT"));
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    private boolean sequenceExists(String sequence) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.sequences WHERE UPPER(sequence_name) = ?",
+                Integer.class, sequence.toUpperCase(Locale.ROOT));
+        return count != null && count > 0;
+    }
+
+    /**
+     * Makes the entity manager factory wait for the retirement, so Hibernate only builds its
+     * schema once the identity tables are out of the way.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnRetirement extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependsOnRetirement() {
+            super(IdentityTableRetirement.class);
+        }
+    }
+}
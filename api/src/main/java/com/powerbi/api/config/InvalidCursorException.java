@@ -0,0 +1,23 @@
+package com.powerbi.api.config;
+
+import java.io.Serial;
+
+/**
+ * Thrown when a paging cursor sent by the client cannot be decoded, for instance because it was
+ * altered or not issued by this API. Mapped to a 400 Bad Request response, like every other
+ * {@link InvalidRequestException}.
+ */
+public class InvalidCursorException extends InvalidRequestException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception with a message naming the rejected cursor's kind.
+     *
+     * @param message the message returned to the client
+     * @param cause the decoding failure
+     */
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
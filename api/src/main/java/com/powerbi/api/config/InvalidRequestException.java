@@ -0,0 +1,32 @@
+package com.powerbi.api.config;
+
+import java.io.Serial;
+
+/**
+ * Thrown when a request parameter supplied by the client is invalid, such as an unknown sort
+ * property. Mapped to a 400 Bad Request response by {@link GlobalExceptionHandler}; failures of
+ * the application itself keep surfacing as server errors.
+ */
+public class InvalidRequestException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception with a message naming the invalid parameter.
+     *
+     * @param message the message returned to the client
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates the exception with a message naming the invalid parameter and the failure it caused.
+     *
+     * @param message the message returned to the client
+     * @param cause   the failure raised by the invalid parameter
+     */
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,6 +1,9 @@
 package com.powerbi.api.config;
 
 import com.powerbi.api.service.CookieService;
+import com.powerbi.api.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -10,22 +13,33 @@ import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.NoSuchElementException;
 
 /**
  * Filter for handling JWT-based authentication.
  * Extracts JWT tokens from cookies, validates them, and sets the authentication context.
  * 
- * If a valid refresh token is found, it refreshes the access token.
+ * If the access token is missing or within the configured refresh window of its expiry,
+ * a valid refresh token is used to mint a new pair of tokens.
+ * Tokens revoked on logout are rejected from memory, without a database lookup.
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    /** Endpoint that rotates tokens explicitly, so the filter leaves refreshing to it. */
+    public static final String REFRESH_PATH = "/api/auth/refresh";
+
+    /** Endpoint that revokes the current tokens, so the filter must not mint new ones for it. */
+    public static final String LOGOUT_PATH = "/api/auth/logout";
+
     private final JwtUtil jwtUtil;
     private final CookieService cookieService;
+    private final TokenCache tokenCache;
+    private final TokenRevocationStore revocationStore;
+    private final UserService userService;
 
     /**
      * Constructor for JwtAuthenticationFilter. 
@@ -33,10 +47,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      *
      * @param jwtUtil the utility class for handling JWT operations
      * @param cookieService the service for managing cookies
+     * @param tokenCache the cache of already verified tokens
+     * @param revocationStore the store of tokens revoked on logout
+     * @param userService the service for resolving the authenticated principal
      */
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CookieService cookieService) {
+    public JwtAuthenticationFilter(
+            JwtUtil jwtUtil,
+            CookieService cookieService,
+            TokenCache tokenCache,
+            TokenRevocationStore revocationStore,
+            UserService userService
+    ) {
         this.jwtUtil = jwtUtil;
         this.cookieService = cookieService;
+        this.tokenCache = tokenCache;
+        this.revocationStore = revocationStore;
+        this.userService = userService;
     }
 
     /**
@@ -68,30 +94,75 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        if (refreshToken != null) {
+        // Verify the access token and resolve its principal once, then reuse both from the cache
+        TokenCache.CachedToken authenticated = token != null ? tokenCache.get(token, this::resolve) : null;
+        Claims claims = authenticated != null ? authenticated.claims() : null;
+        if (claims != null &&
+                (!jwtUtil.validateClaims(claims, claims.getSubject()) || revocationStore.isRevoked(claims))) {
+            authenticated = null;
+            claims = null;
+        }
+
+        // Only re-mint tokens when the access token is missing or about to expire
+        String path = request.getServletPath();
+        if (refreshToken != null && !REFRESH_PATH.equals(path) && !LOGOUT_PATH.equals(path) &&
+                (claims == null || jwtUtil.isWithinRefreshWindow(claims))) {
             try {
-                token = cookieService.refreshTokens(request, response);  // Refresh tokens if refresh token is valid
+                token = cookieService.refreshTokens(refreshToken, response);  // Refresh tokens if refresh token is valid
+                authenticated = tokenCache.get(token, this::resolve);
             } catch (Exception e) {
-                // Handle the error (invalid refresh token, etc.)
-                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Invalid refresh token");
-                return;
+                // Fall back to the current access token while it is still valid
+                if (claims == null) {
+                    response.sendError(HttpStatus.UNAUTHORIZED.value(), "Invalid refresh token");
+                    return;
+                }
             }
         }
 
-        if (token != null) {
-            String username = jwtUtil.getUsernameFromToken(token);
+        if (authenticated != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            authenticate(request, authenticated.principal());
+        }
+        filterChain.doFilter(request, response);
+    }
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(token, username)) {
-                    User userDetails = new User(username, "", Collections.emptyList());
+    /**
+     * Verifies a token and resolves the principal it authenticates, for the token cache.
+     * The principal carries the user ID from the token and the cached super user flag,
+     * so downstream services do not need to look the user up by email.
+     *
+     * @param token the JWT token
+     * @return the verified claims and principal, or null if the token could not be verified
+     *         or its user was deleted, which leaves the request unauthenticated
+     */
+    private TokenCache.CachedToken resolve(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
 
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
-            }
+        Long userId = jwtUtil.getUserId(claims);
+        try {
+            UserPrincipal principal = userId != null
+                    ? userService.getPrincipal(userId, claims.getSubject())
+                    : userService.getPrincipal(claims.getSubject());  // Token minted before the user ID claim
+            return new TokenCache.CachedToken(claims, principal);
+        } catch (NoSuchElementException e) {
+            return null;
         }
-        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Sets the security context to the principal of a verified token.
+     *
+     * @param request the HTTP request
+     * @param principal the principal the access token authenticates
+     */
+    private void authenticate(HttpServletRequest request, UserPrincipal principal) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 }
@@ -1,6 +1,7 @@
 package com.powerbi.api.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -17,6 +19,9 @@ import java.util.function.Function;
  */
 @Component
 public class JwtUtil {
+    /** Claim holding the numeric user ID, so requests can be authorized without an email lookup. */
+    public static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.secret:defaultSecretKey}")
     private String secret;
 
@@ -26,25 +31,32 @@ public class JwtUtil {
     @Value("${jwt.refreshExpiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.refreshWindow:300}")
+    private long refreshWindow;
+
     /**
-     * Generates a JWT token for the given username.
+     * Generates a JWT token for the given user.
      *
      * @param username the username for which the token is generated
+     * @param userId the ID of the user, stored in the {@value #USER_ID_CLAIM} claim
      * @return the generated JWT token
      */
-    public String generateToken(String username) {
+    public String generateToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userId);
         return createToken(claims, username, expiration);
     }
 
     /**
-     * Generates a refresh token for the given username.
+     * Generates a refresh token for the given user.
      *
      * @param username the username for which the refresh token is generated
+     * @param userId the ID of the user, stored in the {@value #USER_ID_CLAIM} claim
      * @return the generated refresh token
      */
-    public String generateRefreshToken(String username) {
+    public String generateRefreshToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userId);
         return createToken(claims, username, refreshExpiration);
     }
 
@@ -52,6 +64,7 @@ public class JwtUtil {
         long expirationTimeInMillis = expirationTime * 1000;
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())  // Token ID, so the token can be revoked on logout
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTimeInMillis))
@@ -59,6 +72,44 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Parses and verifies a JWT token once, returning its claims.
+     * The signature is checked a single time, so callers that need the subject,
+     * expiry and any other claim should read them from the returned object
+     * instead of calling the per-claim getters repeatedly.
+     *
+     * @param token the JWT token to parse
+     * @return the verified claims of the token
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Validates already verified claims for the given username.
+     *
+     * @param claims the claims returned by {@link #parseClaims(String)}
+     * @param username the username to validate against
+     * @return true if the claims belong to the username and have not expired, false otherwise
+     */
+    public boolean validateClaims(Claims claims, String username) {
+        return username != null
+                && username.equals(claims.getSubject())
+                && !claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Checks if verified claims are close enough to expiry that the token should be re-minted.
+     *
+     * @param claims the claims returned by {@link #parseClaims(String)}
+     * @return true if the token expires within the configured refresh window, false otherwise
+     */
+    public boolean isWithinRefreshWindow(Claims claims) {
+        long refreshAfter = claims.getExpiration().getTime() - refreshWindow * 1000;
+        return System.currentTimeMillis() >= refreshAfter;
+    }
+
     /**
      * Validates a JWT token for the given username.
      *
@@ -67,8 +118,7 @@ public class JwtUtil {
      * @return true if the token is valid, false otherwise
      */
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = getUsernameFromToken(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        return validateClaims(parseClaims(token), username);
     }
 
     /**
@@ -81,6 +131,17 @@ public class JwtUtil {
         return getClaimFromToken(token, Claims::getSubject);
     }
 
+    /**
+     * Extracts the user ID from verified claims.
+     *
+     * @param claims the claims returned by {@link #parseClaims(String)}
+     * @return the user ID, or null for tokens minted without the {@value #USER_ID_CLAIM} claim
+     */
+    public Long getUserId(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
     public Date getExpirationDateFromToken(String token) {
         return getClaimFromToken(token, Claims::getExpiration);
     }
@@ -90,12 +151,7 @@ public class JwtUtil {
     }
 
     private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
-        return claimsResolver.apply(claims);
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return getExpirationDateFromToken(token).before(new Date());
+        return claimsResolver.apply(parseClaims(token));
     }
 }
 
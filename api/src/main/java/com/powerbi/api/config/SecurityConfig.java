@@ -1,6 +1,7 @@
 package com.powerbi.api.config;
 
 import com.powerbi.api.service.CookieService;
+import com.powerbi.api.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,7 +25,13 @@ public class SecurityConfig {
     @Autowired
     private JwtUtil jwtUtil;
     @Autowired
-    private CookieService cookieService;    
+    private CookieService cookieService;
+    @Autowired
+    private TokenCache tokenCache;
+    @Autowired
+    private TokenRevocationStore revocationStore;
+    @Autowired
+    private UserService userService;
 
     /**
      * Configures the security filter chain.
@@ -41,11 +48,18 @@ public class SecurityConfig {
         http.authorizeHttpRequests(
             (authorize) ->
                 authorize
-                .requestMatchers("/api/auth/login").permitAll()
+                .requestMatchers(
+                        "/api/auth/login",
+                        JwtAuthenticationFilter.REFRESH_PATH,
+                        JwtAuthenticationFilter.LOGOUT_PATH
+                ).permitAll()
                 .anyRequest().authenticated()
         );
 
-        http.addFilterBefore(new JwtAuthenticationFilter(jwtUtil, cookieService), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(
+                new JwtAuthenticationFilter(jwtUtil, cookieService, tokenCache, revocationStore, userService),
+                UsernamePasswordAuthenticationFilter.class
+        );
 
         return http.build();
     }
@@ -0,0 +1,121 @@
+package com.powerbi.api.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Second half of the one-off migration from identity columns to sequence-generated IDs, after
+ * {@link IdentityTableRetirement} has renamed the identity tables out of Hibernate's way.
+ *
+ * Runs at startup, once Hibernate has recreated the entity tables. The rows of every retired
+ * {@code <table>_identity} table are copied into the new table with their IDs unchanged, parents
+ * before children so the recreated foreign keys hold, and the retired table is dropped in the
+ * same transaction. Rows breaking a unique constraint the new table adds collapse to the earliest,
+ * such as a channel link placed in the same cluster twice. That makes the migration a no-op on every later start, and lets a start cut
+ * short carry on from the first table not yet copied.
+ */
+@Component("sequenceIdMigration")  // Named for the @DependsOn of ChannelRoleMigration, also when imported
+@DependsOn("entityManagerFactory")
+public class SequenceIdMigration {
+    private static final Logger logger = LoggerFactory.getLogger(SequenceIdMigration.class);
+
+    /** Entity tables with the sequence their IDs are drawn from, parents before children. */
+    static final Map<String, String> TABLES = new LinkedHashMap<>();
+    static {
+        TABLES.put("user", "user_seq");
+        TABLES.put("super_user", "super_user_seq");
+        TABLES.put("channel", "channel_seq");
+        TABLES.put("link", "link_seq");
+        TABLES.put("channel_link", "channel_link_seq");
+        TABLES.put("channel_role", "channel_role_seq");
+        TABLES.put("cluster", "cluster_seq");
+        TABLES.put("cluster_link", "cluster_link_seq");
+    }
+
+    /** Rows kept when copying a table whose new unique constraints its rows may break; duplicates collapse to the earliest. */
+    private static final Map<String, String> KEPT_ROWS = Map.of(
+            "cluster_link", "id IN (SELECT MIN(id) FROM cluster_link_identity GROUP BY cluster_id, channel_link_id)"
+    );
+
+    /** Suffix of a retired identity table's name. */
+    static final String RETIRED_SUFFIX = "_identity";
+
+    /** Number of IDs Hibernate takes from a sequence at a time, matching the entities' generators. */
+    static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Copies the rows of every retired identity table into its new table, then drops it.
+     */
+    @PostConstruct
+    public void migrate() {
+        for (String table : TABLES.keySet()) {
+            String retired = table + RETIRED_SUFFIX;
+            List<String> retiredColumns = columns(retired);
+            if (retiredColumns.isEmpty()) {
+                continue;
+            }
+
+            // Columns the entity no longer maps are left behind with the retired table
+            List<String> shared = new ArrayList<>(retiredColumns);
+            shared.retainAll(columns(table));
+            String columnList = String.join(", ", shared);
+            String keptRows = KEPT_ROWS.containsKey(table) ? " WHERE " + KEPT_ROWS.get(table) : "";
+            Integer copied = transactionTemplate.execute(status -> {
+                int rows = jdbcTemplate.update("INSERT INTO " + quote(table) + " (" + columnList + ") "
+                        + "SELECT " + columnList + " FROM " + retired + keptRows);
+                jdbcTemplate.execute("DROP TABLE " + retired);
+                return rows;
+            });
+            logger.info("Copied {} rows of {} into {}", copied, retired, table);
+        }
+    }
+
+    /**
+     * Quotes the tables whose names are reserved words, as the entities do.
+     */
+    private static String quote(String table) {
+        return table.equals("user") ? "\"user\"" : table;
+    }
+
+    /**
+     * Lists the lower-case column names of a table in the current schema, whatever case the
+     * database reports names in, or none if the table does not exist.
+     */
+    private List<String> columns(String table) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            List<String> columns = new ArrayList<>();
+            for (String name : List.of(table, table.toUpperCase(Locale.ROOT))) {
+                try (ResultSet rows = metaData.getColumns(connection.getCatalog(), null, name, null)) {
+                    while (rows.next()) {
+                        columns.add(rows.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+                if (!columns.isEmpty()) {
+                    break;
+                }
+            }
+            return columns;
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package com.powerbi.api.config;
+
+import com.powerbi.api.service.CacheInvalidation;
+import com.powerbi.api.service.PermissionService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of authenticated tokens, keyed by the SHA-256 digest of the token.
+ * Maps each token to the principal it authenticates, resolved once, together with its verified
+ * claims, so parallel requests carrying the same cookie skip both the HS512 signature check and
+ * the user lookup. The claims carry the expiry, and the token ID still checked for revocation
+ * on every request.
+ *
+ * Entries never outlive the token's own expiry. When the cache is full, expired entries
+ * are dropped first, then the entries closest to expiry. Inserts are serialized, so concurrent
+ * misses cannot push the cache past its bound, while lookups stay lock-free. The cached claims
+ * are a read-only copy, shared by every request presenting the token.
+ *
+ * A principal goes stale when its user is deleted or gains or loses super user status, so every
+ * user-wide permission invalidation applied on this node, whichever node published it, drops
+ * the user's tokens; they are resolved again on their next use.
+ * Hit and miss counters are kept so the cache can be sized from real traffic.
+ */
+@Component
+public class TokenCache {
+    @Value("${jwt.cache.maxSize:10000}")
+    private int maxSize;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    private final Map<String, CachedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Incremented on every eviction by user, so a token resolved while one was applied is not cached. */
+    private final AtomicLong userEvictions = new AtomicLong();
+
+    /**
+     * A verified token and the principal it authenticates.
+     *
+     * @param claims    the verified claims of the token, read-only
+     * @param principal the principal resolved from the claims
+     */
+    public record CachedToken(Claims claims, UserPrincipal principal) {
+    }
+
+    /**
+     * Follows the permission invalidations applied on this node, whichever node published them.
+     */
+    @PostConstruct
+    void subscribeToInvalidations() {
+        permissionService.addInvalidationListener(this::applyInvalidation);
+    }
+
+    /**
+     * Returns the cached entry for a token, resolving and caching it on a miss or expired entry.
+     *
+     * @param token    the raw JWT token
+     * @param resolver verifies the token and resolves its principal, returning null if it does not authenticate
+     * @return the verified claims and principal, or null if the token does not authenticate
+     */
+    public CachedToken get(String token, Function<String, CachedToken> resolver) {
+        String key = digest(token);
+        CachedToken cached = entries.get(key);
+        if (cached != null && !isExpired(cached, System.currentTimeMillis())) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        if (cached != null) {
+            entries.remove(key, cached);
+        }
+        misses.incrementAndGet();
+
+        long evictionsBefore = userEvictions.get();
+        CachedToken resolved = resolver.apply(token);
+        if (resolved != null && resolved.claims().getExpiration() != null) {
+            resolved = new CachedToken(
+                    Jwts.claims(Collections.unmodifiableMap(new LinkedHashMap<>(resolved.claims()))),
+                    resolved.principal());
+            put(key, resolved, evictionsBefore);
+        }
+        return resolved;
+    }
+
+    /**
+     * Removes a token from the cache.
+     *
+     * @param token the raw JWT token
+     */
+    public void remove(String token) {
+        entries.remove(digest(token));
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Caches a resolved token until it expires, unless a user was evicted while it was resolved.
+     */
+    private synchronized void put(String key, CachedToken cachedToken, long evictionsBefore) {
+        if (maxSize <= 0 || userEvictions.get() != evictionsBefore) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict();
+        }
+        entries.put(key, cachedToken);
+    }
+
+    /**
+     * Frees space by dropping expired entries, then the tenth of entries closest to expiry.
+     * Evicting in bulk keeps the sort off the path of most inserts once the cache is full.
+     * Called with the lock held by {@link #put}.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(cachedToken -> isExpired(cachedToken, now));
+        if (entries.size() < maxSize) {
+            return;
+        }
+
+        List<Map.Entry<String, CachedToken>> oldest = new ArrayList<>(entries.entrySet());
+        oldest.sort(Comparator.comparing(entry -> entry.getValue().claims().getExpiration()));
+        int toRemove = Math.max(1, maxSize / 10);
+        for (int i = 0; i < toRemove && i < oldest.size(); i++) {
+            entries.remove(oldest.get(i).getKey());
+        }
+    }
+
+    /**
+     * Drops the tokens of a user whose existence or super user status may have changed.
+     * Role changes within a channel leave principals alone.
+     */
+    void applyInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.cache() != CacheInvalidation.Cache.PERMISSIONS || invalidation.channelId() != null) {
+            return;
+        }
+        userEvictions.incrementAndGet();
+        entries.values().removeIf(cachedToken ->
+                invalidation.userId() == null || invalidation.userId().equals(cachedToken.principal().getId()));
+    }
+
+    private static boolean isExpired(CachedToken cachedToken, long now) {
+        return cachedToken.claims().getExpiration().getTime() <= now;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
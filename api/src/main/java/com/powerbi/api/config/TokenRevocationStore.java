@@ -0,0 +1,230 @@
+package com.powerbi.api.config;
+
+import com.powerbi.api.model.RevokedToken;
+import com.powerbi.api.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Store of revoked tokens, keyed by the token ID (jti claim).
+ * Checked by {@link JwtAuthenticationFilter} on every request, from memory, so checks never
+ * touch the database.
+ *
+ * A bloom filter sits in front of an exact map of token ID to expiry. Tokens that were never
+ * revoked are almost always rejected by the filter alone, without hashing into the map.
+ *
+ * Revocations are also written to the shared {@code revoked_token} table. Every node loads the
+ * revocations still in force on startup and then polls the table for new ones at a configurable
+ * interval, so a logout on one node reaches every node within that interval and survives restarts.
+ * Entries are kept only until the token would have expired anyway; expired entries are purged,
+ * in memory and in the table, and the filter rebuilt once per purge interval.
+ */
+@Component
+public class TokenRevocationStore {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private static final int HASH_FUNCTIONS = 7;
+    private static final long PURGE_INTERVAL_MILLIS = 10 * 60 * 1000;
+
+    /** Revocations polled again from before the last poll, covering clock skew between nodes. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    /** Sized for about 1% false positives at this many revoked, unexpired tokens. */
+    @Value("${jwt.revocation.expectedTokens:100000}")
+    private int expectedTokens;
+
+    @Value("${jwt.revocation.syncInterval:5}")
+    private long syncInterval;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray bits;
+    private long nextPurgeAt;
+    private Instant lastSyncAt;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "token-revocation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Loads the revocations still in force, then starts polling for new ones and purging
+     * expired ones in the background.
+     */
+    @PostConstruct
+    void start() {
+        sync();
+        scheduler.scheduleWithFixedDelay(() -> runSafely("sync", this::sync), syncInterval, syncInterval, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely("purge", this::purgeExpired),
+                PURGE_INTERVAL_MILLIS, PURGE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background polling and purging.
+     */
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Revokes a verified token until its expiry, on this node at once and on every other node
+     * at its next poll.
+     *
+     * @param claims the claims of the token to revoke
+     */
+    public void revoke(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null || claims.getExpiration() == null) {
+            return;  // Tokens minted before the jti claim cannot be revoked individually
+        }
+
+        record(tokenId, claims.getExpiration().getTime());
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(tokenId);
+        revokedToken.setExpiresAt(claims.getExpiration().toInstant());
+        revokedTokenRepository.save(revokedToken);
+    }
+
+    /**
+     * Picks up the revocations made on any node since the last poll, or every revocation still
+     * in force on the first call.
+     */
+    void sync() {
+        Instant now = Instant.now();
+        List<RevokedToken> revokedTokens = lastSyncAt == null
+                ? revokedTokenRepository.findByExpiresAtAfter(now)
+                : revokedTokenRepository.findByDateRevokedGreaterThanEqual(lastSyncAt.minus(SYNC_OVERLAP));
+        revokedTokens.forEach(revokedToken ->
+                record(revokedToken.getTokenId(), revokedToken.getExpiresAt().toEpochMilli()));
+        lastSyncAt = now;
+    }
+
+    /**
+     * Drops expired revocations from memory and from the shared table.
+     */
+    void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            purge(now);
+        }
+        revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+    }
+
+    /**
+     * Checks if a verified token has been revoked.
+     *
+     * @param claims the claims of the token to check
+     * @return true if the token was revoked and has not expired yet, false otherwise
+     */
+    public boolean isRevoked(Claims claims) {
+        String tokenId = claims.getId();
+        AtomicLongArray current = bits;
+        if (tokenId == null || current == null || !mightContain(current, tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public int getSize() {
+        return revoked.size();
+    }
+
+    /**
+     * Adds a revocation to memory, purging expired entries first once per purge interval.
+     */
+    private synchronized void record(String tokenId, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (bits == null || now >= nextPurgeAt) {
+            purge(now);
+        }
+        revoked.put(tokenId, expiresAt);
+        setBits(bits, tokenId);
+    }
+
+    private static void runSafely(String task, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            logger.warn("Token revocation {} failed, retrying at the next interval", task, e);
+        }
+    }
+
+    /**
+     * Drops entries whose tokens have expired and rebuilds the bloom filter from the rest,
+     * since bits cannot be removed from a bloom filter individually.
+     */
+    private void purge(long now) {
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        AtomicLongArray rebuilt = new AtomicLongArray(wordCount());
+        revoked.keySet().forEach(tokenId -> setBits(rebuilt, tokenId));
+        bits = rebuilt;
+        nextPurgeAt = now + PURGE_INTERVAL_MILLIS;
+    }
+
+    private int wordCount() {
+        // m = -n ln(p) / ln(2)^2 bits, about 9.6 bits per token for p = 0.01
+        long bitCount = (long) Math.ceil(-Math.max(expectedTokens, 1) * Math.log(0.01) / (Math.log(2) * Math.log(2)));
+        return (int) Math.max(1, (bitCount + 63) / 64);
+    }
+
+    private static void setBits(AtomicLongArray words, String tokenId) {
+        long bitCount = (long) words.length() * 64;
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            words.getAndUpdate(word, value -> value | mask);
+        }
+    }
+
+    private static boolean mightContain(AtomicLongArray words, String tokenId) {
+        long bitCount = (long) words.length() * 64;
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a hash, split into the two 32-bit hashes combined for each bloom filter probe.
+     */
+    private static long hash(String tokenId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            hash ^= tokenId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
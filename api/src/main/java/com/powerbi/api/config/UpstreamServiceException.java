@@ -0,0 +1,23 @@
+package com.powerbi.api.config;
+
+import java.io.Serial;
+
+/**
+ * Thrown when a service the application depends on, such as the Azure AD tenant, fails to answer
+ * or answers with an error. Mapped to a 502 Bad Gateway response by {@link GlobalExceptionHandler},
+ * so these outages are told apart from failures of the application itself.
+ */
+public class UpstreamServiceException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception with a message naming the failed call and its cause.
+     *
+     * @param message the message returned to the client
+     * @param cause   the failure reported by the call
+     */
+    public UpstreamServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
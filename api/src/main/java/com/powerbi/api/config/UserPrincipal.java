@@ -0,0 +1,48 @@
+package com.powerbi.api.config;
+
+/**
+ * Authenticated principal placed in the security context by {@link JwtAuthenticationFilter}.
+ * Carries the user's ID and super user flag alongside the email, so services can
+ * authorize a request without looking the user up by email first.
+ */
+public class UserPrincipal {
+    private final Long id;
+    private final String email;
+    private final boolean superUser;
+
+    /**
+     * Constructor for UserPrincipal.
+     *
+     * @param id the ID of the user
+     * @param email the email of the user, which is also the token subject
+     * @param superUser whether the user is a super user
+     */
+    public UserPrincipal(Long id, String email, boolean superUser) {
+        this.id = id;
+        this.email = email;
+        this.superUser = superUser;
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Returns the email of the user, matching the username of the token subject.
+     *
+     * @return the email of the user
+     */
+    public String getUsername() {
+        return email;
+    }
+
+    public boolean isSuperUser() {
+        return superUser;
+    }
+}
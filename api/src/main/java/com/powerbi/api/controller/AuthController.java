@@ -1,34 +1,31 @@
 package com.powerbi.api.controller;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.interfaces.DecodedJWT;
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.config.JwtUtil;
+import com.powerbi.api.config.TokenCache;
 import com.powerbi.api.model.User;
+import com.powerbi.api.service.AzureAuthService;
 import com.powerbi.api.service.CookieService;
+import com.powerbi.api.service.PermissionService;
 import com.powerbi.api.service.UserService;
-import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * Controller that handles authentication and token management.
@@ -38,25 +35,7 @@ import java.util.Objects;
 @RequestMapping("/api/auth")
 public class AuthController {
     @Autowired
-    private WebClient.Builder webClientBuilder;
-
-    @Value("${spring.cloud.azure.active-directory.profile.tenant-id}")
-    private String tenantId;
-
-    @Value("${spring.cloud.azure.active-directory.credential.client-id}")
-    private String clientId;
-
-    @Value("${spring.cloud.azure.active-directory.credential.client-secret}")
-    private String clientSecret;
-
-    @Value("${azure.redirect-uri}")
-    private String redirectUri;
-
-    @Value("${jwt.expiration}")
-    private int expiration;
-
-    @Value("${jwt.refreshExpiration}")
-    private int refreshExpiration;
+    private AzureAuthService azureAuthService;
 
     @Autowired
     private UserService userService;
@@ -67,6 +46,12 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private PermissionService permissionService;
+
     /**
      * Generates the URL for Microsoft Azure login.
      * The URL allows the user to authenticate via Azure and grant necessary permissions.
@@ -75,63 +60,78 @@ public class AuthController {
      */
     @GetMapping("/login")
     public Map<String, String> login() {
-        String azureUrl = String.format(
-                "https://login.microsoftonline.com/%s/oauth2/v2.0/authorize?client_id=%s&response_type=code&redirect_uri=%s&response_mode=query&scope=openid%%20profile%%20email",
-                tenantId, clientId, redirectUri
-        );
         Map<String, String> response = new HashMap<>();
-        response.put("url", azureUrl);
+        response.put("url", azureAuthService.getAuthorizationUrl());
         return response;
     }
 
     /**
      * Handles the authentication callback from Azure after user login.
-     * Exchanges the authorization code for an access token and extracts the email.
+     * Exchanges the authorization code for a verified ID token and extracts the email.
      * If the user does not exist, it creates a new user.
      * It also generates and returns JWT tokens (access and refresh tokens) stored in cookies.
      *
+     * The exchange runs without holding a request thread; only the user lookup and
+     * token generation run on a worker thread once the email is known.
+     *
      * @param request The request containing the authorization code.
-     * @param response The HTTP response to send the JWT tokens as cookies.
-     * @return ResponseEntity containing success or error message.
+     * @return Mono of ResponseEntity containing the token cookies, or 400 if the verified ID token carries
+     *         no email. An ID token failing verification yields 401, and Azure AD failing to answer 502.
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(
-            @RequestBody Map<String, String> request,
-            HttpServletResponse response
-    ) {
+    public Mono<ResponseEntity<Map<String, String>>> login(@RequestBody Map<String, String> request) {
         String authorizationCode = request.get("code");
-        // Extract email from authorization code
-        String email = null;
-        email = getAccessToken(authorizationCode);
-//        String email = "bob@gmail.com";
-        if (email == null) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", "No email found in token");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-        }
 
-        //Search for user, if user does not exist, create new user
-        if (userService.getAllUsers(email).isEmpty()) {
-            User user = userService.createUser(email);
-        }
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "No email found in token");
 
-        String token = jwtUtil.generateToken(email);
-        String refreshToken = jwtUtil.generateRefreshToken(email);
+        return azureAuthService.getEmail(authorizationCode)
+                .publishOn(Schedulers.boundedElastic())  // JPA calls block
+                .map(email -> {
+                    //Search for user, if user does not exist, create new user
+                    User user = userService.findOrCreateUser(email);
 
-        // Set JWT tokens as cookies
-        Cookie tokenCookie = new Cookie("token", token);
-        tokenCookie.setHttpOnly(true); // Protect from JS access
-        tokenCookie.setPath("/");
-        tokenCookie.setMaxAge(expiration);
+                    String token = jwtUtil.generateToken(email, user.getId());
+                    String refreshToken = jwtUtil.generateRefreshToken(email, user.getId());
 
-        Cookie refreshTokenCookie = new Cookie("refreshToken", refreshToken);
-        refreshTokenCookie.setHttpOnly(true);
-        refreshTokenCookie.setPath("/");
-        refreshTokenCookie.setMaxAge(refreshExpiration);
+                    // Set JWT tokens as cookies
+                    return ResponseEntity.ok()
+                            .headers(cookieService.getTokenCookieHeaders(token, refreshToken))
+                            .<Map<String, String>>build();
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+    }
 
-        response.addCookie(tokenCookie);
-        response.addCookie(refreshTokenCookie);
+    /**
+     * Rotates the access and refresh tokens using the refresh token cookie.
+     * Lets the frontend renew a session explicitly instead of relying on the filter,
+     * which only re-mints tokens when the access token is close to expiry.
+     *
+     * @param request The HTTP request carrying the refresh token cookie.
+     * @param response The HTTP response to send the new JWT tokens as cookies.
+     * @return ResponseEntity indicating success, or 401 if the refresh token is missing or invalid.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Void> refresh(HttpServletRequest request, HttpServletResponse response) {
+        try {
+            cookieService.refreshTokens(request, response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok().build();
+    }
 
+    /**
+     * Logs the user out by revoking the access and refresh tokens and clearing their cookies.
+     * Revoked tokens are rejected for the rest of their lifetime, even if a copy of them is replayed.
+     *
+     * @param request The HTTP request carrying the token cookies.
+     * @param response The HTTP response in which the cookies are cleared.
+     * @return ResponseEntity indicating success.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response) {
+        cookieService.revokeTokens(request, response);
         return ResponseEntity.ok().build();
     }
 
@@ -141,47 +141,31 @@ public class AuthController {
      * @return ResponseEntity indicating success or failure.
      */
     @GetMapping("/check")
-    public ResponseEntity<Void> check(@AuthenticationPrincipal org.springframework.security.core.userdetails.User user) {
+    public ResponseEntity<Void> check(@AuthenticationPrincipal UserPrincipal user) {
         return ResponseEntity.ok().build();
     }
 
     /**
-     * Exchange microsoft authorization code for access token
-     * and get the email from the access token
-     * @param authorizationCode String
-     * @return email String
+     * Returns the hit/miss counters and occupancy of the verified-token cache.
+     * Restricted to super users, for sizing the cache against production traffic.
+     *
+     * @param user The currently authenticated user.
+     * @return ResponseEntity containing the cache statistics.
+     * @throws AccessDeniedException if the user is not a super user
      */
-    private String getAccessToken(@NotNull String authorizationCode) {
-        try {
-            // Exchange code for ID token
-            String tokenEndpoint = "https://login.microsoftonline.com/" + tenantId + "/oauth2/v2.0/token";
-
-            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-            params.add("client_id", clientId);
-            params.add("client_secret", clientSecret);
-            params.add("code", authorizationCode);
-            params.add("redirect_uri", redirectUri);
-            params.add("grant_type", "authorization_code");
-
-            Map<String, Object> tokenResponse = webClientBuilder.build()
-                    .post()
-                    .uri(tokenEndpoint)
-                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                    .bodyValue(params)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-                    })
-                    .block();
-
-            String idToken = (String) Objects.requireNonNull(tokenResponse).get("id_token");
-
-            // Parse ID token to get username
-            DecodedJWT decodedJWT = JWT.decode(idToken);
-
-            // Extract email claim
-            return decodedJWT.getClaim("email").asString();
-        } catch (WebClientException | NullPointerException e) {
-            return null;
+    @GetMapping("/token-cache")
+    public ResponseEntity<Map<String, Number>> getTokenCacheStats(
+            @AuthenticationPrincipal UserPrincipal user
+    ) {
+        if (!permissionService.hasSuperUserPermission(user)) {
+            throw new AccessDeniedException("You do not have access to view token cache statistics");
         }
+
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("hits", tokenCache.getHitCount());
+        stats.put("misses", tokenCache.getMissCount());
+        stats.put("size", tokenCache.getSize());
+        stats.put("maxSize", tokenCache.getMaxSize());
+        return ResponseEntity.ok(stats);
     }
 }
@@ -1,11 +1,12 @@
 package com.powerbi.api.controller;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelMembershipView;
 import com.powerbi.api.model.ChannelAdmin;
 import com.powerbi.api.service.ChannelAdminService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -33,14 +34,14 @@ public class ChannelAdminController {
      *
      * @param user The currently authenticated user.
      * @param channelId The ID of the channel for which administrators are being fetched.
-     * @return A ResponseEntity containing a list of ChannelAdmin objects.
+     * @return A ResponseEntity containing a list of projections of the channel admins.
      */
     @GetMapping("/{channelId}")
-    public ResponseEntity<List<ChannelAdmin>> getChannelAdmins(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<List<ChannelMembershipView>> getChannelAdmins(
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId
     ) {
-        List<ChannelAdmin> admins = channelAdminService.getChannelAdmins(user.getUsername(), channelId);
+        List<ChannelMembershipView> admins = channelAdminService.getChannelAdmins(user, channelId);
         return ResponseEntity.ok(admins);
     }
 
@@ -55,12 +56,12 @@ public class ChannelAdminController {
      */
     @PutMapping("/{channelId}")
     public ResponseEntity<ChannelAdmin> createChannelAdmin(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @RequestBody Map<String, Long> requestBody
     ) {
         Long newAdminId = requestBody.get("id");
-        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(user.getUsername(), channelId, newAdminId);
+        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(user, channelId, newAdminId);
         return ResponseEntity.status(201).body(newAdmin);
     }
 
@@ -75,11 +76,11 @@ public class ChannelAdminController {
      */
     @DeleteMapping("/{channelId}/{adminId}")
     public ResponseEntity<Void> deleteChannelAdmin(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @PathVariable Long adminId
     ) {
-        channelAdminService.removeChannelAdmin(user.getUsername(), channelId, adminId);
+        channelAdminService.removeChannelAdmin(user, channelId, adminId);
         return ResponseEntity.noContent().build();
     }
 }
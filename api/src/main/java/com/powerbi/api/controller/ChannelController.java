@@ -1,14 +1,18 @@
 package com.powerbi.api.controller;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.dto.ChannelDTO;
-import com.powerbi.api.model.Channel;
+import com.powerbi.api.dto.ChannelPurgeStatus;
+import com.powerbi.api.dto.ChannelView;
 import com.powerbi.api.model.ChannelRole;
 import com.powerbi.api.service.ChannelService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,7 +24,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,19 +37,24 @@ public class ChannelController {
     private ChannelService channelService;
 
     /**
-     * Retrieves a list of channels for the authenticated user.
+     * Retrieves a page of channels for the authenticated user.
      * Optionally, the user can provide a search term to filter the channels.
+     * Pages default to 50 channels ordered by ID, and can be changed with the
+     * {@code page}, {@code size} and {@code sort} parameters. Sorting is limited to the ID,
+     * name and creation date; any other sort property is rejected with 400 Bad Request.
      *
      * @param user The currently authenticated user.
      * @param search An optional search term to filter channels.
-     * @return A ResponseEntity containing a list of Channel objects.
+     * @param pageable The page and sort order to return.
+     * @return A ResponseEntity containing a page of ChannelView objects with the total count.
      */
     @GetMapping
-    public ResponseEntity<List<Channel>> getChannels(
-            @AuthenticationPrincipal User user,
-            @RequestParam(required = false) String search
+    public ResponseEntity<Page<ChannelView>> getChannels(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(required = false) String search,
+            @PageableDefault(size = 50, sort = "id") Pageable pageable
     ) {
-        return ResponseEntity.ok(channelService.getChannels(user.getUsername(), search));
+        return ResponseEntity.ok(channelService.getChannels(user, search, pageable).map(ChannelView::of));
     }
 
     /**
@@ -55,14 +63,14 @@ public class ChannelController {
      *
      * @param user The currently authenticated user.
      * @param channelId The ID of the channel to retrieve.
-     * @return A ResponseEntity containing the requested Channel object.
+     * @return A ResponseEntity containing the requested ChannelView object.
      */
     @GetMapping("/{channelId}")
-    public ResponseEntity<Channel> getChannel(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<ChannelView> getChannel(
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId
     ) {
-        return ResponseEntity.ok(channelService.getChannel(user.getUsername(), channelId));
+        return ResponseEntity.ok(ChannelView.of(channelService.getChannel(user, channelId)));
     }
 
     /**
@@ -75,10 +83,10 @@ public class ChannelController {
      */
     @GetMapping("/role")
     public ResponseEntity<Map<String, ChannelRole>> getChannelRole(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestParam(required = false) Long channelId
     ) {
-        ChannelRole role = channelService.getChannelRole(user.getUsername(), channelId);
+        ChannelRole role = channelService.getChannelRole(user, channelId);
         return ResponseEntity.ok(Collections.singletonMap("role", role));
     }
 
@@ -88,16 +96,16 @@ public class ChannelController {
      *
      * @param user The currently authenticated user.
      * @param channelDTO The details of the new channel to be created.
-     * @return A ResponseEntity containing the created Channel object.
+     * @return A ResponseEntity containing the created ChannelView object.
      */
     @PutMapping
-    public ResponseEntity<Channel> createChannel(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<ChannelView> createChannel(
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestBody ChannelDTO channelDTO
     ) {
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(channelService.createChannel(user.getUsername(), channelDTO));
+                .body(ChannelView.of(channelService.createChannel(user, channelDTO)));
     }
 
     /**
@@ -106,14 +114,14 @@ public class ChannelController {
      *
      * @param user The currently authenticated user.
      * @param channelDTO The details of the channel to be updated.
-     * @return A ResponseEntity containing the updated Channel object.
+     * @return A ResponseEntity containing the updated ChannelView object.
      */
     @PostMapping
-    public ResponseEntity<Channel> editChannel(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<ChannelView> editChannel(
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestBody ChannelDTO channelDTO
     ) {
-        return ResponseEntity.ok(channelService.updateChannel(user.getUsername(), channelDTO));
+        return ResponseEntity.ok(ChannelView.of(channelService.updateChannel(user, channelDTO)));
     }
 
     /**
@@ -121,15 +129,29 @@ public class ChannelController {
      *
      * @param user The currently authenticated user.
      * @param id The ID of the channel to be deleted.
-     * @return A ResponseEntity indicating that the operation was successful (HTTP 204 No Content).
+     * @return A ResponseEntity containing the status of the channel's purge (HTTP 202 Accepted).
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteChannel(
-        @AuthenticationPrincipal User user,
+    public ResponseEntity<ChannelPurgeStatus> deleteChannel(
+        @AuthenticationPrincipal UserPrincipal user,
         @PathVariable Long id
     ) {
-        channelService.deleteChannel(user.getUsername(), id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.accepted().body(channelService.deleteChannel(user, id));
+    }
+
+    /**
+     * Retrieves the progress of the background purge of a deleted channel.
+     *
+     * @param user The currently authenticated user.
+     * @param id The ID of the deleted channel.
+     * @return A ResponseEntity containing the status of the channel's purge.
+     */
+    @GetMapping("/{id}/purge")
+    public ResponseEntity<ChannelPurgeStatus> getPurgeStatus(
+        @AuthenticationPrincipal UserPrincipal user,
+        @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(channelService.getPurgeStatus(user, id));
     }
 
 }
@@ -1,12 +1,14 @@
 package com.powerbi.api.controller;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.dto.ChannelLinkDTO;
+import com.powerbi.api.dto.ChannelLinkView;
+import com.powerbi.api.dto.CursorPage;
 import com.powerbi.api.model.ChannelLink;
 import com.powerbi.api.service.ChannelLinkService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,9 +16,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
@@ -30,23 +32,28 @@ public class ChannelLinkController {
     private ChannelLinkService channelLinkService;
 
     /**
-     * Retrieves a list of links associated with a given channel.
+     * Retrieves one page of the links associated with a given channel, oldest first.
+     * Pass the {@code nextCursor} of a page as {@code cursor} to fetch the page after it.
      *
      * @param user The currently authenticated user.
      * @param channelId The ID of the channel for which links are being fetched.
-     * @return A ResponseEntity containing a list of ChannelLink objects.
+     * @param cursor The cursor of the page to fetch, omitted for the first page.
+     * @param size The number of links per page.
+     * @return A ResponseEntity containing a page of channel link projections and the next page's cursor.
      */
     @GetMapping("/{channelId}")
-    public ResponseEntity<List<ChannelLink>> getChannelLinks(
-            @AuthenticationPrincipal User user,
-            @PathVariable Long channelId
+    public ResponseEntity<CursorPage<ChannelLinkView>> getChannelLinks(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
     ) {
-        List<ChannelLink> links = channelLinkService.getChannelLinks(user.getUsername(), channelId);
+        CursorPage<ChannelLinkView> links = channelLinkService.getChannelLinks(user, channelId, cursor, size);
         return ResponseEntity.ok(links);
     }
 
     /**
-     * Retrieves a {@link ChannelLink} for the specified channel and channel link IDs.
+     * Retrieves a channel link for the specified channel and channel link IDs.
      * 
      * This endpoint requires authentication, and the user must have the necessary permissions to access the channel's link.
      * If the channel is private, the user must have the appropriate permissions to view links in that channel.
@@ -54,17 +61,17 @@ public class ChannelLinkController {
      * @param user The authenticated user making the request.
      * @param channelId The ID of the channel from which the link will be fetched.
      * @param channelLinkId The ID of the channel link to be retrieved.
-     * @return A {@link ResponseEntity} containing the {@link ChannelLink} if found, or an appropriate error response.
+     * @return A {@link ResponseEntity} containing the {@link ChannelLinkView} if found, or an appropriate error response.
      * @throws NoSuchElementException If the channel or channel link with the specified IDs does not exist.
      */
     @GetMapping("/{channelId}/{channelLinkId}")
-    public ResponseEntity<ChannelLink> getChannelLink(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<ChannelLinkView> getChannelLink(
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @PathVariable Long channelLinkId
     ) {
-        ChannelLink link = channelLinkService.getChannelLink(user.getUsername(), channelId, channelLinkId);
-        return ResponseEntity.ok(link);
+        ChannelLink link = channelLinkService.getChannelLink(user, channelId, channelLinkId);
+        return ResponseEntity.ok(ChannelLinkView.of(link));
     }
 
     /**
@@ -73,15 +80,15 @@ public class ChannelLinkController {
      *
      * @param user The currently authenticated user.
      * @param channelLinkData The details of the new channel link to be created.
-     * @return A ResponseEntity containing the created ChannelLink object.
+     * @return A ResponseEntity containing the created ChannelLinkView object.
      */
     @PutMapping("/{channelId}")
-    public ResponseEntity<ChannelLink> createChannelLink(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<ChannelLinkView> createChannelLink(
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestBody ChannelLinkDTO channelLinkData
     ) {
-        ChannelLink createdLink = channelLinkService.createChannelLink(user.getUsername(), channelLinkData);
-        return ResponseEntity.ok(createdLink);
+        ChannelLink createdLink = channelLinkService.createChannelLink(user, channelLinkData);
+        return ResponseEntity.ok(ChannelLinkView.of(createdLink));
     }
 
     /**
@@ -90,15 +97,15 @@ public class ChannelLinkController {
      *
      * @param user The currently authenticated user.
      * @param channelLinkData The details of the channel link to be updated.
-     * @return A ResponseEntity containing the updated ChannelLink object.
+     * @return A ResponseEntity containing the updated ChannelLinkView object.
      */
     @PostMapping("/{channelId}")
-    public ResponseEntity<ChannelLink> editChannelLink(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<ChannelLinkView> editChannelLink(
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestBody ChannelLinkDTO channelLinkData
     ) {
-        ChannelLink updatedLink = channelLinkService.updateChannelLink(user.getUsername(), channelLinkData);
-        return ResponseEntity.ok(updatedLink);
+        ChannelLink updatedLink = channelLinkService.updateChannelLink(user, channelLinkData);
+        return ResponseEntity.ok(ChannelLinkView.of(updatedLink));
     }
 
     /**
@@ -111,11 +118,11 @@ public class ChannelLinkController {
      */
     @DeleteMapping("/{channelId}/{channelLinkId}")
     public ResponseEntity<Void> deleteChannelLink(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @PathVariable Long channelLinkId
     ) {
-        channelLinkService.deleteChannelLink(user.getUsername(), channelLinkId);
+        channelLinkService.deleteChannelLink(user, channelLinkId);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,11 +1,14 @@
 package com.powerbi.api.controller;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelMemberImportDTO;
+import com.powerbi.api.dto.ChannelMemberImportResult;
+import com.powerbi.api.dto.ChannelMembershipView;
 import com.powerbi.api.model.ChannelMember;
 import com.powerbi.api.service.ChannelAdminService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,7 +22,7 @@ import java.util.Map;
 
 /**
  * Controller that handles operations related to channel members.
- * Includes methods for retrieving, creating, and deleting channel members.
+ * Includes methods for retrieving, creating, importing, and deleting channel members.
  */
 @RestController
 @RequestMapping("/api/channelmember")
@@ -32,14 +35,14 @@ public class ChannelMemberController {
      *
      * @param user The currently authenticated user.
      * @param channelId The ID of the channel for which members are being fetched.
-     * @return A ResponseEntity containing a list of ChannelMember objects.
+     * @return A ResponseEntity containing a list of projections of the channel members.
      */
     @GetMapping("/{channelId}")
-    public ResponseEntity<List<ChannelMember>> getChannelMembers(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<List<ChannelMembershipView>> getChannelMembers(
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId
     ) {
-        List<ChannelMember> members = channelAdminService.getChannelMembers(user.getUsername(), channelId);
+        List<ChannelMembershipView> members = channelAdminService.getChannelMembers(user, channelId);
         return ResponseEntity.ok(members);
     }
 
@@ -54,15 +57,33 @@ public class ChannelMemberController {
      */
     @PutMapping("/{channelId}")
     public ResponseEntity<ChannelMember> createChannelMember(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @RequestBody Map<String, Long> requestBody
     ) {
         Long newUserId = requestBody.get("id");
-        ChannelMember newMember = channelAdminService.addChannelMember(user.getUsername(), channelId, newUserId);
+        ChannelMember newMember = channelAdminService.addChannelMember(user, channelId, newUserId);
         return ResponseEntity.status(201).body(newMember);
     }
 
+    /**
+     * Adds many users to a given channel as members at once.
+     * The users are given by ID and/or email in the request body.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel to which the members will be added.
+     * @param importData The IDs and emails of the users to add.
+     * @return A ResponseEntity containing the outcome for each requested user.
+     */
+    @PutMapping("/{channelId}/import")
+    public ResponseEntity<ChannelMemberImportResult> importChannelMembers(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @RequestBody ChannelMemberImportDTO importData
+    ) {
+        return ResponseEntity.ok(channelAdminService.importChannelMembers(user, channelId, importData));
+    }
+
     /**
      * Deletes a member from a given channel.
      *
@@ -73,11 +94,11 @@ public class ChannelMemberController {
      */
     @DeleteMapping("/{channelId}/{memberId}")
     public ResponseEntity<Void> deleteChannelMember(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @PathVariable Long memberId
     ) {
-        channelAdminService.removeChannelMember(user.getUsername(), channelId, memberId);
+        channelAdminService.removeChannelMember(user, channelId, memberId);
         return ResponseEntity.noContent().build();
     }
 }
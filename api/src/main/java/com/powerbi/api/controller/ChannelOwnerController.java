@@ -1,11 +1,12 @@
 package com.powerbi.api.controller;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelMembershipView;
 import com.powerbi.api.model.ChannelOwner;
 import com.powerbi.api.service.ChannelOwnerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -32,14 +33,14 @@ public class ChannelOwnerController {
      *
      * @param user The currently authenticated user.
      * @param channelId The ID of the channel for which owners are being fetched.
-     * @return A ResponseEntity containing a list of ChannelOwner objects.
+     * @return A ResponseEntity containing a list of projections of the channel owners.
      */
     @GetMapping("/{channelId}")
-    public ResponseEntity<List<ChannelOwner>> getChannelOwners(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<List<ChannelMembershipView>> getChannelOwners(
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId
     ) {
-        List<ChannelOwner> owners = channelOwnerService.getChannelOwners(user.getUsername(), channelId);
+        List<ChannelMembershipView> owners = channelOwnerService.getChannelOwners(user, channelId);
         return ResponseEntity.ok(owners);
     }
 
@@ -54,12 +55,12 @@ public class ChannelOwnerController {
      */
     @PutMapping("/{channelId}")
     public ResponseEntity<ChannelOwner> createChannelOwner(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @RequestBody Map<String, Long> requestBody
     ) {
         Long newOwnerId = requestBody.get("id");
-        ChannelOwner newCHannelOwner = channelOwnerService.addChannelOwner(user.getUsername(), channelId, newOwnerId);
+        ChannelOwner newCHannelOwner = channelOwnerService.addChannelOwner(user, channelId, newOwnerId);
         return ResponseEntity.status(201).body(newCHannelOwner);
     }
 
@@ -73,11 +74,11 @@ public class ChannelOwnerController {
      */
     @DeleteMapping("/{channelId}/{ownerId}")
     public ResponseEntity<Void> deleteChannelOwner(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long channelId,
             @PathVariable Long ownerId
     ) {
-        channelOwnerService.removeChannelOwner(user.getUsername(), channelId, ownerId);
+        channelOwnerService.removeChannelOwner(user, channelId, ownerId);
         return ResponseEntity.noContent().build();
     }
 }
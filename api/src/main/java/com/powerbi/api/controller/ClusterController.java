@@ -0,0 +1,197 @@
+package com.powerbi.api.controller;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelLayout;
+import com.powerbi.api.dto.ClusterDTO;
+import com.powerbi.api.dto.ClusterLinkDTO;
+import com.powerbi.api.dto.ClusterLinkView;
+import com.powerbi.api.dto.ClusterView;
+import com.powerbi.api.service.ChannelLayoutService;
+import com.powerbi.api.service.ClusterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller that handles operations related to clusters, the named groups of a channel's links.
+ * Includes methods for managing the clusters of a channel and for adding, reordering and
+ * removing the links in them.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+    @Autowired
+    private ClusterService clusterService;
+    @Autowired
+    private ChannelLayoutService channelLayoutService;
+
+    /**
+     * Retrieves the clusters of a channel.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @return A ResponseEntity containing a list of projections of the clusters.
+     */
+    @GetMapping("/{channelId}")
+    public ResponseEntity<List<ClusterView>> getClusters(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId
+    ) {
+        return ResponseEntity.ok(clusterService.getClusters(user, channelId));
+    }
+
+    /**
+     * Retrieves the layout of a channel: every cluster with its links in order.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @return A ResponseEntity containing the channel's layout.
+     */
+    @GetMapping("/{channelId}/layout")
+    public ResponseEntity<ChannelLayout> getLayout(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId
+    ) {
+        return ResponseEntity.ok(channelLayoutService.getLayout(user, channelId));
+    }
+
+    /**
+     * Creates a new cluster in a channel.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @param clusterData The name of the new cluster.
+     * @return A ResponseEntity containing a projection of the created cluster.
+     */
+    @PutMapping("/{channelId}")
+    public ResponseEntity<ClusterView> createCluster(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @RequestBody ClusterDTO clusterData
+    ) {
+        return ResponseEntity.ok(ClusterView.of(clusterService.createCluster(user, channelId, clusterData)));
+    }
+
+    /**
+     * Renames a cluster of a channel.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @param clusterData The ID and new name of the cluster.
+     * @return A ResponseEntity containing a projection of the updated cluster.
+     */
+    @PostMapping("/{channelId}")
+    public ResponseEntity<ClusterView> editCluster(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @RequestBody ClusterDTO clusterData
+    ) {
+        return ResponseEntity.ok(ClusterView.of(clusterService.updateCluster(user, channelId, clusterData)));
+    }
+
+    /**
+     * Deletes a cluster of a channel. The links in it stay in the channel.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @param clusterId The ID of the cluster to delete.
+     * @return A ResponseEntity indicating that the operation was successful (HTTP 204 No Content).
+     */
+    @DeleteMapping("/{channelId}/{clusterId}")
+    public ResponseEntity<Void> deleteCluster(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @PathVariable Long clusterId
+    ) {
+        clusterService.deleteCluster(user, channelId, clusterId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Retrieves the links of a cluster in order.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @param clusterId The ID of the cluster.
+     * @return A ResponseEntity containing the cluster's links in order.
+     */
+    @GetMapping("/{channelId}/{clusterId}/links")
+    public ResponseEntity<List<ClusterLinkView>> getClusterLinks(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @PathVariable Long clusterId
+    ) {
+        return ResponseEntity.ok(clusterService.getClusterLinks(user, channelId, clusterId));
+    }
+
+    /**
+     * Adds a channel link to a cluster, before the given cluster link or at the end.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @param clusterId The ID of the cluster.
+     * @param clusterLinkData The channel link to add and where to place it.
+     * @return A ResponseEntity containing a projection of the created cluster link.
+     */
+    @PutMapping("/{channelId}/{clusterId}/links")
+    public ResponseEntity<ClusterLinkView> addClusterLink(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @PathVariable Long clusterId,
+            @RequestBody ClusterLinkDTO clusterLinkData
+    ) {
+        return ResponseEntity.ok(ClusterLinkView.of(clusterService.addClusterLink(user, channelId, clusterId, clusterLinkData)));
+    }
+
+    /**
+     * Moves a link within its cluster, or into another cluster of the channel.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @param clusterId The ID of the cluster holding the link.
+     * @param clusterLinkId The ID of the cluster link to move.
+     * @param clusterLinkData The target cluster and the cluster link to place the link before.
+     * @return A ResponseEntity containing a projection of the moved cluster link.
+     */
+    @PostMapping("/{channelId}/{clusterId}/links/{clusterLinkId}")
+    public ResponseEntity<ClusterLinkView> moveClusterLink(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @PathVariable Long clusterId,
+            @PathVariable Long clusterLinkId,
+            @RequestBody ClusterLinkDTO clusterLinkData
+    ) {
+        return ResponseEntity.ok(ClusterLinkView.of(
+                clusterService.moveClusterLink(user, channelId, clusterId, clusterLinkId, clusterLinkData)));
+    }
+
+    /**
+     * Removes a link from a cluster. The link stays in the channel.
+     *
+     * @param user The currently authenticated user.
+     * @param channelId The ID of the channel.
+     * @param clusterId The ID of the cluster.
+     * @param clusterLinkId The ID of the cluster link to remove.
+     * @return A ResponseEntity indicating that the operation was successful (HTTP 204 No Content).
+     */
+    @DeleteMapping("/{channelId}/{clusterId}/links/{clusterLinkId}")
+    public ResponseEntity<Void> removeClusterLink(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long channelId,
+            @PathVariable Long clusterId,
+            @PathVariable Long clusterLinkId
+    ) {
+        clusterService.removeClusterLink(user, channelId, clusterId, clusterLinkId);
+        return ResponseEntity.noContent().build();
+    }
+}
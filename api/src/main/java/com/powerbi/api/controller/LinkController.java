@@ -1,12 +1,13 @@
 package com.powerbi.api.controller;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.dto.LinkDTO;
+import com.powerbi.api.dto.LinkView;
 import com.powerbi.api.model.Link;
 import com.powerbi.api.service.LinkService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -35,14 +36,14 @@ public class LinkController {
      *
      * @param user The currently authenticated user.
      * @param search An optional search query to filter links.
-     * @return A ResponseEntity containing a list of Link objects.
+     * @return A ResponseEntity containing a list of projections of the links.
      */
     @GetMapping
-    public ResponseEntity<List<Link>> getAllLinks(
-            @AuthenticationPrincipal User user,
+    public ResponseEntity<List<LinkView>> getAllLinks(
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestParam(required = false) String search
     ) {
-        List<Link> links = linkService.getUserLinks(user.getUsername(), search);
+        List<LinkView> links = linkService.getUserLinks(user, search);
         return ResponseEntity.ok(links);
     }
 
@@ -51,12 +52,12 @@ public class LinkController {
      *
      * @param user The currently authenticated user.
      * @param id The ID of the link to retrieve.
-     * @return A ResponseEntity containing the requested Link object.
+     * @return A ResponseEntity containing the requested LinkView object.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Link> getLinkById(@AuthenticationPrincipal User user, @PathVariable Long id) {
-        Link link = linkService.getUserLink(user.getUsername(), id);
-        return ResponseEntity.ok(link);
+    public ResponseEntity<LinkView> getLinkById(@AuthenticationPrincipal UserPrincipal user, @PathVariable Long id) {
+        Link link = linkService.getUserLink(user, id);
+        return ResponseEntity.ok(LinkView.of(link));
     }
 
     /**
@@ -65,12 +66,12 @@ public class LinkController {
      *
      * @param user The currently authenticated user.
      * @param linkDTO The data transfer object containing link details.
-     * @return A ResponseEntity containing the created Link object.
+     * @return A ResponseEntity containing the created LinkView object.
      */
     @PutMapping
-    public ResponseEntity<Link> createLink(@AuthenticationPrincipal User user, @RequestBody LinkDTO linkDTO) {
-        Link createdLink = linkService.createUserLink(user.getUsername(), linkDTO);
-        return ResponseEntity.ok(createdLink);
+    public ResponseEntity<LinkView> createLink(@AuthenticationPrincipal UserPrincipal user, @RequestBody LinkDTO linkDTO) {
+        Link createdLink = linkService.createUserLink(user, linkDTO);
+        return ResponseEntity.ok(LinkView.of(createdLink));
     }
 
     /**
@@ -79,11 +80,11 @@ public class LinkController {
      *
      * @param user The currently authenticated user.
      * @param linkDTO The data transfer object containing updated link details.
-     * @return A ResponseEntity containing the updated Link object.
+     * @return A ResponseEntity containing the updated LinkView object.
      */
     @PostMapping
-    public ResponseEntity<Link> editLink(@AuthenticationPrincipal User user, @RequestBody LinkDTO linkDTO) {
-        return ResponseEntity.ok(linkService.updateUserLink(user.getUsername(), linkDTO));
+    public ResponseEntity<LinkView> editLink(@AuthenticationPrincipal UserPrincipal user, @RequestBody LinkDTO linkDTO) {
+        return ResponseEntity.ok(LinkView.of(linkService.updateUserLink(user, linkDTO)));
     }
 
     /**
@@ -94,8 +95,8 @@ public class LinkController {
      * @return A ResponseEntity indicating that the operation was successful (HTTP 204 No Content).
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteLink(@AuthenticationPrincipal User user, @PathVariable Long id) {
-        linkService.deleteUserLink(user.getUsername(), id);
+    public ResponseEntity<Void> deleteLink(@AuthenticationPrincipal UserPrincipal user, @PathVariable Long id) {
+        linkService.deleteUserLink(user, id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,63 @@
+package com.powerbi.api.controller;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.LinkSearchHit;
+import com.powerbi.api.dto.SearchResults;
+import com.powerbi.api.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller that handles ranked full-text search.
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * Searches channel names and descriptions, channel link titles, the current user's links
+     * and user emails in one request. Only channels the user can see, and their links, are
+     * returned.
+     *
+     * @param user The currently authenticated user.
+     * @param q The search text.
+     * @param limit The number of results to return per group.
+     * @return A ResponseEntity containing the best matches grouped by kind.
+     */
+    @GetMapping
+    public ResponseEntity<SearchResults> search(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        return ResponseEntity.ok(searchService.search(user, q, limit));
+    }
+
+    /**
+     * Searches the current user's links and the links of every channel the user can see,
+     * tolerating partially typed words and small typos.
+     *
+     * @param user The currently authenticated user.
+     * @param q The search text.
+     * @param pageable The page of results to return.
+     * @return A ResponseEntity containing a page of results ordered by relevance.
+     */
+    @GetMapping("/links")
+    public ResponseEntity<Page<LinkSearchHit>> searchLinks(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return ResponseEntity.ok(searchService.searchLinks(user, q, pageable));
+    }
+}
@@ -1,11 +1,11 @@
 package com.powerbi.api.controller;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.model.SuperUser;
 import com.powerbi.api.service.SuperUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -35,9 +35,9 @@ public class SuperUserController {
      */
     @GetMapping
     public ResponseEntity<List<SuperUser>> getSuperUsers(
-            @AuthenticationPrincipal User user
+            @AuthenticationPrincipal UserPrincipal user
     ) {
-        List<SuperUser> superUsers = superUserService.getAllSuperUsers(user.getUsername());
+        List<SuperUser> superUsers = superUserService.getAllSuperUsers(user);
         return ResponseEntity.ok(superUsers);
     }
 
@@ -51,11 +51,11 @@ public class SuperUserController {
      */
     @PutMapping
     public ResponseEntity<SuperUser> createSuperUser(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @RequestBody Map<String, Long> requestBody
     ) {
         Long newUserId = requestBody.get("id");
-        SuperUser newSuper = superUserService.addSuperUser(user.getUsername(), newUserId);
+        SuperUser newSuper = superUserService.addSuperUser(user, newUserId);
         return ResponseEntity.status(201).body(newSuper);
     }
 
@@ -68,10 +68,10 @@ public class SuperUserController {
      */
     @DeleteMapping("/{deleteSuperId}")
     public ResponseEntity<Void> deleteSuperUser(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long deleteSuperId
     ) {
-        superUserService.removeSuperUser(user.getUsername(), deleteSuperId);
+        superUserService.removeSuperUser(user, deleteSuperId);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,8 +1,12 @@
 package com.powerbi.api.controller;
 
-import com.powerbi.api.model.User;
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.UserView;
 import com.powerbi.api.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,8 +16,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 /**
  * Controller that handles operations related to users.
  * Includes methods for retrieving users and deleting a specific user.
@@ -25,36 +27,40 @@ public class UserController {
     private UserService userService;
 
     /**
-     * Retrieves a list of all users.
-     * Optionally, a search parameter can be provided to filter the list.
+     * Retrieves one page of users, ordered by email.
+     * Optionally, a search parameter can be provided to match the start of the email or display name.
      *
-     * @param search An optional search query for filtering users by name or other criteria.
-     * @return A ResponseEntity containing a list of User objects.
+     * @param search An optional prefix of the email or display name of the users.
+     * @param pageable The page of users to return.
+     * @return A ResponseEntity containing a page of user projections.
      */
     @GetMapping
-    public ResponseEntity<List<User>> getUsers(@RequestParam(required = false) String search){
-        return ResponseEntity.ok(userService.getAllUsers(search));
+    public ResponseEntity<Page<UserView>> getUsers(
+            @RequestParam(required = false) String search,
+            @PageableDefault(size = 20) Pageable pageable
+    ){
+        return ResponseEntity.ok(userService.getUsers(search, pageable));
     }
 
     /**
      * Retrieves the details of a user by their user ID.
      *
      * @param userId the ID of the user to be retrieved
-     * @return a ResponseEntity containing the User object
+     * @return a ResponseEntity containing the UserView object
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<User> getUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(userService.getUser(userId));
+    public ResponseEntity<UserView> getUser(@PathVariable Long userId) {
+        return ResponseEntity.ok(UserView.of(userService.getUser(userId)));
     }
 
     /**
      * Retrieves the details of the current logged-in user
      *
-     * @return a ResponseEntity containing the User object
+     * @return a ResponseEntity containing the UserView object
      */
     @GetMapping("/self")
-    public ResponseEntity<User> getSelf(@AuthenticationPrincipal org.springframework.security.core.userdetails.User user) {
-        return ResponseEntity.ok(userService.getUser(user.getUsername()));
+    public ResponseEntity<UserView> getSelf(@AuthenticationPrincipal UserPrincipal user) {
+        return ResponseEntity.ok(UserView.of(userService.getUser(user.getId())));
     }
 
     /**
@@ -65,9 +71,9 @@ public class UserController {
      */
     @DeleteMapping("/{id}")
     public void deleteUser(
-            @AuthenticationPrincipal org.springframework.security.core.userdetails.User userDetails,
+            @AuthenticationPrincipal UserPrincipal userDetails,
             @PathVariable Long id
     ) {
-        userService.deleteUser(userDetails.getUsername(), id);
+        userService.deleteUser(userDetails, id);
     }
 }
@@ -0,0 +1,12 @@
+package com.powerbi.api.dto;
+
+import java.util.List;
+
+/**
+ * Read model of a channel page: every cluster of the channel with its ordered links.
+ *
+ * @param channelId the ID of the channel
+ * @param clusters the channel's clusters ordered by ID
+ */
+public record ChannelLayout(Long channelId, List<ClusterLayout> clusters) {
+}
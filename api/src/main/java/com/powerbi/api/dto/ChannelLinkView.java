@@ -0,0 +1,41 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.ChannelLink;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a channel link, selected directly by the repositories.
+ * Carries the link and its owner, but only the ID of the channel, which the caller already has.
+ *
+ * @param id the channel link's ID
+ * @param title the title of the link within the channel
+ * @param dateCreated when the link was added to the channel
+ * @param channel the channel the link belongs to
+ * @param link the linked report
+ */
+public record ChannelLinkView(Long id, String title, Instant dateCreated, ChannelReference channel, LinkView link) {
+
+    /**
+     * Builds the view of a loaded channel link.
+     *
+     * @param channelLink the channel link
+     * @return the view of the channel link with its link and owner
+     */
+    public static ChannelLinkView of(ChannelLink channelLink) {
+        return new ChannelLinkView(channelLink.getId(), channelLink.getTitle(), channelLink.getDateCreated(),
+                new ChannelReference(channelLink.getChannel().getId()), LinkView.of(channelLink.getLink()));
+    }
+
+    /**
+     * Flat constructor for JPQL constructor expressions.
+     */
+    public ChannelLinkView(
+            Long id, String title, Instant dateCreated, Long channelId,
+            Long linkId, String url, String linkTitle, String linkDescription, Instant linkDateCreated,
+            Long userId, String userEmail, Instant userDateCreated
+    ) {
+        this(id, title, dateCreated, new ChannelReference(channelId), new LinkView(
+                linkId, url, linkTitle, linkDescription, linkDateCreated, userId, userEmail, userDateCreated));
+    }
+}
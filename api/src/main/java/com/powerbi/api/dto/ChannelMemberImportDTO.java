@@ -0,0 +1,32 @@
+package com.powerbi.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for importing many channel members at once.
+ * Users can be given by ID, by email, or both, for example the members of a directory group.
+ */
+public class ChannelMemberImportDTO {
+    private List<Long> userIds = new ArrayList<>();
+
+    private List<String> emails = new ArrayList<>();
+
+    // Getters and Setters
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+}
@@ -0,0 +1,40 @@
+package com.powerbi.api.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a channel member import, with one row per requested user in request order:
+ * user IDs first, then emails.
+ *
+ * @param added the number of users added as members
+ * @param skipped the number of requested users not added
+ * @param rows the outcome for each requested user
+ */
+public record ChannelMemberImportResult(int added, int skipped, List<Row> rows) {
+    /**
+     * Outcome for one requested user.
+     *
+     * @param input the user ID or email as given in the request
+     * @param status what happened to the user
+     * @param user the matched user, or null if none was found
+     */
+    public record Row(String input, Status status, UserView user) {
+    }
+
+    /**
+     * The outcomes of importing one user.
+     */
+    public enum Status {
+        /** The user was added as a member. */
+        ADDED,
+
+        /** The user already holds a role in the channel. */
+        ALREADY_IN_CHANNEL,
+
+        /** The user was requested earlier in the same import. */
+        DUPLICATE,
+
+        /** No user has the given ID or email. */
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,25 @@
+package com.powerbi.api.dto;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a channel member, admin or owner, selected directly by the repositories.
+ * Carries the user, but only the ID of the channel, which the caller already has.
+ *
+ * @param id the ID of the membership row, used to remove it
+ * @param user the user holding the role
+ * @param channel the channel the role applies to
+ * @param dateCreated when the role was granted
+ */
+public record ChannelMembershipView(Long id, UserView user, ChannelReference channel, Instant dateCreated) {
+
+    /**
+     * Flat constructor for JPQL constructor expressions.
+     */
+    public ChannelMembershipView(
+            Long id, Instant dateCreated, Long channelId,
+            Long userId, String userEmail, Instant userDateCreated
+    ) {
+        this(id, new UserView(userId, userEmail, userDateCreated), new ChannelReference(channelId), dateCreated);
+    }
+}
@@ -0,0 +1,47 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.ChannelPurge;
+
+import java.time.Instant;
+
+/**
+ * Progress of the background purge of a deleted channel.
+ *
+ * @param channelId the ID of the deleted channel
+ * @param state where the purge stands
+ * @param table the table being purged, or null before the purge starts and after it ends
+ * @param rowsDeleted the number of dependent rows removed so far
+ * @param attempts the number of times a node started the purge
+ * @param dateRequested when the purge was requested
+ * @param dateFinished when the purge finished or last failed, or null while it is pending or running
+ * @param dateNextAttempt when a failed purge is retried, or null if it is not waiting for a retry
+ */
+public record ChannelPurgeStatus(
+        Long channelId,
+        ChannelPurge.State state,
+        String table,
+        long rowsDeleted,
+        int attempts,
+        Instant dateRequested,
+        Instant dateFinished,
+        Instant dateNextAttempt
+) {
+    /**
+     * Reads the status recorded for a purge.
+     *
+     * @param purge the recorded purge
+     * @return the status of the purge
+     */
+    public static ChannelPurgeStatus of(ChannelPurge purge) {
+        return new ChannelPurgeStatus(
+                purge.getChannelId(),
+                purge.getState(),
+                purge.getPurgedTable(),
+                purge.getRowsDeleted(),
+                purge.getAttempts(),
+                purge.getDateRequested(),
+                purge.getDateFinished(),
+                purge.getState() == ChannelPurge.State.FAILED ? purge.getDateNextAttempt() : null
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.powerbi.api.dto;
+
+/**
+ * Reference to a channel by ID, used in projections instead of repeating the whole channel.
+ *
+ * @param id the channel's ID
+ */
+public record ChannelReference(Long id) {
+}
@@ -0,0 +1,29 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.Channel;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a channel, returned by the channel endpoints.
+ * Serializes like the Channel entity, less its deletion mark, which is never set on a channel the API returns.
+ *
+ * @param id the channel's ID
+ * @param name the channel's name
+ * @param description the channel's description
+ * @param visibility whether the channel is public or private
+ * @param dateCreated when the channel was created
+ */
+public record ChannelView(Long id, String name, String description, Channel.Visibility visibility, Instant dateCreated) {
+
+    /**
+     * Builds the view of a loaded channel.
+     *
+     * @param channel the channel
+     * @return the view of the channel
+     */
+    public static ChannelView of(Channel channel) {
+        return new ChannelView(channel.getId(), channel.getName(), channel.getDescription(),
+                channel.getVisibility(), channel.getDateCreated());
+    }
+}
@@ -0,0 +1,36 @@
+package com.powerbi.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Data Transfer Object (DTO) for the Cluster entity.
+ * Represents the data required to create or rename a cluster.
+ *
+ * Includes fields for the cluster's ID and name.
+ */
+public class ClusterDTO {
+    private Long id;
+
+    @NotNull
+    @Size(min = 1, max = 100)
+    private String name;
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,15 @@
+package com.powerbi.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One cluster of a channel layout, with its links in order.
+ *
+ * @param id the cluster's ID
+ * @param name the name of the cluster
+ * @param dateCreated when the cluster was created
+ * @param links the cluster's links with their channel links, in order
+ */
+public record ClusterLayout(Long id, String name, Instant dateCreated, List<ClusterLinkView> links) {
+}
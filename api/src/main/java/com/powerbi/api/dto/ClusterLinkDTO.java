@@ -0,0 +1,43 @@
+package com.powerbi.api.dto;
+
+/**
+ * Data Transfer Object (DTO) for placing a channel link in a cluster.
+ * Represents the data required to add a channel link to a cluster, or to move it within
+ * or between the clusters of a channel.
+ *
+ * Includes the channel link to add, the cluster to move into, and the cluster link to place
+ * the link before. Without a cluster link to place it before, the link goes to the end.
+ */
+public class ClusterLinkDTO {
+    private Long channelLinkId;
+
+    private Long clusterId;
+
+    private Long beforeId;
+
+    // Getters and Setters
+
+    public Long getChannelLinkId() {
+        return channelLinkId;
+    }
+
+    public void setChannelLinkId(Long channelLinkId) {
+        this.channelLinkId = channelLinkId;
+    }
+
+    public Long getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Long clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public Long getBeforeId() {
+        return beforeId;
+    }
+
+    public void setBeforeId(Long beforeId) {
+        this.beforeId = beforeId;
+    }
+}
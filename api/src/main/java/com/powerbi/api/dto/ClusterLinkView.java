@@ -0,0 +1,43 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.ClusterLink;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a link placed in a cluster, selected directly by the repository.
+ * Carries the channel link with its link and owner.
+ *
+ * @param id the cluster link's ID
+ * @param clusterId the ID of the cluster
+ * @param idx the ordering key of the link within the cluster
+ * @param dateCreated when the link was added to the cluster
+ * @param channelLink the channel link placed in the cluster
+ */
+public record ClusterLinkView(Long id, Long clusterId, int idx, Instant dateCreated, ChannelLinkView channelLink) {
+
+    /**
+     * Builds the view of a loaded cluster link.
+     *
+     * @param clusterLink the cluster link
+     * @return the view of the cluster link with its channel link
+     */
+    public static ClusterLinkView of(ClusterLink clusterLink) {
+        return new ClusterLinkView(clusterLink.getId(), clusterLink.getCluster().getId(), clusterLink.getIdx(),
+                clusterLink.getDateCreated(), ChannelLinkView.of(clusterLink.getChannelLink()));
+    }
+
+    /**
+     * Flat constructor for JPQL constructor expressions.
+     */
+    public ClusterLinkView(
+            Long id, Long clusterId, int idx, Instant dateCreated,
+            Long channelLinkId, String channelLinkTitle, Instant channelLinkDateCreated, Long channelId,
+            Long linkId, String url, String linkTitle, String linkDescription, Instant linkDateCreated,
+            Long userId, String userEmail, Instant userDateCreated
+    ) {
+        this(id, clusterId, idx, dateCreated, new ChannelLinkView(
+                channelLinkId, channelLinkTitle, channelLinkDateCreated, channelId,
+                linkId, url, linkTitle, linkDescription, linkDateCreated, userId, userEmail, userDateCreated));
+    }
+}
@@ -0,0 +1,33 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.Cluster;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a cluster, selected directly by the repository.
+ *
+ * @param id the cluster's ID
+ * @param name the name of the cluster
+ * @param dateCreated when the cluster was created
+ * @param channel the channel the cluster belongs to
+ */
+public record ClusterView(Long id, String name, Instant dateCreated, ChannelReference channel) {
+
+    /**
+     * Builds the view of a loaded cluster.
+     *
+     * @param cluster the cluster
+     * @return the view of the cluster
+     */
+    public static ClusterView of(Cluster cluster) {
+        return new ClusterView(cluster.getId(), cluster.getName(), cluster.getDateCreated(), cluster.getChannel().getId());
+    }
+
+    /**
+     * Flat constructor for JPQL constructor expressions.
+     */
+    public ClusterView(Long id, String name, Instant dateCreated, Long channelId) {
+        this(id, name, dateCreated, new ChannelReference(channelId));
+    }
+}
@@ -0,0 +1,30 @@
+package com.powerbi.api.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of a cursor-paginated listing.
+ * Holds the items of the page and the opaque cursor to pass back for the next page,
+ * which is null on the last page.
+ *
+ * @param <T> the type of the items
+ */
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
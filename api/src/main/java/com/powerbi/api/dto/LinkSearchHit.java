@@ -0,0 +1,12 @@
+package com.powerbi.api.dto;
+
+/**
+ * One ranked result of a link search: either a personal link or a link posted in a channel.
+ *
+ * @param type LINK for a personal link, CHANNEL_LINK for a channel link
+ * @param score the relevance of the result, higher is better
+ * @param link the personal link, set when the type is LINK
+ * @param channelLink the channel link, set when the type is CHANNEL_LINK
+ */
+public record LinkSearchHit(String type, double score, LinkView link, ChannelLinkView channelLink) {
+}
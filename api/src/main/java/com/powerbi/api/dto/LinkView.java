@@ -0,0 +1,40 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.Link;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a link with its owner, selected directly by the repositories.
+ * Serializes like the Link entity without loading it or its user into the persistence context.
+ *
+ * @param id the link's ID
+ * @param link the URL of the report
+ * @param title the link's title
+ * @param description the link's description
+ * @param dateCreated when the link was created
+ * @param user the owner of the link, or null if it has none
+ */
+public record LinkView(Long id, String link, String title, String description, Instant dateCreated, UserView user) {
+
+    /**
+     * Builds the view of a loaded link.
+     *
+     * @param link the link
+     * @return the view of the link with its owner
+     */
+    public static LinkView of(Link link) {
+        return new LinkView(link.getId(), link.getLink(), link.getTitle(), link.getDescription(),
+                link.getDateCreated(), UserView.of(link.getUser()));
+    }
+
+    /**
+     * Flat constructor for JPQL constructor expressions.
+     */
+    public LinkView(
+            Long id, String link, String title, String description, Instant dateCreated,
+            Long userId, String userEmail, Instant userDateCreated
+    ) {
+        this(id, link, title, description, dateCreated, UserView.ofNullable(userId, userEmail, userDateCreated));
+    }
+}
@@ -0,0 +1,13 @@
+package com.powerbi.api.dto;
+
+import java.util.List;
+
+/**
+ * The best results of a global search for one kind of item.
+ *
+ * @param total the number of matching items the caller can see
+ * @param hits the best matches, best first
+ * @param <T> the type of the matching items
+ */
+public record SearchGroup<T>(long total, List<SearchHit<T>> hits) {
+}
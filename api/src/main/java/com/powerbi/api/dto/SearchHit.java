@@ -0,0 +1,11 @@
+package com.powerbi.api.dto;
+
+/**
+ * One ranked result of a global search.
+ *
+ * @param score the relevance of the result, higher is better
+ * @param item the matching channel, channel link, link or user
+ * @param <T> the type of the matching item
+ */
+public record SearchHit<T>(double score, T item) {
+}
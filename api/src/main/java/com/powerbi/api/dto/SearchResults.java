@@ -0,0 +1,19 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.Channel;
+
+/**
+ * Results of a global search, grouped by the kind of item matched.
+ *
+ * @param channels the matching channels
+ * @param channelLinks the matching links posted in channels
+ * @param links the matching personal links of the caller
+ * @param users the matching users
+ */
+public record SearchResults(
+        SearchGroup<Channel> channels,
+        SearchGroup<ChannelLinkView> channelLinks,
+        SearchGroup<LinkView> links,
+        SearchGroup<UserView> users
+) {
+}
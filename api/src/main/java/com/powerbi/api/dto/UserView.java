@@ -0,0 +1,32 @@
+package com.powerbi.api.dto;
+
+import com.powerbi.api.model.User;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a user, returned by search and embedded in other projections.
+ *
+ * @param id the user's ID
+ * @param email the user's email
+ * @param dateCreated when the user was created
+ */
+public record UserView(Long id, String email, Instant dateCreated) {
+
+    /**
+     * Builds the view of a loaded user.
+     *
+     * @param user the user, or null
+     * @return the view of the user, or null if there is none
+     */
+    public static UserView of(User user) {
+        return user == null ? null : new UserView(user.getId(), user.getEmail(), user.getDateCreated());
+    }
+
+    /**
+     * Builds the view from columns of an outer join, where a missing user has a null ID.
+     */
+    static UserView ofNullable(Long id, String email, Instant dateCreated) {
+        return id == null ? null : new UserView(id, email, dateCreated);
+    }
+}
@@ -7,7 +7,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.Instant;
 
@@ -18,12 +20,17 @@ import java.time.Instant;
  * 
  * The visibility of a channel can be either PUBLIC or PRIVATE.
  * This entity is mapped to a database table using JPA annotations.
+ *
+ * A deleted channel keeps its row, marked with {@code dateDeleted}, until its dependent rows
+ * have been purged in the background. Marked channels are filtered out of every query.
  */
 @Entity
+@SQLRestriction("date_deleted IS NULL")
 public class Channel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "channel_seq")
+    @SequenceGenerator(name = "channel_seq", sequenceName = "channel_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -38,6 +45,8 @@ public class Channel {
     @Column(nullable = false, updatable = false)
     private Instant dateCreated;
 
+    private Instant dateDeleted;
+
     /**
      * Enum representing the visibility of a channel.
      * 
@@ -85,4 +94,8 @@ public class Channel {
     public Instant getDateCreated() {
         return dateCreated;
     }
-}
\ No newline at end of file
+
+    public Instant getDateDeleted() {
+        return dateDeleted;
+    }
+}
@@ -5,8 +5,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
@@ -19,13 +22,16 @@ import java.time.Instant;
  * Links a specific link to a channel with a title and metadata.
  * 
  * Includes references to the link and channel, as well as the creation date of the association.
- * This entity is mapped to a database table using JPA annotations.
+ * This entity is mapped to a database table using JPA annotations,
+ * indexed for listing a channel's links in creation order.
  */
 @Entity
+@Table(indexes = @Index(name = "ix_channel_link_channel_created", columnList = "channel_id, date_created, id"))
 public class ChannelLink {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "channel_link_seq")
+    @SequenceGenerator(name = "channel_link_seq", sequenceName = "channel_link_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -0,0 +1,91 @@
+package com.powerbi.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorColumn;
+import jakarta.persistence.DiscriminatorType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * Base entity for a user's role in a channel.
+ * Members, admins and owners are all stored in the single {@code channel_role} table,
+ * told apart by its {@code role} column, with at most one row per user and channel.
+ * The subclasses {@link ChannelMember}, {@link ChannelAdmin} and {@link ChannelOwner}
+ * keep their own repositories, which only see rows of their role.
+ */
+@Entity
+@Table(
+        name = "channel_role",
+        uniqueConstraints = @UniqueConstraint(name = "uk_channel_role_user_channel", columnNames = {"user_id", "channel_id"}),
+        indexes = @Index(name = "ix_channel_role_channel", columnList = "channel_id")
+)
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "role", discriminatorType = DiscriminatorType.STRING, length = 16)
+public abstract class ChannelMembership {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "channel_role_seq")
+    @SequenceGenerator(name = "channel_role_seq", sequenceName = "channel_role_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "channel_id", nullable = false)
+    private Channel channel;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant dateCreated;
+
+    /**
+     * Returns the role this row grants, matching its {@code role} column.
+     *
+     * @return MEMBER, ADMIN or OWNER
+     */
+    public abstract ChannelRole getRole();
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public void setChannel(Channel channel) {
+        this.channel = channel;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
+}
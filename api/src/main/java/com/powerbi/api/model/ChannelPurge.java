@@ -0,0 +1,138 @@
+package com.powerbi.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Represents a ChannelPurge entity in the system.
+ * Records the background purge of a deleted channel, by the channel's ID, and outlives the
+ * channel row so its progress can still be polled once the purge is done.
+ *
+ * Shared by every API node: a node runs a purge only after claiming it with a conditional update
+ * on this row, which sets a claim token and a lease. The lease is renewed with every chunk, so a
+ * purge cut short by a crash is claimed again by any node once its lease runs out.
+ * This entity is mapped to a database table using JPA annotations.
+ */
+@Entity
+@Table(indexes = @Index(name = "ix_channel_purge_state_date_next_attempt", columnList = "state, date_next_attempt"))
+public class ChannelPurge {
+    @Id
+    private Long channelId;
+
+    private Long requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+
+    @Column(length = 32)
+    private String purgedTable;
+
+    @Column(nullable = false)
+    private long rowsDeleted;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    private Instant leaseExpiresAt;
+
+    @Column(nullable = false)
+    private Instant dateRequested;
+
+    private Instant dateNextAttempt;
+
+    private Instant dateFinished;
+
+    /**
+     * The stages of a channel purge.
+     */
+    public enum State {
+        /** Waiting for the deletion to commit or for a node to claim it. */
+        PENDING,
+
+        /** Removing dependent rows chunk by chunk. */
+        RUNNING,
+
+        /** Every row of the channel is gone. */
+        DONE,
+
+        /** Stopped on an error; the channel stays hidden and the purge is retried after a growing delay. */
+        FAILED
+    }
+
+    // Getters and Setters
+
+    public Long getChannelId() {
+        return channelId;
+    }
+
+    public void setChannelId(Long channelId) {
+        this.channelId = channelId;
+    }
+
+    public Long getRequestedBy() {
+        return requestedBy;
+    }
+
+    public void setRequestedBy(Long requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getPurgedTable() {
+        return purgedTable;
+    }
+
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public Instant getDateRequested() {
+        return dateRequested;
+    }
+
+    public void setDateRequested(Instant dateRequested) {
+        this.dateRequested = dateRequested;
+    }
+
+    public Instant getDateNextAttempt() {
+        return dateNextAttempt;
+    }
+
+    public void setDateNextAttempt(Instant dateNextAttempt) {
+        this.dateNextAttempt = dateNextAttempt;
+    }
+
+    public Instant getDateFinished() {
+        return dateFinished;
+    }
+}
@@ -24,5 +24,20 @@ public enum ChannelRole {
     SUPER_USER,
 
     /** A user without access to the channel. */
-    NOT_ALLOWED
+    NOT_ALLOWED;
+
+    /**
+     * Checks if this role grants at least the privileges of another role.
+     * Roles rank NOT_ALLOWED, MEMBER, ADMIN, OWNER, SUPER_USER from lowest to highest.
+     *
+     * @param role the minimum role required
+     * @return true if this role is the given role or ranks above it, false otherwise
+     */
+    public boolean isAtLeast(ChannelRole role) {
+        return rank() >= role.rank();
+    }
+
+    private int rank() {
+        return this == NOT_ALLOWED ? -1 : ordinal();
+    }
 }
\ No newline at end of file
@@ -7,16 +7,25 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.Instant;
 
+/**
+ * Represents a Cluster entity in the system.
+ * A cluster is a named group of a channel's links, shown together on the channel's dashboard.
+ *
+ * The links of a cluster and their order are held by {@link ClusterLink} entities.
+ * This entity is mapped to a database table using JPA annotations.
+ */
 @Entity
 public class Cluster {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cluster_seq")
+    @SequenceGenerator(name = "cluster_seq", sequenceName = "cluster_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -31,4 +40,28 @@ public class Cluster {
     private Instant dateCreated;
 
     // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public void setChannel(Channel channel) {
+        this.channel = channel;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
 }
@@ -5,18 +5,36 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.Instant;
 
+/**
+ * Represents a ClusterLink entity in the system.
+ * Places a channel link in a cluster, at the position given by its ordering key.
+ *
+ * Ordering keys are sparse: links sit {@code ClusterService.IDX_GAP} apart, and a moved link takes
+ * a key between its new neighbours, so a move rewrites only the moved row. Keys are not unique,
+ * ties are ordered by ID. A channel link is placed in a cluster at most once. This entity is
+ * mapped to a database table using JPA annotations, indexed for listing a cluster's links in order.
+ */
 @Entity
+@Table(
+        indexes = @Index(name = "ix_cluster_link_cluster_idx", columnList = "cluster_id, idx"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_cluster_link_cluster_channel_link", columnNames = {"cluster_id", "channel_link_id"})
+)
 public class ClusterLink {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cluster_link_seq")
+    @SequenceGenerator(name = "cluster_link_seq", sequenceName = "cluster_link_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -35,4 +53,36 @@ public class ClusterLink {
     private Instant dateCreated;
 
     // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public ChannelLink getChannelLink() {
+        return channelLink;
+    }
+
+    public void setChannelLink(ChannelLink channelLink) {
+        this.channelLink = channelLink;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(Cluster cluster) {
+        this.cluster = cluster;
+    }
+
+    public int getIdx() {
+        return idx;
+    }
+
+    public void setIdx(int idx) {
+        this.idx = idx;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
 }
@@ -0,0 +1,55 @@
+package com.powerbi.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Represents a RevokedToken entity in the system.
+ * Records a token revoked on logout, by its token ID (jti claim), until the token expires.
+ *
+ * Shared by every API node: each node keeps the revocations in memory and picks up the ones
+ * made on other nodes by the revocation date, see {@code TokenRevocationStore}.
+ * This entity is mapped to a database table using JPA annotations.
+ */
+@Entity
+@Table(indexes = @Index(name = "ix_revoked_token_date_revoked", columnList = "date_revoked"))
+public class RevokedToken {
+    @Id
+    @Column(length = 64)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant dateRevoked;
+
+    // Getters and Setters
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getDateRevoked() {
+        return dateRevoked;
+    }
+}
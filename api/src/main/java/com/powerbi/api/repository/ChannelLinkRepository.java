@@ -1,17 +1,130 @@
 package com.powerbi.api.repository;
 
+import com.powerbi.api.dto.ChannelLinkView;
 import com.powerbi.api.model.ChannelLink;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing ChannelLink entities.
- * Provides methods for querying ChannelLink data by channel ID and specific link IDs.
+ * Provides methods for querying ChannelLink data by channel ID and specific link IDs,
+ * for listing a channel's links page by page in creation order, and for the search index.
+ * Pages are selected as flat {@link ChannelLinkView} projections with the link and its owner,
+ * in a single query and without loading entities into the persistence context.
  */
 public interface ChannelLinkRepository extends JpaRepository<ChannelLink, Long> {
     List<ChannelLink> findByChannelId(Long channelId);
     Optional<ChannelLink> findByChannelIdAndId(Long channelId, Long channelLinkId);
-}
 
+    /**
+     * Lists the channels a link is posted in.
+     *
+     * @param linkId the ID of the link
+     * @return the IDs of the channels
+     */
+    @Query("SELECT DISTINCT cl.channel.id FROM ChannelLink cl WHERE cl.link.id = :linkId")
+    List<Long> findChannelIdsByLinkId(@Param("linkId") Long linkId);
+
+    /**
+     * Returns a chunk of the IDs of the channel links of a channel, used to purge a deleted channel.
+     *
+     * @param channelId the ID of the channel
+     * @param limit the maximum number of IDs to return
+     * @return the IDs, in no particular order
+     */
+    @Query("SELECT cl.id FROM ChannelLink cl WHERE cl.channel.id = :channelId")
+    List<Long> findIdsByChannelId(@Param("channelId") Long channelId, Limit limit);
+
+    /**
+     * Returns the oldest links of a channel.
+     *
+     * @param channelId the ID of the channel
+     * @param limit the maximum number of links to return
+     * @return the links ordered by creation date, then ID
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ChannelLinkView(
+                cl.id, cl.title, cl.dateCreated, cl.channel.id,
+                l.id, l.link, l.title, l.description, l.dateCreated,
+                u.id, u.email, u.dateCreated)
+            FROM ChannelLink cl
+            JOIN cl.link l
+            LEFT JOIN l.user u
+            WHERE cl.channel.id = :channelId
+            ORDER BY cl.dateCreated, cl.id
+            """)
+    List<ChannelLinkView> findFirstPage(@Param("channelId") Long channelId, Limit limit);
+
+    /**
+     * Returns the links of a channel created after the given position, seeking on the
+     * (channel, creation date, ID) index instead of skipping rows with an offset.
+     *
+     * @param channelId the ID of the channel
+     * @param dateCreated the creation date of the last link already returned
+     * @param id the ID of the last link already returned
+     * @param limit the maximum number of links to return
+     * @return the following links ordered by creation date, then ID
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ChannelLinkView(
+                cl.id, cl.title, cl.dateCreated, cl.channel.id,
+                l.id, l.link, l.title, l.description, l.dateCreated,
+                u.id, u.email, u.dateCreated)
+            FROM ChannelLink cl
+            JOIN cl.link l
+            LEFT JOIN l.user u
+            WHERE cl.channel.id = :channelId
+            AND (cl.dateCreated > :dateCreated OR (cl.dateCreated = :dateCreated AND cl.id > :id))
+            ORDER BY cl.dateCreated, cl.id
+            """)
+    List<ChannelLinkView> findPageAfter(
+            @Param("channelId") Long channelId,
+            @Param("dateCreated") Instant dateCreated,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    /**
+     * Lists every channel link as flat projections, used to build the search index.
+     * Joining the channel leaves out the links of deleted channels awaiting their purge.
+     *
+     * @return all channel links with their links and owners
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ChannelLinkView(
+                cl.id, cl.title, cl.dateCreated, cl.channel.id,
+                l.id, l.link, l.title, l.description, l.dateCreated,
+                u.id, u.email, u.dateCreated)
+            FROM ChannelLink cl
+            JOIN cl.channel c
+            JOIN cl.link l
+            LEFT JOIN l.user u
+            """)
+    List<ChannelLinkView> findAllViews();
+
+    /**
+     * Loads channel links by ID as flat projections, used to return search results.
+     *
+     * @param ids the IDs of the channel links
+     * @return the channel links that still exist, in no particular order
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ChannelLinkView(
+                cl.id, cl.title, cl.dateCreated, cl.channel.id,
+                l.id, l.link, l.title, l.description, l.dateCreated,
+                u.id, u.email, u.dateCreated)
+            FROM ChannelLink cl
+            JOIN cl.channel c
+            JOIN cl.link l
+            LEFT JOIN l.user u
+            WHERE cl.id IN :ids
+            """)
+    List<ChannelLinkView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+}
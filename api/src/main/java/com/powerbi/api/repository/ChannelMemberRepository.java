@@ -1,7 +1,11 @@
 package com.powerbi.api.repository;
 
+import com.powerbi.api.dto.ChannelMembershipView;
 import com.powerbi.api.model.ChannelMember;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,11 +14,30 @@ import java.util.Optional;
  * Repository interface for managing ChannelMember entities.
  * Provides methods for querying ChannelMember data by channel ID, user ID,
  * and combinations of user and channel IDs.
+ * List lookups fetch the user and channel in the same statement, so mapping
+ * the results does not issue one extra select per row.
  */
 public interface ChannelMemberRepository extends JpaRepository<ChannelMember, Long> {
+    @EntityGraph(attributePaths = {"user", "channel"})
     List<ChannelMember> findByChannelId(Long channelId);
+    @EntityGraph(attributePaths = {"user", "channel"})
     List<ChannelMember> findByUserId(Long id);
     Optional<ChannelMember> findByUserIdAndChannelId(Long userId, Long channelId);
     boolean existsByUserIdAndChannelId(Long userId, Long channelId);
-}
 
+    /**
+     * Lists the members of a channel as flat projections with their users, in one query.
+     *
+     * @param channelId the ID of the channel
+     * @return the members ordered by when they were added
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ChannelMembershipView(
+                r.id, r.dateCreated, r.channel.id, u.id, u.email, u.dateCreated)
+            FROM ChannelMember r
+            JOIN r.user u
+            WHERE r.channel.id = :channelId
+            ORDER BY r.dateCreated, r.id
+            """)
+    List<ChannelMembershipView> findViewsByChannelId(@Param("channelId") Long channelId);
+}
@@ -0,0 +1,37 @@
+package com.powerbi.api.repository;
+
+import com.powerbi.api.model.ChannelMembership;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing ChannelMembership entities of every role.
+ * Looks up the single role row a user holds in a channel, whichever role it is.
+ */
+public interface ChannelMembershipRepository extends JpaRepository<ChannelMembership, Long> {
+    Optional<ChannelMembership> findByUserIdAndChannelId(Long userId, Long channelId);
+
+    /**
+     * Returns the IDs of every user holding a role in a channel, in one query.
+     *
+     * @param channelId the ID of the channel
+     * @return the IDs of the channel's members, admins and owners
+     */
+    @Query("SELECT r.user.id FROM ChannelMembership r WHERE r.channel.id = :channelId")
+    List<Long> findUserIdsByChannelId(@Param("channelId") Long channelId);
+
+    /**
+     * Returns a chunk of the IDs of the role rows of a channel, used to purge a deleted channel.
+     *
+     * @param channelId the ID of the channel
+     * @param limit the maximum number of IDs to return
+     * @return the IDs, in no particular order
+     */
+    @Query("SELECT r.id FROM ChannelMembership r WHERE r.channel.id = :channelId")
+    List<Long> findIdsByChannelId(@Param("channelId") Long channelId, Limit limit);
+}
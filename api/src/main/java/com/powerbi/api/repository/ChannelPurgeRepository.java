@@ -0,0 +1,126 @@
+package com.powerbi.api.repository;
+
+import com.powerbi.api.model.ChannelPurge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for managing ChannelPurge entities.
+ * Provides methods for finding purges that are due, and for claiming, advancing and finishing a
+ * purge with conditional updates, so that only the node holding a purge's claim token writes it.
+ * Every update returns the number of rows changed: 0 means the claim was not won or has been lost.
+ */
+public interface ChannelPurgeRepository extends JpaRepository<ChannelPurge, Long> {
+
+    /**
+     * Returns the purges any node may claim: waiting ones whose next attempt is due, and running
+     * ones whose lease has run out because the node running them stopped.
+     *
+     * @param now the current time
+     * @return the IDs of the purged channels, oldest request first
+     */
+    @Query("""
+            SELECT p.channelId FROM ChannelPurge p
+            WHERE (p.state IN (PENDING, FAILED) AND p.dateNextAttempt <= :now)
+            OR (p.state = RUNNING AND p.leaseExpiresAt <= :now)
+            ORDER BY p.dateRequested
+            """)
+    List<Long> findDueIds(@Param("now") Instant now);
+
+    /**
+     * Records a pending purge for every deleted channel without one, such as channels deleted
+     * before purges were recorded. Nodes running this at the same time may collide on a channel,
+     * in which case all but one fail with a constraint violation.
+     *
+     * @param now the current time, when the purges are requested and due
+     * @return the number of purges recorded
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO channel_purge (channel_id, state, rows_deleted, attempts, date_requested, date_next_attempt)
+            SELECT c.id, 'PENDING', 0, 0, :now, :now FROM channel c
+            WHERE c.date_deleted IS NOT NULL
+            AND NOT EXISTS (SELECT 1 FROM channel_purge p WHERE p.channel_id = c.id)
+            """, nativeQuery = true)
+    int trackUntracked(@Param("now") Instant now);
+
+    /**
+     * Claims a purge if it is due, see {@link #findDueIds(Instant)}, marking it running under a
+     * new claim token and lease. Of several nodes claiming the same purge, only one changes the row.
+     *
+     * @param channelId the ID of the purged channel
+     * @param claimToken the token identifying this attempt
+     * @param now the current time
+     * @param leaseExpiresAt when other nodes may claim the purge unless the lease is renewed
+     * @return 1 if the purge was claimed, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ChannelPurge p
+            SET p.state = RUNNING, p.claimToken = :claimToken,
+                p.leaseExpiresAt = :leaseExpiresAt, p.attempts = p.attempts + 1, p.dateFinished = NULL
+            WHERE p.channelId = :channelId
+            AND ((p.state IN (PENDING, FAILED) AND p.dateNextAttempt <= :now)
+                OR (p.state = RUNNING AND p.leaseExpiresAt <= :now))
+            """)
+    int claim(
+            @Param("channelId") Long channelId,
+            @Param("claimToken") String claimToken,
+            @Param("now") Instant now,
+            @Param("leaseExpiresAt") Instant leaseExpiresAt
+    );
+
+    /**
+     * Records the rows removed by one chunk and renews the lease, if the claim is still held.
+     *
+     * @param channelId the ID of the purged channel
+     * @param claimToken the token of the running attempt
+     * @param purgedTable the table the chunk was deleted from
+     * @param deleted the number of rows the chunk removed
+     * @param leaseExpiresAt the renewed lease
+     * @return 1 if the claim is still held, 0 if it was lost
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ChannelPurge p
+            SET p.purgedTable = :purgedTable, p.rowsDeleted = p.rowsDeleted + :deleted, p.leaseExpiresAt = :leaseExpiresAt
+            WHERE p.channelId = :channelId AND p.claimToken = :claimToken
+            """)
+    int recordProgress(
+            @Param("channelId") Long channelId,
+            @Param("claimToken") String claimToken,
+            @Param("purgedTable") String purgedTable,
+            @Param("deleted") long deleted,
+            @Param("leaseExpiresAt") Instant leaseExpiresAt
+    );
+
+    /**
+     * Ends the running attempt of a purge, if the claim is still held, and releases the claim.
+     *
+     * @param channelId the ID of the purged channel
+     * @param claimToken the token of the running attempt
+     * @param state DONE, or FAILED to have the purge retried
+     * @param dateFinished when the attempt ended
+     * @param dateNextAttempt when a failed purge is due again, or null once it is done
+     * @return 1 if the claim was still held, 0 if it was lost
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ChannelPurge p
+            SET p.state = :state, p.purgedTable = NULL, p.claimToken = NULL, p.leaseExpiresAt = NULL,
+                p.dateFinished = :dateFinished, p.dateNextAttempt = :dateNextAttempt
+            WHERE p.channelId = :channelId AND p.claimToken = :claimToken
+            """)
+    int finish(
+            @Param("channelId") Long channelId,
+            @Param("claimToken") String claimToken,
+            @Param("state") ChannelPurge.State state,
+            @Param("dateFinished") Instant dateFinished,
+            @Param("dateNextAttempt") Instant dateNextAttempt
+    );
+}
@@ -1,8 +1,15 @@
 package com.powerbi.api.repository;
 
 import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,9 +17,120 @@ import java.util.Optional;
  * Repository interface for managing Channel entities.
  * Provides methods for querying Channel data by name and visibility,
  * and checking for the existence of channels by name.
+ * Also resolves a user's highest channel role in a single query,
+ * and searches the channels a user can see with database-side filtering and paging.
+ * Deleted channels are hidden by the entity's restriction; the native queries below are the
+ * only way to reach them while they wait to be purged.
  */
 public interface ChannelRepository extends JpaRepository<Channel, Long> {
     Optional<Channel> findByName(String name);
     List<Channel> findByVisibility(Channel.Visibility visibility);
     boolean existsByName(String name);
+
+    Page<Channel> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    Page<Channel> findByVisibilityAndNameContainingIgnoreCase(Channel.Visibility visibility, String name, Pageable pageable);
+
+    /**
+     * Searches channels that either have the given visibility or are in the given ID list.
+     * Suited to short ID lists, since each ID is bound as a separate parameter.
+     *
+     * @param visibility the visibility that makes a channel accessible, normally PUBLIC
+     * @param channelIds the IDs of the other accessible channels, must not be empty
+     * @param name the text the channel name must contain, ignoring case
+     * @param pageable the page and sort order to return
+     * @return the requested page of matching channels
+     */
+    @Query("""
+            SELECT c FROM Channel c
+            WHERE (c.visibility = :visibility OR c.id IN :channelIds)
+            AND LOWER(c.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE :#{escapeCharacter()}
+            """)
+    Page<Channel> searchByVisibilityOrIds(
+            @Param("visibility") Channel.Visibility visibility,
+            @Param("channelIds") List<Long> channelIds,
+            @Param("name") String name,
+            Pageable pageable
+    );
+
+    /**
+     * Searches channels that either have the given visibility or that the user owns,
+     * administers or is a member of, resolving all three roles with one subquery.
+     *
+     * @param visibility the visibility that makes a channel accessible, normally PUBLIC
+     * @param userId the ID of the user
+     * @param name the text the channel name must contain, ignoring case
+     * @param pageable the page and sort order to return
+     * @return the requested page of matching channels
+     */
+    @Query("""
+            SELECT c FROM Channel c
+            WHERE (c.visibility = :visibility OR c.id IN (
+                SELECT r.channel.id FROM ChannelMembership r WHERE r.user.id = :userId))
+            AND LOWER(c.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE :#{escapeCharacter()}
+            """)
+    Page<Channel> searchByVisibilityOrMembership(
+            @Param("visibility") Channel.Visibility visibility,
+            @Param("userId") Long userId,
+            @Param("name") String name,
+            Pageable pageable
+    );
+
+    @Query("SELECT c.id FROM Channel c WHERE c.visibility = :visibility")
+    List<Long> findIdsByVisibility(@Param("visibility") Channel.Visibility visibility);
+
+    /**
+     * Returns the IDs of the channels a user owns, administers or is a member of, in one query.
+     *
+     * @param userId the ID of the user
+     * @return the distinct channel IDs
+     */
+    @Query("SELECT r.channel.id FROM ChannelMembership r WHERE r.user.id = :userId")
+    List<Long> findJoinedChannelIds(@Param("userId") Long userId);
+
+    /**
+     * Returns the highest role a user holds in a channel: OWNER, ADMIN, MEMBER or NOT_ALLOWED.
+     * Resolved with a single index seek on the unique (user, channel) role row.
+     * Super user status is not checked here, it is carried by the authenticated principal.
+     *
+     * @param userId the ID of the user
+     * @param channelId the ID of the channel
+     * @return the highest role, or empty if the channel does not exist
+     */
+    default Optional<ChannelRole> findHighestRole(Long userId, Long channelId) {
+        return findHighestRoleName(userId, channelId).map(ChannelRole::valueOf);
+    }
+
+    @Query("""
+            SELECT CASE TYPE(r)
+                WHEN ChannelOwner THEN 'OWNER'
+                WHEN ChannelAdmin THEN 'ADMIN'
+                WHEN ChannelMember THEN 'MEMBER'
+                ELSE 'NOT_ALLOWED'
+            END
+            FROM Channel c
+            LEFT JOIN ChannelMembership r ON r.channel.id = c.id AND r.user.id = :userId
+            WHERE c.id = :channelId
+            """)
+    Optional<String> findHighestRoleName(@Param("userId") Long userId, @Param("channelId") Long channelId);
+
+    /**
+     * Marks a channel as deleted, hiding it from every other query until it is purged.
+     *
+     * @param channelId the ID of the channel
+     * @param dateDeleted when the channel was deleted
+     * @return the number of channels marked, 0 if it does not exist or is already deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Channel c SET c.dateDeleted = :dateDeleted WHERE c.id = :channelId")
+    int markDeleted(@Param("channelId") Long channelId, @Param("dateDeleted") Instant dateDeleted);
+
+    /**
+     * Removes the row of a deleted channel, once its dependent rows have been purged.
+     *
+     * @param channelId the ID of the channel
+     * @return the number of rows removed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM channel WHERE id = :channelId AND date_deleted IS NOT NULL", nativeQuery = true)
+    int deleteDeletedById(@Param("channelId") Long channelId);
 }
@@ -1,11 +1,126 @@
 package com.powerbi.api.repository;
 
+import com.powerbi.api.dto.ClusterLinkView;
 import com.powerbi.api.model.ClusterLink;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Repository interface for managing ClusterLink entities.
+ * Provides methods for listing a cluster's links in order, and for the ordering key lookups
+ * that place a link between its neighbours. Key lookups select only the keys, seeking on the
+ * (cluster, key) index, so they never read stale keys from the persistence context.
+ */
 public interface ClusterLinkRepository extends JpaRepository<ClusterLink, Long> {
     List<ClusterLink> findByClusterId(Long groupId);
     List<ClusterLink> findByChannelLinkId(Long channelLinkId);
+    Optional<ClusterLink> findByClusterIdAndId(Long clusterId, Long clusterLinkId);
+    boolean existsByClusterIdAndChannelLinkId(Long clusterId, Long channelLinkId);
+
+    /**
+     * Lists the links of a cluster in order, with their channel links, links and owners.
+     *
+     * @param clusterId the ID of the cluster
+     * @return the cluster's links ordered by key, then ID
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ClusterLinkView(
+                cl.id, cl.cluster.id, cl.idx, cl.dateCreated,
+                chl.id, chl.title, chl.dateCreated, chl.channel.id,
+                l.id, l.link, l.title, l.description, l.dateCreated,
+                u.id, u.email, u.dateCreated)
+            FROM ClusterLink cl
+            JOIN cl.channelLink chl
+            JOIN chl.link l
+            LEFT JOIN l.user u
+            WHERE cl.cluster.id = :clusterId
+            ORDER BY cl.idx, cl.id
+            """)
+    List<ClusterLinkView> findViewsByClusterId(@Param("clusterId") Long clusterId);
+
+    /**
+     * Lists the links of every cluster of a channel in one query, used to assemble the
+     * channel's layout.
+     *
+     * @param channelId the ID of the channel
+     * @return the links ordered by cluster, then key, then ID
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ClusterLinkView(
+                cl.id, c.id, cl.idx, cl.dateCreated,
+                chl.id, chl.title, chl.dateCreated, chl.channel.id,
+                l.id, l.link, l.title, l.description, l.dateCreated,
+                u.id, u.email, u.dateCreated)
+            FROM ClusterLink cl
+            JOIN cl.cluster c
+            JOIN cl.channelLink chl
+            JOIN chl.link l
+            LEFT JOIN l.user u
+            WHERE c.channel.id = :channelId
+            ORDER BY c.id, cl.idx, cl.id
+            """)
+    List<ClusterLinkView> findViewsByChannelId(@Param("channelId") Long channelId);
+
+    /**
+     * Returns the ordering key of a link of a cluster.
+     *
+     * @param clusterId the ID of the cluster
+     * @param clusterLinkId the ID of the cluster link
+     * @return the key, or empty if the link is not in the cluster
+     */
+    @Query("SELECT cl.idx FROM ClusterLink cl WHERE cl.cluster.id = :clusterId AND cl.id = :clusterLinkId")
+    Optional<Integer> findIdx(@Param("clusterId") Long clusterId, @Param("clusterLinkId") Long clusterLinkId);
+
+    /**
+     * Returns the highest ordering key of a cluster.
+     *
+     * @param clusterId the ID of the cluster
+     * @return the key of the last link, or empty if the cluster is empty
+     */
+    @Query("SELECT MAX(cl.idx) FROM ClusterLink cl WHERE cl.cluster.id = :clusterId")
+    Optional<Integer> findLastIdx(@Param("clusterId") Long clusterId);
+
+    /**
+     * Returns the highest ordering key of a cluster below the given key.
+     *
+     * @param clusterId the ID of the cluster
+     * @param idx the key to look below
+     * @return the key of the preceding link, or empty if there is none
+     */
+    @Query("SELECT MAX(cl.idx) FROM ClusterLink cl WHERE cl.cluster.id = :clusterId AND cl.idx < :idx")
+    Optional<Integer> findIdxBefore(@Param("clusterId") Long clusterId, @Param("idx") int idx);
+
+    /**
+     * Lists the IDs of a cluster's links in order, used to compact its ordering keys.
+     *
+     * @param clusterId the ID of the cluster
+     * @return the IDs ordered by key, then ID
+     */
+    @Query("SELECT cl.id FROM ClusterLink cl WHERE cl.cluster.id = :clusterId ORDER BY cl.idx, cl.id")
+    List<Long> findIdsInOrder(@Param("clusterId") Long clusterId);
+
+    /**
+     * Deletes every link of a cluster in one statement.
+     *
+     * @param clusterId the ID of the cluster
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ClusterLink cl WHERE cl.cluster.id = :clusterId")
+    void deleteByClusterId(@Param("clusterId") Long clusterId);
+
+    /**
+     * Returns a chunk of the IDs of the cluster links in the clusters of a channel, used to purge a deleted channel.
+     *
+     * @param channelId the ID of the channel
+     * @param limit the maximum number of IDs to return
+     * @return the IDs, in no particular order
+     */
+    @Query("SELECT cl.id FROM ClusterLink cl WHERE cl.cluster.channel.id = :channelId")
+    List<Long> findIdsByChannelId(@Param("channelId") Long channelId, Limit limit);
 }
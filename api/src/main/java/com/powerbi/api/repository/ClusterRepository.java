@@ -1,10 +1,44 @@
 package com.powerbi.api.repository;
 
+import com.powerbi.api.dto.ClusterView;
 import com.powerbi.api.model.Cluster;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Repository interface for managing Cluster entities.
+ * Provides methods for querying the clusters of a channel.
+ */
 public interface ClusterRepository extends JpaRepository<Cluster, Long> {
     List<Cluster> findByChannelId(Long channelId);
-}
\ No newline at end of file
+    Optional<Cluster> findByChannelIdAndId(Long channelId, Long clusterId);
+
+    /**
+     * Lists the clusters of a channel as projections.
+     *
+     * @param channelId the ID of the channel
+     * @return the channel's clusters ordered by ID
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.ClusterView(c.id, c.name, c.dateCreated, c.channel.id)
+            FROM Cluster c
+            WHERE c.channel.id = :channelId
+            ORDER BY c.id
+            """)
+    List<ClusterView> findViewsByChannelId(@Param("channelId") Long channelId);
+
+    /**
+     * Returns a chunk of the IDs of the clusters of a channel, used to purge a deleted channel.
+     *
+     * @param channelId the ID of the channel
+     * @param limit the maximum number of IDs to return
+     * @return the IDs, in no particular order
+     */
+    @Query("SELECT c.id FROM Cluster c WHERE c.channel.id = :channelId")
+    List<Long> findIdsByChannelId(@Param("channelId") Long channelId, Limit limit);
+}
@@ -1,19 +1,66 @@
 package com.powerbi.api.repository;
 
+import com.powerbi.api.dto.LinkView;
 import com.powerbi.api.model.Link;
-import com.powerbi.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing Link entities.
- * Provides methods for querying Link data by user, title, and specific link IDs.
+ * Provides methods for querying Link data by user ID, title, and specific link IDs,
+ * and bulk projections for the search index.
  */
 public interface LinkRepository extends JpaRepository<Link, Long> {
-    List<Link> findByUser(User user);
-    List<Link> findByUserAndTitleContainingIgnoreCase(User user, String title);
-    Optional<Link> findByUserAndId(User user, Long linkId);
-}
+    Optional<Link> findByUserIdAndId(Long userId, Long linkId);
+
+    /**
+     * Lists a user's links as flat projections, optionally filtered by title.
+     *
+     * @param userId the ID of the user owning the links
+     * @param title the text the title must contain, ignoring case; empty to list every link
+     * @return the matching links ordered by ID
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.LinkView(
+                l.id, l.link, l.title, l.description, l.dateCreated, u.id, u.email, u.dateCreated)
+            FROM Link l
+            JOIN l.user u
+            WHERE u.id = :userId
+            AND LOWER(l.title) LIKE LOWER(CONCAT('%', :#{escape(#title)}, '%')) ESCAPE :#{escapeCharacter()}
+            ORDER BY l.id
+            """)
+    List<LinkView> findViewsByUserId(@Param("userId") Long userId, @Param("title") String title);
 
+    /**
+     * Lists every link as flat projections, used to build the search index.
+     *
+     * @return all links with their owners
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.LinkView(
+                l.id, l.link, l.title, l.description, l.dateCreated, u.id, u.email, u.dateCreated)
+            FROM Link l
+            LEFT JOIN l.user u
+            """)
+    List<LinkView> findAllViews();
+
+    /**
+     * Loads links by ID as flat projections, used to return search results.
+     *
+     * @param ids the IDs of the links
+     * @return the links that still exist, in no particular order
+     */
+    @Query("""
+            SELECT new com.powerbi.api.dto.LinkView(
+                l.id, l.link, l.title, l.description, l.dateCreated, u.id, u.email, u.dateCreated)
+            FROM Link l
+            LEFT JOIN l.user u
+            WHERE l.id IN :ids
+            """)
+    List<LinkView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,32 @@
+package com.powerbi.api.repository;
+
+import com.powerbi.api.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for managing RevokedToken entities.
+ * Provides methods for loading revocations that are still in force or were made recently,
+ * and for deleting the ones whose tokens have expired.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+    List<RevokedToken> findByDateRevokedGreaterThanEqual(Instant since);
+
+    /**
+     * Deletes the revocations of tokens that have expired, since they cannot authenticate anyway.
+     *
+     * @param now the current time
+     * @return the number of revocations deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,18 +1,48 @@
 package com.powerbi.api.repository;
 
+import com.powerbi.api.dto.UserView;
 import com.powerbi.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing User entities.
- * Provides methods for querying User data by email and checking for existence by email.
+ * Provides methods for querying User data by email and checking for existence by email,
+ * and for loading users as projections for the search index, user directory and member imports.
  */
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
-    List<User> findByEmailContaining(String email);
     Optional<User> findByEmail(String email);
-}
 
+    /**
+     * Lists every user as a projection, used to build the search index and user directory.
+     *
+     * @return all users
+     */
+    @Query("SELECT new com.powerbi.api.dto.UserView(u.id, u.email, u.dateCreated) FROM User u")
+    List<UserView> findAllViews();
+
+    /**
+     * Loads users by ID as projections, used to return search results.
+     *
+     * @param ids the IDs of the users
+     * @return the users that still exist, in no particular order
+     */
+    @Query("SELECT new com.powerbi.api.dto.UserView(u.id, u.email, u.dateCreated) FROM User u WHERE u.id IN :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads users by email as projections, used to resolve member imports.
+     * Emails are matched regardless of case, whatever the database collation.
+     *
+     * @param emails the emails of the users, in lower case
+     * @return the users that exist, in no particular order
+     */
+    @Query("SELECT new com.powerbi.api.dto.UserView(u.id, u.email, u.dateCreated) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<UserView> findViewsByEmailIn(@Param("emails") Collection<String> emails);
+}
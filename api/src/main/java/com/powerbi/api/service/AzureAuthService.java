@@ -0,0 +1,225 @@
+package com.powerbi.api.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.powerbi.api.config.AuthenticationFailedException;
+import com.powerbi.api.config.InvalidRequestException;
+import com.powerbi.api.config.UpstreamServiceException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class responsible for the Azure AD authorization code flow.
+ * Exchanges authorization codes for ID tokens without blocking, and verifies the ID tokens locally
+ * against the tenant's signing keys.
+ *
+ * The tenant's OpenID configuration and JWKS are cached and reloaded in the background before they
+ * expire, so a login normally costs a single request to the token endpoint.
+ *
+ * Failed logins are logged with their cause and reported by kind: an ID token that fails
+ * verification as an {@link AuthenticationFailedException}, and a tenant that fails to answer in
+ * time or answers with an error, at any step, as an {@link UpstreamServiceException}.
+ */
+@Service
+public class AzureAuthService {
+    private static final Logger logger = LoggerFactory.getLogger(AzureAuthService.class);
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() { };
+
+    /** Minimum time between JWKS reloads triggered by an unknown key ID. */
+    private static final Duration KEY_ROTATION_RELOAD_INTERVAL = Duration.ofMinutes(5);
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Value("${azure.authority:https://login.microsoftonline.com}")
+    private String authority;
+
+    @Value("${spring.cloud.azure.active-directory.profile.tenant-id}")
+    private String tenantId;
+
+    @Value("${spring.cloud.azure.active-directory.credential.client-id}")
+    private String clientId;
+
+    @Value("${spring.cloud.azure.active-directory.credential.client-secret}")
+    private String clientSecret;
+
+    @Value("${azure.redirect-uri}")
+    private String redirectUri;
+
+    @Value("${azure.metadata.timeToLive:86400}")
+    private long metadataTimeToLive;
+
+    @Value("${azure.metadata.refreshAhead:3600}")
+    private long metadataRefreshAhead;
+
+    @Value("${azure.requestTimeout:10}")
+    private long requestTimeout;
+
+    private WebClient webClient;
+    private RefreshAheadCache<OpenIdConfiguration> openIdConfiguration;
+    private RefreshAheadCache<Map<String, RSAPublicKey>> signingKeys;
+
+    /**
+     * Builds the web client and the metadata caches once the properties are injected.
+     */
+    @PostConstruct
+    void init() {
+        Duration timeToLive = Duration.ofSeconds(metadataTimeToLive);
+        Duration refreshAhead = Duration.ofSeconds(metadataRefreshAhead);
+
+        webClient = webClientBuilder.build();
+        openIdConfiguration = new RefreshAheadCache<>(this::fetchOpenIdConfiguration, timeToLive, refreshAhead);
+        signingKeys = new RefreshAheadCache<>(this::fetchSigningKeys, timeToLive, refreshAhead);
+    }
+
+    /**
+     * Returns the URL of the Azure login page for this application.
+     *
+     * @return the authorization URL the user is redirected to
+     */
+    public String getAuthorizationUrl() {
+        return String.format(
+                "%s/%s/oauth2/v2.0/authorize?client_id=%s&response_type=code&redirect_uri=%s&response_mode=query&scope=openid%%20profile%%20email",
+                authority, tenantId, clientId, redirectUri
+        );
+    }
+
+    /**
+     * Exchanges an authorization code for an ID token and extracts the verified email.
+     * The ID token's signature, issuer, audience and expiry are checked before the email is trusted.
+     *
+     * @param authorizationCode the authorization code returned by Azure
+     * @return a Mono emitting the email, or empty if the verified ID token carries no email. Fails with
+     *         an {@link InvalidRequestException} if no code is given, an {@link AuthenticationFailedException}
+     *         if the ID token fails verification, and an {@link UpstreamServiceException} if the tenant
+     *         fails to answer in time or answers with an error
+     */
+    public Mono<String> getEmail(String authorizationCode) {
+        if (authorizationCode == null) {
+            return Mono.error(new InvalidRequestException("No authorization code given."));
+        }
+        return openIdConfiguration.get()
+                .flatMap(configuration -> requestIdToken(configuration, authorizationCode)
+                        .flatMap(idToken -> verifyIdToken(configuration, idToken)))
+                .flatMap(idToken -> Mono.justOrEmpty(idToken.getClaim("email").asString()))
+                .onErrorMap(JWTVerificationException.class, e -> {
+                    logger.warn("Azure AD ID token failed verification", e);
+                    return new AuthenticationFailedException("ID token failed verification.", e);
+                })
+                .onErrorMap(e -> !(e instanceof AuthenticationFailedException), e -> {
+                    logger.error("Azure AD login failed upstream", e);
+                    return new UpstreamServiceException("Azure AD did not complete the login.", e);
+                });
+    }
+
+    private Mono<String> requestIdToken(OpenIdConfiguration configuration, String authorizationCode) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("client_id", clientId);
+        params.add("client_secret", clientSecret);
+        params.add("code", authorizationCode);
+        params.add("redirect_uri", redirectUri);
+        params.add("grant_type", "authorization_code");
+
+        return webClient.post()
+                .uri(configuration.tokenEndpoint())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .bodyValue(params)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(Duration.ofSeconds(requestTimeout))
+                .flatMap(tokenResponse -> Mono.justOrEmpty((String) tokenResponse.get("id_token")))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Token response carries no ID token")));
+    }
+
+    private Mono<DecodedJWT> verifyIdToken(OpenIdConfiguration configuration, String idToken) {
+        DecodedJWT decoded = JWT.decode(idToken);
+        String keyId = decoded.getKeyId();
+
+        return signingKeys.get()
+                .flatMap(keys -> keys.containsKey(keyId)
+                        ? Mono.just(keys)
+                        : signingKeys.reloadIfOlderThan(KEY_ROTATION_RELOAD_INTERVAL))  // Keys may have rotated
+                .flatMap(keys -> {
+                    RSAPublicKey key = keys.get(keyId);
+                    if (key == null) {
+                        return Mono.error(new JWTVerificationException("Unknown signing key: " + keyId));
+                    }
+                    return Mono.fromCallable(() -> JWT.require(Algorithm.RSA256(key, null))
+                            .withIssuer(configuration.issuer())
+                            .withAudience(clientId)
+                            .build()
+                            .verify(decoded));
+                });
+    }
+
+    private Mono<OpenIdConfiguration> fetchOpenIdConfiguration() {
+        String metadataUrl = authority + "/" + tenantId + "/v2.0/.well-known/openid-configuration";
+        return webClient.get()
+                .uri(metadataUrl)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(Duration.ofSeconds(requestTimeout))
+                .map(metadata -> new OpenIdConfiguration(
+                        (String) metadata.get("issuer"),
+                        (String) metadata.get("token_endpoint"),
+                        (String) metadata.get("jwks_uri")
+                ));
+    }
+
+    private Mono<Map<String, RSAPublicKey>> fetchSigningKeys() {
+        return openIdConfiguration.get()
+                .flatMap(configuration -> webClient.get()
+                        .uri(configuration.jwksUri())
+                        .retrieve()
+                        .bodyToMono(JSON_OBJECT)
+                        .timeout(Duration.ofSeconds(requestTimeout)))
+                .map(AzureAuthService::parseSigningKeys);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, RSAPublicKey> parseSigningKeys(Map<String, Object> jwks) {
+        Map<String, RSAPublicKey> keys = new HashMap<>();
+        for (Map<String, Object> jwk : (List<Map<String, Object>>) jwks.getOrDefault("keys", List.of())) {
+            if (!"RSA".equals(jwk.get("kty"))) {
+                continue;
+            }
+            try {
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("n")));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("e")));
+                RSAPublicKey key = (RSAPublicKey) KeyFactory.getInstance("RSA")
+                        .generatePublic(new RSAPublicKeySpec(modulus, exponent));
+                keys.put((String) jwk.get("kid"), key);
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                // Skip keys that cannot be used for RS256 verification
+            }
+        }
+        return keys;
+    }
+
+    private record OpenIdConfiguration(String issuer, String tokenEndpoint, String jwksUri) {
+    }
+}
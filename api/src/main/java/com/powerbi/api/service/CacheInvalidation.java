@@ -0,0 +1,80 @@
+package com.powerbi.api.service;
+
+/**
+ * Notice that entries of a per-node cache went stale, published through a
+ * {@link CacheInvalidationTransport} so every API node drops them. Each notice names the
+ * {@link Cache} it is for, and only that cache acts on it.
+ *
+ * A null field acts as a wildcard: a null channel ID covers all of the user's channels
+ * (and the user's super user flag), a null user ID covers all users of the channel.
+ *
+ * @param userId    the ID of the user whose entries went stale, or null for all users
+ * @param channelId the ID of the channel whose entries went stale, or null for all channels
+ * @param cache     the cache the notice is for
+ */
+public record CacheInvalidation(Long userId, Long channelId, Cache cache) {
+
+    /**
+     * Caches kept in step across nodes through invalidation notices.
+     */
+    public enum Cache {
+        /** Roles, super user flags and the caches following them, see {@link PermissionService}. */
+        PERMISSIONS,
+        /** Channel layouts, see {@link ChannelLayoutService}. */
+        LAYOUT
+    }
+
+    /**
+     * Invalidates one user's role in one channel, after a membership change.
+     *
+     * @param userId    the ID of the user
+     * @param channelId the ID of the channel
+     * @return the invalidation
+     */
+    public static CacheInvalidation forMembership(Long userId, Long channelId) {
+        return new CacheInvalidation(userId, channelId, Cache.PERMISSIONS);
+    }
+
+    /**
+     * Invalidates everything cached for a user, after a super user change or deletion.
+     *
+     * @param userId the ID of the user
+     * @return the invalidation
+     */
+    public static CacheInvalidation forUser(Long userId) {
+        return new CacheInvalidation(userId, null, Cache.PERMISSIONS);
+    }
+
+    /**
+     * Invalidates every user's role in a channel, after the channel is deleted.
+     *
+     * @param channelId the ID of the channel
+     * @return the invalidation
+     */
+    public static CacheInvalidation forChannel(Long channelId) {
+        return new CacheInvalidation(null, channelId, Cache.PERMISSIONS);
+    }
+
+    /**
+     * Drops the cached layout of a channel, after its clusters, cluster links or channel links change.
+     * Leaves cached permissions alone.
+     *
+     * @param channelId the ID of the channel, or null for the layouts of all channels
+     * @return the invalidation
+     */
+    public static CacheInvalidation forLayout(Long channelId) {
+        return new CacheInvalidation(null, channelId, Cache.LAYOUT);
+    }
+
+    /**
+     * Checks if a cached role is affected by this invalidation.
+     *
+     * @param userId    the ID of the user the role belongs to
+     * @param channelId the ID of the channel the role applies to
+     * @return true if the cached role must be dropped, false otherwise
+     */
+    public boolean affects(Long userId, Long channelId) {
+        return (this.userId == null || this.userId.equals(userId))
+                && (this.channelId == null || this.channelId.equals(channelId));
+    }
+}
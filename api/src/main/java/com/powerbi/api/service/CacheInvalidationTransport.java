@@ -0,0 +1,30 @@
+package com.powerbi.api.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CacheInvalidation} notices between API nodes.
+ * Every node subscribes its {@link PermissionService} and {@link ChannelLayoutService}, each
+ * acting on the notices for its own {@link CacheInvalidation.Cache}, and every published
+ * notice must reach all subscribers, including the publishing node's own.
+ *
+ * The default {@link LocalCacheInvalidationTransport} only reaches the current process.
+ * Multi-node deployments provide another implementation, for example over a message broker,
+ * and disable the local one with {@code cache.invalidation.transport}.
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * Sends an invalidation to every subscribed node.
+     *
+     * @param invalidation the notice to deliver
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Registers a listener for invalidations published by any node.
+     *
+     * @param listener called once per received invalidation
+     */
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,114 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.repository.ChannelRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the channels each user can see, kept as bitmaps of channel IDs.
+ * A user's accessible channels are the public channels plus the channels in the user's own
+ * bitmap. Channel listings page through them in the database, matching public channels by
+ * visibility and binding the user's joined IDs instead of joining three role tables; search
+ * hits are filtered against both bitmaps directly.
+ *
+ * Each user's bitmap is loaded with a single query on first use and dropped whenever a
+ * {@link CacheInvalidation} for that user is applied by {@link PermissionService}, so it
+ * follows membership changes on every node. A channel-wide invalidation reloads the public
+ * bitmap, since the channel may have been created, deleted or had its visibility changed.
+ * Bitmaps are never modified once built, so readers need no locking.
+ */
+@Service
+public class ChannelAccessIndex {
+    @Autowired
+    private ChannelRepository channelRepository;
+    @Autowired
+    private PermissionService permissionService;
+
+    @Value("${channels.accessIndex.maxUsers:10000}")
+    private int maxUsers;
+
+    private final Map<Long, BitSet> joinedChannels = new ConcurrentHashMap<>();
+    private volatile BitSet publicChannels;
+
+    /** Incremented on every invalidation, so a load that raced one does not store a stale bitmap. */
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /**
+     * Follows the permission invalidations applied on this node, whichever node published them.
+     */
+    @PostConstruct
+    void subscribeToInvalidations() {
+        permissionService.addInvalidationListener(this::applyInvalidation);
+    }
+
+    /**
+     * Returns the IDs of the channels the user owns, administers or is a member of.
+     *
+     * @param userId the ID of the user
+     * @return the user's bitmap, which must not be modified
+     */
+    public BitSet getJoinedChannels(Long userId) {
+        BitSet cached = joinedChannels.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long invalidationsBefore = invalidationCount.get();
+        BitSet loaded = toBitSet(channelRepository.findJoinedChannelIds(userId));
+        if (invalidationCount.get() == invalidationsBefore) {
+            if (joinedChannels.size() >= maxUsers) {
+                joinedChannels.clear();  // Bitmaps reload with one query each, a full reset keeps the bound simple
+            }
+            joinedChannels.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the IDs of all public channels.
+     *
+     * @return the public bitmap, which must not be modified
+     */
+    public BitSet getPublicChannels() {
+        BitSet cached = publicChannels;
+        if (cached != null) {
+            return cached;
+        }
+
+        long invalidationsBefore = invalidationCount.get();
+        BitSet loaded = toBitSet(channelRepository.findIdsByVisibility(Channel.Visibility.PUBLIC));
+        if (invalidationCount.get() == invalidationsBefore) {
+            publicChannels = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the bitmaps affected by an invalidation, whichever node published it.
+     * Bits of deleted channels may linger in user bitmaps until their next reload,
+     * which is harmless since the channels themselves are gone.
+     */
+    private void applyInvalidation(CacheInvalidation invalidation) {
+        invalidationCount.incrementAndGet();
+        if (invalidation.userId() == null) {
+            publicChannels = null;
+        } else {
+            joinedChannels.remove(invalidation.userId());
+        }
+    }
+
+    private static BitSet toBitSet(List<Long> channelIds) {
+        BitSet bits = new BitSet();
+        channelIds.forEach(channelId -> bits.set(Math.toIntExact(channelId)));
+        return bits;
+    }
+}
@@ -1,32 +1,61 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.InvalidRequestException;
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelMemberImportDTO;
+import com.powerbi.api.dto.ChannelMemberImportResult;
+import com.powerbi.api.dto.ChannelMembershipView;
+import com.powerbi.api.dto.UserView;
 import com.powerbi.api.model.Channel;
 import com.powerbi.api.model.ChannelAdmin;
 import com.powerbi.api.model.ChannelMember;
+import com.powerbi.api.model.ChannelMembership;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.ChannelAdminRepository;
 import com.powerbi.api.repository.ChannelMemberRepository;
+import com.powerbi.api.repository.ChannelMembershipRepository;
 import com.powerbi.api.repository.ChannelRepository;
 import com.powerbi.api.repository.UserRepository;
 import com.powerbi.api.model.ChannelRole;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class responsible for managing ChannelAdmin entities.
  * Handles operations related to retrieving, adding, and removing channel admins,
  * along with authorization checks to ensure proper access control.
+ *
+ * Members can also be imported in bulk, see {@link #importChannelMembers}: the requested users
+ * and the channel's current roles are read with a few set-based queries, and the new member rows
+ * are written in chunks that Hibernate sends as batched inserts, since their IDs come from a
+ * pooled sequence rather than from the insert itself.
  */
 @Service
 public class ChannelAdminService {
-    @Autowired
-    private UserService userService;
+    /** Maximum number of users in one member import. */
+    public static final int MAX_IMPORT_SIZE = 10000;
+
+    /** Maximum number of IDs or emails bound into one query, well under SQL Server's 2100 parameters. */
+    private static final int MAX_BOUND_PARAMETERS = 1000;
+
+    /** Number of new members flushed together before the persistence context is cleared. */
+    private static final int INSERT_CHUNK_SIZE = 500;
+
     @Autowired
     private PermissionService permissionService;
     @Autowired
@@ -36,143 +65,259 @@ public class ChannelAdminService {
     @Autowired
     private ChannelAdminRepository channelAdminRepository;
     @Autowired
+    private ChannelMembershipRepository channelMembershipRepository;
+    @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     /**
      * Returns list of channel members, assuming the user is admin or above.
-     * @param username User
+     * @param principal User
      * @param channelId ChannelId
      * @return List of channel members
      */
     @Transactional
-    public List<ChannelMember> getChannelMembers(String username, Long channelId) {
-        User user = userService.getUser(username);
-        if (!isAdminOrAbove(user, channelId)) {
+    public List<ChannelMembershipView> getChannelMembers(UserPrincipal principal, Long channelId) {
+        if (!isAdminOrAbove(principal, channelId)) {
             throw new AccessDeniedException("User is not authorized to view channel members.");
         }
 
-        return channelMemberRepository.findByChannelId(channelId);
+        return channelMemberRepository.findViewsByChannelId(channelId);
     }
 
     /**
      * Adds a channel member to the channel
-     * @param username User
+     * @param principal User
      * @param channelId channelId
      * @param newUserId new member's userId
      * @return newly create channel id
      */
     @Transactional
-    public ChannelMember addChannelMember(String username, Long channelId, Long newUserId) {
-        User user = userService.getUser(username);
-        if (!isAdminOrAbove(user, channelId)) {
+    public ChannelMember addChannelMember(UserPrincipal principal, Long channelId, Long newUserId) {
+        if (!isAdminOrAbove(principal, channelId)) {
             throw new AccessDeniedException("User is not authorized to add members.");
         }
 
         Optional<User> member = userRepository.findById(newUserId);
         Optional<Channel> channel = channelRepository.findById(channelId);
 
-        // Check if the user is already a member
-        if (channelMemberRepository.existsByUserIdAndChannelId(newUserId, channelId)) {
+        // Check if the user is already a member, admins and owners included
+        if (channelMembershipRepository.findByUserIdAndChannelId(newUserId, channelId).isPresent()) {
             throw new DataIntegrityViolationException("User is already a member of this channel.");
         }
 
         ChannelMember channelMember = new ChannelMember();
         channelMember.setChannel(channel.orElseThrow());
         channelMember.setUser(member.orElseThrow());
+        channelMember = channelMemberRepository.save(channelMember);
 
-        return channelMemberRepository.save(channelMember);
+        permissionService.invalidate(CacheInvalidation.forMembership(newUserId, channelId));
+        return channelMember;
+    }
+
+    /**
+     * Adds many users to a channel as members at once, for example a whole directory group.
+     * Users already holding a role in the channel, repeated users and unknown users are skipped
+     * and reported; everyone else is inserted in batches. The persistence context is cleared
+     * after each chunk of inserts, so entities loaded earlier in the transaction are detached.
+     * Emails are matched regardless of case. The channel's cached permissions are invalidated
+     * once, however many users are added.
+     *
+     * @param principal User
+     * @param channelId ChannelId
+     * @param importDTO IDs and emails of the users to add
+     * @return the number of users added and skipped, and the outcome for each requested user
+     * @throws AccessDeniedException if the user is not an admin or above in the channel
+     * @throws InvalidRequestException if more than {@value #MAX_IMPORT_SIZE} users are requested
+     * @throws java.util.NoSuchElementException if the channel does not exist
+     */
+    @Transactional
+    public ChannelMemberImportResult importChannelMembers(UserPrincipal principal, Long channelId, ChannelMemberImportDTO importDTO) {
+        if (!isAdminOrAbove(principal, channelId)) {
+            throw new AccessDeniedException("User is not authorized to add members.");
+        }
+
+        List<Long> userIds = importDTO.getUserIds() != null ? importDTO.getUserIds() : List.of();
+        List<String> emails = importDTO.getEmails() != null ? importDTO.getEmails() : List.of();
+        if (userIds.size() + emails.size() > MAX_IMPORT_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_IMPORT_SIZE + " users can be imported at once.");
+        }
+        channelRepository.findById(channelId).orElseThrow();
+
+        // Resolve every requested user, and read the channel's current roles in one query
+        Map<Long, UserView> usersById = new HashMap<>();
+        for (List<Long> chunk : chunks(userIds.stream().filter(Objects::nonNull).distinct().toList())) {
+            userRepository.findViewsByIdIn(chunk).forEach(user -> usersById.put(user.id(), user));
+        }
+        Map<String, UserView> usersByEmail = new HashMap<>();
+        for (List<String> chunk : chunks(emails.stream().filter(Objects::nonNull).map(ChannelAdminService::normalizeEmail).distinct().toList())) {
+            userRepository.findViewsByEmailIn(chunk).forEach(user -> usersByEmail.put(normalizeEmail(user.email()), user));
+        }
+        Set<Long> inChannel = new HashSet<>(channelMembershipRepository.findUserIdsByChannelId(channelId));
+
+        Set<Long> requested = new HashSet<>();
+        List<Long> toAdd = new ArrayList<>();
+        List<ChannelMemberImportResult.Row> rows = new ArrayList<>(userIds.size() + emails.size());
+        for (Long userId : userIds) {
+            UserView user = userId != null ? usersById.get(userId) : null;
+            rows.add(importRow(String.valueOf(userId), user, inChannel, requested, toAdd));
+        }
+        for (String email : emails) {
+            UserView user = email != null ? usersByEmail.get(normalizeEmail(email)) : null;
+            rows.add(importRow(email, user, inChannel, requested, toAdd));
+        }
+
+        // References avoid loading the users and channel; each chunk is flushed as batched inserts
+        for (int from = 0; from < toAdd.size(); from += INSERT_CHUNK_SIZE) {
+            Channel channel = channelRepository.getReferenceById(channelId);
+            List<ChannelMember> members = new ArrayList<>(INSERT_CHUNK_SIZE);
+            for (Long userId : toAdd.subList(from, Math.min(from + INSERT_CHUNK_SIZE, toAdd.size()))) {
+                ChannelMember channelMember = new ChannelMember();
+                channelMember.setChannel(channel);
+                channelMember.setUser(userRepository.getReferenceById(userId));
+                members.add(channelMember);
+            }
+            channelMemberRepository.saveAll(members);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (!toAdd.isEmpty()) {
+            permissionService.invalidate(CacheInvalidation.forChannel(channelId));
+        }
+
+        return new ChannelMemberImportResult(toAdd.size(), rows.size() - toAdd.size(), rows);
     }
 
     /**
      * Removes channel member from channel
-     * @param username User
+     * @param principal User
      * @param channelId ChannelId
      * @param memberId ChannelMemberId of the to be removed member
      */
     @Transactional
-    public void removeChannelMember(String username, Long channelId, Long memberId) {
-        User user = userService.getUser(username);
-        if (!isAdminOrAbove(user, channelId)) {
+    public void removeChannelMember(UserPrincipal principal, Long channelId, Long memberId) {
+        if (!isAdminOrAbove(principal, channelId)) {
             throw new AccessDeniedException("User is not authorized to remove members.");
         }
 
-        Optional<ChannelMember> member = channelMemberRepository.findById(memberId);
+        ChannelMember member = channelMemberRepository.findById(memberId).orElseThrow();
 
-        channelMemberRepository.delete(member.orElseThrow());
+        channelMemberRepository.delete(member);
+        permissionService.invalidate(CacheInvalidation.forMembership(
+                member.getUser().getId(), member.getChannel().getId()));
     }
 
     /**
      * Returns list of channel admins
-     * @param username User
+     * @param principal User
      * @param channelId ChannelId
      * @return list of channel admins
      */
     @Transactional
-    public List<ChannelAdmin> getChannelAdmins(String username, Long channelId) {
-        User user = userService.getUser(username);
-        if (!isAdminOrAbove(user, channelId)) {
+    public List<ChannelMembershipView> getChannelAdmins(UserPrincipal principal, Long channelId) {
+        if (!isAdminOrAbove(principal, channelId)) {
             throw new AccessDeniedException("User is not authorized to view channel admins.");
         }
 
-        return channelAdminRepository.findByChannelId(channelId);
+        return channelAdminRepository.findViewsByChannelId(channelId);
     }
 
     /**
-     * Adds channel admin
-     * @param username User
+     * Adds channel admin, promoting the user if they are a member
+     * @param principal User
      * @param channelId ChannelId
      * @param userId UserId of the new channel admin
      * @return new channel admin
      */
     @Transactional
-    public ChannelAdmin addChannelAdmin(String username, Long channelId, Long userId) {
-        User user = userService.getUser(username);
-        if (!isAdminOrAbove(user, channelId)) {
+    public ChannelAdmin addChannelAdmin(UserPrincipal principal, Long channelId, Long userId) {
+        if (!isAdminOrAbove(principal, channelId)) {
             throw new AccessDeniedException("User is not authorized to add admins.");
         }
 
         Optional<User> userToAdd = userRepository.findById(userId);
         Optional<Channel> channel = channelRepository.findById(channelId);
 
-        // Check if the user is already an admin
-        if (channelAdminRepository.existsByUserIdAndChannelId(userId, channelId)) {
-            throw new DataIntegrityViolationException("User is already an admin of this channel.");
+        // Check if the user is already an admin or owner, and promote members
+        Optional<ChannelMembership> current = channelMembershipRepository.findByUserIdAndChannelId(userId, channelId);
+        if (current.isPresent()) {
+            if (current.get().getRole().isAtLeast(ChannelRole.ADMIN)) {
+                throw new DataIntegrityViolationException("User is already an admin of this channel.");
+            }
+            channelMembershipRepository.delete(current.get());
+            channelMembershipRepository.flush();  // Free the (user, channel) row before inserting the admin
         }
 
         ChannelAdmin channelAdmin = new ChannelAdmin();
         channelAdmin.setChannel(channel.orElseThrow());
         channelAdmin.setUser(userToAdd.orElseThrow());
-        return channelAdminRepository.save(channelAdmin);
+        channelAdmin = channelAdminRepository.save(channelAdmin);
+
+        permissionService.invalidate(CacheInvalidation.forMembership(userId, channelId));
+        return channelAdmin;
     }
 
     /**
      * Removes channel admin
-     * @param username User
+     * @param principal User
      * @param channelId ChannelId
      * @param adminId ChannelAdminId of to be deleted admin
      */
     @Transactional
-    public void removeChannelAdmin(String username, Long channelId, Long adminId) {
-        User user = userService.getUser(username);
-        if (!isAdminOrAbove(user, channelId)) {
+    public void removeChannelAdmin(UserPrincipal principal, Long channelId, Long adminId) {
+        if (!isAdminOrAbove(principal, channelId)) {
             throw new AccessDeniedException("User is not authorized to remove admins.");
         }
 
-        Optional<ChannelAdmin> admin = channelAdminRepository.findById(adminId);
+        ChannelAdmin admin = channelAdminRepository.findById(adminId).orElseThrow();
 
         // Remove the admin
-        channelAdminRepository.delete(admin.orElseThrow());
+        channelAdminRepository.delete(admin);
+        permissionService.invalidate(CacheInvalidation.forMembership(
+                admin.getUser().getId(), admin.getChannel().getId()));
+    }
+
+    /**
+     * Decides the outcome for one requested user, queueing the user for insertion when added.
+     */
+    private static ChannelMemberImportResult.Row importRow(
+            String input, @Nullable UserView user, Set<Long> inChannel, Set<Long> requested, List<Long> toAdd
+    ) {
+        ChannelMemberImportResult.Status status;
+        if (user == null) {
+            status = ChannelMemberImportResult.Status.NOT_FOUND;
+        } else if (!requested.add(user.id())) {
+            status = ChannelMemberImportResult.Status.DUPLICATE;
+        } else if (inChannel.contains(user.id())) {
+            status = ChannelMemberImportResult.Status.ALREADY_IN_CHANNEL;
+        } else {
+            toAdd.add(user.id());
+            status = ChannelMemberImportResult.Status.ADDED;
+        }
+        return new ChannelMemberImportResult.Row(input, status, user);
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += MAX_BOUND_PARAMETERS) {
+            chunks.add(items.subList(from, Math.min(from + MAX_BOUND_PARAMETERS, items.size())));
+        }
+        return chunks;
     }
 
     /**
      * Checks if user is admin or above
-     * @param user User
+     * @param principal User
      * @param channelId ChannelId
      * @return boolean
      */
-    private boolean isAdminOrAbove(User user, Long channelId) {
-        ChannelRole role = permissionService.getUserRoleInChannel(user, channelId);
-        return role == ChannelRole.ADMIN || role == ChannelRole.OWNER || role == ChannelRole.SUPER_USER;
+    private boolean isAdminOrAbove(UserPrincipal principal, Long channelId) {
+        return permissionService.hasChannelRole(principal, channelId, ChannelRole.ADMIN);
     }
 }
 
@@ -0,0 +1,237 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelLayout;
+import com.powerbi.api.dto.ClusterLayout;
+import com.powerbi.api.dto.ClusterLinkView;
+import com.powerbi.api.dto.ClusterView;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelRole;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.ClusterLinkRepository;
+import com.powerbi.api.repository.ClusterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class responsible for the layout of a channel: every cluster of the channel with its
+ * links in order, as shown on the channel page.
+ *
+ * A layout is assembled from two queries, one for the clusters and one for the links of all of
+ * them, and cached per channel on every node. Every write path that changes clusters or cluster
+ * links must call {@link #evict(Long)} for the channels it touches, which drops the cached layout
+ * on this node at once and, after the transaction commits, on every node through the
+ * {@link CacheInvalidationTransport}, so a layout read while the change was in flight is
+ * not kept anywhere. Changes to channels, channel links, links and users are followed through
+ * their {@link DomainEvent}s in the same way. Cached layouts also expire after a configurable time.
+ */
+@Service
+public class ChannelLayoutService {
+    @Autowired
+    private ClusterRepository clusterRepository;
+    @Autowired
+    private ClusterLinkRepository clusterLinkRepository;
+    @Autowired
+    private ChannelRepository channelRepository;
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+    @Autowired
+    private PermissionService permissionService;
+    @Autowired
+    private CacheInvalidationTransport invalidationTransport;
+
+    @Value("${channels.layoutCache.timeToLive:600}")
+    private long layoutTimeToLive;
+
+    @Value("${channels.layoutCache.maxSize:1000}")
+    private int layoutCacheMaxSize;
+
+    private final Map<Long, CachedLayout> layoutCache = new ConcurrentHashMap<>();
+
+    /** Incremented on every eviction, so a load that raced one does not cache its stale result. */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Subscribes to layout evictions published by any node.
+     */
+    @PostConstruct
+    void subscribeToEvictions() {
+        invalidationTransport.subscribe(this::applyEviction);
+    }
+
+    /**
+     * Retrieves the layout of a channel, from the cache when present.
+     *
+     * @param principal the user requesting the layout
+     * @param channelId the ID of the channel
+     * @return the channel's clusters ordered by ID, each with its links in order
+     * @throws AccessDeniedException if the user does not have permission to view the channel
+     * @throws NoSuchElementException if the channel does not exist
+     */
+    @Transactional
+    public ChannelLayout getLayout(UserPrincipal principal, Long channelId) {
+        Channel channel = channelRepository.findById(channelId).orElseThrow();
+        if (
+            channel.getVisibility() == Channel.Visibility.PRIVATE &&
+            !permissionService.hasChannelRole(principal, channelId, ChannelRole.MEMBER)
+        ) {
+            throw new AccessDeniedException("User does not have permission to view this channel.");
+        }
+
+        long now = System.currentTimeMillis();
+        CachedLayout cached = layoutCache.get(channelId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.layout();
+        }
+
+        long evictionsBefore = evictionCount.get();
+        ChannelLayout layout = loadLayout(channelId);
+        if (evictionCount.get() == evictionsBefore) {
+            if (layoutCache.size() >= layoutCacheMaxSize) {
+                layoutCache.clear();  // Layouts are cheap to reload, a full reset keeps the bound simple
+            }
+            layoutCache.put(channelId, new CachedLayout(layout, now + layoutTimeToLive * 1000));
+        }
+        return layout;
+    }
+
+    /**
+     * Drops the cached layout of a channel, on this node at once and on every node once the
+     * current transaction commits.
+     *
+     * @param channelId the ID of the channel whose clusters, cluster links or channel links changed
+     */
+    public void evict(Long channelId) {
+        evictNow(channelId);
+        publish(CacheInvalidation.forLayout(channelId));
+    }
+
+    /**
+     * Drops the cached layouts of every channel a link is posted in, for changes to the link
+     * itself. Must be called before the link is deleted.
+     *
+     * @param linkId the ID of the link that changed
+     */
+    public void evictLink(Long linkId) {
+        channelLinkRepository.findChannelIdsByLinkId(linkId).forEach(this::evict);
+    }
+
+    /**
+     * Drops every cached layout, for changes that reach across many channels.
+     */
+    public void evictAll() {
+        evictAllNow();
+        publish(CacheInvalidation.forLayout(null));
+    }
+
+    /**
+     * Drops the layouts a change to a channel, channel link, link or user may show, as it is
+     * made, inside its transaction.
+     *
+     * @param event the change
+     */
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        switch (event) {
+            // The user's links may be placed in any channel
+            case DomainEvent.UserDeleted deleted -> evictAll();
+            case DomainEvent.ChannelDeleted deleted -> evict(deleted.channelId());
+            case DomainEvent.LinkSaved saved -> evictLink(saved.link().getId());
+            case DomainEvent.LinkDeleted deleted -> evictLink(deleted.link().getId());
+            case DomainEvent.ChannelLinkSaved saved -> evict(saved.channelLink().getChannel().getId());
+            case DomainEvent.ChannelLinkDeleted deleted -> evict(deleted.channelLink().getChannel().getId());
+            case DomainEvent.UserSaved saved -> {
+                // New users have no links placed yet
+            }
+            case DomainEvent.ChannelSaved saved -> {
+                // Layouts do not include the channel's own details
+            }
+        }
+    }
+
+    /**
+     * Assembles a layout from the channel's clusters and the links of all of them, ordered by
+     * cluster, so the links are grouped in a single pass.
+     */
+    private ChannelLayout loadLayout(Long channelId) {
+        List<ClusterView> clusters = clusterRepository.findViewsByChannelId(channelId);
+        Map<Long, List<ClusterLinkView>> linksByCluster = new HashMap<>();
+        for (ClusterLinkView link : clusterLinkRepository.findViewsByChannelId(channelId)) {
+            linksByCluster.computeIfAbsent(link.clusterId(), id -> new ArrayList<>()).add(link);
+        }
+
+        List<ClusterLayout> clusterLayouts = clusters.stream()
+                .map(cluster -> new ClusterLayout(
+                        cluster.id(),
+                        cluster.name(),
+                        cluster.dateCreated(),
+                        List.copyOf(linksByCluster.getOrDefault(cluster.id(), List.of()))))
+                .toList();
+        return new ChannelLayout(channelId, clusterLayouts);
+    }
+
+    private void evictNow(Long channelId) {
+        evictionCount.incrementAndGet();
+        layoutCache.remove(channelId);
+    }
+
+    private void evictAllNow() {
+        evictionCount.incrementAndGet();
+        layoutCache.clear();
+    }
+
+    /**
+     * Drops the local layouts named by a notice, whichever node published it.
+     */
+    private void applyEviction(CacheInvalidation invalidation) {
+        if (invalidation.cache() != CacheInvalidation.Cache.LAYOUT) {
+            return;
+        }
+        if (invalidation.channelId() == null) {
+            evictAllNow();
+        } else {
+            evictNow(invalidation.channelId());
+        }
+    }
+
+    /**
+     * Publishes an eviction to every node, this one included, once the current transaction
+     * commits. A rollback only repeats the eviction on this node, which may have cached a layout
+     * read inside the transaction, since the other nodes never saw the change.
+     */
+    private void publish(CacheInvalidation eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidationTransport.publish(eviction);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    invalidationTransport.publish(eviction);
+                } else {
+                    applyEviction(eviction);
+                }
+            }
+        });
+    }
+
+    private record CachedLayout(ChannelLayout layout, long expiresAt) {
+    }
+}
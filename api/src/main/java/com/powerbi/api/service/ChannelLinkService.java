@@ -1,19 +1,28 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.InvalidCursorException;
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.dto.ChannelLinkDTO;
+import com.powerbi.api.dto.ChannelLinkView;
+import com.powerbi.api.dto.CursorPage;
 import com.powerbi.api.model.Channel;
 import com.powerbi.api.model.ChannelLink;
 import com.powerbi.api.model.ChannelRole;
 import com.powerbi.api.model.Link;
-import com.powerbi.api.model.User;
 import com.powerbi.api.repository.ChannelLinkRepository;
 import com.powerbi.api.repository.ChannelRepository;
 import com.powerbi.api.repository.LinkRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -24,8 +33,9 @@ import java.util.NoSuchElementException;
  */
 @Service
 public class ChannelLinkService {
-    @Autowired
-    private UserService userService;
+    /** Largest page of channel links a client can request. */
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private ChannelLinkRepository channelLinkRepository;
     @Autowired
@@ -34,50 +44,70 @@ public class ChannelLinkService {
     private LinkRepository linkRepository;
     @Autowired
     private PermissionService permissionService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
-     * Retrieves all ChannelLink entities associated with a given channel.
+     * Retrieves one page of the links associated with a given channel, oldest first.
+     * Each page is selected as projections with the links and their owners in a single query.
      *
-     * @param username  the user requesting the links
+     * @param principal the user requesting the links
      * @param channelId the ID of the channel
-     * @return a list of ChannelLink entities
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the number of links per page, capped at {@value #MAX_PAGE_SIZE}
+     * @return the page of channel link projections, with the cursor of the next page if there is one
      * @throws AccessDeniedException if the user does not have permission to view links in the channel
+     * @throws InvalidCursorException if the cursor is malformed
      */
     @Transactional
-    public List<ChannelLink> getChannelLinks(String username, Long channelId) {
-        User user = userService.getUser(username);
+    public CursorPage<ChannelLinkView> getChannelLinks(UserPrincipal principal, Long channelId, @Nullable String cursor, int size) {
         Channel channel = channelRepository.findById(channelId).orElseThrow();
         if (
             channel.getVisibility()== Channel.Visibility.PRIVATE &&
-            permissionService.hasChannelPermission(user, channelId, ChannelRole.NOT_ALLOWED)
+            !permissionService.hasChannelRole(principal, channelId, ChannelRole.MEMBER)
         ) {
             throw new AccessDeniedException("User does not have permission to view links in this channel.");
         }
-        return channelLinkRepository.findByChannelId(channelId);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);  // One extra row tells whether there is a next page
+        List<ChannelLinkView> links;
+        if (cursor == null || cursor.isEmpty()) {
+            links = channelLinkRepository.findFirstPage(channelId, limit);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            links = channelLinkRepository.findPageAfter(channelId, after.dateCreated(), after.id(), limit);
+        }
+
+        if (links.size() <= pageSize) {
+            return new CursorPage<>(links, null);
+        }
+        links = links.subList(0, pageSize);
+        ChannelLinkView last = links.get(pageSize - 1);
+        return new CursorPage<>(links, new Cursor(last.dateCreated(), last.id()).encode());
     }
 
     /**
-     * Retrieves a {@link ChannelLink} based on the given username, channelId, and channelLinkId.
+     * Retrieves a {@link ChannelLink} based on the given principal, channelId, and channelLinkId.
      * <p>
      * This method checks if the channel is private and whether the user has the necessary permissions to access links
      * within the channel. If the user does not have the required permissions, an {@link AccessDeniedException} is thrown.
      * </p>
      *
-     * @param username The username of the user attempting to access the channel link.
+     * @param principal The user attempting to access the channel link.
      * @param channelId The ID of the channel where the link is stored.
      * @param channelLinkId The ID of the channel link to be retrieved.
      * @return The {@link ChannelLink} associated with the given channelId and channelLinkId.
      * @throws AccessDeniedException If the user does not have permission to access links in a private channel.
      * @throws NoSuchElementException If no channel or channel link is found with the specified IDs.
-     * @throws NullPointerException If any of the required parameters (e.g., username, channelId, or channelLinkId) are null.
+     * @throws NullPointerException If any of the required parameters (e.g., principal, channelId, or channelLinkId) are null.
      */
     @Transactional
-    public ChannelLink getChannelLink(String username, Long channelId, Long channelLinkId) {
-        User user = userService.getUser(username);
+    public ChannelLink getChannelLink(UserPrincipal principal, Long channelId, Long channelLinkId) {
         Channel channel = channelRepository.findById(channelId).orElseThrow();
         if (
                 channel.getVisibility()== Channel.Visibility.PRIVATE &&
-                        permissionService.hasChannelPermission(user, channelId, ChannelRole.NOT_ALLOWED)
+                        !permissionService.hasChannelRole(principal, channelId, ChannelRole.MEMBER)
         ) {
             throw new AccessDeniedException("User does not have permission to view links in this channel.");
         }
@@ -87,18 +117,17 @@ public class ChannelLinkService {
     /**
      * Creates a new ChannelLink entity and associates it with a channel and a link.
      *
-     * @param username         the user creating the channel link
+     * @param principal        the user creating the channel link
      * @param channelLinkData  the data for the new channel link
      * @return the newly created ChannelLink entity
      * @throws AccessDeniedException if the user does not have permission to create links in the channel
      */
     @Transactional
-    public ChannelLink createChannelLink(String username, ChannelLinkDTO channelLinkData) {
-        User user = userService.getUser(username);
+    public ChannelLink createChannelLink(UserPrincipal principal, ChannelLinkDTO channelLinkData) {
         Channel channel = channelRepository.findById(channelLinkData.getChannelId()).orElseThrow();
         if (
             channel.getVisibility()== Channel.Visibility.PRIVATE &&
-            permissionService.hasChannelPermission(user, channel.getId(), ChannelRole.NOT_ALLOWED)
+            !permissionService.hasChannelRole(principal, channel.getId(), ChannelRole.MEMBER)
         ) {
             throw new AccessDeniedException("User does not have permission to create links in this channel.");
         }
@@ -111,65 +140,88 @@ public class ChannelLinkService {
         channelLink.setChannel(channel);
         channelLink.setLink(link);
 
-        return channelLinkRepository.save(channelLink);
+        channelLink = channelLinkRepository.save(channelLink);
+        eventPublisher.publishEvent(new DomainEvent.ChannelLinkSaved(channelLink));
+        return channelLink;
     }
 
     /**
      * Updates an existing ChannelLink entity.
      *
-     * @param username         the user updating the channel link
+     * @param principal        the user updating the channel link
      * @param channelLinkData  the new data for the channel link
      * @return the updated ChannelLink entity
      * @throws AccessDeniedException if the user does not have permission to update the channel link
      */
     @Transactional
-    public ChannelLink updateChannelLink(String username, ChannelLinkDTO channelLinkData) {
-        User user = userService.getUser(username);
+    public ChannelLink updateChannelLink(UserPrincipal principal, ChannelLinkDTO channelLinkData) {
         ChannelLink channelLink = channelLinkRepository.findById(channelLinkData.getId()).orElseThrow();
 
         // Check if the user is the link owner, channel owner, or super user
-        if (!isAdminOrAbove(user, channelLink.getChannel().getId(), channelLink.getLink().getUser().getId())) {
+        if (!isAdminOrAbove(principal, channelLink.getChannel().getId(), channelLink.getLink().getUser().getId())) {
             throw new AccessDeniedException("User does not have permission to update this channel link.");
         }
 
         channelLink.setTitle(channelLinkData.getTitle());
         channelLink.setLink(linkRepository.findById(channelLinkData.getLinkId()).orElseThrow());
 
-        return channelLinkRepository.save(channelLink);
+        channelLink = channelLinkRepository.save(channelLink);
+        eventPublisher.publishEvent(new DomainEvent.ChannelLinkSaved(channelLink));
+        return channelLink;
     }
 
     /**
      * Deletes an existing ChannelLink entity.
      *
-     * @param username      the user deleting the channel link
+     * @param principal     the user deleting the channel link
      * @param channelLinkId the ID of the channel link to delete
      * @throws AccessDeniedException if the user does not have permission to delete the channel link
      */
     @Transactional
-    public void deleteChannelLink(String username, Long channelLinkId) {
-        User user = userService.getUser(username);
+    public void deleteChannelLink(UserPrincipal principal, Long channelLinkId) {
         ChannelLink channelLink = channelLinkRepository.findById(channelLinkId).orElseThrow();
 
         // Check if the user is the link owner, channel owner, or super user
-        if (!isAdminOrAbove(user, channelLink.getChannel().getId(), channelLink.getLink().getUser().getId())) {
+        if (!isAdminOrAbove(principal, channelLink.getChannel().getId(), channelLink.getLink().getUser().getId())) {
             throw new AccessDeniedException("User does not have permission to delete this channel link.");
         }
 
         channelLinkRepository.delete(channelLink);
+        eventPublisher.publishEvent(new DomainEvent.ChannelLinkDeleted(channelLink));
     }
 
     /**
      * Checks if a user has administrative privileges or higher for a given channel.
      *
-     * @param user         the user to check
+     * @param principal    the user to check
      * @param channelId    the ID of the channel
      * @param linkOwnerId  the ID of the link owner
      * @return true if the user is an admin, channel owner, super user, or the link owner, false otherwise
      */
-    private boolean isAdminOrAbove(User user, Long channelId, Long linkOwnerId) {
-        return linkOwnerId.equals(user.getId()) ||
-                permissionService.hasSuperUserPermission(user) ||
-                permissionService.hasChannelPermission(user, channelId, ChannelRole.OWNER) ||
-                permissionService.hasChannelPermission(user, channelId, ChannelRole.ADMIN);
+    private boolean isAdminOrAbove(UserPrincipal principal, Long channelId, Long linkOwnerId) {
+        return linkOwnerId.equals(principal.getId()) ||
+                permissionService.hasChannelRole(principal, channelId, ChannelRole.ADMIN);
+    }
+
+    /**
+     * Position of the last link of a page, encoded as an opaque, URL-safe cursor.
+     */
+    private record Cursor(Instant dateCreated, Long id) {
+        private static final String SEPARATOR = "|";
+
+        String encode() {
+            String position = dateCreated + SEPARATOR + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.indexOf(SEPARATOR);
+                return new Cursor(Instant.parse(position.substring(0, separator)), Long.valueOf(position.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException("Invalid channel link cursor.", e);
+            }
+        }
     }
 }
@@ -1,9 +1,13 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelMembershipView;
 import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelMembership;
 import com.powerbi.api.model.ChannelOwner;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.ChannelMemberRepository;
+import com.powerbi.api.repository.ChannelMembershipRepository;
 import com.powerbi.api.repository.ChannelOwnerRepository;
 import com.powerbi.api.repository.ChannelRepository;
 import com.powerbi.api.repository.UserRepository;
@@ -15,6 +19,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service class responsible for managing ChannelOwner entities.
@@ -23,8 +28,6 @@ import java.util.List;
  */
 @Service
 public class ChannelOwnerService {
-    @Autowired
-    private UserService userService;
     @Autowired
     private PermissionService permissionService;
     @Autowired
@@ -34,44 +37,50 @@ public class ChannelOwnerService {
     @Autowired
     private ChannelOwnerRepository channelOwnerRepository;
     @Autowired
+    private ChannelMembershipRepository channelMembershipRepository;
+    @Autowired
     private UserRepository userRepository;
 
     /**
      * Retrieves a list of ChannelOwner entities associated with a specific channel.
      *
-     * @param username  the user requesting the list of channel owners
+     * @param principal the user requesting the list of channel owners
      * @param channelId the ID of the channel
-     * @return a list of ChannelOwner entities
+     * @return a list of projections of the channel owners
      * @throws AccessDeniedException if the user is not an owner or super user of the channel
      */
     @Transactional
-    public List<ChannelOwner> getChannelOwners(String username, Long channelId) {
-        User user = userService.getUser(username);
-        if (!isOwnerOrAbove(user, channelId)) {
+    public List<ChannelMembershipView> getChannelOwners(UserPrincipal principal, Long channelId) {
+        if (!isOwnerOrAbove(principal, channelId)) {
             throw new AccessDeniedException("You do not have permission to view channel owners.");
         }
 
-        return channelOwnerRepository.findByChannelId(channelId);
+        return channelOwnerRepository.findViewsByChannelId(channelId);
     }
 
     /**
-     * Adds a new owner to a channel.
+     * Adds a new owner to a channel, promoting the user if they are a member or admin.
      *
-     * @param username    the user performing the addition
+     * @param principal   the user performing the addition
      * @param channelId   the ID of the channel to add an owner to
      * @param newOwnerId  the ID of the user to be added as a channel owner
      * @throws AccessDeniedException          if the user is not an owner or super user of the channel
      * @throws DataIntegrityViolationException if the user is already an owner of the channel
      */
     @Transactional
-    public ChannelOwner addChannelOwner(String username, Long channelId, Long newOwnerId) {
-        User user = userService.getUser(username);
-        if (!isOwnerOrAbove(user, channelId)) {
+    public ChannelOwner addChannelOwner(UserPrincipal principal, Long channelId, Long newOwnerId) {
+        if (!isOwnerOrAbove(principal, channelId)) {
             throw new AccessDeniedException("You do not have permission to add a channel owner.");
         }
 
-        if (channelOwnerRepository.existsByUserIdAndChannelId(newOwnerId, channelId)) {
-            throw new DataIntegrityViolationException("User is already an owner of this channel.");
+        // Check if the user is already an owner, and promote members and admins
+        Optional<ChannelMembership> current = channelMembershipRepository.findByUserIdAndChannelId(newOwnerId, channelId);
+        if (current.isPresent()) {
+            if (current.get().getRole().isAtLeast(ChannelRole.OWNER)) {
+                throw new DataIntegrityViolationException("User is already an owner of this channel.");
+            }
+            channelMembershipRepository.delete(current.get());
+            channelMembershipRepository.flush();  // Free the (user, channel) row before inserting the owner
         }
 
         User newOwner = userRepository.findById(newOwnerId).orElseThrow();
@@ -80,23 +89,24 @@ public class ChannelOwnerService {
         ChannelOwner channelOwner = new ChannelOwner();
         channelOwner.setChannel(channel);
         channelOwner.setUser(newOwner);
+        channelOwner = channelOwnerRepository.save(channelOwner);
 
-        return channelOwnerRepository.save(channelOwner);
+        permissionService.invalidate(CacheInvalidation.forMembership(newOwnerId, channelId));
+        return channelOwner;
     }
 
     /**
      * Removes an owner from a channel.
      *
-     * @param username  the user performing the removal
+     * @param principal the user performing the removal
      * @param channelId the ID of the channel
      * @param ownerId   the ID of the owner to be removed
      * @throws AccessDeniedException          if the user is not an owner or super user of the channel
      * @throws DataIntegrityViolationException if the channel would be left without an owner
      */
     @Transactional
-    public void removeChannelOwner(String username, Long channelId, Long ownerId) {
-        User user = userService.getUser(username);
-        if (!isOwnerOrAbove(user, channelId)) {
+    public void removeChannelOwner(UserPrincipal principal, Long channelId, Long ownerId) {
+        if (!isOwnerOrAbove(principal, channelId)) {
             throw new AccessDeniedException("User is not authorized to remove channel owners.");
         }
 
@@ -108,18 +118,19 @@ public class ChannelOwnerService {
         }
 
         channelOwnerRepository.delete(owner);
+        permissionService.invalidate(CacheInvalidation.forMembership(
+                owner.getUser().getId(), owner.getChannel().getId()));
     }
 
     /**
      * Checks if a user has owner-level permissions or higher for a given channel.
      *
-     * @param user      the user to check
+     * @param principal the user to check
      * @param channelId the ID of the channel
      * @return true if the user is an owner or super user, false otherwise
      */
-    private boolean isOwnerOrAbove(User user, Long channelId) {
-        ChannelRole role = permissionService.getUserRoleInChannel(user, channelId);
-        return role == ChannelRole.OWNER || role == ChannelRole.SUPER_USER;
+    private boolean isOwnerOrAbove(UserPrincipal principal, Long channelId) {
+        return permissionService.hasChannelRole(principal, channelId, ChannelRole.OWNER);
     }
 }
 
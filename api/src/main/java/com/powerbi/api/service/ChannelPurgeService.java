@@ -0,0 +1,296 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelPurgeStatus;
+import com.powerbi.api.model.ChannelPurge;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelMembershipRepository;
+import com.powerbi.api.repository.ChannelPurgeRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.ClusterLinkRepository;
+import com.powerbi.api.repository.ClusterRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Serial;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Service class responsible for removing deleted channels from the database.
+ *
+ * Deleting a channel only marks it, which hides it from every query at once, and records a
+ * pending {@link ChannelPurge} in the same transaction. Its dependent rows are then removed by a
+ * background purge, one table at a time in dependency order, in chunks of a configurable size.
+ * Each chunk is deleted in its own short transaction, so a channel with tens of thousands of
+ * links never holds long locks or blocks the deleting request. The channel row itself goes last.
+ *
+ * The purge record is shared by every node, so any node can report its progress. Every node
+ * polls for due purges, but runs one only after claiming it with a conditional update, so each
+ * purge runs on one node at a time. The claim is a lease renewed with every chunk: a purge cut
+ * short by a crash or shutdown is claimed again once the lease runs out. A failed purge is
+ * retried after a delay that doubles with every attempt, up to a configurable maximum.
+ */
+@Service
+public class ChannelPurgeService {
+    private static final Logger logger = LoggerFactory.getLogger(ChannelPurgeService.class);
+
+    @Autowired
+    private ChannelPurgeRepository channelPurgeRepository;
+    @Autowired
+    private ChannelRepository channelRepository;
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+    @Autowired
+    private ChannelMembershipRepository channelMembershipRepository;
+    @Autowired
+    private ClusterRepository clusterRepository;
+    @Autowired
+    private ClusterLinkRepository clusterLinkRepository;
+    @Autowired
+    private PermissionService permissionService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${channels.purge.chunkSize:1000}")
+    private int chunkSize;
+
+    @Value("${channels.purge.pollInterval:30}")
+    private long pollInterval;
+
+    @Value("${channels.purge.leaseDuration:300}")
+    private long leaseDuration;
+
+    @Value("${channels.purge.retryDelay:30}")
+    private long retryDelay;
+
+    @Value("${channels.purge.maxRetryDelay:3600}")
+    private long maxRetryDelay;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "channel-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Records the purge of a channel that has just been marked deleted, as part of the current
+     * transaction. This node starts the purge once the transaction commits, so it never runs for
+     * a deletion that was rolled back; otherwise any node picks it up at its next poll.
+     *
+     * @param principal the user who deleted the channel
+     * @param channelId the ID of the channel
+     * @return the status of the queued purge
+     */
+    public ChannelPurgeStatus schedulePurge(UserPrincipal principal, Long channelId) {
+        Instant now = Instant.now();
+        ChannelPurge purge = new ChannelPurge();
+        purge.setChannelId(channelId);
+        purge.setRequestedBy(principal.getId());
+        purge.setState(ChannelPurge.State.PENDING);
+        purge.setDateRequested(now);
+        purge.setDateNextAttempt(now);
+        purge = channelPurgeRepository.save(purge);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduler.execute(() -> runSafely("purge", () -> purge(channelId)));
+                }
+            });
+        } else {
+            scheduler.execute(() -> runSafely("purge", () -> purge(channelId)));
+        }
+        return ChannelPurgeStatus.of(purge);
+    }
+
+    /**
+     * Retrieves the progress of a channel purge, whichever node runs it. Only the user who
+     * deleted the channel and super users can follow it.
+     *
+     * @param principal the user requesting the status
+     * @param channelId the ID of the deleted channel
+     * @return the status of the purge
+     * @throws NoSuchElementException if no purge of the channel was recorded
+     * @throws AccessDeniedException if the user did not delete the channel and is not a super user
+     */
+    public ChannelPurgeStatus getPurgeStatus(UserPrincipal principal, Long channelId) {
+        ChannelPurge purge = channelPurgeRepository.findById(channelId).orElseThrow(() ->
+                new NoSuchElementException("No purge of channel " + channelId + " is known."));
+        if (!principal.isSuperUser() && !principal.getId().equals(purge.getRequestedBy())) {
+            throw new AccessDeniedException("User does not have permission to view this purge.");
+        }
+        return ChannelPurgeStatus.of(purge);
+    }
+
+    /**
+     * Purges a deleted channel on the calling thread, if the purge is due and this call wins the
+     * claim: its cluster links, clusters, channel links and role rows in chunks, then the channel
+     * row. Does nothing if the purge is done, waiting for a retry, or running on another node.
+     *
+     * @param channelId the ID of the deleted channel
+     * @return the status of the purge once this attempt has finished or failed, or as it stands
+     *         if no attempt was made
+     * @throws NoSuchElementException if no purge of the channel was recorded
+     */
+    public ChannelPurgeStatus purge(Long channelId) {
+        String claimToken = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                channelPurgeRepository.claim(channelId, claimToken, now, now.plusSeconds(leaseDuration)));
+        if (claimed != null && claimed == 1) {
+            run(channelId, claimToken);
+        }
+        return transactionTemplate.execute(status -> channelPurgeRepository.findById(channelId)
+                .map(ChannelPurgeStatus::of)
+                .orElseThrow());
+    }
+
+    /**
+     * Runs every purge that is due, one after the other, skipping the ones another node claims
+     * first. Called by the poll on every node.
+     */
+    void purgeDue() {
+        for (Long channelId : channelPurgeRepository.findDueIds(Instant.now())) {
+            purge(channelId);
+        }
+    }
+
+    /**
+     * Records the purges of channels deleted before purges were recorded, then starts polling
+     * for due purges.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        scheduler.execute(() -> runSafely("tracking", this::trackUntracked));
+        scheduler.scheduleWithFixedDelay(() -> runSafely("poll", this::purgeDue), 0, pollInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the purge thread. A purge cut short here is claimed again once its lease runs out.
+     */
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs a claimed purge to its end. A failure records the attempt as failed and due again
+     * after the backoff delay; a lost claim leaves the record to the node that took it over.
+     */
+    private void run(Long channelId, String claimToken) {
+        try {
+            purgeTable(channelId, claimToken, "cluster_link", clusterLinkRepository::findIdsByChannelId, clusterLinkRepository::deleteAllByIdInBatch);
+            purgeTable(channelId, claimToken, "cluster", clusterRepository::findIdsByChannelId, clusterRepository::deleteAllByIdInBatch);
+            purgeTable(channelId, claimToken, "channel_link", channelLinkRepository::findIdsByChannelId, channelLinkRepository::deleteAllByIdInBatch);
+            purgeTable(channelId, claimToken, "channel_role", channelMembershipRepository::findIdsByChannelId, channelMembershipRepository::deleteAllByIdInBatch);
+            transactionTemplate.executeWithoutResult(status -> {
+                channelRepository.deleteDeletedById(channelId);
+                requireClaim(channelPurgeRepository.finish(channelId, claimToken, ChannelPurge.State.DONE, Instant.now(), null));
+            });
+
+            // The former members' access bitmaps still hold the channel
+            permissionService.invalidate(CacheInvalidation.forChannel(channelId));
+        } catch (ClaimLostException e) {
+            logger.warn("Purge of channel {} was claimed by another node after its lease ran out", channelId);
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> {
+                int attempts = channelPurgeRepository.findById(channelId).map(ChannelPurge::getAttempts).orElse(1);
+                Instant now = Instant.now();
+                Instant retryAt = now.plusSeconds(backoff(attempts));
+                logger.error("Purge of channel {} failed on attempt {}, retrying at {}", channelId, attempts, retryAt, e);
+                channelPurgeRepository.finish(channelId, claimToken, ChannelPurge.State.FAILED, now, retryAt);
+            });
+        }
+    }
+
+    /**
+     * Deletes the rows of one table belonging to the purged channel, a chunk per transaction,
+     * until none are left. Each chunk records its progress and renews the lease in the same
+     * transaction, and is rolled back if the claim was lost.
+     */
+    private void purgeTable(
+            Long channelId,
+            String claimToken,
+            String table,
+            BiFunction<Long, Limit, List<Long>> findIds,
+            Consumer<List<Long>> deleteIds
+    ) {
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(channelId, Limit.of(chunkSize));
+                if (!ids.isEmpty()) {
+                    deleteIds.accept(ids);
+                }
+                Instant leaseExpiresAt = Instant.now().plusSeconds(leaseDuration);
+                requireClaim(channelPurgeRepository.recordProgress(channelId, claimToken, table, ids.size(), leaseExpiresAt));
+                return ids.size();
+            });
+            if (deleted == null || deleted == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the delay before the next attempt of a purge that failed the given number of times.
+     */
+    private long backoff(int attempts) {
+        return Math.min(maxRetryDelay, retryDelay << Math.min(attempts - 1, 20));
+    }
+
+    private void trackUntracked() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> channelPurgeRepository.trackUntracked(Instant.now()));
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Untracked channel purges were recorded by another node");
+        }
+    }
+
+    private static void requireClaim(int updated) {
+        if (updated == 0) {
+            throw new ClaimLostException();
+        }
+    }
+
+    private static void runSafely(String task, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            logger.warn("Channel purge {} failed, retrying at the next poll", task, e);
+        }
+    }
+
+    /**
+     * Thrown when a purge's claim token no longer matches, because its lease ran out and another
+     * node claimed it.
+     */
+    private static final class ClaimLostException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private ClaimLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -1,29 +1,32 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.InvalidRequestException;
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.dto.ChannelDTO;
+import com.powerbi.api.dto.ChannelPurgeStatus;
 import com.powerbi.api.model.Channel;
-import com.powerbi.api.model.ChannelAdmin;
-import com.powerbi.api.model.ChannelMember;
 import com.powerbi.api.model.ChannelOwner;
 import com.powerbi.api.model.ChannelRole;
 import com.powerbi.api.model.User;
-import com.powerbi.api.repository.ChannelAdminRepository;
-import com.powerbi.api.repository.ChannelMemberRepository;
 import com.powerbi.api.repository.ChannelOwnerRepository;
 import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.time.Instant;
+import java.util.BitSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Service class responsible for managing Channel entities.
@@ -32,86 +35,81 @@ import java.util.stream.Collectors;
  */
 @Service
 public class ChannelService {
+    /** Maximum number of joined channel IDs bound into a search, well under SQL Server's 2100 parameters. */
+    private static final int MAX_BOUND_CHANNEL_IDS = 1000;
+
+    /** Channel properties a channel listing can be sorted by. */
+    public static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "dateCreated");
+
     @Autowired
     private PermissionService permissionService;
     @Autowired
     private ChannelRepository channelRepository;
     @Autowired
-    private ChannelMemberRepository channelMemberRepository;
+    private ChannelOwnerRepository channelOwnerRepository;
     @Autowired
-    private ChannelAdminRepository channelAdminRepository;
+    private UserRepository userRepository;
     @Autowired
-    private ChannelOwnerRepository channelOwnerRepository;
+    private ChannelAccessIndex channelAccessIndex;
+    @Autowired
+    private ChannelPurgeService channelPurgeService;
     @Autowired
-    private UserService userService;
+    private ApplicationEventPublisher eventPublisher;
 
     /**
-     * Retrieves a list of channels accessible to the user.
+     * Retrieves a page of channels accessible to the user.
      * Includes public channels and private channels where the user is a member, admin, or owner.
+     * Filtering, sorting and paging all happen in the database. For non super users the
+     * joined channels come from the {@link ChannelAccessIndex}, falling back to membership
+     * subqueries when there are too many IDs to bind as parameters.
      *
-     * @param username the user requesting the list of channels
-     * @return a list of Channel entities the user has access to
+     * @param principal the user requesting the list of channels
+     * @param search an optional search term to filter channels by name
+     * @param pageable the page and sort order to return
+     * @return a page of Channel entities the user has access to
+     * @throws InvalidRequestException if the sort names a property not in {@link #SORTABLE_PROPERTIES}
      */
     @Transactional
-    public List<Channel> getChannels(String username, String search) {
-        User user = userService.getUser(username);
-        if (permissionService.hasSuperUserPermission(user)) {
-            return channelRepository.findAll()
-                    .stream()
-                    .filter(channel -> search == null || search.trim().isEmpty() ||
-                            channel.getName().toLowerCase().contains(search.toLowerCase()))
-                    .toList();
+    public Page<Channel> getChannels(UserPrincipal principal, @Nullable String search, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidRequestException("Channels cannot be sorted by " + order.getProperty());
+            }
         }
 
-        // Fetch public channels
-        List<Channel> publicChannels = channelRepository.findByVisibility(Channel.Visibility.PUBLIC);
-
-        // Fetch private channels the user has access to (member, admin, owner)
-        List<Channel> privateChannels = new ArrayList<>();
-        List<ChannelMember> members = channelMemberRepository.findByUserId(user.getId());
-        List<ChannelAdmin> admins = channelAdminRepository.findByUserId(user.getId());
-        List<ChannelOwner> owners = channelOwnerRepository.findByUserId(user.getId());
-
-        // Add private channels to the list
-        privateChannels.addAll(owners.stream().map(ChannelOwner::getChannel).toList());
-        privateChannels.addAll(admins.stream().map(ChannelAdmin::getChannel).toList());
-        privateChannels.addAll(members.stream().map(ChannelMember::getChannel).toList());
-
-        // Combine public and private channels and return
-        List<Channel> accessibleChannels = new ArrayList<>();
-        accessibleChannels.addAll(privateChannels);
-        accessibleChannels.addAll(publicChannels);
-
-        //Remove duplicates
-        Set<Channel> channels = new LinkedHashSet<>(accessibleChannels);
-
-        if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.toLowerCase();
-            channels = channels.stream()
-                    .filter(channel -> channel.getName().toLowerCase().contains(searchLower))
-                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        String name = search != null ? search.trim() : "";
+        if (permissionService.hasSuperUserPermission(principal)) {
+            return channelRepository.findByNameContainingIgnoreCase(name, pageable);
         }
 
-        return new ArrayList<>(channels);
+        BitSet joinedChannels = channelAccessIndex.getJoinedChannels(principal.getId());
+        if (joinedChannels.isEmpty()) {
+            return channelRepository.findByVisibilityAndNameContainingIgnoreCase(Channel.Visibility.PUBLIC, name, pageable);
+        }
+        if (joinedChannels.cardinality() > MAX_BOUND_CHANNEL_IDS) {
+            return channelRepository.searchByVisibilityOrMembership(Channel.Visibility.PUBLIC, principal.getId(), name, pageable);
+        }
+
+        List<Long> channelIds = joinedChannels.stream().mapToObj(Long::valueOf).toList();
+        return channelRepository.searchByVisibilityOrIds(Channel.Visibility.PUBLIC, channelIds, name, pageable);
     }
 
     /**
      * Retrieves a specific channel based on the given channel ID.
      * The method ensures that the requesting user has permission to access the channel.
      *
-     * @param username The username of the currently authenticated user.
+     * @param principal The currently authenticated user.
      * @param channelId The ID of the channel to retrieve.
      * @return The Channel object if the user has access.
      * @throws NoSuchElementException If the channel does not exist.
      * @throws AccessDeniedException If the user does not have permission to access the channel.
      */
     @Transactional
-    public Channel getChannel(String username, Long channelId) {
-        User user = userService.getUser(username);
+    public Channel getChannel(UserPrincipal principal, Long channelId) {
         Channel channel = channelRepository.findById(channelId).orElseThrow();
         if (
             channel.getVisibility() == Channel.Visibility.PRIVATE &&
-            permissionService.getUserRoleInChannel(user, channelId) == ChannelRole.NOT_ALLOWED
+            permissionService.getUserRoleInChannel(principal, channelId) == ChannelRole.NOT_ALLOWED
         ) {
             throw new AccessDeniedException("User not authorized to access this channel");
         }
@@ -122,33 +120,32 @@ public class ChannelService {
      * Retrieves the role of a user in a specific channel.
      * If no channel ID is provided, the method checks if the user is a superuser.
      *
-     * @param username  the username of the user
+     * @param principal the authenticated user
      * @param channelId the ID of the channel (optional)
      * @return the role of the user in the specified channel
      */    
     @Transactional
-    public ChannelRole getChannelRole(String username, @Nullable Long channelId) {
-        User user = userService.getUser(username);
-
+    public ChannelRole getChannelRole(UserPrincipal principal, @Nullable Long channelId) {
         if (channelId == null) { // Check if channelId is missing
-            boolean isSuperUser = permissionService.hasSuperUserPermission(user);
+            boolean isSuperUser = permissionService.hasSuperUserPermission(principal);
             return isSuperUser ? ChannelRole.SUPER_USER : ChannelRole.NOT_ALLOWED;
         }
 
         Channel channel = channelRepository.findById(channelId).orElseThrow();
-        return permissionService.getUserRoleInChannel(user, channelId);
+        return permissionService.getUserRoleInChannel(principal, channelId);
     }
 
     /**
      * Creates a new channel and assigns the creating user as the channel owner.
      *
-     * @param username       the user creating the channel
+     * @param principal  the user creating the channel
      * @param channelDTO the data transfer object containing channel details
      * @return the created Channel entity
      */
     @Transactional
-    public Channel createChannel(String username, ChannelDTO channelDTO) {
-        User user = userService.getUser(username);
+    public Channel createChannel(UserPrincipal principal, ChannelDTO channelDTO) {
+        // Reference the creator by ID, no need to load the user
+        User user = userRepository.getReferenceById(principal.getId());
 
         //Create channel
         Channel channel = new Channel();
@@ -163,6 +160,11 @@ public class ChannelService {
         channelOwner.setChannel(channel);
         channelOwnerRepository.save(channelOwner);
 
+        // Make the new channel visible to its creator, and to everyone if it is public
+        permissionService.invalidate(CacheInvalidation.forMembership(principal.getId(), channel.getId()));
+        permissionService.invalidate(CacheInvalidation.forChannel(channel.getId()));
+        eventPublisher.publishEvent(new DomainEvent.ChannelSaved(channel));
+
         return channel;
     }
 
@@ -170,15 +172,14 @@ public class ChannelService {
      * Updates an existing channel's details.
      * Only the owner of the channel is authorized to update it.
      *
-     * @param username       the user requesting the update
+     * @param principal  the user requesting the update
      * @param channelDTO the data transfer object containing updated channel details
      * @return the updated Channel entity
      * @throws AccessDeniedException if the user is not the owner of the channel
      * @throws ResourceNotFoundException if the channel does not exist
      */
     @Transactional
-    public Channel updateChannel(String username, ChannelDTO channelDTO) {
-        User user = userService.getUser(username);
+    public Channel updateChannel(UserPrincipal principal, ChannelDTO channelDTO) {
         if (channelDTO.getId() == null) {
             throw new ResourceNotFoundException("No Channel Id");
         }
@@ -186,8 +187,7 @@ public class ChannelService {
                 .orElseThrow(() -> new ResourceNotFoundException("Channel not found"));
 
         // Check if user is the owner of the channel
-        if (!(permissionService.hasChannelPermission(user, channel.getId(), ChannelRole.OWNER) ||
-                permissionService.hasSuperUserPermission(user))) {
+        if (!permissionService.hasChannelRole(principal, channel.getId(), ChannelRole.OWNER)) {
             throw new AccessDeniedException("User is not authorized to update this channel");
         }
 
@@ -195,26 +195,47 @@ public class ChannelService {
         channel.setName(channelDTO.getName());
         channel.setDescription(channelDTO.getDescription());
         channel.setVisibility(channelDTO.getVisibility());
+        channel = channelRepository.save(channel);
 
-        return channelRepository.save(channel);
+        permissionService.invalidate(CacheInvalidation.forChannel(channel.getId()));
+        eventPublisher.publishEvent(new DomainEvent.ChannelSaved(channel));
+        return channel;
     }
 
     /**
      * Deletes a channel if the user is the owner.
+     * The channel is hidden at once; its links, clusters and roles are removed in the background
+     * by the {@link ChannelPurgeService}.
      *
-     * @param username      the user requesting the deletion
+     * @param principal the user requesting the deletion
      * @param channelId the ID of the channel to be deleted
+     * @return the status of the queued purge
      * @throws AccessDeniedException if the user is not the owner of the channel
      */
     @Transactional
-    public void deleteChannel(String username, Long channelId) {
-        User user = userService.getUser(username);
-
-        if (!(permissionService.hasChannelPermission(user, channelId, ChannelRole.OWNER) ||
-                permissionService.hasSuperUserPermission(user))) {
+    public ChannelPurgeStatus deleteChannel(UserPrincipal principal, Long channelId) {
+        if (!permissionService.hasChannelRole(principal, channelId, ChannelRole.OWNER)) {
             throw new AccessDeniedException("User is not authorized to delete this channel");
         }
 
-        channelRepository.deleteById(channelId);
+        if (channelRepository.markDeleted(channelId, Instant.now()) == 0) {
+            throw new NoSuchElementException("Channel " + channelId + " not found");
+        }
+        permissionService.invalidate(CacheInvalidation.forChannel(channelId));
+        eventPublisher.publishEvent(new DomainEvent.ChannelDeleted(channelId));
+        return channelPurgeService.schedulePurge(principal, channelId);
+    }
+
+    /**
+     * Retrieves the progress of the purge of a deleted channel.
+     *
+     * @param principal the user requesting the status
+     * @param channelId the ID of the deleted channel
+     * @return the status of the purge
+     * @throws AccessDeniedException if the user did not delete the channel and is not a super user
+     * @throws NoSuchElementException if no purge of the channel is known
+     */
+    public ChannelPurgeStatus getPurgeStatus(UserPrincipal principal, Long channelId) {
+        return channelPurgeService.getPurgeStatus(principal, channelId);
     }
 }
@@ -0,0 +1,321 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ClusterDTO;
+import com.powerbi.api.dto.ClusterLinkDTO;
+import com.powerbi.api.dto.ClusterLinkView;
+import com.powerbi.api.dto.ClusterView;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelRole;
+import com.powerbi.api.model.Cluster;
+import com.powerbi.api.model.ClusterLink;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.ClusterLinkRepository;
+import com.powerbi.api.repository.ClusterRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Service class responsible for managing Cluster and ClusterLink entities.
+ * Handles creating, renaming and deleting the clusters of a channel, and adding, moving and
+ * removing the channel links placed in them, along with authorization checks.
+ *
+ * Links are ordered by sparse keys, {@value #IDX_GAP} apart when appended. A moved link takes the
+ * key halfway between its new neighbours, so every move writes only the moved row. When two
+ * neighbours have no key left between them, the cluster is compacted: its keys are spread
+ * {@value #IDX_GAP} apart again in a single batched update, after which the move goes ahead.
+ * Keys only run out for the move that needs one, so compaction runs there and nowhere else.
+ *
+ * A channel link is placed in a cluster at most once.
+ */
+@Service
+public class ClusterService {
+    /** Distance between the keys of appended links, and between all keys after compaction. */
+    public static final int IDX_GAP = 1 << 16;
+
+    @Autowired
+    private ClusterRepository clusterRepository;
+    @Autowired
+    private ClusterLinkRepository clusterLinkRepository;
+    @Autowired
+    private ChannelRepository channelRepository;
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+    @Autowired
+    private PermissionService permissionService;
+    @Autowired
+    private ChannelLayoutService channelLayoutService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Retrieves the clusters of a channel.
+     *
+     * @param principal the user requesting the clusters
+     * @param channelId the ID of the channel
+     * @return the channel's clusters ordered by ID
+     * @throws AccessDeniedException if the user does not have permission to view the channel
+     */
+    @Transactional
+    public List<ClusterView> getClusters(UserPrincipal principal, Long channelId) {
+        checkCanView(principal, channelId);
+        return clusterRepository.findViewsByChannelId(channelId);
+    }
+
+    /**
+     * Retrieves the links of a cluster in order.
+     *
+     * @param principal the user requesting the links
+     * @param channelId the ID of the channel
+     * @param clusterId the ID of the cluster
+     * @return the cluster's links with their channel links, in order
+     * @throws AccessDeniedException if the user does not have permission to view the channel
+     * @throws NoSuchElementException if the cluster is not in the channel
+     */
+    @Transactional
+    public List<ClusterLinkView> getClusterLinks(UserPrincipal principal, Long channelId, Long clusterId) {
+        checkCanView(principal, channelId);
+        clusterRepository.findByChannelIdAndId(channelId, clusterId).orElseThrow();
+        return clusterLinkRepository.findViewsByClusterId(clusterId);
+    }
+
+    /**
+     * Creates a cluster in a channel.
+     *
+     * @param principal the user creating the cluster
+     * @param channelId the ID of the channel
+     * @param clusterDTO the name of the new cluster
+     * @return the created Cluster entity
+     * @throws AccessDeniedException if the user is not an admin or above in the channel
+     */
+    @Transactional
+    public Cluster createCluster(UserPrincipal principal, Long channelId, ClusterDTO clusterDTO) {
+        checkCanEdit(principal, channelId);
+        Channel channel = channelRepository.findById(channelId).orElseThrow();
+
+        Cluster cluster = new Cluster();
+        cluster.setChannel(channel);
+        cluster.setName(clusterDTO.getName());
+        channelLayoutService.evict(channelId);
+        return clusterRepository.save(cluster);
+    }
+
+    /**
+     * Renames a cluster.
+     *
+     * @param principal the user renaming the cluster
+     * @param channelId the ID of the channel
+     * @param clusterDTO the ID and new name of the cluster
+     * @return the updated Cluster entity
+     * @throws AccessDeniedException if the user is not an admin or above in the channel
+     * @throws NoSuchElementException if the cluster is not in the channel
+     */
+    @Transactional
+    public Cluster updateCluster(UserPrincipal principal, Long channelId, ClusterDTO clusterDTO) {
+        checkCanEdit(principal, channelId);
+        Cluster cluster = clusterRepository.findByChannelIdAndId(channelId, clusterDTO.getId()).orElseThrow();
+
+        cluster.setName(clusterDTO.getName());
+        channelLayoutService.evict(channelId);
+        return clusterRepository.save(cluster);
+    }
+
+    /**
+     * Deletes a cluster and the placements of its links. The channel links themselves are kept.
+     *
+     * @param principal the user deleting the cluster
+     * @param channelId the ID of the channel
+     * @param clusterId the ID of the cluster
+     * @throws AccessDeniedException if the user is not an admin or above in the channel
+     * @throws NoSuchElementException if the cluster is not in the channel
+     */
+    @Transactional
+    public void deleteCluster(UserPrincipal principal, Long channelId, Long clusterId) {
+        checkCanEdit(principal, channelId);
+        Cluster cluster = clusterRepository.findByChannelIdAndId(channelId, clusterId).orElseThrow();
+
+        clusterLinkRepository.deleteByClusterId(clusterId);
+        clusterRepository.deleteById(cluster.getId());
+        channelLayoutService.evict(channelId);
+    }
+
+    /**
+     * Adds a channel link to a cluster, before the given cluster link or at the end.
+     *
+     * @param principal the user adding the link
+     * @param channelId the ID of the channel
+     * @param clusterId the ID of the cluster
+     * @param clusterLinkDTO the channel link to add, and optionally the cluster link to place it before
+     * @return the created ClusterLink entity
+     * @throws AccessDeniedException if the user is not an admin or above in the channel
+     * @throws NoSuchElementException if the cluster, the channel link or the cluster link to place it
+     *                                before is not in the channel
+     * @throws DataIntegrityViolationException if the channel link is already in the cluster
+     */
+    @Transactional
+    public ClusterLink addClusterLink(UserPrincipal principal, Long channelId, Long clusterId, ClusterLinkDTO clusterLinkDTO) {
+        checkCanEdit(principal, channelId);
+        clusterRepository.findByChannelIdAndId(channelId, clusterId).orElseThrow();
+        channelLinkRepository.findByChannelIdAndId(channelId, clusterLinkDTO.getChannelLinkId()).orElseThrow();
+        checkNotInCluster(clusterId, clusterLinkDTO.getChannelLinkId());
+
+        // Allocate first: compaction clears the persistence context
+        int idx = allocateIdx(clusterId, clusterLinkDTO.getBeforeId());
+        ClusterLink clusterLink = new ClusterLink();
+        clusterLink.setCluster(clusterRepository.findById(clusterId).orElseThrow());
+        clusterLink.setChannelLink(channelLinkRepository.findById(clusterLinkDTO.getChannelLinkId()).orElseThrow());
+        clusterLink.setIdx(idx);
+        channelLayoutService.evict(channelId);
+        return clusterLinkRepository.save(clusterLink);
+    }
+
+    /**
+     * Moves a cluster link before another link, or to the end, of its own cluster or of another
+     * cluster of the same channel. Only the moved row is written, unless the target cluster has
+     * to be compacted first.
+     *
+     * @param principal the user moving the link
+     * @param channelId the ID of the channel
+     * @param clusterId the ID of the cluster holding the link
+     * @param clusterLinkId the ID of the cluster link to move
+     * @param clusterLinkDTO the target cluster, defaulting to the current one, and optionally the
+     *                       cluster link to place the link before
+     * @return the moved ClusterLink entity
+     * @throws AccessDeniedException if the user is not an admin or above in the channel
+     * @throws NoSuchElementException if a cluster or cluster link is not in the channel
+     * @throws DataIntegrityViolationException if the link is moved into another cluster already holding its channel link
+     */
+    @Transactional
+    public ClusterLink moveClusterLink(
+            UserPrincipal principal, Long channelId, Long clusterId, Long clusterLinkId, ClusterLinkDTO clusterLinkDTO
+    ) {
+        checkCanEdit(principal, channelId);
+        clusterRepository.findByChannelIdAndId(channelId, clusterId).orElseThrow();
+        ClusterLink current = clusterLinkRepository.findByClusterIdAndId(clusterId, clusterLinkId).orElseThrow();
+
+        Long targetClusterId = clusterLinkDTO.getClusterId() != null ? clusterLinkDTO.getClusterId() : clusterId;
+        Cluster target = clusterRepository.findByChannelIdAndId(channelId, targetClusterId).orElseThrow();
+        if (!target.getId().equals(clusterId)) {
+            checkNotInCluster(target.getId(), current.getChannelLink().getId());
+        }
+        Long beforeId = clusterLinkDTO.getBeforeId();
+        if (clusterLinkId.equals(beforeId)) {
+            return clusterLinkRepository.findById(clusterLinkId).orElseThrow();  // Already in place
+        }
+
+        // Allocate first: compaction clears the persistence context
+        int idx = allocateIdx(target.getId(), beforeId);
+        ClusterLink clusterLink = clusterLinkRepository.findById(clusterLinkId).orElseThrow();
+        clusterLink.setCluster(clusterRepository.findById(target.getId()).orElseThrow());
+        clusterLink.setIdx(idx);
+        channelLayoutService.evict(channelId);
+        return clusterLinkRepository.save(clusterLink);
+    }
+
+    /**
+     * Removes a link from a cluster. The channel link itself is kept.
+     *
+     * @param principal the user removing the link
+     * @param channelId the ID of the channel
+     * @param clusterId the ID of the cluster
+     * @param clusterLinkId the ID of the cluster link
+     * @throws AccessDeniedException if the user is not an admin or above in the channel
+     * @throws NoSuchElementException if the cluster or cluster link is not in the channel
+     */
+    @Transactional
+    public void removeClusterLink(UserPrincipal principal, Long channelId, Long clusterId, Long clusterLinkId) {
+        checkCanEdit(principal, channelId);
+        clusterRepository.findByChannelIdAndId(channelId, clusterId).orElseThrow();
+        ClusterLink clusterLink = clusterLinkRepository.findByClusterIdAndId(clusterId, clusterLinkId).orElseThrow();
+
+        clusterLinkRepository.delete(clusterLink);
+        channelLayoutService.evict(channelId);
+    }
+
+    /**
+     * Spreads the ordering keys of a cluster {@value #IDX_GAP} apart again, keeping the order,
+     * in a single batched update. Pending changes are flushed first, and the persistence
+     * context is cleared afterwards since the update bypasses it. Runs in the transaction of
+     * the add or move that ran out of keys, after its edit permission was checked.
+     *
+     * @param clusterId the ID of the cluster
+     */
+    void compactCluster(Long clusterId) {
+        List<Long> ids = clusterLinkRepository.findIdsInOrder(clusterId);
+        // Very large clusters get a smaller gap, so the keys stay within range
+        long gap = Math.min(IDX_GAP, Integer.MAX_VALUE / (ids.size() + 1L));
+
+        List<Object[]> keys = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            keys.add(new Object[] {(int) ((i + 1) * gap), ids.get(i)});
+        }
+        entityManager.flush();
+        jdbcTemplate.batchUpdate("UPDATE cluster_link SET idx = ? WHERE id = ?", keys);
+        entityManager.clear();
+    }
+
+    /**
+     * Returns a free ordering key before the given cluster link, or after the last link,
+     * compacting the cluster once if there is no key left there.
+     */
+    private int allocateIdx(Long clusterId, @Nullable Long beforeId) {
+        OptionalInt idx = beforeId == null ? idxAtEnd(clusterId) : idxBefore(clusterId, beforeId);
+        if (idx.isEmpty()) {
+            compactCluster(clusterId);
+            idx = beforeId == null ? idxAtEnd(clusterId) : idxBefore(clusterId, beforeId);
+        }
+        return idx.orElseThrow(() -> new IllegalStateException("No ordering key left in cluster " + clusterId));
+    }
+
+    private OptionalInt idxAtEnd(Long clusterId) {
+        long idx = clusterLinkRepository.findLastIdx(clusterId).orElse(0) + (long) IDX_GAP;
+        return idx <= Integer.MAX_VALUE ? OptionalInt.of((int) idx) : OptionalInt.empty();
+    }
+
+    private OptionalInt idxBefore(Long clusterId, Long beforeId) {
+        int next = clusterLinkRepository.findIdx(clusterId, beforeId).orElseThrow();
+        Optional<Integer> previous = clusterLinkRepository.findIdxBefore(clusterId, next);
+
+        // The first link has room down to one gap below it
+        long lower = previous.isPresent() ? previous.get() : Math.max((long) next - 2L * IDX_GAP, Integer.MIN_VALUE);
+        long idx = lower + (next - lower) / 2;
+        return idx > lower && idx < next ? OptionalInt.of((int) idx) : OptionalInt.empty();
+    }
+
+    private void checkNotInCluster(Long clusterId, Long channelLinkId) {
+        if (clusterLinkRepository.existsByClusterIdAndChannelLinkId(clusterId, channelLinkId)) {
+            throw new DataIntegrityViolationException("Link is already in this cluster.");
+        }
+    }
+
+    private void checkCanView(UserPrincipal principal, Long channelId) {
+        Channel channel = channelRepository.findById(channelId).orElseThrow();
+        if (
+            channel.getVisibility() == Channel.Visibility.PRIVATE &&
+            !permissionService.hasChannelRole(principal, channelId, ChannelRole.MEMBER)
+        ) {
+            throw new AccessDeniedException("User does not have permission to view clusters in this channel.");
+        }
+    }
+
+    private void checkCanEdit(UserPrincipal principal, Long channelId) {
+        if (!permissionService.hasChannelRole(principal, channelId, ChannelRole.ADMIN)) {
+            throw new AccessDeniedException("User does not have permission to edit clusters in this channel.");
+        }
+    }
+}
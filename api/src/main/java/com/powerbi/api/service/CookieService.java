@@ -1,11 +1,16 @@
 package com.powerbi.api.service;
 
 import com.powerbi.api.config.JwtUtil;
+import com.powerbi.api.config.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,6 +28,12 @@ public class CookieService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
     /**
      * Refreshes the access and refresh tokens using the refresh token stored in cookies.
      * Validates the refresh token and generates new tokens if valid.
@@ -35,46 +46,132 @@ public class CookieService {
      */
     public String refreshTokens(HttpServletRequest request, HttpServletResponse response) {
         // Get the refresh token from cookies
-        String refreshToken = null;
-        Cookie[] cookies = request.getCookies();
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if ("refreshToken".equals(cookie.getName())) {
-                    refreshToken = cookie.getValue();
-                    break;
-                }
-            }
-        }
+        String refreshToken = getCookieValue(request, "refreshToken");
 
         if (refreshToken == null) {
             throw new RuntimeException("Refresh token not found in cookies");
         }
 
-        String username = jwtUtil.getUsernameFromToken(refreshToken);
+        return refreshTokens(refreshToken, response);
+    }
+
+    /**
+     * Refreshes the access and refresh tokens using an already extracted refresh token.
+     * Validates the refresh token and generates new tokens if valid.
+     * The presented refresh token is revoked before the new pair is issued, so each refresh
+     * token can be used once, and logging out revokes every token still in use.
+     * The new tokens are added to the response as cookies.
+     *
+     * @param refreshToken the refresh token taken from the request cookies
+     * @param response     the HTTP response to which the new cookies will be added
+     * @return the new access token
+     * @throws RuntimeException if the refresh token is invalid or has been revoked, or its user deleted
+     */
+    public String refreshTokens(String refreshToken, HttpServletResponse response) {
+        Claims claims = jwtUtil.parseClaims(refreshToken);
+        String username = claims.getSubject();
+
+        if (jwtUtil.validateClaims(claims, username) && !revocationStore.isRevoked(claims)) {
+            // Carry the user ID over, looking it up only for tokens minted without it
+            Long userId = jwtUtil.getUserId(claims);
+            if (userId == null) {
+                userId = userService.getUser(username).getId();
+            } else if (!userService.userExists(userId)) {
+                throw new RuntimeException("User no longer exists");
+            }
+
+            // Rotate the refresh token out before replacing it
+            revocationStore.revoke(claims);
 
-        if (jwtUtil.validateToken(refreshToken, username)) {
             // Generate new tokens
-            String newToken = jwtUtil.generateToken(username);
-            String newRefreshToken = jwtUtil.generateRefreshToken(username);
-
-            // Set the new access token
-            Cookie tokenCookie = new Cookie("token", newToken);
-            tokenCookie.setHttpOnly(true);
-            tokenCookie.setPath("/");
-            tokenCookie.setMaxAge(expiration);
-
-            // Set new refresh token
-            Cookie refreshTokenCookie = new Cookie("refreshToken", newRefreshToken);
-            refreshTokenCookie.setHttpOnly(true);
-            refreshTokenCookie.setPath("/");
-            refreshTokenCookie.setMaxAge(refreshExpiration);
-
-            // Add the cookies to the response
-            response.addCookie(tokenCookie);
-            response.addCookie(refreshTokenCookie);
+            String newToken = jwtUtil.generateToken(username, userId);
+            String newRefreshToken = jwtUtil.generateRefreshToken(username, userId);
+
+            addTokenCookies(response, newToken, newRefreshToken);
             return newToken;
         } else {
             throw new RuntimeException("Invalid refresh token");
         }
     }
+
+    /**
+     * Revokes the access and refresh tokens stored in cookies and clears both cookies.
+     * Tokens that are missing, invalid or already expired are skipped, since they cannot authenticate anyway.
+     *
+     * @param request  the HTTP request containing the cookies
+     * @param response the HTTP response in which the cookies are cleared
+     */
+    public void revokeTokens(HttpServletRequest request, HttpServletResponse response) {
+        for (String name : new String[] {"token", "refreshToken"}) {
+            String token = getCookieValue(request, name);
+            if (token == null) {
+                continue;
+            }
+            try {
+                revocationStore.revoke(jwtUtil.parseClaims(token));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Nothing to revoke
+            }
+        }
+
+        // Expire both cookies in the browser
+        ResponseCookie tokenCookie = ResponseCookie.from("token", "").httpOnly(true).path("/").maxAge(0).build();
+        ResponseCookie refreshTokenCookie = ResponseCookie.from("refreshToken", "").httpOnly(true).path("/").maxAge(0).build();
+        response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie.toString());
+        response.addHeader(HttpHeaders.SET_COOKIE, refreshTokenCookie.toString());
+    }
+
+    /**
+     * Adds the access and refresh tokens to the response as HTTP-only cookies.
+     *
+     * @param response     the HTTP response to which the cookies will be added
+     * @param token        the access token
+     * @param refreshToken the refresh token
+     */
+    public void addTokenCookies(HttpServletResponse response, String token, String refreshToken) {
+        getTokenCookieHeaders(token, refreshToken).get(HttpHeaders.SET_COOKIE)
+                .forEach(cookie -> response.addHeader(HttpHeaders.SET_COOKIE, cookie));
+    }
+
+    /**
+     * Builds the Set-Cookie headers for the access and refresh tokens.
+     * Used by asynchronous handlers, which return their cookies on the response entity
+     * instead of writing them to the servlet response.
+     *
+     * @param token        the access token
+     * @param refreshToken the refresh token
+     * @return the headers carrying both HTTP-only cookies
+     */
+    public HttpHeaders getTokenCookieHeaders(String token, String refreshToken) {
+        // Set the access token
+        ResponseCookie tokenCookie = ResponseCookie.from("token", token)
+                .httpOnly(true) // Protect from JS access
+                .path("/")
+                .maxAge(expiration)
+                .build();
+
+        // Set the refresh token
+        ResponseCookie refreshTokenCookie = ResponseCookie.from("refreshToken", refreshToken)
+                .httpOnly(true)
+                .path("/")
+                .maxAge(refreshExpiration)
+                .build();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.SET_COOKIE, tokenCookie.toString());
+        headers.add(HttpHeaders.SET_COOKIE, refreshTokenCookie.toString());
+        return headers;
+    }
+
+    private String getCookieValue(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (name.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
 }
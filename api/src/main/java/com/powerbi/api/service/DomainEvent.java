@@ -0,0 +1,82 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelLink;
+import com.powerbi.api.model.Link;
+import com.powerbi.api.model.User;
+
+/**
+ * Change to a user, channel, link or channel link, published by the service making it so the
+ * read models derived from them can follow without that service knowing about each of them.
+ *
+ * Events are published inside the transaction making the change. Listeners that must only see
+ * committed changes, such as the {@link SearchService}, listen after commit; caches that must
+ * not keep a stale entry, such as the {@link ChannelLayoutService}, listen at once.
+ */
+public sealed interface DomainEvent {
+
+    /**
+     * A user was created.
+     *
+     * @param user the saved user
+     */
+    record UserSaved(User user) implements DomainEvent {
+    }
+
+    /**
+     * A user was deleted, along with their links by cascade.
+     *
+     * @param user the deleted user
+     */
+    record UserDeleted(User user) implements DomainEvent {
+    }
+
+    /**
+     * A channel was created or edited.
+     *
+     * @param channel the saved channel
+     */
+    record ChannelSaved(Channel channel) implements DomainEvent {
+    }
+
+    /**
+     * A channel was deleted; its contents are purged later.
+     *
+     * @param channelId the ID of the deleted channel
+     */
+    record ChannelDeleted(Long channelId) implements DomainEvent {
+    }
+
+    /**
+     * A personal link was created or edited.
+     *
+     * @param link the saved link
+     */
+    record LinkSaved(Link link) implements DomainEvent {
+    }
+
+    /**
+     * A personal link is being deleted. Published before the delete, so listeners can still
+     * look up the channels it is posted in.
+     *
+     * @param link the link being deleted
+     */
+    record LinkDeleted(Link link) implements DomainEvent {
+    }
+
+    /**
+     * A channel link was created or edited.
+     *
+     * @param channelLink the saved channel link
+     */
+    record ChannelLinkSaved(ChannelLink channelLink) implements DomainEvent {
+    }
+
+    /**
+     * A channel link was deleted.
+     *
+     * @param channelLink the deleted channel link
+     */
+    record ChannelLinkDeleted(ChannelLink channelLink) implements DomainEvent {
+    }
+}
@@ -1,11 +1,14 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.dto.LinkDTO;
+import com.powerbi.api.dto.LinkView;
 import com.powerbi.api.model.Link;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.LinkRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 
@@ -22,36 +25,33 @@ public class LinkService {
     private LinkRepository linkRepository;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves all links associated with the given user.
      *
-     * @param username the user whose links are to be retrieved
-     * @return a list of Link entities belonging to the user
+     * @param principal the user whose links are to be retrieved
+     * @param search an optional search term to filter links by title
+     * @return a list of projections of the links belonging to the user
      */
     @Transactional
-    public List<Link> getUserLinks(String username, String search) {
-        User user = userService.getUser(username);
-        if (search != null && !search.isEmpty()) {
-            return linkRepository.findByUserAndTitleContainingIgnoreCase(user, search);
-        } else {
-            return linkRepository.findByUser(user);
-        }
+    public List<LinkView> getUserLinks(UserPrincipal principal, String search) {
+        return linkRepository.findViewsByUserId(principal.getId(), search != null ? search : "");
     }
 
     /**
      * Retrieves a specific link for the user by its ID.
      * Ensures that the link belongs to the user.
      *
-     * @param username   the user who owns the link
+     * @param principal the user who owns the link
      * @param linkId the ID of the link to be retrieved
      * @return the Link entity if found and belongs to the user
      * @throws ResourceNotFoundException if the link is not found or does not belong to the user
      */
     @Transactional
-    public Link getUserLink(String username, Long linkId) {
-        User user = userService.getUser(username);
-        Optional<Link> link = linkRepository.findByUserAndId(user, linkId);
+    public Link getUserLink(UserPrincipal principal, Long linkId) {
+        Optional<Link> link = linkRepository.findByUserIdAndId(principal.getId(), linkId);
         if (link.isEmpty()) {
             throw new ResourceNotFoundException("Link not found/Does not belong to user. LinkId: " + linkId);
         }
@@ -61,52 +61,57 @@ public class LinkService {
     /**
      * Creates a new link for the user.
      *
-     * @param username    the user creating the link
+     * @param principal the user creating the link
      * @param linkDTO the data transfer object containing link details
      * @return the created Link entity
      */
     @Transactional
-    public Link createUserLink(String username, LinkDTO linkDTO) {
-        User user = userService.getUser(username);
+    public Link createUserLink(UserPrincipal principal, LinkDTO linkDTO) {
+        User user = userService.getUser(principal.getId());
         Link link = new Link();
         link.setUser(user);
         link.setLink(linkDTO.getLink());
         link.setTitle(linkDTO.getTitle());
         link.setDescription(linkDTO.getDescription());
 
-        return linkRepository.save(link);
+        link = linkRepository.save(link);
+        eventPublisher.publishEvent(new DomainEvent.LinkSaved(link));
+        return link;
     }
 
     /**
      * Updates an existing link for the user.
      * Ensures that the link belongs to the user before updating.
      *
-     * @param username    the user updating the link
+     * @param principal the user updating the link
      * @param linkDTO the data transfer object containing updated link details
      * @return the updated Link entity
      * @throws ResourceNotFoundException if the link is not found or does not belong to the user
      */
     @Transactional
-    public Link updateUserLink(String username, LinkDTO linkDTO) {
-        Link link = getUserLink(username, linkDTO.getId());
+    public Link updateUserLink(UserPrincipal principal, LinkDTO linkDTO) {
+        Link link = getUserLink(principal, linkDTO.getId());
         link.setLink(linkDTO.getLink());
         link.setTitle(linkDTO.getTitle());
         link.setDescription(linkDTO.getDescription());
 
-        return linkRepository.save(link);
+        link = linkRepository.save(link);
+        eventPublisher.publishEvent(new DomainEvent.LinkSaved(link));
+        return link;
     }
 
     /**
      * Deletes a link for the user.
      * Ensures that the link belongs to the user before deleting.
      *
-     * @param username   the user requesting the deletion
+     * @param principal the user requesting the deletion
      * @param linkId the ID of the link to be deleted
      * @throws ResourceNotFoundException if the link is not found or does not belong to the user
      */
     @Transactional
-    public void deleteUserLink(String username, Long linkId) {
-        Link link = getUserLink(username, linkId);
+    public void deleteUserLink(UserPrincipal principal, Long linkId) {
+        Link link = getUserLink(principal, linkId);
+        eventPublisher.publishEvent(new DomainEvent.LinkDeleted(link));
         linkRepository.delete(link);
     }
 }
@@ -0,0 +1,39 @@
+package com.powerbi.api.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process {@link CacheInvalidationTransport}, delivering invalidations synchronously
+ * to the listeners of this node only. Used unless {@code cache.invalidation.transport}
+ * selects another transport.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationTransport implements CacheInvalidationTransport {
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Delivers the invalidation to every local listener.
+     *
+     * @param invalidation the notice to deliver
+     */
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    /**
+     * Registers a local listener.
+     *
+     * @param listener called once per published invalidation
+     */
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
@@ -1,25 +1,56 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.ChannelAdminRepository;
 import com.powerbi.api.repository.ChannelMemberRepository;
 import com.powerbi.api.repository.ChannelOwnerRepository;
+import com.powerbi.api.repository.ChannelRepository;
 import com.powerbi.api.repository.SuperUserRepository;
+import com.powerbi.api.repository.UserRepository;
 import com.powerbi.api.model.ChannelRole;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service class responsible for managing user permissions within the system.
  * Provides methods to check user roles and permissions for specific channels,
  * including roles such as MEMBER, ADMIN, OWNER, and SUPER_USER.
- * 
+ *
  * This service interacts with repositories to verify user roles and determine
- * access levels for various operations.
+ * access levels for various operations. A user's highest role in a channel is resolved
+ * with a single query, see {@link #getUserRoleInChannel(UserPrincipal, Long)}, and remembered
+ * for the rest of the HTTP request, so every service the request passes through shares it.
+ *
+ * Roles, super user flags and whether a user still exists are also cached across requests. Every write path that changes
+ * them must call {@link #invalidate(CacheInvalidation)} (or {@link #evictSuperUser(Long)}),
+ * which drops the local entries at once and, after the transaction commits, broadcasts the
+ * invalidation to every node through the {@link CacheInvalidationTransport}.
+ * All three caches share a configurable time to live, in case an invalidation is lost, and a
+ * configurable size bound. Only existing users are cached, so a user created on another node
+ * is never reported missing from a stale entry.
  */
 @Service
 public class PermissionService {
+    /** Request attribute holding the roles already resolved during the current request. */
+    private static final String REQUEST_ROLES_ATTRIBUTE = PermissionService.class.getName() + ".roles";
+
     @Autowired
     private ChannelMemberRepository channelMemberRepository;
     @Autowired
@@ -27,7 +58,109 @@ public class PermissionService {
     @Autowired
     private ChannelOwnerRepository channelOwnerRepository;
     @Autowired
+    private ChannelRepository channelRepository;
+    @Autowired
     private SuperUserRepository superUserRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CacheInvalidationTransport invalidationTransport;
+
+    @Value("${permissions.cache.timeToLive:600}")
+    private long timeToLive;
+
+    @Value("${permissions.cache.maxSize:50000}")
+    private int cacheMaxSize;
+
+    private final Map<Long, Cached<Boolean>> superUserFlags = new ConcurrentHashMap<>();
+    private final Map<Long, Cached<Boolean>> existingUsers = new ConcurrentHashMap<>();
+    private final Map<ChannelRoleKey, Cached<ChannelRole>> roleCache = new ConcurrentHashMap<>();
+
+    /** Incremented on every invalidation, so a lookup that raced one does not cache its stale result. */
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /** Other caches derived from permissions, notified of every invalidation applied on this node. */
+    private final List<Consumer<CacheInvalidation>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Subscribes to invalidations published by any node.
+     */
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidationTransport.subscribe(this::applyInvalidation);
+    }
+
+    /**
+     * Checks if the user with the given ID is a superuser, using the cached flag when present.
+     *
+     * @param userId The ID of the user to check
+     * @return true if the user is a superuser, false otherwise
+     */
+    @Transactional
+    public boolean isSuperUser(Long userId) {
+        return getCached(superUserFlags, userId, superUserRepository::existsByUserId, true);
+    }
+
+    /**
+     * Checks if the user with the given ID still exists, using the cached answer when present.
+     * Deleting a user goes through {@link #evictSuperUser(Long)}, which drops the answer on
+     * every node, so tokens of a deleted user stop authenticating everywhere. Missing users are
+     * looked up again on every call, as they may still be created.
+     *
+     * @param userId The ID of the user to check
+     * @return true if the user exists, false if it was deleted or never existed
+     */
+    @Transactional
+    public boolean userExists(Long userId) {
+        return getCached(existingUsers, userId, userRepository::existsById, false);
+    }
+
+    /**
+     * Drops the cached super user flag and roles of a user on every node,
+     * so the next check reads them from the database.
+     *
+     * @param userId The ID of the user whose super user status changed
+     */
+    public void evictSuperUser(Long userId) {
+        invalidate(CacheInvalidation.forUser(userId));
+    }
+
+    /**
+     * Registers a cache derived from permissions, so it is invalidated together with them:
+     * at once on the node making the change, and on every node once the change commits.
+     *
+     * @param listener called once per applied invalidation
+     */
+    public void addInvalidationListener(Consumer<CacheInvalidation> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    /**
+     * Drops cached permissions affected by a change, on this node at once and on every node
+     * once the current transaction commits. Publishing after the commit keeps other nodes from
+     * caching the old permissions again before the change is visible to them.
+     *
+     * @param invalidation the permissions that changed
+     */
+    public void invalidate(CacheInvalidation invalidation) {
+        applyInvalidation(invalidation);
+
+        Map<ChannelRoleKey, ChannelRole> requestRoles = getRequestRoles();
+        if (requestRoles != null) {
+            requestRoles.keySet().removeIf(key -> invalidation.affects(key.userId(), key.channelId()));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationTransport.publish(invalidation);
+                }
+            });
+        } else {
+            invalidationTransport.publish(invalidation);
+        }
+    }
 
     /**
      * Checks if the user is a superuser.
@@ -37,7 +170,17 @@ public class PermissionService {
      */
     @Transactional
     public boolean hasSuperUserPermission(User user) {
-        return superUserRepository.existsByUserId(user.getId());
+        return isSuperUser(user.getId());
+    }
+
+    /**
+     * Checks if the authenticated user is a superuser.
+     *
+     * @param principal The authenticated user to check
+     * @return true if the user is a superuser, false otherwise
+     */
+    public boolean hasSuperUserPermission(UserPrincipal principal) {
+        return principal.isSuperUser();
     }
 
     /**
@@ -50,18 +193,26 @@ public class PermissionService {
      */
     @Transactional
     public boolean hasChannelPermission(User user, Long channelId, ChannelRole requiredRole) {
+        return hasChannelPermission(toPrincipal(user), channelId, requiredRole);
+    }
+
+    /**
+     * Checks if the authenticated user has the required role in the channel.
+     *
+     * @param principal The authenticated user to check
+     * @param channelId The channel ID
+     * @param requiredRole The required role (member, admin, owner, superuser)
+     * @return true if the user has the required role, false otherwise
+     */
+    @Transactional
+    public boolean hasChannelPermission(UserPrincipal principal, Long channelId, ChannelRole requiredRole) {
+        Long userId = principal.getId();
         return switch (requiredRole) {
-            case MEMBER -> channelMemberRepository.existsByUserIdAndChannelId(user.getId(), channelId);
-            case ADMIN -> channelAdminRepository.existsByUserIdAndChannelId(user.getId(), channelId);
-            case OWNER -> channelOwnerRepository.existsByUserIdAndChannelId(user.getId(), channelId);
-            case SUPER_USER ->
-                    hasSuperUserPermission(user);  // You can also directly call the hasSuperUserPermission method here
-            case NOT_ALLOWED -> !(
-                    channelMemberRepository.existsByUserIdAndChannelId(user.getId(), channelId) ||
-                    channelAdminRepository.existsByUserIdAndChannelId(user.getId(), channelId) ||
-                    channelOwnerRepository.existsByUserIdAndChannelId(user.getId(), channelId) ||
-                    hasSuperUserPermission(user)
-            );
+            case MEMBER -> channelMemberRepository.existsByUserIdAndChannelId(userId, channelId);
+            case ADMIN -> channelAdminRepository.existsByUserIdAndChannelId(userId, channelId);
+            case OWNER -> channelOwnerRepository.existsByUserIdAndChannelId(userId, channelId);
+            case SUPER_USER -> principal.isSuperUser();
+            case NOT_ALLOWED -> getUserRoleInChannel(principal, channelId) == ChannelRole.NOT_ALLOWED;
             default -> false;
         };
     }
@@ -75,22 +226,127 @@ public class PermissionService {
      */
     @Transactional
     public ChannelRole getUserRoleInChannel(User user, Long channelId) {
-        if (superUserRepository.existsByUserId(user.getId())) {
+        return getUserRoleInChannel(toPrincipal(user), channelId);
+    }
+
+    /**
+     * Retrieves the role of the authenticated user in a specific channel.
+     * Returns the highest role held, read in a single query; super users skip the query.
+     *
+     * @param principal the authenticated user to check
+     * @param channelId the ID of the channel
+     * @return the role of the user in the specified channel
+     */
+    @Transactional
+    public ChannelRole getUserRoleInChannel(UserPrincipal principal, Long channelId) {
+        if (principal.isSuperUser()) {
             return ChannelRole.SUPER_USER;
         }
 
-        if (channelOwnerRepository.existsByUserIdAndChannelId(user.getId(), channelId)) {
-            return ChannelRole.OWNER;
+        Map<ChannelRoleKey, ChannelRole> requestRoles = getRequestRoles();
+        if (requestRoles == null) {
+            return findUserRoleInChannel(principal.getId(), channelId);
         }
+        return requestRoles.computeIfAbsent(
+                new ChannelRoleKey(principal.getId(), channelId),
+                key -> findUserRoleInChannel(key.userId(), key.channelId())
+        );
+    }
 
-        if (channelAdminRepository.existsByUserIdAndChannelId(user.getId(), channelId)) {
-            return ChannelRole.ADMIN;
+    /**
+     * Checks if the authenticated user holds at least the given role in the channel.
+     * Unlike {@link #hasChannelPermission(UserPrincipal, Long, ChannelRole)}, higher roles satisfy
+     * lower ones, so a channel owner passes an ADMIN check.
+     *
+     * @param principal   the authenticated user to check
+     * @param channelId   the ID of the channel
+     * @param minimumRole the lowest role that grants access
+     * @return true if the user's highest role is the given role or above, false otherwise
+     */
+    @Transactional
+    public boolean hasChannelRole(UserPrincipal principal, Long channelId, ChannelRole minimumRole) {
+        return getUserRoleInChannel(principal, channelId).isAtLeast(minimumRole);
+    }
+
+    private UserPrincipal toPrincipal(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), isSuperUser(user.getId()));
+    }
+
+    /**
+     * Reads a role from the shared cache, querying the database on a miss or expired entry.
+     */
+    private ChannelRole findUserRoleInChannel(Long userId, Long channelId) {
+        return getCached(roleCache, new ChannelRoleKey(userId, channelId), key ->
+                channelRepository.findHighestRole(key.userId(), key.channelId()).orElse(ChannelRole.NOT_ALLOWED), true);
+    }
+
+    /**
+     * Reads a value from one of the shared caches, loading it on a miss or expired entry.
+     * A value loaded while an invalidation was applied may already be stale, so it is not cached.
+     *
+     * @param cacheFalse whether a {@code false} value is cached, or loaded again on every call
+     */
+    private <K, V> V getCached(Map<K, Cached<V>> cache, K key, Function<K, V> loader, boolean cacheFalse) {
+        long now = System.currentTimeMillis();
+        Cached<V> cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+
+        long invalidationsBefore = invalidationCount.get();
+        V value = loader.apply(key);
+        if (invalidationCount.get() == invalidationsBefore && (cacheFalse || !Boolean.FALSE.equals(value))) {
+            if (cache.size() >= cacheMaxSize) {
+                cache.clear();  // Entries are cheap to reload, a full reset keeps the bound simple
+            }
+            cache.put(key, new Cached<>(value, now + timeToLive * 1000));
         }
+        return value;
+    }
 
-        if (channelMemberRepository.existsByUserIdAndChannelId(user.getId(), channelId)) {
-            return ChannelRole.MEMBER;
+    /**
+     * Drops the local entries affected by an invalidation, whichever node published it.
+     */
+    private void applyInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.cache() != CacheInvalidation.Cache.PERMISSIONS) {
+            return;  // Meant for another cache subscribed to the transport
         }
+        invalidationCount.incrementAndGet();
+        if (invalidation.channelId() == null && invalidation.userId() != null) {
+            superUserFlags.remove(invalidation.userId());
+            existingUsers.remove(invalidation.userId());
+        }
+        if (invalidation.userId() != null && invalidation.channelId() != null) {
+            roleCache.remove(new ChannelRoleKey(invalidation.userId(), invalidation.channelId()));
+        } else {
+            roleCache.keySet().removeIf(key -> invalidation.affects(key.userId(), key.channelId()));
+        }
+        invalidationListeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    /**
+     * Returns the roles resolved so far in the current HTTP request, creating the map on first use.
+     *
+     * @return the per-request role map, or null when called outside of an HTTP request
+     */
+    @SuppressWarnings("unchecked")
+    private Map<ChannelRoleKey, ChannelRole> getRequestRoles() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<ChannelRoleKey, ChannelRole> roles = (Map<ChannelRoleKey, ChannelRole>)
+                attributes.getAttribute(REQUEST_ROLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (roles == null) {
+            roles = new HashMap<>();
+            attributes.setAttribute(REQUEST_ROLES_ATTRIBUTE, roles, RequestAttributes.SCOPE_REQUEST);
+        }
+        return roles;
+    }
+
+    private record ChannelRoleKey(Long userId, Long channelId) {
+    }
 
-        return ChannelRole.NOT_ALLOWED;
+    private record Cached<V>(V value, long expiresAt) {
     }
 }
@@ -0,0 +1,95 @@
+package com.powerbi.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-value asynchronous cache that reloads its value before it expires.
+ *
+ * Once the value is older than the refresh-ahead point, callers still receive the cached value
+ * while a reload runs in the background. Only an expired or missing value makes callers wait.
+ * Concurrent reloads are collapsed into one request, and a failed reload is logged and keeps the
+ * old value until it expires.
+ *
+ * @param <T> the type of the cached value
+ */
+class RefreshAheadCache<T> {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final Supplier<Mono<T>> loader;
+    private final Duration timeToLive;
+    private final Duration refreshAhead;
+
+    private final AtomicReference<Entry<T>> current = new AtomicReference<>();
+    private final AtomicReference<Mono<T>> inFlight = new AtomicReference<>();
+
+    /**
+     * Constructor for RefreshAheadCache.
+     *
+     * @param loader       supplies a Mono that loads a fresh value
+     * @param timeToLive   how long a loaded value may be served
+     * @param refreshAhead how long before expiry a background reload is started
+     */
+    RefreshAheadCache(Supplier<Mono<T>> loader, Duration timeToLive, Duration refreshAhead) {
+        this.loader = loader;
+        this.timeToLive = timeToLive;
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * Returns the cached value, loading it first if it is missing or expired.
+     *
+     * @return a Mono emitting the cached value
+     */
+    Mono<T> get() {
+        Entry<T> entry = current.get();
+        Instant now = Instant.now();
+        if (entry == null || !now.isBefore(entry.loadedAt().plus(timeToLive))) {
+            return reload();
+        }
+        if (!now.isBefore(entry.loadedAt().plus(timeToLive).minus(refreshAhead))) {
+            reload().subscribe(value -> { }, error -> logger.warn("Background reload failed, keeping the cached value until it expires", error));
+        }
+        return Mono.just(entry.value());
+    }
+
+    /**
+     * Reloads the value unless it was loaded within the given interval.
+     * Used when the cached value is known to be stale, without letting callers force a reload per request.
+     *
+     * @param minimumAge the minimum age of the cached value before a reload is allowed
+     * @return a Mono emitting the current or reloaded value
+     */
+    Mono<T> reloadIfOlderThan(Duration minimumAge) {
+        Entry<T> entry = current.get();
+        if (entry != null && Instant.now().isBefore(entry.loadedAt().plus(minimumAge))) {
+            return Mono.just(entry.value());
+        }
+        return reload();
+    }
+
+    private Mono<T> reload() {
+        while (true) {
+            Mono<T> pending = inFlight.get();
+            if (pending != null) {
+                return pending;
+            }
+            Mono<T> load = Mono.defer(loader)
+                    .doOnNext(value -> current.set(new Entry<>(value, Instant.now())))
+                    .doFinally(signal -> inFlight.set(null))
+                    .cache();
+            if (inFlight.compareAndSet(null, load)) {
+                return load;
+            }
+        }
+    }
+
+    private record Entry<T>(T value, Instant loadedAt) {
+    }
+}
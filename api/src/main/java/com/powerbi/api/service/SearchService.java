@@ -0,0 +1,491 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelLinkView;
+import com.powerbi.api.dto.LinkSearchHit;
+import com.powerbi.api.dto.LinkView;
+import com.powerbi.api.dto.SearchGroup;
+import com.powerbi.api.dto.SearchHit;
+import com.powerbi.api.dto.SearchResults;
+import com.powerbi.api.dto.UserView;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelLink;
+import com.powerbi.api.model.Link;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.LinkRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Service class for ranked full-text search over channels, channel links, personal links and users.
+ *
+ * Searches run against one in-memory {@link TextIndex} instead of the database. Channels are
+ * indexed on their name and description, links on their title, description and URL host and
+ * path, and channel links on their title. Users are matched by email and display name prefix
+ * in the {@link UserDirectory}, which keeps the only in-memory copy of them. The index is built on first use
+ * and follows the {@link DomainEvent}s of the services owning the items once their transaction
+ * commits, so rolled back changes never reach it. Writes made on other nodes, or removed by
+ * database cascades, are picked up by a full rebuild every {@code search.index.rebuildInterval}
+ * seconds, which runs on a background thread of its own. A failed rebuild is logged and the
+ * current index kept, to be rebuilt again on the next search. Changes applied while a rebuild runs are recorded and
+ * replayed onto the rebuilt index before it is swapped in, so none are lost.
+ *
+ * URLs are indexed on their host and the words of their path; GUIDs, hex strings and other
+ * IDs in the path are left out, as nobody types them and they would crowd the prefix matches.
+ *
+ * Results are loaded back from the database, so entries left behind by a rolled back or
+ * cascaded delete never reach the caller.
+ */
+@Service
+public class SearchService {
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    @Autowired
+    private LinkRepository linkRepository;
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+    @Autowired
+    private ChannelRepository channelRepository;
+    @Autowired
+    private UserDirectory userDirectory;
+    @Autowired
+    private ChannelAccessIndex channelAccessIndex;
+    @Autowired
+    private PermissionService permissionService;
+
+    @Value("${search.index.rebuildInterval:600}")
+    private long rebuildInterval;
+
+    /** Most results returned per group by {@link #search}. */
+    public static final int MAX_GROUP_SIZE = 50;
+
+    /** Score of every user found in the user directory, which lists its matches by email. */
+    private static final double DIRECTORY_MATCH = 1.0;
+
+    /** Field weights: names and titles count most, URLs least. */
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double URL_WEIGHT = 0.8;
+
+    /** GUIDs in URL paths, removed before the path is tokenized. */
+    private static final Pattern GUID = Pattern.compile("[0-9a-fA-F]{8}(-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}");
+    /** URL path tokens that are IDs rather than words: numbers, hex strings and long runs mixing digits in. */
+    private static final Pattern ID_TOKEN = Pattern.compile("\\d+|(?=.*\\d)[0-9a-f]{6,}|(?=.*\\d)\\w{16,}");
+
+    private volatile TextIndex<Document> index;
+    /** Changes applied since the running rebuild started, replayed onto its index; null when none runs. */
+    private List<Consumer<TextIndex<Document>>> pendingChanges;
+    /** Guards the application of changes against the swap of the index. */
+    private final Object changeLock = new Object();
+    private volatile Instant builtAt = Instant.MIN;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "search-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The kinds of indexed documents.
+     */
+    enum DocumentType {
+        CHANNEL,
+        CHANNEL_LINK,
+        LINK
+    }
+
+    /**
+     * Key of an indexed document. The scope decides who may see the document: the channel
+     * itself for a channel, the channel of a channel link and the owning user of a link.
+     */
+    record Document(DocumentType type, Long id, Long scopeId) {
+    }
+
+    /**
+     * Searches the user's own links and the links of every channel the user can see.
+     * Matches tokens exactly, as prefixes while typing, and with small typos.
+     *
+     * @param principal the user searching
+     * @param query the search text
+     * @param pageable the page of results to return
+     * @return a page of results ordered by relevance
+     */
+    public Page<LinkSearchHit> searchLinks(UserPrincipal principal, String query, Pageable pageable) {
+        Predicate<Document> visible = visibleTo(principal);
+        List<TextIndex.Hit<Document>> hits = getIndex().search(query, document ->
+                (document.type() == DocumentType.LINK || document.type() == DocumentType.CHANNEL_LINK) && visible.test(document));
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<TextIndex.Hit<Document>> page = hits.subList(from, to);
+        Map<Long, LinkView> links = load(page, DocumentType.LINK, linkRepository::findViewsByIdIn, LinkView::id);
+        Map<Long, ChannelLinkView> channelLinks = load(page, DocumentType.CHANNEL_LINK, channelLinkRepository::findViewsByIdIn, ChannelLinkView::id);
+
+        List<LinkSearchHit> results = new ArrayList<>(page.size());
+        for (TextIndex.Hit<Document> hit : page) {
+            Long id = hit.key().id();
+            if (hit.key().type() == DocumentType.LINK && links.containsKey(id)) {
+                results.add(new LinkSearchHit(DocumentType.LINK.name(), hit.score(), links.get(id), null));
+            } else if (hit.key().type() == DocumentType.CHANNEL_LINK && channelLinks.containsKey(id)) {
+                results.add(new LinkSearchHit(DocumentType.CHANNEL_LINK.name(), hit.score(), null, channelLinks.get(id)));
+            }
+        }
+        return new PageImpl<>(results, pageable, hits.size());
+    }
+
+    /**
+     * Searches channels, channel links and the user's own links in one pass over the index, and
+     * users in the user directory, returning the best matches of each kind. Channels and channel
+     * links follow the visibility rules of {@link ChannelService#getChannels}; users are visible
+     * to everyone.
+     *
+     * @param principal the user searching
+     * @param query the search text
+     * @param limit the number of results per group, capped at {@value #MAX_GROUP_SIZE}
+     * @return the best matches grouped by kind, each group ordered by relevance
+     */
+    public SearchResults search(UserPrincipal principal, String query, int limit) {
+        int groupSize = Math.max(1, Math.min(limit, MAX_GROUP_SIZE));
+        List<TextIndex.Hit<Document>> hits = getIndex().search(query, visibleTo(principal));
+
+        // Hits are ranked across kinds, so the first hits of each kind are its best
+        Map<DocumentType, List<TextIndex.Hit<Document>>> groups = new EnumMap<>(DocumentType.class);
+        Map<DocumentType, Long> totals = new EnumMap<>(DocumentType.class);
+        for (TextIndex.Hit<Document> hit : hits) {
+            DocumentType type = hit.key().type();
+            List<TextIndex.Hit<Document>> group = groups.computeIfAbsent(type, t -> new ArrayList<>());
+            if (group.size() < groupSize) {
+                group.add(hit);
+            }
+            totals.merge(type, 1L, Long::sum);
+        }
+
+        return new SearchResults(
+                toGroup(groups, totals, DocumentType.CHANNEL, channelRepository::findAllById, Channel::getId),
+                toGroup(groups, totals, DocumentType.CHANNEL_LINK, channelLinkRepository::findViewsByIdIn, ChannelLinkView::id),
+                toGroup(groups, totals, DocumentType.LINK, linkRepository::findViewsByIdIn, LinkView::id),
+                findUsers(query, groupSize)
+        );
+    }
+
+    /**
+     * Finds the users whose email or display name starts with the query, ordered by email.
+     */
+    private SearchGroup<UserView> findUsers(String query, int groupSize) {
+        Page<UserView> users = userDirectory.find(query, PageRequest.of(0, groupSize));
+        List<SearchHit<UserView>> hits = users.getContent().stream()
+                .map(user -> new SearchHit<>(DIRECTORY_MATCH, user))
+                .toList();
+        return new SearchGroup<>(users.getTotalElements(), hits);
+    }
+
+    /**
+     * Applies a committed change to the index. Changes made outside of a transaction are
+     * applied at once.
+     *
+     * @param event the change to a channel, channel link, link or user
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        switch (event) {
+            case DomainEvent.UserSaved saved -> {
+                // Users are kept by the user directory
+            }
+            case DomainEvent.UserDeleted deleted -> {
+                // The user's links are loaded back from the database, so they drop out of results at once
+            }
+            case DomainEvent.ChannelSaved saved -> indexChannel(saved.channel());
+            case DomainEvent.ChannelDeleted deleted -> removeChannel(deleted.channelId());
+            case DomainEvent.LinkSaved saved -> indexLink(saved.link());
+            case DomainEvent.LinkDeleted deleted -> removeLink(deleted.link());
+            case DomainEvent.ChannelLinkSaved saved -> indexChannelLink(saved.channelLink());
+            case DomainEvent.ChannelLinkDeleted deleted -> removeChannelLink(deleted.channelLink());
+        }
+    }
+
+    /**
+     * Adds or re-indexes a personal link.
+     *
+     * @param link the saved link
+     */
+    private void indexLink(Link link) {
+        if (link.getUser() != null) {
+            Document document = new Document(DocumentType.LINK, link.getId(), link.getUser().getId());
+            List<TextIndex.Field> fields = linkFields(link.getTitle(), link.getDescription(), link.getLink());
+            apply(current -> current.put(document, fields));
+        }
+    }
+
+    /**
+     * Removes a personal link from the index.
+     *
+     * @param link the deleted link
+     */
+    private void removeLink(Link link) {
+        if (link.getUser() != null) {
+            Document document = new Document(DocumentType.LINK, link.getId(), link.getUser().getId());
+            apply(current -> current.remove(document));
+        }
+    }
+
+    /**
+     * Adds or re-indexes a channel link.
+     *
+     * @param channelLink the saved channel link
+     */
+    private void indexChannelLink(ChannelLink channelLink) {
+        Document document = new Document(DocumentType.CHANNEL_LINK, channelLink.getId(), channelLink.getChannel().getId());
+        List<TextIndex.Field> fields = List.of(new TextIndex.Field(channelLink.getTitle(), TITLE_WEIGHT));
+        apply(current -> current.put(document, fields));
+    }
+
+    /**
+     * Removes a channel link from the index.
+     *
+     * @param channelLink the deleted channel link
+     */
+    private void removeChannelLink(ChannelLink channelLink) {
+        Document document = new Document(DocumentType.CHANNEL_LINK, channelLink.getId(), channelLink.getChannel().getId());
+        apply(current -> current.remove(document));
+    }
+
+    /**
+     * Adds or re-indexes a channel.
+     *
+     * @param channel the saved channel
+     */
+    private void indexChannel(Channel channel) {
+        Document document = new Document(DocumentType.CHANNEL, channel.getId(), channel.getId());
+        List<TextIndex.Field> fields = channelFields(channel);
+        apply(current -> current.put(document, fields));
+    }
+
+    /**
+     * Removes a channel from the index. Its channel links drop out of results at once and
+     * out of the index on the next rebuild.
+     *
+     * @param channelId the ID of the deleted channel
+     */
+    private void removeChannel(Long channelId) {
+        Document document = new Document(DocumentType.CHANNEL, channelId, channelId);
+        apply(current -> current.remove(document));
+    }
+
+    /**
+     * Applies a change to the current index, and records it for the rebuild running meanwhile,
+     * which may have read the database before the change.
+     */
+    private void apply(Consumer<TextIndex<Document>> change) {
+        synchronized (changeLock) {
+            TextIndex<Document> current = index;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database and swaps it in, with the changes applied
+     * since the rebuild started replayed onto it.
+     */
+    public synchronized void rebuild() {
+        Instant startedAt = Instant.now();
+        synchronized (changeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            TextIndex<Document> rebuilt = load();
+            synchronized (changeLock) {
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                index = rebuilt;
+            }
+            builtAt = startedAt;
+        } finally {
+            synchronized (changeLock) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Builds a new index from the database.
+     */
+    private TextIndex<Document> load() {
+        TextIndex<Document> rebuilt = new TextIndex<>();
+        for (LinkView link : linkRepository.findAllViews()) {
+            if (link.user() != null) {
+                rebuilt.put(new Document(DocumentType.LINK, link.id(), link.user().id()),
+                        linkFields(link.title(), link.description(), link.link()));
+            }
+        }
+        for (ChannelLinkView channelLink : channelLinkRepository.findAllViews()) {
+            rebuilt.put(new Document(DocumentType.CHANNEL_LINK, channelLink.id(), channelLink.channel().id()),
+                    List.of(new TextIndex.Field(channelLink.title(), TITLE_WEIGHT)));
+        }
+        for (Channel channel : channelRepository.findAll()) {
+            rebuilt.put(new Document(DocumentType.CHANNEL, channel.getId(), channel.getId()), channelFields(channel));
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Returns the index, building it on first use and refreshing it in the background once it
+     * is older than the rebuild interval.
+     */
+    private TextIndex<Document> getIndex() {
+        TextIndex<Document> current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    rebuild();
+                }
+                return index;
+            }
+        }
+
+        if (Duration.between(builtAt, Instant.now()).getSeconds() >= rebuildInterval && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuilder.execute(this::rebuildInBackground);
+            } catch (RejectedExecutionException e) {
+                rebuilding.set(false);  // Shutting down
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds the index on the rebuild thread, keeping the current one if the rebuild fails.
+     */
+    private void rebuildInBackground() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Search index rebuild failed, keeping the index built at {}", builtAt, e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Returns the filter accepting the documents a user may see. Channels follow
+     * {@link ChannelService#getChannels}.
+     */
+    private Predicate<Document> visibleTo(UserPrincipal principal) {
+        boolean superUser = permissionService.hasSuperUserPermission(principal);
+        BitSet publicChannels = superUser ? null : channelAccessIndex.getPublicChannels();
+        BitSet joinedChannels = superUser ? null : channelAccessIndex.getJoinedChannels(principal.getId());
+        return document -> switch (document.type()) {
+            case CHANNEL, CHANNEL_LINK -> superUser
+                    || publicChannels.get(Math.toIntExact(document.scopeId()))
+                    || joinedChannels.get(Math.toIntExact(document.scopeId()));
+            case LINK -> document.scopeId().equals(principal.getId());
+        };
+    }
+
+    /**
+     * Loads the documents of one type among the hits with a single query, keyed by ID.
+     * Documents deleted since they were indexed are missing from the map.
+     */
+    private static <T> Map<Long, T> load(List<TextIndex.Hit<Document>> hits, DocumentType type,
+                                         Function<Collection<Long>, ? extends Iterable<T>> loader, Function<T, Long> idOf) {
+        List<Long> ids = hits.stream()
+                .filter(hit -> hit.key().type() == type)
+                .map(hit -> hit.key().id())
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, T> loaded = new HashMap<>();
+        loader.apply(ids).forEach(item -> loaded.put(idOf.apply(item), item));
+        return loaded;
+    }
+
+    /**
+     * Loads the best hits of one type, keeping the hit order and dropping deleted documents.
+     */
+    private static <T> SearchGroup<T> toGroup(Map<DocumentType, List<TextIndex.Hit<Document>>> groups, Map<DocumentType, Long> totals,
+                                              DocumentType type, Function<Collection<Long>, ? extends Iterable<T>> loader, Function<T, Long> idOf) {
+        List<TextIndex.Hit<Document>> hits = groups.getOrDefault(type, List.of());
+        Map<Long, T> items = load(hits, type, loader, idOf);
+
+        List<SearchHit<T>> results = new ArrayList<>(hits.size());
+        for (TextIndex.Hit<Document> hit : hits) {
+            T item = items.get(hit.key().id());
+            if (item != null) {
+                results.add(new SearchHit<>(hit.score(), item));
+            }
+        }
+        return new SearchGroup<>(totals.getOrDefault(type, 0L), results);
+    }
+
+    /**
+     * Builds the indexed fields of a channel.
+     */
+    private static List<TextIndex.Field> channelFields(Channel channel) {
+        return List.of(
+                new TextIndex.Field(channel.getName(), TITLE_WEIGHT),
+                new TextIndex.Field(channel.getDescription(), DESCRIPTION_WEIGHT)
+        );
+    }
+
+    /**
+     * Builds the indexed fields of a link, splitting its URL into host and the words of its path.
+     */
+    private static List<TextIndex.Field> linkFields(String title, String description, String url) {
+        String urlText = url;
+        try {
+            URI uri = URI.create(url);
+            List<String> pathWords = TextIndex.tokenize(GUID.matcher(Objects.toString(uri.getPath(), "")).replaceAll(" ")).stream()
+                    .filter(token -> !ID_TOKEN.matcher(token).matches())
+                    .toList();
+            urlText = uri.getHost() + " " + String.join(" ", pathWords);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // Index the raw text of links that are not valid URIs
+        }
+        return List.of(
+                new TextIndex.Field(title, TITLE_WEIGHT),
+                new TextIndex.Field(description, DESCRIPTION_WEIGHT),
+                new TextIndex.Field(urlText, URL_WEIGHT)
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.model.SuperUser;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.SuperUserRepository;
@@ -24,22 +25,19 @@ public class SuperUserService {
     @Autowired
     private PermissionService permissionService;
     @Autowired
-    private UserService userService;
-    @Autowired
     private UserRepository userRepository;
 
     /**
      * Retrieves all SuperUsers in the system.
      * Requires the requesting user to have SuperUser permissions.
      *
-     * @param username the user requesting the list of SuperUsers
+     * @param principal the user requesting the list of SuperUsers
      * @return a list of SuperUser entities
      * @throws AccessDeniedException if the user does not have SuperUser permissions
      */
     @Transactional
-    public List<SuperUser> getAllSuperUsers(String username) {
-        User user = userService.getUser(username);
-        if (!permissionService.hasSuperUserPermission(user)) {
+    public List<SuperUser> getAllSuperUsers(UserPrincipal principal) {
+        if (!permissionService.hasSuperUserPermission(principal)) {
             throw new AccessDeniedException("You do not have access to view SuperUsers");
         }
         return superUserRepository.findAll();
@@ -49,16 +47,15 @@ public class SuperUserService {
      * Adds a new SuperUser to the system.
      * Requires the requesting user to have SuperUser permissions.
      *
-     * @param username      the user requesting to add a new SuperUser
+     * @param principal     the user requesting to add a new SuperUser
      * @param newUserId the ID of the user to be promoted to SuperUser
      * @throws AccessDeniedException           if the requesting user does not have SuperUser permissions
      * @throws DataIntegrityViolationException if the user is already a SuperUser
      * @throws NoSuchElementException          if the user to be promoted does not exist
      */
     @Transactional
-    public SuperUser addSuperUser(String username, Long newUserId) {
-        User user = userService.getUser(username);
-        if (!permissionService.hasSuperUserPermission(user)) {
+    public SuperUser addSuperUser(UserPrincipal principal, Long newUserId) {
+        if (!permissionService.hasSuperUserPermission(principal)) {
             throw new AccessDeniedException("You do not have access to view SuperUsers");
         }
 
@@ -73,22 +70,23 @@ public class SuperUserService {
         SuperUser superUser = new SuperUser();
         superUser.setUser(newSuperUser);
 
-        return superUserRepository.save(superUser);
+        superUser = superUserRepository.save(superUser);
+        permissionService.evictSuperUser(newUserId);
+        return superUser;
     }
 
     /**
      * Removes an existing SuperUser from the system.
      * Requires the requesting user to have SuperUser permissions.
      *
-     * @param username          the user requesting the removal of a SuperUser
+     * @param principal         the user requesting the removal of a SuperUser
      * @param deleteSuperId the ID of the SuperUser to be removed
      * @throws AccessDeniedException  if the requesting user does not have SuperUser permissions
      * @throws NoSuchElementException if the SuperUser to be removed does not exist
      */
     @Transactional
-    public void removeSuperUser(String username, Long deleteSuperId) {
-        User user = userService.getUser(username);
-        if (!permissionService.hasSuperUserPermission(user)) {
+    public void removeSuperUser(UserPrincipal principal, Long deleteSuperId) {
+        if (!permissionService.hasSuperUserPermission(principal)) {
             throw new AccessDeniedException("You do not have access to view SuperUsers");
         }
         SuperUser superUser = superUserRepository.findById(deleteSuperId).orElseThrow();
@@ -98,5 +96,6 @@ public class SuperUserService {
             throw new DataIntegrityViolationException("At least one super user must remain in the app.");
         }
         superUserRepository.delete(superUser);
+        permissionService.evictSuperUser(superUser.getUser().getId());
     }
 }
@@ -0,0 +1,296 @@
+package com.powerbi.api.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Embedded inverted index for ranked full-text search over small documents.
+ *
+ * Text is split into lowercase tokens of letters and digits. Every query token must match a
+ * document for it to be returned, either exactly, as a prefix of an indexed term, or within a
+ * small edit distance after the first character. Matches are scored by field weight, term
+ * rarity and match kind, so exact matches in heavily weighted fields rank first.
+ *
+ * A short prefix can expand to many terms, so only the terms found in the most documents are
+ * tried. Typos are only looked for among the terms sharing the token's first character whose
+ * length is within the allowed edits, which are kept in their own sorted sets.
+ *
+ * Documents can be added, replaced and removed at any time. Reads and writes are guarded by a
+ * read-write lock, since writes are rare compared to searches.
+ *
+ * @param <K> the type of the document keys
+ */
+class TextIndex<K> {
+    /** Prefix expansions considered per query token, the most common terms first. */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.7;
+    private static final double FUZZY_MATCH = 0.4;
+
+    /** Term to the weighted frequency of the term in each document containing it. */
+    private final NavigableMap<String, Map<K, Double>> postings = new TreeMap<>();
+    /** Document to its weighted term frequencies, used to replace and remove documents. */
+    private final Map<K, Map<String, Double>> documents = new HashMap<>();
+    /** Term length to the terms of that length, narrowing the candidates of a fuzzy match. */
+    private final Map<Integer, NavigableSet<String>> termsByLength = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A piece of text to index, with the weight its matches carry.
+     *
+     * @param text the text, may be null
+     * @param weight the weight of the field
+     */
+    record Field(String text, double weight) {
+    }
+
+    /**
+     * A matching document and its relevance score.
+     *
+     * @param key the document key
+     * @param score the relevance, higher is better
+     */
+    record Hit<K>(K key, double score) {
+    }
+
+    /**
+     * Adds a document, replacing any document with the same key.
+     *
+     * @param key the document key
+     * @param fields the fields of the document
+     */
+    void put(K key, List<Field> fields) {
+        Map<String, Double> terms = new HashMap<>();
+        for (Field field : fields) {
+            for (String token : tokenize(field.text())) {
+                terms.merge(token, field.weight(), Double::sum);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            documents.put(key, terms);
+            terms.forEach((term, frequency) -> postings.computeIfAbsent(term, this::addTerm).put(key, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document, if present.
+     *
+     * @param key the document key
+     */
+    void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return the document count
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching every token of the query, best match first.
+     *
+     * @param query the text typed by the user
+     * @param filter accepts the documents the caller may see
+     * @return the matching documents ordered by descending score
+     */
+    List<Hit<K>> search(String query, Predicate<K> filter) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<K, Double> scores = null;
+            for (String token : tokens) {
+                Map<K, Double> tokenScores = scoreToken(token, filter);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // Keep documents matching all tokens so far
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((key, score) -> score + tokenScores.get(key));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Hit<K>> hits = new ArrayList<>(scores.size());
+            scores.forEach((key, score) -> hits.add(new Hit<>(key, score)));
+            hits.sort(Comparator.comparingDouble((Hit<K> hit) -> hit.score()).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every document matching one query token, keeping each document's best match.
+     */
+    private Map<K, Double> scoreToken(String token, Predicate<K> filter) {
+        Map<K, Double> scores = new HashMap<>();
+        addMatches(scores, token, EXACT_MATCH, filter);
+
+        // Keep the expansions found in the most documents, so rare IDs do not crowd out words
+        PriorityQueue<Map.Entry<String, Map<K, Double>>> expansions =
+                new PriorityQueue<>(Comparator.comparingInt((Map.Entry<String, Map<K, Double>> entry) -> entry.getValue().size()));
+        for (Map.Entry<String, Map<K, Double>> entry : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            expansions.add(entry);
+            if (expansions.size() > MAX_PREFIX_EXPANSIONS) {
+                expansions.poll();
+            }
+        }
+        for (Map.Entry<String, Map<K, Double>> expansion : expansions) {
+            addMatches(scores, expansion.getKey(), PREFIX_MATCH, filter);
+        }
+
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            String first = token.substring(0, 1);
+            for (int length = token.length() - maxEdits; length <= token.length() + maxEdits; length++) {
+                NavigableSet<String> candidates = termsByLength.get(length);
+                if (candidates == null) {
+                    continue;
+                }
+                for (String term : candidates.subSet(first, true, first + Character.MAX_VALUE, false)) {
+                    if (!term.equals(token) && !term.startsWith(token) && withinEdits(token, term, maxEdits)) {
+                        addMatches(scores, term, FUZZY_MATCH, filter);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void addMatches(Map<K, Double> scores, String term, double matchWeight, Predicate<K> filter) {
+        Map<K, Double> matches = postings.get(term);
+        if (matches == null) {
+            return;
+        }
+
+        double idf = Math.log(1 + (double) documents.size() / matches.size());
+        matches.forEach((key, frequency) -> {
+            if (filter.test(key)) {
+                scores.merge(key, frequency * idf * matchWeight, Math::max);
+            }
+        });
+    }
+
+    private void removeLocked(K key) {
+        Map<String, Double> terms = documents.remove(key);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<K, Double> matches = postings.get(term);
+            matches.remove(key);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+                removeTerm(term);
+            }
+        }
+    }
+
+    private Map<K, Double> addTerm(String term) {
+        termsByLength.computeIfAbsent(term.length(), length -> new TreeSet<>()).add(term);
+        return new HashMap<>();
+    }
+
+    private void removeTerm(String term) {
+        NavigableSet<String> sameLength = termsByLength.get(term.length());
+        sameLength.remove(term);
+        if (sameLength.isEmpty()) {
+            termsByLength.remove(term.length());
+        }
+    }
+
+    /**
+     * Splits text into lowercase tokens of letters and digits.
+     *
+     * @param text the text to split, may be null
+     * @return the tokens, in order
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Checks whether two terms are within the given Levenshtein distance, stopping early once
+     * every alignment exceeds it.
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+}
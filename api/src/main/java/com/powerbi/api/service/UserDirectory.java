@@ -0,0 +1,285 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.dto.UserView;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-memory directory of users for the user picker and the users found by the
+ * {@link SearchService}, matched by prefix.
+ *
+ * Every user is listed under their email and under a display name derived from it: the local
+ * part of the email with dots, dashes, underscores and plus signs turned into spaces, so
+ * {@code jane.doe@example.com} is found by {@code jan}, {@code jane d} and {@code doe}.
+ * Entries live in sorted maps, so a prefix lookup is a range scan instead of a {@code %q%}
+ * scan of the user table.
+ *
+ * The directory is loaded on first use and follows the users created and deleted through
+ * {@link UserService} once their transaction commits, so a rolled back registration leaves no
+ * entry behind. Users created on other nodes are picked up by a full reload every
+ * {@code users.directory.refreshInterval} seconds, which runs on a background thread of its
+ * own. A failed reload is logged and the current maps kept, to be reloaded again on the next
+ * lookup. Changes applied while a reload runs are recorded and replayed onto the reloaded maps
+ * before they are swapped in, so none are lost.
+ */
+@Service
+public class UserDirectory {
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectory.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.directory.refreshInterval:600}")
+    private long refreshInterval;
+
+    /** Most users returned per page. */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** Separates the term from the email in term keys, sorting before any other character. */
+    private static final char KEY_SEPARATOR = '\0';
+
+    private volatile Entries entries;
+    /** Changes applied since the running reload started, replayed onto its maps; null when none runs. */
+    private List<Consumer<Entries>> pendingChanges;
+    /** Guards the application of changes against the swap of the maps. */
+    private final Object changeLock = new Object();
+    private volatile Instant loadedAt = Instant.MIN;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "user-directory-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The sorted maps of one load of the directory.
+     *
+     * @param byEmail users by lowercase email
+     * @param byTerm users by each of their terms, keyed by term and email so terms can repeat
+     */
+    private record Entries(NavigableMap<String, UserView> byEmail, NavigableMap<String, UserView> byTerm) {
+        Entries() {
+            this(new ConcurrentSkipListMap<>(), new ConcurrentSkipListMap<>());
+        }
+
+        void add(UserView user) {
+            String email = normalize(user.email());
+            byEmail.put(email, user);
+            for (String term : terms(user.email())) {
+                byTerm.put(term + KEY_SEPARATOR + email, user);
+            }
+        }
+
+        void remove(String rawEmail) {
+            String email = normalize(rawEmail);
+            byEmail.remove(email);
+            for (String term : terms(rawEmail)) {
+                byTerm.remove(term + KEY_SEPARATOR + email);
+            }
+        }
+    }
+
+    /**
+     * Finds the users whose email or display name starts with the given text, ordered by email.
+     *
+     * @param prefix the text typed so far, ignoring case; null or blank to list every user
+     * @param pageable the page to return, at most {@value #MAX_PAGE_SIZE} users long; its sort is ignored
+     * @return the page of matching users
+     */
+    public Page<UserView> find(@Nullable String prefix, Pageable pageable) {
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.max(1, Math.min(pageable.getPageSize(), MAX_PAGE_SIZE)));
+        Entries current = getEntries();
+        String normalized = normalize(prefix);
+
+        if (normalized.isEmpty()) {
+            return slice(current.byEmail().values(), current.byEmail().size(), page);
+        }
+
+        // A user can match through several terms, the map keeps one entry each in email order
+        NavigableMap<String, UserView> matches = new TreeMap<>();
+        for (UserView user : current.byTerm().subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            matches.put(normalize(user.email()), user);
+        }
+        return slice(matches.values(), matches.size(), page);
+    }
+
+    /**
+     * Adds or removes a user once the change is committed. Changes made outside of a transaction
+     * are applied at once.
+     *
+     * @param event the change, only user changes are of interest
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if (event instanceof DomainEvent.UserSaved saved) {
+            User user = saved.user();
+            UserView view = new UserView(user.getId(), user.getEmail(), user.getDateCreated());
+            apply(current -> current.add(view));
+        } else if (event instanceof DomainEvent.UserDeleted deleted) {
+            String email = deleted.user().getEmail();
+            apply(current -> current.remove(email));
+        }
+    }
+
+    /**
+     * Reloads the whole directory from the database and swaps it in, with the changes applied
+     * since the reload started replayed onto it.
+     */
+    public synchronized void reload() {
+        Instant startedAt = Instant.now();
+        synchronized (changeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            Entries loaded = new Entries();
+            userRepository.findAllViews().forEach(loaded::add);
+            synchronized (changeLock) {
+                pendingChanges.forEach(change -> change.accept(loaded));
+                entries = loaded;
+            }
+            loadedAt = startedAt;
+        } finally {
+            synchronized (changeLock) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Applies a change to the current maps, and records it for the reload running meanwhile,
+     * which may have read the database before the change.
+     */
+    private void apply(Consumer<Entries> change) {
+        synchronized (changeLock) {
+            Entries current = entries;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    /**
+     * Returns the directory, loading it on first use and reloading it in the background once it
+     * is older than the refresh interval.
+     */
+    private Entries getEntries() {
+        Entries current = entries;
+        if (current == null) {
+            synchronized (this) {
+                if (entries == null) {
+                    reload();
+                }
+                return entries;
+            }
+        }
+
+        if (Duration.between(loadedAt, Instant.now()).getSeconds() >= refreshInterval && reloading.compareAndSet(false, true)) {
+            try {
+                reloader.execute(this::reloadInBackground);
+            } catch (RejectedExecutionException e) {
+                reloading.set(false);  // Shutting down
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reloads the directory on the reload thread, keeping the current maps if the reload fails.
+     */
+    private void reloadInBackground() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            logger.warn("User directory reload failed, keeping the users loaded at {}", loadedAt, e);
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    private static Page<UserView> slice(Iterable<UserView> users, long total, Pageable page) {
+        List<UserView> content = new ArrayList<>(page.getPageSize());
+        long skip = page.getOffset();
+        for (UserView user : users) {
+            if (skip > 0) {
+                skip--;
+            } else if (content.size() < page.getPageSize()) {
+                content.add(user);
+            } else {
+                break;
+            }
+        }
+        return new PageImpl<>(content, page, total);
+    }
+
+    /**
+     * Returns the terms a user is listed under: the email, the display name and every later
+     * word of the display name.
+     */
+    private static Set<String> terms(String email) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.add(normalize(email));
+
+        String displayName = displayName(email);
+        if (!displayName.isEmpty()) {
+            terms.add(displayName);
+            String[] words = displayName.split(" ");
+            for (int i = 1; i < words.length; i++) {
+                terms.add(String.join(" ", List.of(words).subList(i, words.length)));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Derives the normalized display name from the local part of an email,
+     * e.g. {@code Jane.Doe@example.com} becomes {@code jane doe}.
+     *
+     * @param email the email of the user
+     * @return the lowercase display name, words separated by single spaces
+     */
+    static String displayName(String email) {
+        String localPart = email.contains("@") ? email.substring(0, email.indexOf('@')) : email;
+        return normalize(localPart.replaceAll("[._+\\-]+", " "));
+    }
+
+    private static String normalize(@Nullable String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,17 +1,23 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.UserView;
 import com.powerbi.api.model.SuperUser;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.SuperUserRepository;
 import com.powerbi.api.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 /**
  * Service class responsible for managing User entities.
@@ -25,21 +31,22 @@ public class UserService {
     private UserRepository userRepository;
     @Autowired
     private PermissionService permissionService;
+    @Autowired
+    private UserDirectory userDirectory;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
-     * Retrieves all users or users matching a search query.
-     * If a search query is provided, it filters users by email containing the query.
-     * If no search query is provided, all users are returned.
+     * Retrieves one page of users, ordered by email.
+     * If a search query is provided, only users whose email or display name starts with it are returned.
+     * If no search query is provided, all users are paged through.
      *
-     * @param searchQuery the search query to filter users by email (can be null or empty)
-     * @return a list of User entities
+     * @param searchQuery the prefix to match, ignoring case (can be null or empty)
+     * @param pageable the page to return, capped at {@value UserDirectory#MAX_PAGE_SIZE} users
+     * @return a page of user projections
      */
-    @Transactional
-    public List<User> getAllUsers(String searchQuery) {
-        if (searchQuery != null && !searchQuery.isEmpty()) {
-            return userRepository.findByEmailContaining(searchQuery);
-        }
-        return userRepository.findAll();
+    public Page<UserView> getUsers(@Nullable String searchQuery, Pageable pageable) {
+        return userDirectory.find(searchQuery, pageable);
     }
 
     /**
@@ -54,6 +61,47 @@ public class UserService {
         return userRepository.findByEmail(email).orElseThrow();
     }
 
+    /**
+     * Builds the authenticated principal for the user with the given email.
+     * Used for tokens that predate the user ID claim.
+     *
+     * @param email the email of the user
+     * @return the principal carrying the user's ID and super user flag
+     * @throws NoSuchElementException if the user with the given email does not exist
+     */
+    @Transactional
+    public UserPrincipal getPrincipal(String email) {
+        User user = getUser(email);
+        return getPrincipal(user.getId(), user.getEmail());
+    }
+
+    /**
+     * Builds the authenticated principal for a user whose ID is already known.
+     * Only the cached existence check and super user flag are consulted, so no user lookup is
+     * made once both are cached.
+     *
+     * @param userId the ID of the user
+     * @param email the email of the user
+     * @return the principal carrying the user's ID and super user flag
+     * @throws NoSuchElementException if the user has been deleted
+     */
+    public UserPrincipal getPrincipal(Long userId, String email) {
+        if (!userExists(userId)) {
+            throw new NoSuchElementException("User " + userId + " no longer exists.");
+        }
+        return new UserPrincipal(userId, email, permissionService.isSuperUser(userId));
+    }
+
+    /**
+     * Checks if a user still exists, without loading it once the answer is cached.
+     *
+     * @param userId the ID of the user
+     * @return true if the user exists, false if it has been deleted
+     */
+    public boolean userExists(Long userId) {
+        return permissionService.userExists(userId);
+    }
+
     /**
      * Retrieves a user by their ID.
      *
@@ -83,30 +131,66 @@ public class UserService {
         User user = new User();
         user.setEmail(email);
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new DomainEvent.UserSaved(user));
+
+        createInitialSuperUser(user);
+        return user;
+    }
+
+    /**
+     * Retrieves the user with the specified email, creating it on first login.
+     * Both the lookup and the insert go through the unique index on email. If a concurrent
+     * login inserts the same email first, the unique constraint rejects this insert and the
+     * user created by the other login is returned instead.
+     *
+     * Not transactional on purpose: the insert commits on its own, so a constraint violation
+     * does not roll back a surrounding transaction before the user is read back.
+     *
+     * @param email the email of the user
+     * @return the existing or newly created User entity
+     */
+    public User findOrCreateUser(String email) {
+        Optional<User> existing = userRepository.findByEmail(email);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        User user = new User();
+        user.setEmail(email);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Another login created the user in the meantime
+            return userRepository.findByEmail(email).orElseThrow();
+        }
+        eventPublisher.publishEvent(new DomainEvent.UserSaved(user));
 
+        createInitialSuperUser(user);
+        return user;
+    }
+
+    private void createInitialSuperUser(User user) {
         //Create new superuser if no initial superuser
         if (superUserRepository.count() < 1) {
             SuperUser initialSuper = new SuperUser();
             initialSuper.setUser(user);
             superUserRepository.save(initialSuper);
+            permissionService.evictSuperUser(user.getId());
         }
-
-        return user;
     }
 
     /**
      * Deletes a user with the specified ID.
      * Only users with SuperUser permissions are allowed to delete other users.
      *
-     * @param username            the user requesting the deletion
+     * @param principal       the user requesting the deletion
      * @param toDeleteUserId  the ID of the user to be deleted
      * @throws AccessDeniedException  if the requesting user does not have SuperUser permissions
      * @throws NoSuchElementException if the user to be deleted does not exist
      */
     @Transactional
-    public void deleteUser(String username, Long toDeleteUserId) {
-        User user = userRepository.findByEmail(username).orElseThrow();
-        if (!permissionService.hasSuperUserPermission(user)) {
+    public void deleteUser(UserPrincipal principal, Long toDeleteUserId) {
+        if (!permissionService.hasSuperUserPermission(principal)) {
             throw new AccessDeniedException("You do not have permission to delete users.");
         }
         User userToDelete = userRepository.findById(toDeleteUserId).orElseThrow();
@@ -115,5 +199,7 @@ public class UserService {
             throw new DataIntegrityViolationException("At least one user must remain in the app.");
         }
         userRepository.delete(userToDelete);
+        permissionService.evictSuperUser(toDeleteUserId);
+        eventPublisher.publishEvent(new DomainEvent.UserDeleted(userToDelete));
     }
 }
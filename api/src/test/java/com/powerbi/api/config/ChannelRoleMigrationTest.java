@@ -0,0 +1,121 @@
+package com.powerbi.api.config;
+
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelRole;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.ChannelMembershipRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)  // The migration commits its own DDL
+@Import({ChannelRoleMigration.class, SequenceIdMigration.class})
+class ChannelRoleMigrationTest {
+
+    @Autowired
+    private ChannelRoleMigration channelRoleMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ChannelMembershipRepository channelMembershipRepository;
+
+    private User ownerUser;
+    private User adminUser;
+    private User memberUser;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        ownerUser = userRepository.save(user("migratedOwner"));
+        adminUser = userRepository.save(user("migratedAdmin"));
+        memberUser = userRepository.save(user("migratedMember"));
+
+        channel = new Channel();
+        channel.setName("Migrated Channel");
+        channel = channelRepository.save(channel);
+
+        for (String table : List.of("channel_owner", "channel_admin", "channel_member")) {
+            jdbcTemplate.execute("CREATE TABLE " + table
+                    + " (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, channel_id BIGINT NOT NULL,"
+                    + " date_created TIMESTAMP NOT NULL)");
+        }
+        insertLegacyRole("channel_owner", ownerUser);
+        insertLegacyRole("channel_admin", ownerUser);
+        insertLegacyRole("channel_admin", adminUser);
+        insertLegacyRole("channel_member", adminUser);
+        insertLegacyRole("channel_member", memberUser);
+        insertLegacyRole("channel_member", memberUser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("channel_owner", "channel_admin", "channel_member")) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        }
+        channelMembershipRepository.deleteAll();
+        channelRepository.delete(channel);
+        userRepository.deleteAll(List.of(ownerUser, adminUser, memberUser));
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        return user;
+    }
+
+    private void insertLegacyRole(String table, User user) {
+        jdbcTemplate.update("INSERT INTO " + table + " (user_id, channel_id, date_created) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                user.getId(), channel.getId());
+    }
+
+    private ChannelRole migratedRole(User user) {
+        return channelMembershipRepository.findByUserIdAndChannelId(user.getId(), channel.getId()).orElseThrow().getRole();
+    }
+
+    @Test
+    void testMigrate_FoldsLegacyTablesKeepingHighestRole() {
+        channelRoleMigration.migrate();
+
+        assertEquals(3, channelMembershipRepository.count());
+        assertEquals(ChannelRole.OWNER, migratedRole(ownerUser));
+        assertEquals(ChannelRole.ADMIN, migratedRole(adminUser));
+        assertEquals(ChannelRole.MEMBER, migratedRole(memberUser));
+    }
+
+    @Test
+    void testMigrate_DropsLegacyTablesSoLaterRunsAreNoOps() {
+        channelRoleMigration.migrate();
+        channelMembershipRepository.deleteAll(channelMembershipRepository.findAll().stream()
+                .filter(membership -> membership.getUser().getId().equals(memberUser.getId()))
+                .toList());
+
+        channelRoleMigration.migrate();
+
+        assertEquals(2, channelMembershipRepository.count());
+        assertFalse(channelMembershipRepository.findByUserIdAndChannelId(memberUser.getId(), channel.getId()).isPresent());
+    }
+}
@@ -0,0 +1,183 @@
+package com.powerbi.api.config;
+
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelLink;
+import com.powerbi.api.model.Cluster;
+import com.powerbi.api.model.Link;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.ClusterLinkRepository;
+import com.powerbi.api.repository.ClusterRepository;
+import com.powerbi.api.repository.LinkRepository;
+import com.powerbi.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs both halves of the identity migration against a database in SQL Server compatibility
+ * mode, starting from cluster tables laid out as before the migration.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:identity;MODE=MSSQLServer")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)  // Each test rebuilds the schema
+@Transactional(propagation = Propagation.NOT_SUPPORTED)  // The migration commits its own DDL
+@Import({IdentityTableRetirement.class, SequenceIdMigration.class})
+class IdentityTableRetirementTest {
+
+    @Autowired
+    private IdentityTableRetirement identityTableRetirement;
+
+    @Autowired
+    private SequenceIdMigration sequenceIdMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+
+    @Autowired
+    private ClusterRepository clusterRepository;
+
+    @Autowired
+    private ClusterLinkRepository clusterLinkRepository;
+
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("owner@example.com");
+        userRepository.save(user);
+
+        channel = new Channel();
+        channel.setName("Migrated Channel");
+        channelRepository.save(channel);
+
+        Link link = new Link();
+        link.setTitle("Test Link");
+        link.setLink("https://example.com");
+        link.setUser(user);
+        linkRepository.save(link);
+
+        ChannelLink channelLink = new ChannelLink();
+        channelLink.setChannel(channel);
+        channelLink.setLink(link);
+        channelLink.setTitle("Report");
+        channelLinkRepository.save(channelLink);
+
+        // Hibernate's tables stand aside until the retirement is done, as if not created yet
+        jdbcTemplate.execute("ALTER TABLE cluster_link RENAME TO cluster_link_new");
+        jdbcTemplate.execute("ALTER TABLE cluster RENAME TO cluster_new");
+        jdbcTemplate.execute("DROP SEQUENCE cluster_seq");
+        jdbcTemplate.execute("DROP SEQUENCE cluster_link_seq");
+
+        // The tables as before the migration, with constraints named like Hibernate's and a column it no longer maps
+        jdbcTemplate.execute("""
+                CREATE TABLE cluster (
+                    id BIGINT IDENTITY PRIMARY KEY, channel_id BIGINT NOT NULL, name VARCHAR(255),
+                    date_created DATETIME2 NOT NULL, legacy_note VARCHAR(20),
+                    CONSTRAINT fk_cluster_channel FOREIGN KEY (channel_id) REFERENCES channel (id),
+                    CONSTRAINT uk_cluster_channel_name UNIQUE (channel_id, name))
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE cluster_link (
+                    id BIGINT IDENTITY PRIMARY KEY, cluster_id BIGINT NOT NULL, channel_link_id BIGINT NOT NULL,
+                    idx INT NOT NULL, date_created DATETIME2 NOT NULL,
+                    CONSTRAINT fk_cluster_link_cluster FOREIGN KEY (cluster_id) REFERENCES cluster (id))
+                """);
+        for (long id : new long[] {500L, 501L}) {
+            jdbcTemplate.update("INSERT INTO cluster (id, channel_id, name, date_created, legacy_note) "
+                    + "VALUES (?, ?, ?, CURRENT_TIMESTAMP, 'old')", id, channel.getId(), "Cluster " + id);
+        }
+        jdbcTemplate.update("INSERT INTO cluster_link (id, cluster_id, channel_link_id, idx, date_created) "
+                + "VALUES (700, 501, ?, 0, CURRENT_TIMESTAMP)", channelLink.getId());
+    }
+
+    /**
+     * Puts Hibernate's tables back in place, as Hibernate creates them once the retirement is done.
+     */
+    private void createEntityTables() {
+        jdbcTemplate.execute("ALTER TABLE cluster_new RENAME TO cluster");
+        jdbcTemplate.execute("ALTER TABLE cluster_link_new RENAME TO cluster_link");
+    }
+
+    private boolean tableExists(String table) {
+        return !jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE LOWER(table_name) = ?", table).isEmpty();
+    }
+
+    @Test
+    void testRetireThenMigrate_MovesRowsOntoSequenceIds() {
+        // A channel link placed twice in a cluster, which the new table no longer allows
+        jdbcTemplate.update("INSERT INTO cluster_link (id, cluster_id, channel_link_id, idx, date_created) "
+                + "SELECT 701, cluster_id, channel_link_id, idx + 1, date_created FROM cluster_link WHERE id = 700");
+
+        identityTableRetirement.retire();
+
+        assertTrue(tableExists("cluster_identity"));
+        assertTrue(tableExists("cluster_link_identity"));
+        assertTrue(!tableExists("cluster") && !tableExists("cluster_link"));
+
+        createEntityTables();
+        sequenceIdMigration.migrate();
+
+        assertEquals("Cluster 500", clusterRepository.findById(500L).orElseThrow().getName());
+        assertEquals(channel.getId(), clusterRepository.findById(501L).orElseThrow().getChannel().getId());
+        assertEquals(501L, clusterLinkRepository.findById(700L).orElseThrow().getCluster().getId());
+        assertEquals(1, clusterLinkRepository.count());
+        assertTrue(!tableExists("cluster_identity") && !tableExists("cluster_link_identity"));
+
+        // New IDs are drawn past the copied ones
+        Cluster created = new Cluster();
+        created.setChannel(channel);
+        created.setName("New Cluster");
+        assertTrue(clusterRepository.save(created).getId() > 501L);
+    }
+
+    @Test
+    void testRetire_CarriesOnFromAPartialRun() {
+        identityTableRetirement.retire();
+        // A run cut short after renaming the table, before creating its sequence
+        jdbcTemplate.execute("DROP SEQUENCE cluster_seq");
+
+        identityTableRetirement.retire();
+
+        assertEquals(551L, jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR cluster_seq", Long.class));
+        assertEquals(750L, jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR cluster_link_seq", Long.class));
+        assertTrue(tableExists("cluster_identity"));
+
+        createEntityTables();
+        sequenceIdMigration.migrate();
+        identityTableRetirement.retire();
+        sequenceIdMigration.migrate();
+
+        assertEquals(2, clusterRepository.count());
+        assertEquals(1, clusterLinkRepository.count());
+    }
+}
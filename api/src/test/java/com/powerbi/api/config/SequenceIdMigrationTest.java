@@ -0,0 +1,85 @@
+package com.powerbi.api.config;
+
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.Cluster;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.ClusterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)  // The migration commits its own DDL
+@Import(SequenceIdMigration.class)
+class SequenceIdMigrationTest {
+
+    @Autowired
+    private SequenceIdMigration sequenceIdMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ClusterRepository clusterRepository;
+
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        channel = new Channel();
+        channel.setName("Migrated Channel");
+        channel = channelRepository.save(channel);
+
+        // A retired identity table, with a column the entity no longer maps
+        jdbcTemplate.execute("CREATE TABLE cluster_identity AS SELECT * FROM cluster WHERE 1 = 0");
+        jdbcTemplate.execute("ALTER TABLE cluster_identity ADD COLUMN legacy_note VARCHAR(20)");
+        for (long id : List.of(500L, 501L)) {
+            jdbcTemplate.update("INSERT INTO cluster_identity (id, channel_id, name, date_created, legacy_note) "
+                    + "VALUES (?, ?, ?, CURRENT_TIMESTAMP, 'old')", id, channel.getId(), "Cluster " + id);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cluster_identity");
+        clusterRepository.deleteAll();
+        channelRepository.delete(channel);
+    }
+
+    @Test
+    void testMigrate_CopiesRowsKeepingTheirIds() {
+        sequenceIdMigration.migrate();
+
+        assertEquals("Cluster 500", clusterRepository.findById(500L).orElseThrow().getName());
+        assertEquals("Cluster 501", clusterRepository.findById(501L).orElseThrow().getName());
+        assertEquals(channel.getId(), clusterRepository.findById(501L).orElseThrow().getChannel().getId());
+    }
+
+    @Test
+    void testMigrate_DropsRetiredTableSoLaterRunsAreNoOps() {
+        sequenceIdMigration.migrate();
+        clusterRepository.deleteById(500L);
+
+        sequenceIdMigration.migrate();
+
+        assertEquals(1, clusterRepository.count());
+        assertTrue(jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE LOWER(table_name) = 'cluster_identity'").isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+package com.powerbi.api.config;
+
+import com.powerbi.api.service.CacheInvalidation;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenCacheTest {
+
+    private TokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new TokenCache();
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 10);
+    }
+
+    private static Claims claimsExpiringIn(long millis) {
+        return Jwts.claims()
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + millis));
+    }
+
+    private static TokenCache.CachedToken tokenOf(Long userId, Claims claims) {
+        return new TokenCache.CachedToken(claims, new UserPrincipal(userId, claims.getSubject(), false));
+    }
+
+    @Test
+    void testGet_CachedToken_ReturnsPrincipalAndCountsHit() {
+        Claims claims = claimsExpiringIn(60_000);
+        AtomicInteger resolved = new AtomicInteger();
+        tokenCache.get("token", token -> {
+            resolved.incrementAndGet();
+            return tokenOf(1L, claims);
+        });
+
+        TokenCache.CachedToken cached = tokenCache.get("token", token -> {
+            resolved.incrementAndGet();
+            return null;
+        });
+        assertEquals(1L, cached.principal().getId());
+        assertEquals("user", cached.claims().getSubject());
+        assertEquals(claims.getExpiration(), cached.claims().getExpiration());
+        assertSame(cached, tokenCache.get("token", token -> null));
+        assertEquals(1, resolved.get());
+        assertEquals(2, tokenCache.getHitCount());
+        assertEquals(1, tokenCache.getMissCount());
+    }
+
+    @Test
+    void testGet_CachesReadOnlyCopyOfClaims() {
+        Claims claims = claimsExpiringIn(60_000);
+        tokenCache.get("token", token -> tokenOf(1L, claims));
+        claims.setSubject("someoneElse");
+
+        Claims cached = tokenCache.get("token", token -> null).claims();
+        assertEquals("user", cached.getSubject());
+        assertThrows(UnsupportedOperationException.class, () -> cached.setSubject("someoneElse"));
+    }
+
+    @Test
+    void testGet_ConcurrentMisses_StayBounded() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2000; i++) {
+            String token = "token" + i;
+            executor.execute(() -> tokenCache.get(token, t -> tokenOf(1L, claimsExpiringIn(60_000))));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(tokenCache.getSize() <= 10);
+    }
+
+    @Test
+    void testGet_UnresolvedToken_ReturnsNullAndIsNotCached() {
+        assertNull(tokenCache.get("token", token -> null));
+        assertEquals(0, tokenCache.getHitCount());
+        assertEquals(1, tokenCache.getMissCount());
+        assertEquals(0, tokenCache.getSize());
+    }
+
+    @Test
+    void testGet_ExpiredToken_IsResolvedAgain() {
+        tokenCache.get("token", token -> tokenOf(1L, claimsExpiringIn(-1_000)));
+
+        assertNull(tokenCache.get("token", token -> null));
+        assertEquals(0, tokenCache.getSize());
+    }
+
+    @Test
+    void testGet_FullCache_StaysBounded() {
+        for (int i = 0; i < 25; i++) {
+            Claims claims = claimsExpiringIn(60_000 + i);
+            tokenCache.get("token" + i, token -> tokenOf(1L, claims));
+        }
+
+        assertTrue(tokenCache.getSize() <= 10);
+        assertEquals("user", tokenCache.get("token24", token -> null).claims().getSubject());
+    }
+
+    @Test
+    void testRemove_CachedToken_RemovesEntry() {
+        tokenCache.get("token", token -> tokenOf(1L, claimsExpiringIn(60_000)));
+        tokenCache.remove("token");
+
+        assertNull(tokenCache.get("token", token -> null));
+    }
+
+    @Test
+    void testApplyInvalidation_UserChange_DropsOnlyThatUsersTokens() {
+        tokenCache.get("token1", token -> tokenOf(1L, claimsExpiringIn(60_000)));
+        tokenCache.get("token2", token -> tokenOf(2L, claimsExpiringIn(60_000)));
+
+        // Role changes within a channel leave the principals as they are
+        tokenCache.applyInvalidation(CacheInvalidation.forMembership(1L, 5L));
+        tokenCache.applyInvalidation(CacheInvalidation.forChannel(5L));
+        assertEquals(2, tokenCache.getSize());
+
+        tokenCache.applyInvalidation(CacheInvalidation.forUser(1L));
+        assertNull(tokenCache.get("token1", token -> null));
+        assertEquals(2L, tokenCache.get("token2", token -> null).principal().getId());
+    }
+
+    @Test
+    void testGet_TokenResolvedWhileUserEvicted_IsNotCached() {
+        TokenCache.CachedToken resolved = tokenCache.get("token", token -> {
+            tokenCache.applyInvalidation(CacheInvalidation.forUser(1L));
+            return tokenOf(1L, claimsExpiringIn(60_000));
+        });
+
+        assertEquals(1L, resolved.principal().getId());
+        assertEquals(0, tokenCache.getSize());
+    }
+}
@@ -0,0 +1,130 @@
+package com.powerbi.api.config;
+
+import com.powerbi.api.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TokenRevocationStoreTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationStore revocationStore;
+
+    @BeforeEach
+    void setUp() {
+        revocationStore = node();
+    }
+
+    /**
+     * Creates a store as one API node would hold it, sharing the revocation table with the others.
+     */
+    private TokenRevocationStore node() {
+        TokenRevocationStore node = new TokenRevocationStore();
+        ReflectionTestUtils.setField(node, "expectedTokens", 1000);
+        ReflectionTestUtils.setField(node, "revokedTokenRepository", revokedTokenRepository);
+        return node;
+    }
+
+    private Claims claimsExpiringIn(long millis) {
+        return Jwts.claims()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + millis));
+    }
+
+    @Test
+    void testIsRevoked_RevokedToken_ReturnsTrue() {
+        Claims claims = claimsExpiringIn(60_000);
+        revocationStore.revoke(claims);
+
+        assertTrue(revocationStore.isRevoked(claims));
+    }
+
+    @Test
+    void testIsRevoked_OtherTokens_ReturnFalse() {
+        for (int i = 0; i < 500; i++) {
+            revocationStore.revoke(claimsExpiringIn(60_000));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(revocationStore.isRevoked(claimsExpiringIn(60_000)));
+        }
+    }
+
+    @Test
+    void testIsRevoked_ExpiredToken_ReturnsFalse() {
+        Claims claims = claimsExpiringIn(-1_000);
+        revocationStore.revoke(claims);
+
+        assertFalse(revocationStore.isRevoked(claims));
+    }
+
+    @Test
+    void testIsRevoked_TokenWithoutId_ReturnsFalse() {
+        Claims claims = claimsExpiringIn(60_000).setId(null);
+        revocationStore.revoke(claims);
+
+        assertFalse(revocationStore.isRevoked(claims));
+        assertEquals(0, revocationStore.getSize());
+    }
+
+    @Test
+    void testRevoke_PurgeDropsExpiredEntries() {
+        revocationStore.revoke(claimsExpiringIn(-1_000));
+        Claims live = claimsExpiringIn(60_000);
+
+        ReflectionTestUtils.setField(revocationStore, "nextPurgeAt", 0L);
+        revocationStore.revoke(live);
+
+        assertEquals(1, revocationStore.getSize());
+        assertTrue(revocationStore.isRevoked(live));
+    }
+
+    @Test
+    void testSync_PicksUpRevocationsFromOtherNodes() {
+        Claims first = claimsExpiringIn(60_000);
+        revocationStore.revoke(first);
+
+        // A node starting later loads the revocations still in force
+        TokenRevocationStore otherNode = node();
+        otherNode.sync();
+        assertTrue(otherNode.isRevoked(first));
+
+        // And picks up later ones at its next poll
+        Claims second = claimsExpiringIn(60_000);
+        revocationStore.revoke(second);
+        assertFalse(otherNode.isRevoked(second));
+        otherNode.sync();
+        assertTrue(otherNode.isRevoked(second));
+    }
+
+    @Test
+    void testPurgeExpired_DeletesExpiredRevocationsFromTable() {
+        Claims expired = claimsExpiringIn(-1_000);
+        Claims live = claimsExpiringIn(60_000);
+        revocationStore.revoke(expired);
+        revocationStore.revoke(live);
+
+        revocationStore.purgeExpired();
+
+        assertFalse(revokedTokenRepository.existsById(expired.getId()));
+        assertTrue(revokedTokenRepository.existsById(live.getId()));
+        assertEquals(1, revocationStore.getSize());
+    }
+}
@@ -0,0 +1,114 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.AuthenticationFailedException;
+import com.powerbi.api.config.InvalidRequestException;
+import com.powerbi.api.config.UpstreamServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AzureAuthServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private LocalIdentityProvider identityProvider;
+    private AzureAuthService azureAuthService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        identityProvider = new LocalIdentityProvider();
+
+        azureAuthService = new AzureAuthService();
+        ReflectionTestUtils.setField(azureAuthService, "webClientBuilder", WebClient.builder());
+        ReflectionTestUtils.setField(azureAuthService, "authority", identityProvider.getAuthority());
+        ReflectionTestUtils.setField(azureAuthService, "tenantId", LocalIdentityProvider.TENANT_ID);
+        ReflectionTestUtils.setField(azureAuthService, "clientId", LocalIdentityProvider.CLIENT_ID);
+        ReflectionTestUtils.setField(azureAuthService, "clientSecret", "secret");
+        ReflectionTestUtils.setField(azureAuthService, "redirectUri", "http://localhost/callback");
+        ReflectionTestUtils.setField(azureAuthService, "metadataTimeToLive", 3600L);
+        ReflectionTestUtils.setField(azureAuthService, "metadataRefreshAhead", 60L);
+        ReflectionTestUtils.setField(azureAuthService, "requestTimeout", 5L);
+        azureAuthService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        identityProvider.close();
+    }
+
+    @Test
+    void testGetEmail_ValidCode_ReturnsVerifiedEmail() {
+        String email = azureAuthService.getEmail("code").block(TIMEOUT);
+
+        assertEquals("user@example.com", email);
+    }
+
+    @Test
+    void testGetEmail_RepeatedLogins_FetchMetadataOnce() {
+        azureAuthService.getEmail("code").block(TIMEOUT);
+        identityProvider.setEmail("other@example.com");
+        String email = azureAuthService.getEmail("code").block(TIMEOUT);
+
+        assertEquals("other@example.com", email);
+        assertEquals(2, identityProvider.getRequestCount("/token"));
+        assertEquals(1, identityProvider.getRequestCount("/openid-configuration"));
+        assertEquals(1, identityProvider.getRequestCount("/keys"));
+    }
+
+    @Test
+    void testGetEmail_UnpublishedSigningKey_ThrowsAuthenticationFailedException() {
+        identityProvider.signWithUnpublishedKey();
+
+        assertThrows(AuthenticationFailedException.class, () -> azureAuthService.getEmail("code").block(TIMEOUT));
+    }
+
+    @Test
+    void testGetEmail_WrongAudience_ThrowsAuthenticationFailedException() {
+        identityProvider.setAudience("another-client");
+
+        assertThrows(AuthenticationFailedException.class, () -> azureAuthService.getEmail("code").block(TIMEOUT));
+    }
+
+    @Test
+    void testGetEmail_NoEmailInToken_ReturnsEmpty() {
+        identityProvider.setEmail(null);
+
+        assertNull(azureAuthService.getEmail("code").block(TIMEOUT));
+    }
+
+    @Test
+    void testGetEmail_NullCode_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> azureAuthService.getEmail(null).block(TIMEOUT));
+        assertEquals(0, identityProvider.getRequestCount("/token"));
+    }
+
+    @Test
+    void testGetEmail_TokenEndpointError_ThrowsUpstreamServiceException() {
+        identityProvider.fail("/token", 400);
+
+        assertThrows(UpstreamServiceException.class, () -> azureAuthService.getEmail("code").block(TIMEOUT));
+    }
+
+    @Test
+    void testGetEmail_SigningKeysUnavailable_ThrowsUpstreamServiceException() {
+        identityProvider.fail("/keys", 503);
+
+        assertThrows(UpstreamServiceException.class, () -> azureAuthService.getEmail("code").block(TIMEOUT));
+    }
+
+    @Test
+    void testGetEmail_SlowTenant_ThrowsUpstreamServiceException() {
+        ReflectionTestUtils.setField(azureAuthService, "requestTimeout", 1L);
+        identityProvider.setDelay(Duration.ofSeconds(2));
+
+        assertThrows(UpstreamServiceException.class, () -> azureAuthService.getEmail("code").block(TIMEOUT));
+    }
+}
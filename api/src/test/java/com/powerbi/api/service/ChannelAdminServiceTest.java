@@ -1,10 +1,19 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.InvalidRequestException;
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelMemberImportDTO;
+import com.powerbi.api.dto.ChannelMemberImportResult;
+import com.powerbi.api.dto.ChannelMembershipView;
 import com.powerbi.api.model.*;
 import com.powerbi.api.repository.*;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +23,8 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,12 +32,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({ChannelAdminService.class, UserService.class, PermissionService.class})
+@Import({ChannelAdminService.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
 class ChannelAdminServiceTest {
 
     @Autowired
     private ChannelAdminService channelAdminService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -42,6 +56,9 @@ class ChannelAdminServiceTest {
     @Autowired
     private PermissionService permissionService;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User adminUser;
     private User regularUser;
     private Channel channel;
@@ -69,23 +86,27 @@ class ChannelAdminServiceTest {
         channelAdminRepository.save(channelAdmin);
     }
 
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
     @Test
     void testGetChannelAdmins_AdminUser_ReturnsAdmins() {
-        List<ChannelAdmin> admins = channelAdminService.getChannelAdmins(adminUser.getEmail(), channel.getId());
+        List<ChannelMembershipView> admins = channelAdminService.getChannelAdmins(principal(adminUser), channel.getId());
         assertNotNull(admins);
         assertEquals(1, admins.size());
-        assertEquals(adminUser.getId(), admins.get(0).getUser().getId());
+        assertEquals(adminUser.getId(), admins.get(0).user().id());
     }
 
     @Test
     void testGetChannelAdmins_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelAdminService.getChannelAdmins(regularUser.getEmail(), channel.getId()));
+                channelAdminService.getChannelAdmins(principal(regularUser), channel.getId()));
     }
 
     @Test
     void testAddChannelAdmin_AdminUser_AddsAdmin() {
-        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(adminUser.getEmail(), channel.getId(), regularUser.getId());
+        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(principal(adminUser), channel.getId(), regularUser.getId());
         assertNotNull(newAdmin);
         assertEquals(regularUser.getId(), newAdmin.getUser().getId());
         assertEquals(channel.getId(), newAdmin.getChannel().getId());
@@ -94,26 +115,42 @@ class ChannelAdminServiceTest {
     @Test
     void testAddChannelAdmin_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelAdminService.addChannelAdmin(regularUser.getEmail(), channel.getId(), adminUser.getId()));
+                channelAdminService.addChannelAdmin(principal(regularUser), channel.getId(), adminUser.getId()));
     }
 
     @Test
     void testAddChannelAdmin_UserAlreadyAdmin_ThrowsDataIntegrityViolationException() {
         // Add the user as an admin first
-        channelAdminService.addChannelAdmin(adminUser.getEmail(), channel.getId(), regularUser.getId());
+        channelAdminService.addChannelAdmin(principal(adminUser), channel.getId(), regularUser.getId());
 
         // Try adding the same user again
         assertThrows(DataIntegrityViolationException.class, () ->
-                channelAdminService.addChannelAdmin(adminUser.getEmail(), channel.getId(), regularUser.getId()));
+                channelAdminService.addChannelAdmin(principal(adminUser), channel.getId(), regularUser.getId()));
+    }
+
+    @Test
+    void testAddChannelAdmin_ExistingMember_PromotesMember() {
+        ChannelMember member = channelAdminService.addChannelMember(principal(adminUser), channel.getId(), regularUser.getId());
+
+        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(principal(adminUser), channel.getId(), regularUser.getId());
+        assertEquals(ChannelRole.ADMIN, newAdmin.getRole());
+        assertFalse(channelMemberRepository.existsById(member.getId()));
+        assertEquals(ChannelRole.ADMIN, permissionService.getUserRoleInChannel(principal(regularUser), channel.getId()));
+    }
+
+    @Test
+    void testAddChannelMember_UserAlreadyAdmin_ThrowsDataIntegrityViolationException() {
+        assertThrows(DataIntegrityViolationException.class, () ->
+                channelAdminService.addChannelMember(principal(adminUser), channel.getId(), adminUser.getId()));
     }
 
     @Test
     void testRemoveChannelAdmin_AdminUser_RemovesAdmin() {
         // Add an admin first
-        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(adminUser.getEmail(), channel.getId(), regularUser.getId());
+        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(principal(adminUser), channel.getId(), regularUser.getId());
 
         // Remove the admin
-        channelAdminService.removeChannelAdmin(adminUser.getEmail(), channel.getId(), newAdmin.getId());
+        channelAdminService.removeChannelAdmin(principal(adminUser), channel.getId(), newAdmin.getId());
 
         assertFalse(channelAdminRepository.existsById(newAdmin.getId()));
     }
@@ -122,13 +159,13 @@ class ChannelAdminServiceTest {
     void testRemoveChannelAdmin_RegularUser_ThrowsAccessDeniedException() {
         // Try removing the admin as a regular user
         assertThrows(AccessDeniedException.class, () ->
-                channelAdminService.removeChannelAdmin(regularUser.getEmail(), channel.getId(), adminUser.getId()));
+                channelAdminService.removeChannelAdmin(principal(regularUser), channel.getId(), adminUser.getId()));
     }
 
     @Test
     void testRemoveChannelAdmin_AdminNotFound_ThrowsException() {
         assertThrows(RuntimeException.class, () ->
-                channelAdminService.removeChannelAdmin(adminUser.getEmail(), channel.getId(), 999L));
+                channelAdminService.removeChannelAdmin(principal(adminUser), channel.getId(), 999L));
     }
 
     @Test
@@ -139,49 +176,88 @@ class ChannelAdminServiceTest {
         member.setUser(regularUser);
         channelMemberRepository.save(member);
 
-        List<ChannelMember> members = channelAdminService.getChannelMembers(adminUser.getEmail(), channel.getId());
+        List<ChannelMembershipView> members = channelAdminService.getChannelMembers(principal(adminUser), channel.getId());
         assertNotNull(members);
         assertEquals(1, members.size());
-        assertEquals(regularUser.getId(), members.get(0).getUser().getId());
+        assertEquals(regularUser.getId(), members.get(0).user().id());
+        assertEquals(channel.getId(), members.get(0).channel().id());
+    }
+
+    @Test
+    void testGetChannelMembers_StatementCountIndependentOfMemberCount() {
+        UserPrincipal admin = principal(adminUser);
+        channelAdminService.addChannelMember(admin, channel.getId(), regularUser.getId());
+        long statementsForOneMember = countStatementsLoadingMembers(admin);
+
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setEmail("member" + i);
+            userRepository.save(user);
+            channelAdminService.addChannelMember(admin, channel.getId(), user.getId());
+        }
+        assertEquals(statementsForOneMember, countStatementsLoadingMembers(admin));
+    }
+
+    private long countStatementsLoadingMembers(UserPrincipal principal) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ChannelMembershipView> members = channelAdminService.getChannelMembers(principal, channel.getId());
+        members.forEach(member -> assertNotNull(member.user().email()));
+        return statistics.getPrepareStatementCount();
     }
 
     @Test
     void testGetChannelMembers_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelAdminService.getChannelMembers(regularUser.getEmail(), channel.getId()));
+                channelAdminService.getChannelMembers(principal(regularUser), channel.getId()));
     }
 
     @Test
     void testAddChannelMember_AdminUser_AddsMember() {
-        ChannelMember newMember = channelAdminService.addChannelMember(adminUser.getEmail(), channel.getId(), regularUser.getId());
+        ChannelMember newMember = channelAdminService.addChannelMember(principal(adminUser), channel.getId(), regularUser.getId());
         assertNotNull(newMember);
         assertEquals(regularUser.getId(), newMember.getUser().getId());
         assertEquals(channel.getId(), newMember.getChannel().getId());
     }
 
+    @Test
+    void testAddAndRemoveChannelAdmin_UpdatesCachedRole() {
+        UserPrincipal regular = principal(regularUser);
+        assertEquals(ChannelRole.NOT_ALLOWED, permissionService.getUserRoleInChannel(regular, channel.getId()));
+
+        ChannelAdmin newAdmin = channelAdminService.addChannelAdmin(principal(adminUser), channel.getId(), regularUser.getId());
+        assertEquals(ChannelRole.ADMIN, permissionService.getUserRoleInChannel(regular, channel.getId()));
+
+        channelAdminService.removeChannelAdmin(principal(adminUser), channel.getId(), newAdmin.getId());
+        assertEquals(ChannelRole.NOT_ALLOWED, permissionService.getUserRoleInChannel(regular, channel.getId()));
+    }
+
     @Test
     void testAddChannelMember_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelAdminService.addChannelMember(regularUser.getEmail(), channel.getId(), adminUser.getId()));
+                channelAdminService.addChannelMember(principal(regularUser), channel.getId(), adminUser.getId()));
     }
 
     @Test
     void testAddChannelMember_UserAlreadyMember_ThrowsDataIntegrityViolationException() {
         // Add the user as a member first
-        channelAdminService.addChannelMember(adminUser.getEmail(), channel.getId(), regularUser.getId());
+        channelAdminService.addChannelMember(principal(adminUser), channel.getId(), regularUser.getId());
 
         // Try adding the same user again
         assertThrows(DataIntegrityViolationException.class, () ->
-                channelAdminService.addChannelMember(adminUser.getEmail(), channel.getId(), regularUser.getId()));
+                channelAdminService.addChannelMember(principal(adminUser), channel.getId(), regularUser.getId()));
     }
 
     @Test
     void testRemoveChannelMember_AdminUser_RemovesMember() {
         // Add a channel member
-        ChannelMember member = channelAdminService.addChannelMember(adminUser.getEmail(), channel.getId(), regularUser.getId());
+        ChannelMember member = channelAdminService.addChannelMember(principal(adminUser), channel.getId(), regularUser.getId());
 
         // Remove the member
-        channelAdminService.removeChannelMember(adminUser.getEmail(), channel.getId(), member.getId());
+        channelAdminService.removeChannelMember(principal(adminUser), channel.getId(), member.getId());
 
         assertFalse(channelMemberRepository.existsById(member.getId()));
     }
@@ -189,16 +265,106 @@ class ChannelAdminServiceTest {
     @Test
     void testRemoveChannelMember_RegularUser_ThrowsAccessDeniedException() {
         // Add a channel member
-        ChannelMember member = channelAdminService.addChannelMember(adminUser.getEmail(), channel.getId(), regularUser.getId());
+        ChannelMember member = channelAdminService.addChannelMember(principal(adminUser), channel.getId(), regularUser.getId());
 
         // Try removing the member as a regular user
         assertThrows(AccessDeniedException.class, () ->
-                channelAdminService.removeChannelMember(regularUser.getEmail(), channel.getId(), member.getId()));
+                channelAdminService.removeChannelMember(principal(regularUser), channel.getId(), member.getId()));
     }
 
     @Test
     void testRemoveChannelMember_MemberNotFound_ThrowsException() {
         assertThrows(RuntimeException.class, () ->
-                channelAdminService.removeChannelMember(adminUser.getEmail(), channel.getId(), 999L));
+                channelAdminService.removeChannelMember(principal(adminUser), channel.getId(), 999L));
+    }
+
+    private static ChannelMemberImportDTO importDTO(List<Long> userIds, List<String> emails) {
+        ChannelMemberImportDTO importDTO = new ChannelMemberImportDTO();
+        importDTO.setUserIds(userIds);
+        importDTO.setEmails(emails);
+        return importDTO;
+    }
+
+    @Test
+    void testImportChannelMembers_ReportsOutcomeForEachRow() {
+        User newUser = new User();
+        newUser.setEmail("newUser");
+        userRepository.save(newUser);
+
+        ChannelMemberImportResult result = channelAdminService.importChannelMembers(principal(adminUser), channel.getId(),
+                importDTO(List.of(regularUser.getId(), 999L), List.of("adminUser", " newUser ", "regularUser", "nobody")));
+
+        assertEquals(2, result.added());
+        assertEquals(4, result.skipped());
+        assertEquals(List.of(
+                ChannelMemberImportResult.Status.ADDED,
+                ChannelMemberImportResult.Status.NOT_FOUND,
+                ChannelMemberImportResult.Status.ALREADY_IN_CHANNEL,
+                ChannelMemberImportResult.Status.ADDED,
+                ChannelMemberImportResult.Status.DUPLICATE,
+                ChannelMemberImportResult.Status.NOT_FOUND
+        ), result.rows().stream().map(ChannelMemberImportResult.Row::status).toList());
+        assertEquals(newUser.getId(), result.rows().get(3).user().id());
+
+        List<Long> memberIds = channelAdminService.getChannelMembers(principal(adminUser), channel.getId()).stream()
+                .map(member -> member.user().id())
+                .toList();
+        assertEquals(2, memberIds.size());
+        assertTrue(memberIds.containsAll(List.of(regularUser.getId(), newUser.getId())));
+        assertTrue(permissionService.hasChannelRole(principal(newUser), channel.getId(), ChannelRole.MEMBER));
+    }
+
+    @Test
+    void testImportChannelMembers_MatchesEmailsRegardlessOfCaseAndInvalidatesChannelOnce() {
+        User newUser = new User();
+        newUser.setEmail("New.User@Example.com");
+        userRepository.save(newUser);
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        permissionService.addInvalidationListener(invalidations::add);
+
+        ChannelMemberImportResult result = channelAdminService.importChannelMembers(principal(adminUser), channel.getId(),
+                importDTO(List.of(), List.of("new.user@example.COM", "REGULARUSER")));
+
+        assertEquals(2, result.added());
+        assertEquals(newUser.getId(), result.rows().get(0).user().id());
+        assertEquals(regularUser.getId(), result.rows().get(1).user().id());
+        assertEquals(List.of(CacheInvalidation.forChannel(channel.getId())), invalidations);
+    }
+
+    @Test
+    void testImportChannelMembers_ImportsMoreUsersThanOneQueryCanBind() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            User user = new User();
+            user.setEmail("member" + i);
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        List<Long> userIds = users.stream().map(User::getId).toList();
+
+        ChannelMemberImportResult result = channelAdminService.importChannelMembers(principal(adminUser), channel.getId(),
+                importDTO(userIds, List.of()));
+        ChannelMemberImportResult again = channelAdminService.importChannelMembers(principal(adminUser), channel.getId(),
+                importDTO(userIds, List.of()));
+
+        assertEquals(1500, result.added());
+        assertEquals(1500, channelMemberRepository.findViewsByChannelId(channel.getId()).size());
+        assertEquals(0, again.added());
+        assertTrue(again.rows().stream().allMatch(row -> row.status() == ChannelMemberImportResult.Status.ALREADY_IN_CHANNEL));
+    }
+
+    @Test
+    void testImportChannelMembers_TooManyUsers_ThrowsInvalidRequestException() {
+        List<Long> userIds = Collections.nCopies(ChannelAdminService.MAX_IMPORT_SIZE + 1, regularUser.getId());
+
+        assertThrows(InvalidRequestException.class, () ->
+                channelAdminService.importChannelMembers(principal(adminUser), channel.getId(), importDTO(userIds, List.of())));
+    }
+
+    @Test
+    void testImportChannelMembers_RegularUser_ThrowsAccessDeniedException() {
+        assertThrows(AccessDeniedException.class, () ->
+                channelAdminService.importChannelMembers(principal(regularUser), channel.getId(),
+                        importDTO(List.of(regularUser.getId()), List.of())));
     }
 }
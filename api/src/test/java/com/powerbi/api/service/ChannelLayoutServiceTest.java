@@ -0,0 +1,197 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelLayout;
+import com.powerbi.api.dto.ChannelLinkDTO;
+import com.powerbi.api.dto.ClusterDTO;
+import com.powerbi.api.dto.ClusterLayout;
+import com.powerbi.api.dto.ClusterLinkDTO;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelLink;
+import com.powerbi.api.model.Cluster;
+import com.powerbi.api.model.ClusterLink;
+import com.powerbi.api.model.Link;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.ChannelRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+@Import({ChannelLayoutService.class, ClusterService.class, ChannelLinkService.class, ClusterFixture.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
+class ChannelLayoutServiceTest {
+
+    @Autowired
+    private ChannelLayoutService channelLayoutService;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Autowired
+    private ChannelLinkService channelLinkService;
+
+    @Autowired
+    private ClusterFixture fixture;
+
+    @Autowired
+    private CacheInvalidationTransport invalidationTransport;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User ownerUser;
+    private Channel channel;
+    private Link link;
+    private Cluster sales;
+    private Cluster finance;
+    private List<ChannelLink> channelLinks;
+    private final List<ClusterLink> placed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ownerUser = fixture.user("ownerUser");
+        channel = fixture.channel(ownerUser, "Test Channel");
+        link = fixture.link(ownerUser);
+        channelLinks = fixture.channelLinks(channel, link, 3);
+
+        sales = fixture.cluster(ownerUser, channel, "Sales");
+        finance = fixture.cluster(ownerUser, channel, "Finance");
+        fixture.cluster(ownerUser, channel, "Empty");
+        placed.add(fixture.place(ownerUser, sales, channelLinks.get(0)));
+        placed.add(fixture.place(ownerUser, sales, channelLinks.get(1)));
+        placed.add(fixture.place(ownerUser, finance, channelLinks.get(2)));
+    }
+
+    private UserPrincipal principal(User user) {
+        return fixture.principal(user);
+    }
+
+    private ChannelLayout layout() {
+        return channelLayoutService.getLayout(principal(ownerUser), channel.getId());
+    }
+
+    private static List<List<String>> titles(ChannelLayout layout) {
+        return layout.clusters().stream()
+                .map(cluster -> cluster.links().stream().map(link -> link.channelLink().title()).toList())
+                .toList();
+    }
+
+    @Test
+    void testGetLayout_GroupsOrderedLinksByClusterInTwoQueries() {
+        UserPrincipal principal = principal(ownerUser);
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ChannelLayout layout = channelLayoutService.getLayout(principal, channel.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(List.of("Sales", "Finance", "Empty"), layout.clusters().stream().map(ClusterLayout::name).toList());
+        assertEquals(List.of(List.of("Report 0", "Report 1"), List.of("Report 2"), List.of()), titles(layout));
+        assertEquals("https://example.com", layout.clusters().get(0).links().get(0).channelLink().link().link());
+    }
+
+    @Test
+    void testGetLayout_IsCachedUntilClusterLinkMoves() {
+        ChannelLayout first = layout();
+        assertSame(first, layout());
+
+        ClusterLinkDTO clusterLinkDTO = new ClusterLinkDTO();
+        clusterLinkDTO.setBeforeId(placed.get(0).getId());
+        clusterService.moveClusterLink(principal(ownerUser), channel.getId(), sales.getId(), placed.get(1).getId(), clusterLinkDTO);
+
+        ChannelLayout moved = layout();
+        assertNotSame(first, moved);
+        assertEquals(List.of(List.of("Report 1", "Report 0"), List.of("Report 2"), List.of()), titles(moved));
+    }
+
+    @Test
+    void testGetLayout_ReflectsClusterRenameAndDeletion() {
+        layout();
+
+        ClusterDTO clusterDTO = ClusterFixture.clusterDTO("Revenue");
+        clusterDTO.setId(sales.getId());
+        clusterService.updateCluster(principal(ownerUser), channel.getId(), clusterDTO);
+        assertEquals(List.of("Revenue", "Finance", "Empty"), layout().clusters().stream().map(ClusterLayout::name).toList());
+
+        clusterService.deleteCluster(principal(ownerUser), channel.getId(), finance.getId());
+        assertEquals(List.of("Revenue", "Empty"), layout().clusters().stream().map(ClusterLayout::name).toList());
+    }
+
+    @Test
+    void testGetLayout_ReflectsChannelLinkEdits() {
+        layout();
+
+        ChannelLinkDTO channelLinkDTO = new ChannelLinkDTO();
+        channelLinkDTO.setId(channelLinks.get(2).getId());
+        channelLinkDTO.setTitle("Budget");
+        channelLinkDTO.setLinkId(link.getId());
+        channelLinkService.updateChannelLink(principal(ownerUser), channelLinkDTO);
+
+        assertEquals(List.of(List.of("Report 0", "Report 1"), List.of("Budget"), List.of()), titles(layout()));
+    }
+
+    @Test
+    void testGetLayout_PrivateChannelNonMember_ThrowsAccessDeniedException() {
+        channel.setVisibility(Channel.Visibility.PRIVATE);
+        channelRepository.save(channel);
+
+        assertThrows(AccessDeniedException.class, () ->
+                channelLayoutService.getLayout(principal(fixture.user("regularUser")), channel.getId()));
+    }
+
+    @Test
+    void testGetLayout_DropsLayoutEvictedByAnotherNode() {
+        ChannelLayout first = layout();
+
+        // Permission notices leave layouts alone
+        invalidationTransport.publish(CacheInvalidation.forChannel(channel.getId()));
+        assertSame(first, layout());
+
+        invalidationTransport.publish(CacheInvalidation.forLayout(channel.getId()));
+        assertNotSame(first, layout());
+    }
+
+    @Test
+    void testEvict_PublishesToEveryNodeOnlyOnceCommitted() {
+        Long channelId = channel.getId();
+        List<CacheInvalidation> published = new ArrayList<>();
+        invalidationTransport.subscribe(published::add);
+
+        channelLayoutService.evict(channelId);
+        assertTrue(published.isEmpty());
+        TestTransaction.end();
+        assertTrue(published.isEmpty());
+
+        // Nothing else is written, so the committed transaction leaves no fixtures behind
+        TestTransaction.start();
+        channelLayoutService.evict(channelId);
+        assertTrue(published.isEmpty());
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        assertEquals(List.of(CacheInvalidation.forLayout(channelId)), published);
+    }
+}
@@ -1,8 +1,13 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.InvalidCursorException;
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelLinkView;
 import com.powerbi.api.dto.ChannelLinkDTO;
+import com.powerbi.api.dto.CursorPage;
 import com.powerbi.api.model.*;
 import com.powerbi.api.repository.*;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +17,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,12 +25,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({ChannelLinkService.class, UserService.class, PermissionService.class})
+@Import({ChannelLinkService.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
 class ChannelLinkServiceTest {
 
     @Autowired
     private ChannelLinkService channelLinkService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -40,6 +49,9 @@ class ChannelLinkServiceTest {
     @Autowired
     private ChannelAdminRepository channelAdminRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User ownerUser;
     private User regularUser;
     private Channel channel;
@@ -71,6 +83,10 @@ class ChannelLinkServiceTest {
         linkRepository.save(link);
     }
 
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
     @Test
     void testGetChannelLinks_OwnerUser_ReturnsLinks() {
         ChannelLink channelLink = new ChannelLink();
@@ -79,10 +95,12 @@ class ChannelLinkServiceTest {
         channelLink.setTitle("Test Link");
         channelLinkRepository.save(channelLink);
 
-        List<ChannelLink> links = channelLinkService.getChannelLinks(ownerUser.getEmail(), channel.getId());
+        List<ChannelLinkView> links = channelLinkService.getChannelLinks(principal(ownerUser), channel.getId(), null, 50).getItems();
         assertNotNull(links);
         assertEquals(1, links.size());
-        assertEquals("Test Link", links.get(0).getTitle());
+        assertEquals("Test Link", links.get(0).title());
+        assertEquals("https://example.com", links.get(0).link().link());
+        assertEquals(ownerUser.getEmail(), links.get(0).link().user().email());
     }
 
     @Test
@@ -91,7 +109,41 @@ class ChannelLinkServiceTest {
         channelRepository.save(channel);
 
         assertThrows(AccessDeniedException.class, () ->
-                channelLinkService.getChannelLinks(regularUser.getEmail(), channel.getId()));
+                channelLinkService.getChannelLinks(principal(regularUser), channel.getId(), null, 50));
+    }
+
+    @Test
+    void testGetChannelLinks_FollowingCursors_ReturnsEveryLinkOnceInOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ChannelLink channelLink = new ChannelLink();
+            channelLink.setChannel(channel);
+            channelLink.setLink(link);
+            channelLink.setTitle("Test Link " + i);
+            ids.add(channelLinkRepository.save(channelLink).getId());
+        }
+        // Read creation dates back as stored, as a new request would
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> pagedIds = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ChannelLinkView> page = channelLinkService.getChannelLinks(principal(regularUser), channel.getId(), cursor, 2);
+            page.getItems().forEach(channelLink -> pagedIds.add(channelLink.id()));
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(ids, pagedIds);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void testGetChannelLinks_MalformedCursor_ThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () ->
+                channelLinkService.getChannelLinks(principal(ownerUser), channel.getId(), "not-a-cursor", 50));
     }
 
     @Test
@@ -101,7 +153,7 @@ class ChannelLinkServiceTest {
         channelLinkDTO.setLinkId(link.getId());
         channelLinkDTO.setTitle("New Link");
 
-        ChannelLink createdLink = channelLinkService.createChannelLink(ownerUser.getEmail(), channelLinkDTO);
+        ChannelLink createdLink = channelLinkService.createChannelLink(principal(ownerUser), channelLinkDTO);
         assertNotNull(createdLink);
         assertEquals("New Link", createdLink.getTitle());
         assertEquals(channel.getId(), createdLink.getChannel().getId());
@@ -122,7 +174,7 @@ class ChannelLinkServiceTest {
         channelLinkDTO.setLinkId(link.getId());
         channelLinkDTO.setTitle("Updated Link");
 
-        ChannelLink updatedLink = channelLinkService.updateChannelLink(ownerUser.getEmail(), channelLinkDTO);
+        ChannelLink updatedLink = channelLinkService.updateChannelLink(principal(ownerUser), channelLinkDTO);
         assertNotNull(updatedLink);
         assertEquals("Updated Link", updatedLink.getTitle());
     }
@@ -150,7 +202,7 @@ class ChannelLinkServiceTest {
         channelLinkDTO.setTitle("Updated Link");
 
         // Perform the update
-        ChannelLink updatedLink = channelLinkService.updateChannelLink(regularUser.getEmail(), channelLinkDTO);
+        ChannelLink updatedLink = channelLinkService.updateChannelLink(principal(regularUser), channelLinkDTO);
         assertNotNull(updatedLink);
         assertEquals("Updated Link", updatedLink.getTitle());
     }
@@ -170,7 +222,7 @@ class ChannelLinkServiceTest {
         channelLinkDTO.setTitle("Updated Link");
 
         assertThrows(AccessDeniedException.class, () ->
-                channelLinkService.updateChannelLink(regularUser.getEmail(), channelLinkDTO));
+                channelLinkService.updateChannelLink(principal(regularUser), channelLinkDTO));
     }
 
     @Test
@@ -181,7 +233,7 @@ class ChannelLinkServiceTest {
         channelLink.setTitle("Test Link");
         channelLink = channelLinkRepository.save(channelLink);
 
-        channelLinkService.deleteChannelLink(ownerUser.getEmail(), channelLink.getId());
+        channelLinkService.deleteChannelLink(principal(ownerUser), channelLink.getId());
         assertFalse(channelLinkRepository.existsById(channelLink.getId()));
     }
 
@@ -201,7 +253,7 @@ class ChannelLinkServiceTest {
         channelLink = channelLinkRepository.save(channelLink);
 
         // Perform the delete
-        channelLinkService.deleteChannelLink(regularUser.getEmail(), channelLink.getId());
+        channelLinkService.deleteChannelLink(principal(regularUser), channelLink.getId());
         assertFalse(channelLinkRepository.existsById(channelLink.getId()));
     }
 
@@ -215,6 +267,6 @@ class ChannelLinkServiceTest {
 
         ChannelLink finalChannelLink = channelLink;
         assertThrows(AccessDeniedException.class, () ->
-                channelLinkService.deleteChannelLink(regularUser.getEmail(), finalChannelLink.getId()));
+                channelLinkService.deleteChannelLink(principal(regularUser), finalChannelLink.getId()));
     }
 }
\ No newline at end of file
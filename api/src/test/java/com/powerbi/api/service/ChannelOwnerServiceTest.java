@@ -1,5 +1,7 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelMembershipView;
 import com.powerbi.api.model.*;
 import com.powerbi.api.repository.*;
 import jakarta.transaction.Transactional;
@@ -19,12 +21,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({ChannelOwnerService.class, UserService.class, PermissionService.class})
+@Import({ChannelOwnerService.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
 class ChannelOwnerServiceTest {
 
     @Autowired
     private ChannelOwnerService channelOwnerService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -62,23 +67,27 @@ class ChannelOwnerServiceTest {
         channelOwnerRepository.save(channelOwner);
     }
 
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
     @Test
     void testGetChannelOwners_OwnerUser_ReturnsOwners() {
-        List<ChannelOwner> owners = channelOwnerService.getChannelOwners(ownerUser.getEmail(), channel.getId());
+        List<ChannelMembershipView> owners = channelOwnerService.getChannelOwners(principal(ownerUser), channel.getId());
         assertNotNull(owners);
         assertEquals(1, owners.size());
-        assertEquals(ownerUser.getId(), owners.get(0).getUser().getId());
+        assertEquals(ownerUser.getId(), owners.get(0).user().id());
     }
 
     @Test
     void testGetChannelOwners_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelOwnerService.getChannelOwners(regularUser.getEmail(), channel.getId()));
+                channelOwnerService.getChannelOwners(principal(regularUser), channel.getId()));
     }
 
     @Test
     void testAddChannelOwner_OwnerUser_AddsOwner() {
-        ChannelOwner newOwner = channelOwnerService.addChannelOwner(ownerUser.getEmail(), channel.getId(), regularUser.getId());
+        ChannelOwner newOwner = channelOwnerService.addChannelOwner(principal(ownerUser), channel.getId(), regularUser.getId());
         assertNotNull(newOwner);
         assertEquals(regularUser.getId(), newOwner.getUser().getId());
         assertEquals(channel.getId(), newOwner.getChannel().getId());
@@ -87,22 +96,22 @@ class ChannelOwnerServiceTest {
     @Test
     void testAddChannelOwner_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelOwnerService.addChannelOwner(regularUser.getEmail(), channel.getId(), ownerUser.getId()));
+                channelOwnerService.addChannelOwner(principal(regularUser), channel.getId(), ownerUser.getId()));
     }
 
     @Test
     void testAddChannelOwner_UserAlreadyOwner_ThrowsDataIntegrityViolationException() {
         assertThrows(DataIntegrityViolationException.class, () ->
-                channelOwnerService.addChannelOwner(ownerUser.getEmail(), channel.getId(), ownerUser.getId()));
+                channelOwnerService.addChannelOwner(principal(ownerUser), channel.getId(), ownerUser.getId()));
     }
 
     @Test
     void testRemoveChannelOwner_OwnerUser_RemovesOwner() {
         // Add a second owner
-        ChannelOwner newOwner = channelOwnerService.addChannelOwner(ownerUser.getEmail(), channel.getId(), regularUser.getId());
+        ChannelOwner newOwner = channelOwnerService.addChannelOwner(principal(ownerUser), channel.getId(), regularUser.getId());
 
         // Remove the second owner
-        channelOwnerService.removeChannelOwner(ownerUser.getEmail(), channel.getId(), newOwner.getId());
+        channelOwnerService.removeChannelOwner(principal(ownerUser), channel.getId(), newOwner.getId());
 
         assertFalse(channelOwnerRepository.existsById(newOwner.getId()));
     }
@@ -110,12 +119,12 @@ class ChannelOwnerServiceTest {
     @Test
     void testRemoveChannelOwner_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelOwnerService.removeChannelOwner(regularUser.getEmail(), channel.getId(), ownerUser.getId()));
+                channelOwnerService.removeChannelOwner(principal(regularUser), channel.getId(), ownerUser.getId()));
     }
 
     @Test
     void testRemoveChannelOwner_LastOwner_ThrowsDataIntegrityViolationException() {
         assertThrows(DataIntegrityViolationException.class, () ->
-                channelOwnerService.removeChannelOwner(ownerUser.getEmail(), channel.getId(), channelOwnerRepository.findAll().get(0).getId()));
+                channelOwnerService.removeChannelOwner(principal(ownerUser), channel.getId(), channelOwnerRepository.findAll().get(0).getId()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ChannelPurgeStatus;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelMember;
+import com.powerbi.api.model.ChannelPurge;
+import com.powerbi.api.model.Cluster;
+import com.powerbi.api.model.Link;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelMemberRepository;
+import com.powerbi.api.repository.ChannelPurgeRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = "channels.purge.chunkSize=2")
+@Import({ChannelService.class, ChannelPurgeService.class, ClusterService.class, ChannelAccessIndex.class, ChannelLayoutService.class, ClusterFixture.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
+class ChannelPurgeServiceTest {
+
+    @Autowired
+    private ChannelService channelService;
+
+    @Autowired
+    private ChannelPurgeService channelPurgeService;
+
+    @Autowired
+    private ClusterFixture fixture;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ChannelMemberRepository channelMemberRepository;
+
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+
+    @Autowired
+    private ChannelPurgeRepository channelPurgeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User ownerUser;
+    private User regularUser;
+    private Channel channel;
+    private Channel otherChannel;
+
+    @BeforeEach
+    void setUp() {
+        ownerUser = fixture.user("ownerUser");
+        regularUser = fixture.user("regularUser");
+        channel = channel("Doomed Channel");
+        otherChannel = channel("Other Channel");
+
+        ChannelMember member = new ChannelMember();
+        member.setUser(regularUser);
+        member.setChannel(channel);
+        channelMemberRepository.save(member);
+
+        Link link = fixture.link(ownerUser);
+        for (Channel target : List.of(channel, otherChannel)) {
+            Cluster cluster = fixture.cluster(ownerUser, target, "Sales");
+            fixture.channelLinks(target, link, 5).forEach(channelLink -> fixture.place(ownerUser, cluster, channelLink));
+        }
+    }
+
+    private Channel channel(String name) {
+        Channel created = fixture.channel(ownerUser, name);
+        // The channel was saved directly, so let the access index know about it
+        permissionService.invalidate(CacheInvalidation.forChannel(created.getId()));
+        return created;
+    }
+
+    private UserPrincipal principal(User user) {
+        return fixture.principal(user);
+    }
+
+    private int count(String table, Channel target) {
+        String sql = table.equals("cluster_link")
+                ? "SELECT COUNT(*) FROM cluster_link WHERE cluster_id IN (SELECT id FROM cluster WHERE channel_id = ?)"
+                : "SELECT COUNT(*) FROM " + table + " WHERE " + (table.equals("channel") ? "id" : "channel_id") + " = ?";
+        return jdbcTemplate.queryForObject(sql, Integer.class, target.getId());
+    }
+
+    /**
+     * Makes a waiting purge due at once, or lets the lease of a running one run out.
+     */
+    private void makeDue(Channel target) {
+        channelPurgeRepository.flush();
+        Timestamp past = Timestamp.from(Instant.now().minusSeconds(1));
+        jdbcTemplate.update("UPDATE channel_purge SET date_next_attempt = ?, lease_expires_at = ? WHERE channel_id = ?",
+                past, past, target.getId());
+    }
+
+    @Test
+    void testDeleteChannel_HidesChannelBeforePurge() {
+        ChannelPurgeStatus status = channelService.deleteChannel(principal(ownerUser), channel.getId());
+
+        assertEquals(ChannelPurge.State.PENDING, status.state());
+        assertFalse(channelRepository.findById(channel.getId()).isPresent());
+        assertEquals(List.of("Other Channel"), channelService.getChannels(principal(regularUser), null, PageRequest.of(0, 20))
+                .map(Channel::getName).getContent());
+        assertFalse(channelLinkRepository.findAllViews().stream().anyMatch(view -> view.channel().id().equals(channel.getId())));
+
+        // The rows themselves are left to the purge
+        assertEquals(1, count("channel", channel));
+        assertEquals(5, count("channel_link", channel));
+    }
+
+    @Test
+    void testPurge_RemovesDependentRowsInChunks() {
+        channelService.deleteChannel(principal(ownerUser), channel.getId());
+
+        ChannelPurgeStatus status = channelPurgeService.purge(channel.getId());
+
+        assertEquals(ChannelPurge.State.DONE, status.state());
+        assertNotNull(status.dateFinished());
+        // Five cluster links, one cluster, five channel links and two roles
+        assertEquals(13, status.rowsDeleted());
+        for (String table : List.of("cluster_link", "cluster", "channel_link", "channel_role", "channel")) {
+            assertEquals(0, count(table, channel), table);
+        }
+        assertEquals(5, count("cluster_link", otherChannel));
+        assertEquals(5, count("channel_link", otherChannel));
+        assertEquals(1, count("channel", otherChannel));
+    }
+
+    @Test
+    void testPurge_FinishedChannelIsNotPurgedTwice() {
+        channelService.deleteChannel(principal(ownerUser), channel.getId());
+        channelPurgeService.purge(channel.getId());
+
+        ChannelPurgeStatus again = channelPurgeService.purge(channel.getId());
+
+        assertEquals(ChannelPurge.State.DONE, again.state());
+        assertEquals(13, again.rowsDeleted());
+    }
+
+    @Test
+    void testGetPurgeStatus_OnlyForTheDeletingUser() {
+        channelService.deleteChannel(principal(ownerUser), channel.getId());
+
+        assertNotNull(channelService.getPurgeStatus(principal(ownerUser), channel.getId()).dateRequested());
+        assertThrows(AccessDeniedException.class, () ->
+                channelService.getPurgeStatus(principal(regularUser), channel.getId()));
+    }
+
+    @Test
+    void testPurge_RunningOnAnotherNodeIsLeftAloneUntilItsLeaseRunsOut() {
+        channelService.deleteChannel(principal(ownerUser), channel.getId());
+        channelPurgeRepository.flush();
+        jdbcTemplate.update("""
+                UPDATE channel_purge SET state = 'RUNNING', claim_token = 'other-node', lease_expires_at = ?,
+                    purged_table = 'cluster', rows_deleted = 3
+                WHERE channel_id = ?
+                """, Timestamp.from(Instant.now().plusSeconds(60)), channel.getId());
+
+        assertEquals(ChannelPurge.State.RUNNING, channelPurgeService.purge(channel.getId()).state());
+        assertEquals(5, count("channel_link", channel));
+        // Any node reports the progress recorded by the one running the purge
+        ChannelPurgeStatus status = channelService.getPurgeStatus(principal(ownerUser), channel.getId());
+        assertEquals("cluster", status.table());
+        assertEquals(3, status.rowsDeleted());
+
+        makeDue(channel);
+        assertEquals(ChannelPurge.State.DONE, channelPurgeService.purge(channel.getId()).state());
+        assertEquals(0, count("channel", channel));
+    }
+
+    @Test
+    void testPurge_FailedPurgeIsRetriedWithGrowingDelay() {
+        channelService.deleteChannel(principal(ownerUser), channel.getId());
+
+        // A negative chunk size makes every chunk query fail
+        ReflectionTestUtils.setField(channelPurgeService, "chunkSize", -1);
+        try {
+            ChannelPurgeStatus failed = channelPurgeService.purge(channel.getId());
+            assertEquals(ChannelPurge.State.FAILED, failed.state());
+            assertEquals(1, failed.attempts());
+            assertEquals(Duration.ofSeconds(30), Duration.between(failed.dateFinished(), failed.dateNextAttempt()));
+
+            // Not due again before the delay has passed
+            assertEquals(1, channelPurgeService.purge(channel.getId()).attempts());
+
+            makeDue(channel);
+            ChannelPurgeStatus failedAgain = channelPurgeService.purge(channel.getId());
+            assertEquals(2, failedAgain.attempts());
+            assertEquals(Duration.ofSeconds(60), Duration.between(failedAgain.dateFinished(), failedAgain.dateNextAttempt()));
+        } finally {
+            ReflectionTestUtils.setField(channelPurgeService, "chunkSize", 2);
+        }
+
+        makeDue(channel);
+        ChannelPurgeStatus done = channelPurgeService.purge(channel.getId());
+        assertEquals(ChannelPurge.State.DONE, done.state());
+        assertEquals(3, done.attempts());
+        assertNull(done.dateNextAttempt());
+        assertEquals(0, count("channel", channel));
+    }
+
+    @Test
+    void testTrackUntracked_RecordsPurgesOfDeletedChannelsOnce() {
+        channelRepository.markDeleted(channel.getId(), Instant.now());
+
+        assertEquals(1, channelPurgeRepository.trackUntracked(Instant.now()));
+        assertEquals(0, channelPurgeRepository.trackUntracked(Instant.now()));
+        assertEquals(ChannelPurge.State.PENDING, channelPurgeRepository.findById(channel.getId()).orElseThrow().getState());
+    }
+}
@@ -1,14 +1,19 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.InvalidRequestException;
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.dto.ChannelDTO;
 import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelMember;
 import com.powerbi.api.model.ChannelOwner;
 import com.powerbi.api.model.ChannelRole;
+import com.powerbi.api.model.SuperUser;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.ChannelAdminRepository;
 import com.powerbi.api.repository.ChannelMemberRepository;
 import com.powerbi.api.repository.ChannelOwnerRepository;
 import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.SuperUserRepository;
 import com.powerbi.api.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +21,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.context.ActiveProfiles;
@@ -26,16 +35,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({ChannelService.class, UserService.class, PermissionService.class})
+@Import({ChannelService.class, ChannelPurgeService.class, ChannelAccessIndex.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
 class ChannelServiceTest {
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 50, Sort.by("id"));
 
     @Autowired
     private ChannelService channelService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -51,6 +65,12 @@ class ChannelServiceTest {
     @Autowired
     private ChannelAdminRepository channelAdminRepository;
 
+    @Autowired
+    private SuperUserRepository superUserRepository;
+
+    @Autowired
+    private PermissionService permissionService;
+
     private User ownerUser;
     private User regularUser;
     private Channel channel;
@@ -79,11 +99,18 @@ class ChannelServiceTest {
         channelOwner.setUser(ownerUser);
         channelOwner.setChannel(channel);
         channelOwnerRepository.save(channelOwner);
+
+        // The channel was saved directly, so let the access index know about it
+        permissionService.invalidate(CacheInvalidation.forChannel(channel.getId()));
+    }
+
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
     }
 
     @Test
     void testGetChannels_OwnerUser_ReturnsChannels() {
-        List<Channel> channels = channelService.getChannels(ownerUser.getEmail(), null);
+        List<Channel> channels = channelService.getChannels(principal(ownerUser), null, FIRST_PAGE).getContent();
         assertNotNull(channels);
         assertFalse(channels.isEmpty());
         assertEquals(1, channels.size());
@@ -92,7 +119,7 @@ class ChannelServiceTest {
 
     @Test
     void testGetChannel_OwnerUser_ReturnsChannel() {
-        Channel retrievedChannel = channelService.getChannel(ownerUser.getEmail(), channel.getId());
+        Channel retrievedChannel = channelService.getChannel(principal(ownerUser), channel.getId());
         assertNotNull(retrievedChannel);
         assertEquals(channel.getId(), retrievedChannel.getId());
     }
@@ -103,7 +130,7 @@ class ChannelServiceTest {
         channelRepository.save(channel);
 
         assertThrows(AccessDeniedException.class, () ->
-                channelService.getChannel(regularUser.getEmail(), channel.getId()));
+                channelService.getChannel(principal(regularUser), channel.getId()));
     }
 
     @Test
@@ -113,7 +140,7 @@ class ChannelServiceTest {
         channelDTO.setDescription("New Channel Description");
         channelDTO.setVisibility(Channel.Visibility.PUBLIC);
 
-        Channel createdChannel = channelService.createChannel(ownerUser.getEmail(), channelDTO);
+        Channel createdChannel = channelService.createChannel(principal(ownerUser), channelDTO);
         assertNotNull(createdChannel);
         assertEquals("New Channel", createdChannel.getName());
         assertEquals("New Channel Description", createdChannel.getDescription());
@@ -127,7 +154,7 @@ class ChannelServiceTest {
         channelDTO.setDescription("Updated Description");
         channelDTO.setVisibility(Channel.Visibility.PRIVATE);
 
-        Channel updatedChannel = channelService.updateChannel(ownerUser.getEmail(), channelDTO);
+        Channel updatedChannel = channelService.updateChannel(principal(ownerUser), channelDTO);
         assertNotNull(updatedChannel);
         assertEquals("Updated Channel", updatedChannel.getName());
         assertEquals("Updated Description", updatedChannel.getDescription());
@@ -141,24 +168,24 @@ class ChannelServiceTest {
         channelDTO.setName("Updated Channel");
 
         assertThrows(AccessDeniedException.class, () ->
-                channelService.updateChannel(regularUser.getEmail(), channelDTO));
+                channelService.updateChannel(principal(regularUser), channelDTO));
     }
 
     @Test
     void testDeleteChannel_OwnerUser_DeletesChannel() {
-        channelService.deleteChannel(ownerUser.getEmail(), channel.getId());
+        channelService.deleteChannel(principal(ownerUser), channel.getId());
         assertFalse(channelRepository.findById(channel.getId()).isPresent());
     }
 
     @Test
     void testDeleteChannel_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelService.deleteChannel(regularUser.getEmail(), channel.getId()));
+                channelService.deleteChannel(principal(regularUser), channel.getId()));
     }
 
     @Test
     void testGetChannels_WithSearchFilter_ReturnsFilteredChannels() {
-        List<Channel> channels = channelService.getChannels(ownerUser.getEmail(), "Test");
+        List<Channel> channels = channelService.getChannels(principal(ownerUser), "Test", FIRST_PAGE).getContent();
         assertNotNull(channels);
         assertFalse(channels.isEmpty());
         assertEquals(1, channels.size());
@@ -167,7 +194,7 @@ class ChannelServiceTest {
 
     @Test
     void testGetChannels_NoPrivateAccess_ReturnsPublicChannelsOnly() {
-        List<Channel> channels = channelService.getChannels(regularUser.getEmail(), null);
+        List<Channel> channels = channelService.getChannels(principal(regularUser), null, FIRST_PAGE).getContent();
         assertNotNull(channels);
         assertFalse(channels.isEmpty());
         assertEquals(1, channels.size());
@@ -176,7 +203,7 @@ class ChannelServiceTest {
 
     @Test
     void testGetChannelRole_UserRoleInChannel_ReturnsRole() {
-        ChannelRole role = channelService.getChannelRole(ownerUser.getEmail(), channel.getId());
+        ChannelRole role = channelService.getChannelRole(principal(ownerUser), channel.getId());
         assertEquals(ChannelRole.OWNER, role);
     }
 
@@ -188,7 +215,7 @@ class ChannelServiceTest {
         channelDTO.setDescription("New Channel Description");
         channelDTO.setVisibility(Channel.Visibility.PRIVATE);
 
-        Channel createdChannel = channelService.createChannel(ownerUser.getEmail(), channelDTO);
+        Channel createdChannel = channelService.createChannel(principal(ownerUser), channelDTO);
         assertNotNull(createdChannel);
         assertEquals("New Channel", createdChannel.getName());
         assertEquals("New Channel Description", createdChannel.getDescription());
@@ -201,12 +228,98 @@ class ChannelServiceTest {
         channelDTO.setName("Updated Channel");
 
         assertThrows(ResourceNotFoundException.class, () ->
-                channelService.updateChannel(ownerUser.getEmail(), channelDTO));
+                channelService.updateChannel(principal(ownerUser), channelDTO));
     }
 
     @Test
     void testDeleteChannel_NonExistentChannel_ThrowsException() {
         assertThrows(AccessDeniedException.class, () ->
-                channelService.deleteChannel(ownerUser.getEmail(), 999L));
+                channelService.deleteChannel(principal(ownerUser), 999L));
+    }
+
+    @Test
+    void testGetChannels_PrivateChannelAfterMembershipAdded_ReturnsChannel() {
+        Channel privateChannel = new Channel();
+        privateChannel.setName("Private Channel");
+        privateChannel.setVisibility(Channel.Visibility.PRIVATE);
+        channelRepository.save(privateChannel);
+        assertEquals(1, channelService.getChannels(principal(regularUser), null, FIRST_PAGE).getContent().size());
+
+        ChannelMember member = new ChannelMember();
+        member.setUser(regularUser);
+        member.setChannel(privateChannel);
+        channelMemberRepository.save(member);
+        permissionService.invalidate(CacheInvalidation.forMembership(regularUser.getId(), privateChannel.getId()));
+
+        List<Channel> channels = channelService.getChannels(principal(regularUser), null, FIRST_PAGE).getContent();
+        assertEquals(List.of(channel.getId(), privateChannel.getId()), channels.stream().map(Channel::getId).toList());
+    }
+
+    @Test
+    void testGetChannels_AfterCreateChannel_ListsNewChannel() {
+        // Load the creator's bitmaps before the channel exists
+        assertEquals(1, channelService.getChannels(principal(regularUser), null, FIRST_PAGE).getContent().size());
+
+        ChannelDTO channelDTO = new ChannelDTO();
+        channelDTO.setName("Private Channel");
+        channelDTO.setVisibility(Channel.Visibility.PRIVATE);
+        Channel createdChannel = channelService.createChannel(principal(regularUser), channelDTO);
+
+        List<Channel> channels = channelService.getChannels(principal(regularUser), null, FIRST_PAGE).getContent();
+        assertEquals(List.of(channel.getId(), createdChannel.getId()), channels.stream().map(Channel::getId).toList());
+        assertEquals(1, channelService.getChannels(principal(ownerUser), null, FIRST_PAGE).getContent().size());
+    }
+
+    @Test
+    void testGetChannels_SuperUser_ReturnsPageWithTotalCount() {
+        SuperUser superUser = new SuperUser();
+        superUser.setUser(regularUser);
+        superUserRepository.save(superUser);
+        for (int i = 0; i < 5; i++) {
+            Channel privateChannel = new Channel();
+            privateChannel.setName("Test Private " + i);
+            privateChannel.setVisibility(Channel.Visibility.PRIVATE);
+            channelRepository.save(privateChannel);
+        }
+
+        Page<Channel> page = channelService.getChannels(principal(regularUser), "private", PageRequest.of(1, 2, Sort.by("name")));
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(List.of("Test Private 2", "Test Private 3"), page.getContent().stream().map(Channel::getName).toList());
+    }
+
+    @Test
+    void testGetChannels_UnknownSortProperty_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () ->
+                channelService.getChannels(principal(regularUser), null, PageRequest.of(0, 20, Sort.by("description"))));
+    }
+
+    @Test
+    void testGetChannels_SearchWithWildcard_MatchesLiterally() {
+        assertTrue(channelService.getChannels(principal(regularUser), "%", FIRST_PAGE).isEmpty());
+        assertTrue(channelService.getChannels(principal(ownerUser), "Test_", FIRST_PAGE).isEmpty());
+    }
+
+    @Test
+    void testSearchByVisibilityOrMembership_ReturnsPublicAndJoinedChannels() {
+        Channel privateChannel = new Channel();
+        privateChannel.setName("Private Channel");
+        privateChannel.setVisibility(Channel.Visibility.PRIVATE);
+        channelRepository.save(privateChannel);
+
+        Channel hiddenChannel = new Channel();
+        hiddenChannel.setName("Hidden Channel");
+        hiddenChannel.setVisibility(Channel.Visibility.PRIVATE);
+        channelRepository.save(hiddenChannel);
+
+        ChannelMember member = new ChannelMember();
+        member.setUser(regularUser);
+        member.setChannel(privateChannel);
+        channelMemberRepository.save(member);
+
+        Page<Channel> page = channelRepository.searchByVisibilityOrMembership(
+                Channel.Visibility.PUBLIC, regularUser.getId(), "channel", FIRST_PAGE);
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(channel.getId(), privateChannel.getId()), page.getContent().stream().map(Channel::getId).toList());
     }
 }
@@ -0,0 +1,111 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ClusterDTO;
+import com.powerbi.api.dto.ClusterLinkDTO;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelLink;
+import com.powerbi.api.model.ChannelOwner;
+import com.powerbi.api.model.Cluster;
+import com.powerbi.api.model.ClusterLink;
+import com.powerbi.api.model.Link;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelOwnerRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.LinkRepository;
+import com.powerbi.api.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the users, channels, channel links and clusters shared by the cluster, layout and purge
+ * tests. Imported next to {@link ClusterService} and {@link UserService}; entities are saved
+ * directly, clusters and their links through the service.
+ */
+class ClusterFixture {
+    @Autowired
+    private ClusterService clusterService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ChannelRepository channelRepository;
+    @Autowired
+    private ChannelOwnerRepository channelOwnerRepository;
+    @Autowired
+    private LinkRepository linkRepository;
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+
+    User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
+    /**
+     * Saves a public channel owned by the given user.
+     */
+    Channel channel(User owner, String name) {
+        Channel channel = new Channel();
+        channel.setName(name);
+        channel.setVisibility(Channel.Visibility.PUBLIC);
+        channelRepository.save(channel);
+
+        ChannelOwner channelOwner = new ChannelOwner();
+        channelOwner.setUser(owner);
+        channelOwner.setChannel(channel);
+        channelOwnerRepository.save(channelOwner);
+        return channel;
+    }
+
+    Link link(User owner) {
+        Link link = new Link();
+        link.setTitle("Test Link");
+        link.setLink("https://example.com");
+        link.setUser(owner);
+        return linkRepository.save(link);
+    }
+
+    /**
+     * Posts a link in a channel several times, titled "Report 0", "Report 1" and so on.
+     */
+    List<ChannelLink> channelLinks(Channel channel, Link link, int count) {
+        List<ChannelLink> channelLinks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ChannelLink channelLink = new ChannelLink();
+            channelLink.setChannel(channel);
+            channelLink.setLink(link);
+            channelLink.setTitle("Report " + i);
+            channelLinks.add(channelLinkRepository.save(channelLink));
+        }
+        return channelLinks;
+    }
+
+    static ClusterDTO clusterDTO(String name) {
+        ClusterDTO clusterDTO = new ClusterDTO();
+        clusterDTO.setName(name);
+        return clusterDTO;
+    }
+
+    Cluster cluster(User owner, Channel channel, String name) {
+        return clusterService.createCluster(principal(owner), channel.getId(), clusterDTO(name));
+    }
+
+    /**
+     * Places a channel link at the end of a cluster.
+     */
+    ClusterLink place(User owner, Cluster cluster, ChannelLink channelLink) {
+        ClusterLinkDTO clusterLinkDTO = new ClusterLinkDTO();
+        clusterLinkDTO.setChannelLinkId(channelLink.getId());
+        return clusterService.addClusterLink(principal(owner), cluster.getChannel().getId(), cluster.getId(), clusterLinkDTO);
+    }
+}
@@ -0,0 +1,227 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.ClusterLinkDTO;
+import com.powerbi.api.dto.ClusterLinkView;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelLink;
+import com.powerbi.api.model.Cluster;
+import com.powerbi.api.model.ClusterLink;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.ClusterLinkRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+@Import({ClusterService.class, ChannelLayoutService.class, ClusterFixture.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
+class ClusterServiceTest {
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Autowired
+    private ClusterFixture fixture;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+
+    @Autowired
+    private ClusterLinkRepository clusterLinkRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User ownerUser;
+    private User regularUser;
+    private Channel channel;
+    private Cluster cluster;
+    private List<ChannelLink> channelLinks;
+
+    @BeforeEach
+    void setUp() {
+        ownerUser = fixture.user("ownerUser");
+        regularUser = fixture.user("regularUser");
+        channel = fixture.channel(ownerUser, "Test Channel");
+        channelLinks = fixture.channelLinks(channel, fixture.link(ownerUser), 5);
+        cluster = fixture.cluster(ownerUser, channel, "Sales");
+    }
+
+    private UserPrincipal principal(User user) {
+        return fixture.principal(user);
+    }
+
+    private ClusterLink add(Cluster target, ChannelLink channelLink) {
+        return fixture.place(ownerUser, target, channelLink);
+    }
+
+    private void moveBefore(ClusterLink clusterLink, ClusterLink before) {
+        ClusterLinkDTO clusterLinkDTO = new ClusterLinkDTO();
+        clusterLinkDTO.setBeforeId(before.getId());
+        clusterService.moveClusterLink(principal(ownerUser), channel.getId(), cluster.getId(), clusterLink.getId(), clusterLinkDTO);
+    }
+
+    private List<String> titles(Cluster target) {
+        return clusterService.getClusterLinks(principal(ownerUser), channel.getId(), target.getId()).stream()
+                .map(clusterLink -> clusterLink.channelLink().title())
+                .toList();
+    }
+
+    @Test
+    void testAddClusterLink_AppendsLinksOneGapApart() {
+        add(cluster, channelLinks.get(0));
+        add(cluster, channelLinks.get(1));
+
+        List<ClusterLinkView> links = clusterService.getClusterLinks(principal(ownerUser), channel.getId(), cluster.getId());
+        assertEquals(List.of("Report 0", "Report 1"), links.stream().map(link -> link.channelLink().title()).toList());
+        assertEquals(ClusterService.IDX_GAP, links.get(1).idx() - links.get(0).idx());
+    }
+
+    @Test
+    void testMoveClusterLink_PlacesLinkBeforeTarget() {
+        List<ClusterLink> placed = new ArrayList<>();
+        channelLinks.forEach(channelLink -> placed.add(add(cluster, channelLink)));
+
+        moveBefore(placed.get(4), placed.get(1));
+        moveBefore(placed.get(0), placed.get(3));
+
+        assertEquals(List.of("Report 4", "Report 1", "Report 2", "Report 0", "Report 3"), titles(cluster));
+    }
+
+    @Test
+    void testMoveClusterLink_WritesOnlyTheMovedRow() {
+        List<ClusterLink> placed = new ArrayList<>();
+        channelLinks.forEach(channelLink -> placed.add(add(cluster, channelLink)));
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        moveBefore(placed.get(4), placed.get(0));
+        entityManager.flush();
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(List.of("Report 4", "Report 0", "Report 1", "Report 2", "Report 3"), titles(cluster));
+    }
+
+    @Test
+    void testMoveClusterLink_CompactsWhenGapIsExhausted() {
+        ClusterLink first = add(cluster, channelLinks.get(0));
+        ClusterLink second = add(cluster, channelLinks.get(1));
+        ClusterLink third = add(cluster, channelLinks.get(2));
+
+        // Each move halves the gap before "second", until no key is left and the cluster is compacted
+        for (int i = 0; i < 40; i++) {
+            moveBefore(i % 2 == 0 ? first : third, second);
+            moveBefore(i % 2 == 0 ? third : first, second);
+        }
+
+        List<ClusterLinkView> links = clusterService.getClusterLinks(principal(ownerUser), channel.getId(), cluster.getId());
+        assertEquals("Report 1", links.get(2).channelLink().title());
+        for (int i = 1; i < links.size(); i++) {
+            assertTrue(links.get(i).idx() > links.get(i - 1).idx());
+        }
+    }
+
+    @Test
+    void testMoveClusterLink_IntoAnotherCluster() {
+        Cluster other = fixture.cluster(ownerUser, channel, "Finance");
+        ClusterLink moved = add(cluster, channelLinks.get(0));
+        ClusterLink target = add(other, channelLinks.get(1));
+
+        ClusterLinkDTO clusterLinkDTO = new ClusterLinkDTO();
+        clusterLinkDTO.setClusterId(other.getId());
+        clusterLinkDTO.setBeforeId(target.getId());
+        clusterService.moveClusterLink(principal(ownerUser), channel.getId(), cluster.getId(), moved.getId(), clusterLinkDTO);
+
+        assertEquals(List.of(), titles(cluster));
+        assertEquals(List.of("Report 0", "Report 1"), titles(other));
+    }
+
+    @Test
+    void testAddClusterLink_ChannelLinkAlreadyInCluster_ThrowsDataIntegrityViolationException() {
+        add(cluster, channelLinks.get(0));
+
+        assertThrows(DataIntegrityViolationException.class, () -> add(cluster, channelLinks.get(0)));
+        assertEquals(List.of("Report 0"), titles(cluster));
+    }
+
+    @Test
+    void testMoveClusterLink_IntoClusterHoldingItsChannelLink_ThrowsDataIntegrityViolationException() {
+        Cluster other = fixture.cluster(ownerUser, channel, "Finance");
+        ClusterLink moved = add(cluster, channelLinks.get(0));
+        add(other, channelLinks.get(0));
+
+        ClusterLinkDTO clusterLinkDTO = new ClusterLinkDTO();
+        clusterLinkDTO.setClusterId(other.getId());
+        assertThrows(DataIntegrityViolationException.class, () ->
+                clusterService.moveClusterLink(principal(ownerUser), channel.getId(), cluster.getId(), moved.getId(), clusterLinkDTO));
+    }
+
+    @Test
+    void testSaveClusterLink_SameChannelLinkTwice_ViolatesUniqueConstraint() {
+        ClusterLink placed = add(cluster, channelLinks.get(0));
+
+        ClusterLink duplicate = new ClusterLink();
+        duplicate.setCluster(cluster);
+        duplicate.setChannelLink(placed.getChannelLink());
+        duplicate.setIdx(placed.getIdx() + 1);
+        assertThrows(DataIntegrityViolationException.class, () -> clusterLinkRepository.saveAndFlush(duplicate));
+    }
+
+    @Test
+    void testDeleteCluster_KeepsChannelLinks() {
+        add(cluster, channelLinks.get(0));
+
+        clusterService.deleteCluster(principal(ownerUser), channel.getId(), cluster.getId());
+
+        assertEquals(0, clusterLinkRepository.findByClusterId(cluster.getId()).size());
+        assertTrue(channelLinkRepository.findById(channelLinks.get(0).getId()).isPresent());
+        assertEquals(List.of(), clusterService.getClusters(principal(ownerUser), channel.getId()));
+    }
+
+    @Test
+    void testCreateCluster_RegularUser_ThrowsAccessDeniedException() {
+        assertThrows(AccessDeniedException.class, () ->
+                clusterService.createCluster(principal(regularUser), channel.getId(), ClusterFixture.clusterDTO("Not Allowed")));
+    }
+
+    @Test
+    void testAddClusterLink_ChannelLinkOfOtherChannel_ThrowsNoSuchElementException() {
+        Channel otherChannel = new Channel();
+        otherChannel.setName("Other Channel");
+        otherChannel.setVisibility(Channel.Visibility.PUBLIC);
+        channelRepository.save(otherChannel);
+
+        ChannelLink foreign = new ChannelLink();
+        foreign.setChannel(otherChannel);
+        foreign.setLink(channelLinks.get(0).getLink());
+        foreign.setTitle("Foreign");
+        channelLinkRepository.save(foreign);
+
+        assertThrows(NoSuchElementException.class, () -> add(cluster, foreign));
+    }
+}
@@ -0,0 +1,95 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.JwtUtil;
+import com.powerbi.api.config.TokenRevocationStore;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.UserRepository;
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = "jwt.secret=cookieServiceTestSecretLongEnoughForTheHs512SignatureOfEveryTokenItSigns")
+@Import({CookieService.class, JwtUtil.class, TokenRevocationStore.class, UserService.class, UserDirectory.class,
+        PermissionService.class, LocalCacheInvalidationTransport.class})
+class CookieServiceTest {
+
+    @Autowired
+    private CookieService cookieService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("user@example.com");
+        userRepository.save(user);
+    }
+
+    private static String getCookie(MockHttpServletResponse response, String name) {
+        Cookie cookie = response.getCookie(name);
+        assertNotNull(cookie);
+        return cookie.getValue();
+    }
+
+    @Test
+    void testRefreshTokens_IssuesNewPairAndRevokesPresentedRefreshToken() {
+        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String token = cookieService.refreshTokens(refreshToken, response);
+
+        assertEquals(token, getCookie(response, "token"));
+        String newRefreshToken = getCookie(response, "refreshToken");
+        assertNotEquals(refreshToken, newRefreshToken);
+        assertTrue(revocationStore.isRevoked(jwtUtil.parseClaims(refreshToken)));
+        assertFalse(revocationStore.isRevoked(jwtUtil.parseClaims(newRefreshToken)));
+    }
+
+    @Test
+    void testRefreshTokens_RotatedOutRefreshToken_IsRejected() {
+        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId());
+        cookieService.refreshTokens(refreshToken, new MockHttpServletResponse());
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("refreshToken", refreshToken));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThrows(RuntimeException.class, () -> cookieService.refreshTokens(request, response));
+        assertNull(response.getCookie("token"));
+    }
+
+    @Test
+    void testRevokeTokens_RevokesTheCurrentRefreshTokenAfterRotation() {
+        MockHttpServletResponse rotated = new MockHttpServletResponse();
+        String token = cookieService.refreshTokens(jwtUtil.generateRefreshToken(user.getEmail(), user.getId()), rotated);
+        String refreshToken = getCookie(rotated, "refreshToken");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("token", token), new Cookie("refreshToken", refreshToken));
+        cookieService.revokeTokens(request, new MockHttpServletResponse());
+
+        assertTrue(revocationStore.isRevoked(jwtUtil.parseClaims(token)));
+        assertThrows(RuntimeException.class, () -> cookieService.refreshTokens(refreshToken, new MockHttpServletResponse()));
+    }
+}
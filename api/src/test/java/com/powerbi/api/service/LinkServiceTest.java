@@ -1,5 +1,7 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.LinkView;
 import com.powerbi.api.dto.LinkDTO;
 import com.powerbi.api.model.Link;
 import com.powerbi.api.model.User;
@@ -21,12 +23,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({LinkService.class, UserService.class, PermissionService.class})
+@Import({LinkService.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
 class LinkServiceTest {
 
     @Autowired
     private LinkService linkService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -58,25 +63,30 @@ class LinkServiceTest {
         linkRepository.save(link2);
     }
 
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
     @Test
     void testGetUserLinks_ReturnsAllLinks() {
-        List<Link> links = linkService.getUserLinks(user.getEmail(), null);
+        List<LinkView> links = linkService.getUserLinks(principal(user), null);
         assertNotNull(links);
         assertEquals(2, links.size());
     }
 
     @Test
     void testGetUserLinks_WithSearch_ReturnsFilteredLinks() {
-        List<Link> links = linkService.getUserLinks(user.getEmail(), "Link 1");
+        List<LinkView> links = linkService.getUserLinks(principal(user), "Link 1");
         assertNotNull(links);
         assertEquals(1, links.size());
-        assertEquals("Link 1", links.getFirst().getTitle());
+        assertEquals("Link 1", links.getFirst().title());
+        assertEquals(user.getEmail(), links.getFirst().user().email());
     }
 
     @Test
     void testGetUserLink_ReturnsLink() {
         Link link = linkRepository.findAll().getFirst();
-        Link retrievedLink = linkService.getUserLink(user.getEmail(), link.getId());
+        Link retrievedLink = linkService.getUserLink(principal(user), link.getId());
         assertNotNull(retrievedLink);
         assertEquals(link.getId(), retrievedLink.getId());
     }
@@ -84,7 +94,7 @@ class LinkServiceTest {
     @Test
     void testGetUserLink_NotFound_ThrowsException() {
         assertThrows(ResourceNotFoundException.class, () ->
-                linkService.getUserLink(user.getEmail(), 999L));
+                linkService.getUserLink(principal(user), 999L));
     }
 
     @Test
@@ -94,7 +104,7 @@ class LinkServiceTest {
         linkDTO.setLink("https://example.com/new");
         linkDTO.setDescription("New Description");
 
-        Link createdLink = linkService.createUserLink(user.getEmail(), linkDTO);
+        Link createdLink = linkService.createUserLink(principal(user), linkDTO);
         assertNotNull(createdLink);
         assertEquals("New Link", createdLink.getTitle());
         assertEquals("https://example.com/new", createdLink.getLink());
@@ -111,7 +121,7 @@ class LinkServiceTest {
         linkDTO.setLink("https://example.com/updated");
         linkDTO.setDescription("Updated Description");
 
-        Link updatedLink = linkService.updateUserLink(user.getEmail(), linkDTO);
+        Link updatedLink = linkService.updateUserLink(principal(user), linkDTO);
         assertNotNull(updatedLink);
         assertEquals("Updated Link", updatedLink.getTitle());
         assertEquals("https://example.com/updated", updatedLink.getLink());
@@ -125,19 +135,19 @@ class LinkServiceTest {
         linkDTO.setTitle("Nonexistent Link");
 
         assertThrows(ResourceNotFoundException.class, () ->
-                linkService.updateUserLink(user.getEmail(), linkDTO));
+                linkService.updateUserLink(principal(user), linkDTO));
     }
 
     @Test
     void testDeleteUserLink_DeletesLink() {
         Link link = linkRepository.findAll().getFirst();
-        linkService.deleteUserLink(user.getEmail(), link.getId());
+        linkService.deleteUserLink(principal(user), link.getId());
         assertFalse(linkRepository.existsById(link.getId()));
     }
 
     @Test
     void testDeleteUserLink_NotFound_ThrowsException() {
         assertThrows(ResourceNotFoundException.class, () ->
-                linkService.deleteUserLink(user.getEmail(), 999L));
+                linkService.deleteUserLink(principal(user), 999L));
     }
 }
\ No newline at end of file
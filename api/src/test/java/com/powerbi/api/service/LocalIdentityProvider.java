@@ -0,0 +1,169 @@
+package com.powerbi.api.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the Azure AD tenant endpoints, served from a local HTTP server.
+ * Publishes an OpenID configuration and JWKS, and answers token requests with an RS256 ID token
+ * whose email, audience and signing key can be changed per test. Any endpoint can be made to fail
+ * with an HTTP error, and every answer can be delayed.
+ */
+class LocalIdentityProvider implements AutoCloseable {
+    static final String TENANT_ID = "tenant";
+    static final String CLIENT_ID = "client";
+    static final String KEY_ID = "kid1";
+
+    private final HttpServer server;
+    private final KeyPair keyPair = generateKeyPair();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+    private volatile String email = "user@example.com";
+    private volatile String audience = CLIENT_ID;
+    private volatile KeyPair signingKeyPair = keyPair;
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private volatile Duration delay = Duration.ZERO;
+
+    LocalIdentityProvider() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/" + TENANT_ID + "/v2.0/.well-known/openid-configuration", exchange -> respond(exchange, String.format(
+                "{\"issuer\":\"%s\",\"token_endpoint\":\"%s\",\"jwks_uri\":\"%s\"}",
+                getIssuer(), getAuthority() + "/" + TENANT_ID + "/oauth2/v2.0/token", getAuthority() + "/" + TENANT_ID + "/discovery/v2.0/keys"
+        )));
+        server.createContext("/" + TENANT_ID + "/discovery/v2.0/keys", exchange -> respond(exchange, String.format(
+                "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"kid\":\"%s\",\"n\":\"%s\",\"e\":\"%s\"}]}",
+                KEY_ID,
+                encode(((RSAPublicKey) keyPair.getPublic()).getModulus().toByteArray()),
+                encode(((RSAPublicKey) keyPair.getPublic()).getPublicExponent().toByteArray())
+        )));
+        server.createContext("/" + TENANT_ID + "/oauth2/v2.0/token", exchange -> respond(exchange, String.format(
+                "{\"token_type\":\"Bearer\",\"id_token\":\"%s\"}", createIdToken()
+        )));
+        server.start();
+    }
+
+    String getAuthority() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    String getIssuer() {
+        return getAuthority() + "/" + TENANT_ID + "/v2.0";
+    }
+
+    int getRequestCount(String pathSuffix) {
+        return requestCounts.entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith(pathSuffix))
+                .mapToInt(entry -> entry.getValue().get())
+                .sum();
+    }
+
+    void setEmail(String email) {
+        this.email = email;
+    }
+
+    void setAudience(String audience) {
+        this.audience = audience;
+    }
+
+    /**
+     * Answers the following requests to an endpoint with an HTTP error.
+     *
+     * @param pathSuffix the end of the endpoint's path, such as "/token" or "/keys"
+     * @param status     the HTTP status to answer with
+     */
+    void fail(String pathSuffix, int status) {
+        failures.put(pathSuffix, status);
+    }
+
+    /**
+     * Delays every following answer.
+     */
+    void setDelay(Duration delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * Signs the following ID tokens with a key that is not published in the JWKS.
+     */
+    void signWithUnpublishedKey() {
+        this.signingKeyPair = generateKeyPair();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private String createIdToken() {
+        return JWT.create()
+                .withKeyId(KEY_ID)
+                .withIssuer(getIssuer())
+                .withAudience(audience)
+                .withSubject("subject")
+                .withClaim("email", email)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3_600_000))
+                .sign(Algorithm.RSA256(
+                        (RSAPublicKey) signingKeyPair.getPublic(),
+                        (RSAPrivateKey) signingKeyPair.getPrivate()
+                ));
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requestCounts.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int status = failures.entrySet().stream()
+                .filter(entry -> exchange.getRequestURI().getPath().endsWith(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(200);
+        byte[] bytes = (status == 200 ? body : "{\"error\":\"failed\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        // Drop the sign byte BigInteger adds to values with the high bit set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
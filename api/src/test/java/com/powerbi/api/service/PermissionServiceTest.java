@@ -1,5 +1,6 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.model.Channel;
 import com.powerbi.api.model.ChannelAdmin;
 import com.powerbi.api.model.ChannelMember;
@@ -19,21 +20,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({PermissionService.class})
+@Import({PermissionService.class, LocalCacheInvalidationTransport.class})
 class PermissionServiceTest {
 
     @Autowired
     private PermissionService permissionService;
 
+    @Autowired
+    private CacheInvalidationTransport invalidationTransport;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -52,6 +65,9 @@ class PermissionServiceTest {
     @Autowired
     private ChannelRepository channelRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User superUser;
     private User ownerUser;
     private User adminUser;
@@ -168,4 +184,151 @@ class PermissionServiceTest {
     void testGetUserRoleInChannel_ReturnsNotAllowedForRegularUser() {
         assertEquals(ChannelRole.NOT_ALLOWED, permissionService.getUserRoleInChannel(regularUser, channel.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIsSuperUser_CachedUntilEvicted() {
+        assertFalse(permissionService.isSuperUser(regularUser.getId()));
+
+        SuperUser promoted = new SuperUser();
+        promoted.setUser(regularUser);
+        superUserRepository.save(promoted);
+        assertFalse(permissionService.isSuperUser(regularUser.getId()));
+
+        permissionService.evictSuperUser(regularUser.getId());
+        assertTrue(permissionService.isSuperUser(regularUser.getId()));
+    }
+
+    @Test
+    void testIsSuperUser_ExpiresAfterTimeToLive() {
+        ReflectionTestUtils.setField(permissionService, "timeToLive", 0L);
+        try {
+            assertFalse(permissionService.isSuperUser(regularUser.getId()));
+
+            SuperUser promoted = new SuperUser();
+            promoted.setUser(regularUser);
+            superUserRepository.save(promoted);
+            assertTrue(permissionService.isSuperUser(regularUser.getId()));
+        } finally {
+            ReflectionTestUtils.setField(permissionService, "timeToLive", 600L);
+        }
+    }
+
+    @Test
+    void testUserExists_MissingUserIsNotCached() {
+        // A user another node creates under an ID this node already looked up
+        Long userId = regularUser.getId() + 1000;
+        assertFalse(permissionService.userExists(userId));
+        jdbcTemplate.update("INSERT INTO \"user\" (id, email, date_created) VALUES (?, 'createdLater', CURRENT_TIMESTAMP)", userId);
+        assertTrue(permissionService.userExists(userId));
+
+        // Existing users are cached until evicted
+        jdbcTemplate.update("DELETE FROM \"user\" WHERE id = ?", userId);
+        assertTrue(permissionService.userExists(userId));
+        permissionService.evictSuperUser(userId);
+        assertFalse(permissionService.userExists(userId));
+    }
+
+    @Test
+    void testIsSuperUser_CacheStaysWithinMaxSize() {
+        ReflectionTestUtils.setField(permissionService, "cacheMaxSize", 2);
+        try {
+            for (User user : new User[] {superUser, ownerUser, adminUser, memberUser, regularUser}) {
+                permissionService.isSuperUser(user.getId());
+            }
+            Map<?, ?> superUserFlags = (Map<?, ?>) ReflectionTestUtils.getField(permissionService, "superUserFlags");
+            assertTrue(superUserFlags.size() <= 2);
+            assertTrue(permissionService.isSuperUser(superUser.getId()));
+        } finally {
+            ReflectionTestUtils.setField(permissionService, "cacheMaxSize", 50000);
+        }
+    }
+
+    @Test
+    void testGetUserRoleInChannel_PrincipalFlag_ReturnsSuperUserRole() {
+        UserPrincipal principal = new UserPrincipal(regularUser.getId(), regularUser.getEmail(), true);
+        assertEquals(ChannelRole.SUPER_USER, permissionService.getUserRoleInChannel(principal, channel.getId()));
+    }
+
+    @Test
+    void testSaveSecondRoleInChannel_ThrowsDataIntegrityViolationException() {
+        ChannelMember channelMember = new ChannelMember();
+        channelMember.setUser(adminUser);
+        channelMember.setChannel(channel);
+
+        // A user holds a single role row per channel
+        assertThrows(DataIntegrityViolationException.class, () -> channelMemberRepository.saveAndFlush(channelMember));
+    }
+
+    @Test
+    void testGetUserRoleInChannel_UnknownChannel_ReturnsNotAllowed() {
+        assertEquals(ChannelRole.NOT_ALLOWED, permissionService.getUserRoleInChannel(ownerUser, 999L));
+    }
+
+    @Test
+    void testHasChannelRole_HigherRoleSatisfiesLowerRole() {
+        UserPrincipal owner = new UserPrincipal(ownerUser.getId(), ownerUser.getEmail(), false);
+        UserPrincipal member = new UserPrincipal(memberUser.getId(), memberUser.getEmail(), false);
+        UserPrincipal regular = new UserPrincipal(regularUser.getId(), regularUser.getEmail(), false);
+
+        assertTrue(permissionService.hasChannelRole(owner, channel.getId(), ChannelRole.ADMIN));
+        assertTrue(permissionService.hasChannelRole(member, channel.getId(), ChannelRole.MEMBER));
+        assertFalse(permissionService.hasChannelRole(member, channel.getId(), ChannelRole.ADMIN));
+        assertFalse(permissionService.hasChannelRole(regular, channel.getId(), ChannelRole.MEMBER));
+    }
+
+    @Test
+    void testHasChannelPermission_NotAllowed_ReturnsTrueOnlyWithoutRole() {
+        assertTrue(permissionService.hasChannelPermission(regularUser, channel.getId(), ChannelRole.NOT_ALLOWED));
+        assertFalse(permissionService.hasChannelPermission(memberUser, channel.getId(), ChannelRole.NOT_ALLOWED));
+    }
+
+    @Test
+    void testGetUserRoleInChannel_MemoizedWithinRequest() {
+        UserPrincipal member = new UserPrincipal(memberUser.getId(), memberUser.getEmail(), false);
+        // Expire shared cache entries at once, so only the request memo can serve the role
+        ReflectionTestUtils.setField(permissionService, "timeToLive", 0L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            assertEquals(ChannelRole.MEMBER, permissionService.getUserRoleInChannel(member, channel.getId()));
+
+            channelMemberRepository.deleteAll(channelMemberRepository.findByChannelId(channel.getId()));
+            assertEquals(ChannelRole.MEMBER, permissionService.getUserRoleInChannel(member, channel.getId()));
+
+            RequestContextHolder.resetRequestAttributes();
+
+            // A new request resolves the role again
+            assertEquals(ChannelRole.NOT_ALLOWED, permissionService.getUserRoleInChannel(member, channel.getId()));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            ReflectionTestUtils.setField(permissionService, "timeToLive", 600L);
+        }
+    }
+
+    @Test
+    void testGetUserRoleInChannel_CachedUntilInvalidated() {
+        UserPrincipal member = new UserPrincipal(memberUser.getId(), memberUser.getEmail(), false);
+        assertEquals(ChannelRole.MEMBER, permissionService.getUserRoleInChannel(member, channel.getId()));
+
+        channelMemberRepository.delete(channelMemberRepository.findByUserIdAndChannelId(memberUser.getId(), channel.getId()).orElseThrow());
+        channelMemberRepository.flush();
+        ChannelAdmin promoted = new ChannelAdmin();
+        promoted.setUser(memberUser);
+        promoted.setChannel(channel);
+        channelAdminRepository.save(promoted);
+        assertEquals(ChannelRole.MEMBER, permissionService.getUserRoleInChannel(member, channel.getId()));
+
+        permissionService.invalidate(CacheInvalidation.forMembership(memberUser.getId(), channel.getId()));
+        assertEquals(ChannelRole.ADMIN, permissionService.getUserRoleInChannel(member, channel.getId()));
+    }
+
+    @Test
+    void testGetUserRoleInChannel_InvalidationFromOtherNode_DropsCachedRole() {
+        UserPrincipal admin = new UserPrincipal(adminUser.getId(), adminUser.getEmail(), false);
+        assertEquals(ChannelRole.ADMIN, permissionService.getUserRoleInChannel(admin, channel.getId()));
+
+        channelAdminRepository.deleteAll(channelAdminRepository.findByChannelId(channel.getId()));
+        invalidationTransport.publish(CacheInvalidation.forChannel(channel.getId()));
+
+        assertEquals(ChannelRole.NOT_ALLOWED, permissionService.getUserRoleInChannel(admin, channel.getId()));
+    }
+}
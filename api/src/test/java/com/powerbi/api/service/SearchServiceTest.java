@@ -0,0 +1,309 @@
+package com.powerbi.api.service;
+
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.LinkDTO;
+import com.powerbi.api.dto.LinkSearchHit;
+import com.powerbi.api.dto.LinkView;
+import com.powerbi.api.dto.SearchHit;
+import com.powerbi.api.dto.SearchResults;
+import com.powerbi.api.model.Channel;
+import com.powerbi.api.model.ChannelLink;
+import com.powerbi.api.model.ChannelMember;
+import com.powerbi.api.model.Link;
+import com.powerbi.api.model.User;
+import com.powerbi.api.repository.ChannelLinkRepository;
+import com.powerbi.api.repository.ChannelMemberRepository;
+import com.powerbi.api.repository.ChannelRepository;
+import com.powerbi.api.repository.LinkRepository;
+import com.powerbi.api.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional
+@Import({SearchService.class, LinkService.class, ChannelAccessIndex.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private LinkService linkService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    @Autowired
+    private ChannelLinkRepository channelLinkRepository;
+
+    @Autowired
+    private ChannelMemberRepository channelMemberRepository;
+
+    private User ownerUser;
+    private User otherUser;
+    private Channel publicChannel;
+    private Channel privateChannel;
+    private Link salesLink;
+
+    @BeforeEach
+    void setUp() {
+        ownerUser = new User();
+        ownerUser.setEmail("ownerUser");
+        userRepository.save(ownerUser);
+
+        otherUser = new User();
+        otherUser.setEmail("otherUser");
+        userRepository.save(otherUser);
+
+        publicChannel = new Channel();
+        publicChannel.setName("Sales Team");
+        publicChannel.setDescription("Reports for the sales department");
+        publicChannel.setVisibility(Channel.Visibility.PUBLIC);
+        channelRepository.save(publicChannel);
+
+        privateChannel = new Channel();
+        privateChannel.setName("Sales Leadership");
+        privateChannel.setVisibility(Channel.Visibility.PRIVATE);
+        channelRepository.save(privateChannel);
+
+        salesLink = link(ownerUser, "Quarterly Sales Dashboard", "Revenue by region", "https://app.powerbi.com/reports/sales");
+        link(ownerUser, "Inventory", "Stock levels next to the sales targets", "https://app.powerbi.com/reports/stock");
+        link(otherUser, "Sales Forecast", "Forecast for next year", "https://app.powerbi.com/reports/forecast");
+        channelLink(publicChannel, salesLink, "Shared Sales Overview");
+        channelLink(privateChannel, salesLink, "Private Sales Review");
+
+        // The channels were saved directly, so let the access index know about them
+        permissionService.invalidate(CacheInvalidation.forChannel(publicChannel.getId()));
+        searchService.rebuild();
+        userDirectory.reload();
+    }
+
+    private Link link(User user, String title, String description, String url) {
+        Link link = new Link();
+        link.setUser(user);
+        link.setTitle(title);
+        link.setDescription(description);
+        link.setLink(url);
+        return linkRepository.save(link);
+    }
+
+    private void channelLink(Channel channel, Link link, String title) {
+        ChannelLink channelLink = new ChannelLink();
+        channelLink.setChannel(channel);
+        channelLink.setLink(link);
+        channelLink.setTitle(title);
+        channelLinkRepository.save(channelLink);
+    }
+
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
+    private List<String> titles(Page<LinkSearchHit> hits) {
+        return hits.getContent().stream()
+                .map(hit -> hit.link() != null ? hit.link().title() : hit.channelLink().title())
+                .toList();
+    }
+
+    @Test
+    void testSearchLinks_TitleMatchesRankAboveDescriptionMatches() {
+        assertEquals(List.of("Quarterly Sales Dashboard", "Shared Sales Overview", "Inventory"),
+                titles(searchService.searchLinks(principal(ownerUser), "sales", PageRequest.of(0, 20))));
+    }
+
+    @Test
+    void testSearchLinks_MatchesPrefixesAndTypos() {
+        assertEquals(List.of("Quarterly Sales Dashboard"),
+                titles(searchService.searchLinks(principal(ownerUser), "dashb", PageRequest.of(0, 20))));
+        assertEquals(List.of("Quarterly Sales Dashboard"),
+                titles(searchService.searchLinks(principal(ownerUser), "quartrely", PageRequest.of(0, 20))));
+    }
+
+    @Test
+    void testSearchLinks_RequiresEveryQueryToken() {
+        assertEquals(List.of("Quarterly Sales Dashboard"),
+                titles(searchService.searchLinks(principal(ownerUser), "sales region", PageRequest.of(0, 20))));
+    }
+
+    @Test
+    void testSearchLinks_HidesOtherUsersLinksAndPrivateChannels() {
+        List<String> titles = titles(searchService.searchLinks(principal(otherUser), "sales", PageRequest.of(0, 20)));
+
+        assertEquals(2, titles.size());
+        assertTrue(titles.containsAll(List.of("Sales Forecast", "Shared Sales Overview")));
+    }
+
+    @Test
+    void testSearchLinks_PagesThroughRankedResults() {
+        Page<LinkSearchHit> firstPage = searchService.searchLinks(principal(ownerUser), "sales", PageRequest.of(0, 2));
+        Page<LinkSearchHit> secondPage = searchService.searchLinks(principal(ownerUser), "sales", PageRequest.of(1, 2));
+
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(2, firstPage.getContent().size());
+        assertEquals(List.of("Inventory"), titles(secondPage));
+    }
+
+    @Test
+    void testSearchLinks_FollowsCommittedLinkCreationAndDeletion() {
+        LinkDTO linkDTO = new LinkDTO();
+        linkDTO.setTitle("Marketing Funnel");
+        linkDTO.setLink("https://app.powerbi.com/reports/funnel");
+        Link created = linkService.createUserLink(principal(ownerUser), linkDTO);
+
+        // The index only follows committed changes
+        assertEquals(0, searchService.searchLinks(principal(ownerUser), "funnel", PageRequest.of(0, 20)).getTotalElements());
+
+        try {
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+            assertEquals(List.of("Marketing Funnel"),
+                    titles(searchService.searchLinks(principal(ownerUser), "funnel", PageRequest.of(0, 20))));
+
+            TestTransaction.start();
+            linkService.deleteUserLink(principal(ownerUser), created.getId());
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+            assertEquals(0, searchService.searchLinks(principal(ownerUser), "funnel", PageRequest.of(0, 20)).getTotalElements());
+        } finally {
+            // Remove the committed fixtures, each repository call commits on its own
+            channelLinkRepository.deleteAll();
+            linkRepository.deleteAll();
+            channelRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void testSearchLinks_IgnoresRolledBackChanges() {
+        LinkDTO linkDTO = new LinkDTO();
+        linkDTO.setTitle("Marketing Funnel");
+        linkDTO.setLink("https://app.powerbi.com/reports/funnel");
+        UserPrincipal owner = principal(ownerUser);
+        linkService.createUserLink(owner, linkDTO);
+
+        TestTransaction.end();
+
+        assertEquals(0, searchService.searchLinks(owner, "funnel", PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    @Test
+    void testSearchLinks_IgnoresIdsInUrlPaths() {
+        link(ownerUser, "Churn", null,
+                "https://app.powerbi.com/groups/3f2c9a1e-4b2d-4c1f-9e1f-0a1b2c3d4e5f/reports/ReportSection9f8e7d6c5b4a");
+        searchService.rebuild();
+
+        assertEquals(0, searchService.searchLinks(principal(ownerUser), "4b2d", PageRequest.of(0, 20)).getTotalElements());
+        assertEquals(0, searchService.searchLinks(principal(ownerUser), "reportsection9f8e", PageRequest.of(0, 20)).getTotalElements());
+        assertEquals(List.of("Churn"), titles(searchService.searchLinks(principal(ownerUser), "groups", PageRequest.of(0, 20))));
+    }
+
+    @Test
+    void testSearchLinks_PrefersCommonPrefixExpansions() {
+        // More rare terms sort before "reports" than prefix expansions are tried
+        for (int i = 0; i < 80; i++) {
+            link(otherUser, String.format("Rea%03d", i), null, "https://example.com/");
+        }
+        searchService.rebuild();
+
+        // Inventory only matches through the "reports" in its URL
+        assertTrue(titles(searchService.searchLinks(principal(ownerUser), "re", PageRequest.of(0, 20))).contains("Inventory"));
+    }
+
+    @Test
+    void testSearch_GroupsRankedResultsByKind() {
+        SearchResults results = searchService.search(principal(ownerUser), "sales", 10);
+
+        assertEquals(List.of("Sales Team"), results.channels().hits().stream().map(hit -> hit.item().getName()).toList());
+        assertEquals(List.of("Shared Sales Overview"), results.channelLinks().hits().stream().map(hit -> hit.item().title()).toList());
+        assertEquals(List.of("Quarterly Sales Dashboard", "Inventory"), results.links().hits().stream().map(hit -> hit.item().title()).toList());
+        assertEquals(0, results.users().total());
+    }
+
+    @Test
+    void testSearch_ShowsPrivateChannelsToMembersOnly() {
+        ChannelMember member = new ChannelMember();
+        member.setUser(otherUser);
+        member.setChannel(privateChannel);
+        channelMemberRepository.save(member);
+        permissionService.invalidate(CacheInvalidation.forMembership(otherUser.getId(), privateChannel.getId()));
+
+        SearchResults ownerResults = searchService.search(principal(ownerUser), "leadership", 10);
+        SearchResults memberResults = searchService.search(principal(otherUser), "leadership", 10);
+
+        assertEquals(0, ownerResults.channels().total());
+        assertEquals(List.of("Sales Leadership"), memberResults.channels().hits().stream().map(hit -> hit.item().getName()).toList());
+    }
+
+    @Test
+    void testSearch_FindsUsersInTheUserDirectoryByPrefix() {
+        SearchResults results = searchService.search(principal(otherUser), "owner", 10);
+        SearchResults bothResults = searchService.search(principal(otherUser), "o", 10);
+
+        assertEquals(List.of(ownerUser.getId()), results.users().hits().stream().map(hit -> hit.item().id()).toList());
+        assertEquals(List.of(otherUser.getId(), ownerUser.getId()), bothResults.users().hits().stream().map(hit -> hit.item().id()).toList());
+    }
+
+    @Test
+    void testSearch_LimitsEachGroupButCountsEveryMatch() {
+        SearchResults results = searchService.search(principal(ownerUser), "sales", 1);
+
+        List<SearchHit<LinkView>> links = results.links().hits();
+        assertEquals(2, results.links().total());
+        assertEquals(1, links.size());
+        assertEquals("Quarterly Sales Dashboard", links.get(0).item().title());
+    }
+
+    @Test
+    void testSearchLinks_FailedBackgroundRebuildKeepsTheIndex() throws InterruptedException {
+        ReflectionTestUtils.setField(searchService, "channelRepository", null);
+        ReflectionTestUtils.setField(searchService, "builtAt", Instant.MIN);
+        try {
+            assertEquals(List.of("Quarterly Sales Dashboard"),
+                    titles(searchService.searchLinks(principal(ownerUser), "dashboard", PageRequest.of(0, 20))));
+
+            AtomicBoolean rebuilding = (AtomicBoolean) ReflectionTestUtils.getField(searchService, "rebuilding");
+            for (int i = 0; i < 100 && rebuilding.get(); i++) {
+                Thread.sleep(50);
+            }
+            assertFalse(rebuilding.get());
+        } finally {
+            ReflectionTestUtils.setField(searchService, "channelRepository", channelRepository);
+        }
+
+        // Still stale, so the next search tries again
+        assertEquals(Instant.MIN, ReflectionTestUtils.getField(searchService, "builtAt"));
+    }
+}
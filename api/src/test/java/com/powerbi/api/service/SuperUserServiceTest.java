@@ -1,5 +1,6 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
 import com.powerbi.api.model.SuperUser;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.SuperUserRepository;
@@ -21,12 +22,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({SuperUserService.class, UserService.class, PermissionService.class})
+@Import({SuperUserService.class, UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
 class SuperUserServiceTest {
 
     @Autowired
     private SuperUserService superUserService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -53,9 +57,13 @@ class SuperUserServiceTest {
         userRepository.save(regularUser);
     }
 
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
     @Test
     void testGetAllSuperUsers_AdminUser_ReturnsSuperUsers() {
-        List<SuperUser> superUsers = superUserService.getAllSuperUsers(adminUser.getEmail());
+        List<SuperUser> superUsers = superUserService.getAllSuperUsers(principal(adminUser));
         assertNotNull(superUsers);
         assertEquals(1, superUsers.size());
         assertEquals(adminUser.getId(), superUsers.get(0).getUser().getId());
@@ -64,12 +72,12 @@ class SuperUserServiceTest {
     @Test
     void testGetAllSuperUsers_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                superUserService.getAllSuperUsers(regularUser.getEmail()));
+                superUserService.getAllSuperUsers(principal(regularUser)));
     }
 
     @Test
     void testAddSuperUser_AdminUser_AddsSuperUser() {
-        SuperUser newSuperUser = superUserService.addSuperUser(adminUser.getEmail(), regularUser.getId());
+        SuperUser newSuperUser = superUserService.addSuperUser(principal(adminUser), regularUser.getId());
         assertNotNull(newSuperUser);
         assertEquals(regularUser.getId(), newSuperUser.getUser().getId());
     }
@@ -77,22 +85,22 @@ class SuperUserServiceTest {
     @Test
     void testAddSuperUser_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                superUserService.addSuperUser(regularUser.getEmail(), adminUser.getId()));
+                superUserService.addSuperUser(principal(regularUser), adminUser.getId()));
     }
 
     @Test
     void testAddSuperUser_UserAlreadySuperUser_ThrowsDataIntegrityViolationException() {
         assertThrows(DataIntegrityViolationException.class, () ->
-                superUserService.addSuperUser(adminUser.getEmail(), adminUser.getId()));
+                superUserService.addSuperUser(principal(adminUser), adminUser.getId()));
     }
 
     @Test
     void testRemoveSuperUser_AdminUser_RemovesSuperUser() {
         // Add a second super user
-        SuperUser newSuperUser = superUserService.addSuperUser(adminUser.getEmail(), regularUser.getId());
+        SuperUser newSuperUser = superUserService.addSuperUser(principal(adminUser), regularUser.getId());
 
         // Remove the second super user
-        superUserService.removeSuperUser(adminUser.getEmail(), newSuperUser.getId());
+        superUserService.removeSuperUser(principal(adminUser), newSuperUser.getId());
 
         assertFalse(superUserRepository.existsById(newSuperUser.getId()));
     }
@@ -100,12 +108,12 @@ class SuperUserServiceTest {
     @Test
     void testRemoveSuperUser_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                superUserService.removeSuperUser(regularUser.getEmail(), adminUser.getId()));
+                superUserService.removeSuperUser(principal(regularUser), adminUser.getId()));
     }
 
     @Test
     void testRemoveSuperUser_LastSuperUser_ThrowsDataIntegrityViolationException() {
         assertThrows(DataIntegrityViolationException.class, () ->
-                superUserService.removeSuperUser(adminUser.getEmail(), superUserRepository.findAll().get(0).getId()));
+                superUserService.removeSuperUser(principal(adminUser), superUserRepository.findAll().get(0).getId()));
     }
 }
\ No newline at end of file
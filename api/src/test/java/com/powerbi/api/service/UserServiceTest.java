@@ -1,5 +1,7 @@
 package com.powerbi.api.service;
 
+import com.powerbi.api.config.UserPrincipal;
+import com.powerbi.api.dto.UserView;
 import com.powerbi.api.model.SuperUser;
 import com.powerbi.api.model.User;
 import com.powerbi.api.repository.SuperUserRepository;
@@ -11,18 +13,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @Transactional
-@Import({UserService.class, PermissionService.class})
+@Import({UserService.class, UserDirectory.class, PermissionService.class, LocalCacheInvalidationTransport.class})
 class UserServiceTest {
 
     @Autowired
@@ -34,6 +42,9 @@ class UserServiceTest {
     @Autowired
     private SuperUserRepository superUserRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
     private User superUser;
     private User regularUser;
 
@@ -52,21 +63,104 @@ class UserServiceTest {
         regularUser = new User();
         regularUser.setEmail("regularuser@example.com");
         userRepository.save(regularUser);
+
+        // The users were saved directly, so load them into the directory
+        userDirectory.reload();
+    }
+
+    private UserPrincipal principal(User user) {
+        return userService.getPrincipal(user.getEmail());
+    }
+
+    private List<String> emails(Page<UserView> users) {
+        return users.getContent().stream().map(UserView::email).toList();
     }
 
     @Test
-    void testGetAllUsers_ReturnsAllUsers() {
-        List<User> users = userService.getAllUsers(null);
+    void testGetUsers_ReturnsAllUsers() {
+        Page<UserView> users = userService.getUsers(null, PageRequest.of(0, 20));
         assertNotNull(users);
-        assertEquals(2, users.size());
+        assertEquals(List.of("regularuser@example.com", "superuser@example.com"), emails(users));
     }
 
     @Test
-    void testGetAllUsers_WithSearchQuery_ReturnsFilteredUsers() {
-        List<User> users = userService.getAllUsers("superuser");
+    void testGetUsers_WithSearchQuery_ReturnsFilteredUsers() {
+        Page<UserView> users = userService.getUsers("superuser", PageRequest.of(0, 20));
         assertNotNull(users);
-        assertEquals(1, users.size());
-        assertEquals("superuser@example.com", users.get(0).getEmail());
+        assertEquals(List.of("superuser@example.com"), emails(users));
+    }
+
+    @Test
+    void testGetUsers_MatchesDisplayNamePrefixes() {
+        userService.createUser("Jane.Doe@example.com");
+        userService.createUser("john_doe@example.com");
+        userDirectory.reload();  // The directory only follows committed users
+
+        assertEquals(List.of("Jane.Doe@example.com"), emails(userService.getUsers("jane d", PageRequest.of(0, 20))));
+        assertEquals(List.of("Jane.Doe@example.com", "john_doe@example.com"), emails(userService.getUsers("DOE", PageRequest.of(0, 20))));
+        assertEquals(0, userService.getUsers("example", PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    @Test
+    void testGetUsers_PagesAndCapsPageSize() {
+        for (int i = 0; i < UserDirectory.MAX_PAGE_SIZE + 5; i++) {
+            userService.createUser(String.format("member%03d@example.com", i));
+        }
+        userDirectory.reload();  // The directory only follows committed users
+
+        Page<UserView> firstPage = userService.getUsers("member", PageRequest.of(0, 1000));
+        Page<UserView> secondPage = userService.getUsers("member", PageRequest.of(1, 1000));
+
+        assertEquals(UserDirectory.MAX_PAGE_SIZE + 5, firstPage.getTotalElements());
+        assertEquals(UserDirectory.MAX_PAGE_SIZE, firstPage.getContent().size());
+        assertEquals("member000@example.com", firstPage.getContent().get(0).email());
+        assertEquals(5, secondPage.getContent().size());
+    }
+
+    @Test
+    void testGetUsers_DeletedUserIsNoLongerListedOnceCommitted() {
+        try {
+            userService.deleteUser(principal(superUser), regularUser.getId());
+            assertEquals(2, userService.getUsers(null, PageRequest.of(0, 20)).getTotalElements());
+
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+
+            assertEquals(List.of("superuser@example.com"), emails(userService.getUsers(null, PageRequest.of(0, 20))));
+        } finally {
+            // Remove the committed fixtures, each repository call commits on its own
+            superUserRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void testGetUsers_FailedBackgroundReloadKeepsTheDirectory() throws InterruptedException {
+        ReflectionTestUtils.setField(userDirectory, "userRepository", null);
+        ReflectionTestUtils.setField(userDirectory, "loadedAt", Instant.MIN);
+        try {
+            assertEquals(List.of("superuser@example.com"), emails(userService.getUsers("superuser", PageRequest.of(0, 20))));
+
+            AtomicBoolean reloading = (AtomicBoolean) ReflectionTestUtils.getField(userDirectory, "reloading");
+            for (int i = 0; i < 100 && reloading.get(); i++) {
+                Thread.sleep(50);
+            }
+            assertFalse(reloading.get());
+        } finally {
+            ReflectionTestUtils.setField(userDirectory, "userRepository", userRepository);
+        }
+
+        // Still stale, so the next lookup tries again
+        assertEquals(Instant.MIN, ReflectionTestUtils.getField(userDirectory, "loadedAt"));
+    }
+
+    @Test
+    void testGetUsers_RolledBackUserIsNotListed() {
+        userService.createUser("phantom@example.com");
+
+        TestTransaction.end();
+
+        assertEquals(0, userService.getUsers("phantom", PageRequest.of(0, 20)).getTotalElements());
     }
 
     @Test
@@ -121,15 +215,55 @@ class UserServiceTest {
         assertTrue(superUserRepository.existsByUserId(newUser.getId()));
     }
 
+    @Test
+    void testFindOrCreateUser_ExistingUser_ReturnsUser() {
+        long userCount = userRepository.count();
+
+        User user = userService.findOrCreateUser("regularuser@example.com");
+        assertEquals(regularUser.getId(), user.getId());
+        assertEquals(userCount, userRepository.count());
+    }
+
+    @Test
+    void testFindOrCreateUser_NewUser_CreatesUserOnce() {
+        // "superuser@example.com" contains this email, which must not count as a match
+        User user = userService.findOrCreateUser("user@example.com");
+        assertNotNull(user.getId());
+        assertEquals("user@example.com", user.getEmail());
+
+        User again = userService.findOrCreateUser("user@example.com");
+        assertEquals(user.getId(), again.getId());
+        assertFalse(superUserRepository.existsByUserId(user.getId()));
+    }
+
+    @Test
+    void testFindOrCreateUser_FirstUserBecomesSuperUser() {
+        superUserRepository.deleteAll();
+
+        User user = userService.findOrCreateUser("firstsuperuser@example.com");
+        assertTrue(superUserRepository.existsByUserId(user.getId()));
+    }
+
     @Test
     void testDeleteUser_SuperUserDeletesUser() {
-        userService.deleteUser(superUser.getEmail(), regularUser.getId());
+        userService.deleteUser(principal(superUser), regularUser.getId());
         assertFalse(userRepository.existsById(regularUser.getId()));
     }
 
+    @Test
+    void testGetPrincipal_DeletedUser_ThrowsException() {
+        assertEquals(regularUser.getId(), userService.getPrincipal(regularUser.getId(), regularUser.getEmail()).getId());
+
+        userService.deleteUser(principal(superUser), regularUser.getId());
+
+        assertFalse(userService.userExists(regularUser.getId()));
+        assertThrows(NoSuchElementException.class, () ->
+                userService.getPrincipal(regularUser.getId(), regularUser.getEmail()));
+    }
+
     @Test
     void testDeleteUser_RegularUser_ThrowsAccessDeniedException() {
         assertThrows(AccessDeniedException.class, () ->
-                userService.deleteUser(regularUser.getEmail(), superUser.getId()));
+                userService.deleteUser(principal(regularUser), superUser.getId()));
     }
 }
\ No newline at end of file
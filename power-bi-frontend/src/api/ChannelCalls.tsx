@@ -1,23 +1,53 @@
 import { Channel, ChannelRole } from "../models/Channel";
 import { ChannelDTO } from "../models/ChannelDTO";
+import { ChannelPurgeStatus } from "../models/ChannelPurgeStatus";
+import { Page } from "../models/Page";
 import { axiosInstance } from "./common";
 
+/** Number of channels fetched per request when every page is needed. */
+const ALL_CHANNELS_PAGE_SIZE = 100;
+
 /**
- * Fetches a list of channels from the server.
+ * Fetches a page of channels from the server, ordered by ID.
  * @param search Optional search query to filter channels.
- * @returns A promise that resolves to an array of Channel objects.
+ * @param page Zero-based page index to fetch.
+ * @param size Maximum number of channels on the page.
+ * @returns A promise that resolves to a page of Channel objects, empty if the request fails.
  */
-export async function GetChannels(search?: string) {
+export async function GetChannels(search?: string, page = 0, size = 50) {
   try {
     const response = await axiosInstance.get("/api/channel", {
-      params: search ? { search } : {},
+      params: search ? { search, page, size } : { page, size },
     });
-    const channels: Channel[] = response.data;
+    const channels: Page<Channel> = response.data;
     return channels;
   } catch (error) {
     console.error(error);
-    return [];
+    const emptyPage: Page<Channel> = {
+      content: [],
+      page: { size, number: page, totalElements: 0, totalPages: 0 },
+    };
+    return emptyPage;
+  }
+}
+
+/**
+ * Fetches every channel accessible to the user, following the pages until the last one.
+ * Used by pickers and lists that must offer every channel rather than the first page.
+ * @param search Optional search query to filter channels.
+ * @returns A promise that resolves to an array of all matching Channel objects.
+ */
+export async function GetAllChannels(search?: string) {
+  const channels: Channel[] = [];
+  let page = 0;
+  let totalPages = 1;
+  while (page < totalPages) {
+    const result = await GetChannels(search, page, ALL_CHANNELS_PAGE_SIZE);
+    channels.push(...result.content);
+    totalPages = result.page.totalPages;
+    page++;
   }
+  return channels;
 }
 
 /**
@@ -100,3 +130,19 @@ export async function DeleteChannel(channelId: number) {
     return false;
   }
 }
+
+/**
+ * Fetches the progress of the background purge of a deleted channel.
+ * @param channelId The ID of the deleted channel.
+ * @returns A promise that resolves to the ChannelPurgeStatus object or null if the operation fails.
+ */
+export async function GetChannelPurgeStatus(channelId: number) {
+  try {
+    const response = await axiosInstance.get(`/api/channel/${channelId}/purge`);
+    const status: ChannelPurgeStatus = response.data;
+    return status;
+  } catch (error) {
+    console.error(error);
+    return null;
+  }
+}
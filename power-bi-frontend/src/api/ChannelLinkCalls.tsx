@@ -1,23 +1,46 @@
 import { ChannelLink } from "../models/ChannelLink";
 import { ChannelLinkDTO } from "../models/ChannelLinkDTO";
+import { CursorPage } from "../models/CursorPage";
 import { axiosInstance } from "./common";
 
 /**
- * Fetches a list of all links in a specific channel.
+ * Fetches one page of the links in a specific channel, oldest first.
  * @param channelId The ID of the channel.
- * @returns A promise that resolves to an array of ChannelLink objects.
+ * @param cursor The nextCursor of the previous page, omitted for the first page.
+ * @returns A promise that resolves to a page of ChannelLink objects.
  */
-export async function GetChannelLinks(channelId: number) {
+export async function GetChannelLinks(channelId: number, cursor?: string) {
   try {
-    const response = await axiosInstance.get(`/api/channellink/${channelId}`);
-    const channelLinks: ChannelLink[] = response.data;
+    const response = await axiosInstance.get(`/api/channellink/${channelId}`, {
+      params: cursor ? { cursor } : {},
+    });
+    const channelLinks: CursorPage<ChannelLink> = response.data;
     return channelLinks;
   } catch (error) {
     console.error(error);
-    return [];
+    const emptyPage: CursorPage<ChannelLink> = { items: [], nextCursor: null };
+    return emptyPage;
   }
 }
 
+/**
+ * Fetches the links in a specific channel, following the pages until the last one.
+ * Used where every link is needed, such as the channel sidebar.
+ * @param channelId The ID of the channel.
+ * @param cursor The nextCursor to continue from, omitted to start at the first page.
+ * @returns A promise that resolves to an array of all remaining ChannelLink objects.
+ */
+export async function GetAllChannelLinks(channelId: number, cursor?: string) {
+  const channelLinks: ChannelLink[] = [];
+  let next: string | null | undefined = cursor;
+  do {
+    const page = await GetChannelLinks(channelId, next ?? undefined);
+    channelLinks.push(...page.items);
+    next = page.nextCursor;
+  } while (next);
+  return channelLinks;
+}
+
 /**
  * Fetches a specific channel link by its ID.
  * @param channelId The ID of the channel.
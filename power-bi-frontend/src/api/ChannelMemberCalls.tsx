@@ -1,5 +1,6 @@
 import { axiosInstance } from "./common";
 import { ChannelMember } from "../models/ChannelMember";
+import { ChannelMemberImportResult } from "../models/ChannelMemberImportResult";
 
 /**
  * Fetches a list of all members in a specific channel.
@@ -37,6 +38,27 @@ export async function AddChannelMember(channelId: number, userId: number) {
   }
 }
 
+/**
+ * Adds many users as members to a specific channel at once.
+ * @param channelId The ID of the channel.
+ * @param userIds The IDs of the users to add.
+ * @param emails The emails of the users to add.
+ * @returns A promise that resolves to the outcome for each user or null if the operation fails.
+ */
+export async function ImportChannelMembers(channelId: number, userIds: number[], emails: string[] = []) {
+  try {
+    const response = await axiosInstance.put(
+      `/api/channelmember/${channelId}/import`,
+      { userIds, emails },
+    );
+    const result: ChannelMemberImportResult = response.data;
+    return result;
+  } catch (error) {
+    console.error(error);
+    return null;
+  }
+}
+
 /**
  * Removes a member from a specific channel.
  * @param channelId The ID of the channel.
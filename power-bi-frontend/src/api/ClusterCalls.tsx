@@ -0,0 +1,189 @@
+import { ChannelLayout, Cluster, ClusterLink } from "../models/Cluster";
+import { axiosInstance } from "./common";
+
+/**
+ * Fetches the clusters of a channel.
+ * @param channelId The ID of the channel.
+ * @returns A promise that resolves to an array of Cluster objects.
+ */
+export async function GetClusters(channelId: number) {
+  try {
+    const response = await axiosInstance.get(`/api/cluster/${channelId}`);
+    const clusters: Cluster[] = response.data;
+    return clusters;
+  } catch (error) {
+    console.error(error);
+    return [];
+  }
+}
+
+/**
+ * Fetches the layout of a channel: every cluster with its links in order.
+ * @param channelId The ID of the channel.
+ * @returns A promise that resolves to the ChannelLayout object or null if the operation fails.
+ */
+export async function GetChannelLayout(channelId: number) {
+  try {
+    const response = await axiosInstance.get(`/api/cluster/${channelId}/layout`);
+    const layout: ChannelLayout = response.data;
+    return layout;
+  } catch (error) {
+    console.error(error);
+    return null;
+  }
+}
+
+/**
+ * Creates a new cluster in a channel.
+ * @param channelId The ID of the channel.
+ * @param name The name of the new cluster.
+ * @returns A promise that resolves to the created Cluster object or null if the operation fails.
+ */
+export async function CreateCluster(channelId: number, name: string) {
+  try {
+    const response = await axiosInstance.put(`/api/cluster/${channelId}`, {
+      name,
+    });
+    const cluster: Cluster = response.data;
+    return cluster;
+  } catch (error) {
+    console.error(error);
+    return null;
+  }
+}
+
+/**
+ * Renames a cluster.
+ * @param channelId The ID of the channel.
+ * @param clusterId The ID of the cluster.
+ * @param name The new name of the cluster.
+ * @returns A promise that resolves to the updated Cluster object or null if the operation fails.
+ */
+export async function RenameCluster(
+  channelId: number,
+  clusterId: number,
+  name: string,
+) {
+  try {
+    const response = await axiosInstance.post(`/api/cluster/${channelId}`, {
+      id: clusterId,
+      name,
+    });
+    const cluster: Cluster = response.data;
+    return cluster;
+  } catch (error) {
+    console.error(error);
+    return null;
+  }
+}
+
+/**
+ * Deletes a cluster. The links in it stay in the channel.
+ * @param channelId The ID of the channel.
+ * @param clusterId The ID of the cluster to delete.
+ * @returns A promise that resolves to false if the deletion fails.
+ */
+export async function DeleteCluster(channelId: number, clusterId: number) {
+  try {
+    await axiosInstance.delete(`/api/cluster/${channelId}/${clusterId}`);
+  } catch (error) {
+    console.error(error);
+    return false;
+  }
+}
+
+/**
+ * Fetches the links of a cluster in order.
+ * @param channelId The ID of the channel.
+ * @param clusterId The ID of the cluster.
+ * @returns A promise that resolves to an array of ClusterLink objects.
+ */
+export async function GetClusterLinks(channelId: number, clusterId: number) {
+  try {
+    const response = await axiosInstance.get(
+      `/api/cluster/${channelId}/${clusterId}/links`,
+    );
+    const clusterLinks: ClusterLink[] = response.data;
+    return clusterLinks;
+  } catch (error) {
+    console.error(error);
+    return [];
+  }
+}
+
+/**
+ * Adds a channel link to a cluster.
+ * @param channelId The ID of the channel.
+ * @param clusterId The ID of the cluster.
+ * @param channelLinkId The ID of the channel link to add.
+ * @param beforeId The cluster link to place it before, omitted to add it at the end.
+ * @returns A promise that resolves to true if the link was added.
+ */
+export async function AddClusterLink(
+  channelId: number,
+  clusterId: number,
+  channelLinkId: number,
+  beforeId?: number,
+) {
+  try {
+    await axiosInstance.put(`/api/cluster/${channelId}/${clusterId}/links`, {
+      channelLinkId,
+      beforeId,
+    });
+    return true;
+  } catch (error) {
+    console.error(error);
+    return false;
+  }
+}
+
+/**
+ * Moves a link within its cluster, or into another cluster of the channel.
+ * Only the moved link is rewritten, whatever the size of the cluster.
+ * @param channelId The ID of the channel.
+ * @param clusterId The ID of the cluster holding the link.
+ * @param clusterLinkId The ID of the cluster link to move.
+ * @param beforeId The cluster link to place it before, omitted to move it to the end.
+ * @param targetClusterId The cluster to move it into, omitted to keep it in its cluster.
+ * @returns A promise that resolves to true if the link was moved.
+ */
+export async function MoveClusterLink(
+  channelId: number,
+  clusterId: number,
+  clusterLinkId: number,
+  beforeId?: number,
+  targetClusterId?: number,
+) {
+  try {
+    await axiosInstance.post(
+      `/api/cluster/${channelId}/${clusterId}/links/${clusterLinkId}`,
+      { clusterId: targetClusterId, beforeId },
+    );
+    return true;
+  } catch (error) {
+    console.error(error);
+    return false;
+  }
+}
+
+/**
+ * Removes a link from a cluster. The link stays in the channel.
+ * @param channelId The ID of the channel.
+ * @param clusterId The ID of the cluster.
+ * @param clusterLinkId The ID of the cluster link to remove.
+ * @returns A promise that resolves to false if the removal fails.
+ */
+export async function RemoveClusterLink(
+  channelId: number,
+  clusterId: number,
+  clusterLinkId: number,
+) {
+  try {
+    await axiosInstance.delete(
+      `/api/cluster/${channelId}/${clusterId}/links/${clusterLinkId}`,
+    );
+  } catch (error) {
+    console.error(error);
+    return false;
+  }
+}
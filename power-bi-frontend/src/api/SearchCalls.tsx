@@ -0,0 +1,48 @@
+import { LinkSearchHit } from "../models/LinkSearchHit";
+import { Page } from "../models/Page";
+import { SearchResults } from "../models/SearchResults";
+import { axiosInstance } from "./common";
+
+/**
+ * Searches the user's links and the links of every channel they can see, best match first.
+ * Partially typed words and small typos still match.
+ * @param query The search text.
+ * @param page The zero-based page to fetch.
+ * @param size The number of results per page.
+ * @returns A promise that resolves to a page of LinkSearchHit objects, empty if the request fails.
+ */
+export async function SearchLinks(query: string, page = 0, size = 20) {
+  try {
+    const response = await axiosInstance.get("/api/search/links", {
+      params: { q: query, page, size },
+    });
+    const hits: Page<LinkSearchHit> = response.data;
+    return hits;
+  } catch (error) {
+    console.error(error);
+    const emptyPage: Page<LinkSearchHit> = {
+      content: [],
+      page: { size, number: page, totalElements: 0, totalPages: 0 },
+    };
+    return emptyPage;
+  }
+}
+
+/**
+ * Searches channels, channel links, the user's links and users in a single request.
+ * @param query The search text.
+ * @param limit The number of results to return per group.
+ * @returns A promise that resolves to the results grouped by kind, or null if the request fails.
+ */
+export async function Search(query: string, limit = 5) {
+  try {
+    const response = await axiosInstance.get("/api/search", {
+      params: { q: query, limit },
+    });
+    const results: SearchResults = response.data;
+    return results;
+  } catch (error) {
+    console.error(error);
+    return null;
+  }
+}
@@ -1,21 +1,28 @@
+import { Page } from "../models/Page";
 import { User } from "../models/User";
 import { axiosInstance } from "./common";
 
 /**
- * Fetches a list of users from the server.
- * @param search Optional search query to filter users.
- * @returns A promise that resolves to an array of User objects.
+ * Fetches one page of users from the server, ordered by email.
+ * @param search Optional prefix of the email or display name of the users.
+ * @param page The zero-based page to fetch.
+ * @param size The number of users per page, at most 100.
+ * @returns A promise that resolves to a page of User objects, empty if the request fails.
  */
-export async function GetUsers(search?: string) {
+export async function GetUsers(search?: string, page = 0, size = 20) {
   try {
     const response = await axiosInstance.get("/api/user", {
-      params: search ? { search } : {},
+      params: search ? { search, page, size } : { page, size },
     });
-    const users: User[] = response.data;
+    const users: Page<User> = response.data;
     return users;
   } catch (error) {
     console.error(error);
-    return [];
+    const emptyPage: Page<User> = {
+      content: [],
+      page: { size, number: page, totalElements: 0, totalPages: 0 },
+    };
+    return emptyPage;
   }
 }
 
@@ -1,28 +1,155 @@
-import { Box, Input } from "@mui/joy";
+import {
+  Box,
+  Button,
+  Input,
+  List,
+  ListItem,
+  ListItemButton,
+  ListSubheader,
+  Sheet,
+  Typography,
+} from "@mui/joy";
 import SearchIcon from "@mui/icons-material/Search";
+import { useEffect, useRef, useState } from "react";
+import { useNavigate } from "react-router-dom";
+import { Search, SearchLinks } from "../api/SearchCalls";
+import { LinkSearchHit } from "../models/LinkSearchHit";
+import { SearchGroup, SearchResults } from "../models/SearchResults";
+
+/** Delay after the last keystroke before the server is searched, in milliseconds. */
+const SEARCH_DELAY = 250;
+
+/** Number of reports loaded per page once every matching report is shown. */
+const REPORTS_PAGE_SIZE = 20;
 
 interface SearchBarProps {
   onSearch: (query: string) => void;
 }
+
+interface ResultGroupProps<T> {
+  /** Heading of the group. */
+  title: string;
+  /** The group of results to list. */
+  group: SearchGroup<T>;
+  /** Returns the text shown for a result. */
+  label: (item: T) => string;
+  /** Opens a result, omitted for results that cannot be opened. */
+  onOpen?: (item: T) => void;
+}
+
+/**
+ * One group of search results, with the number of matches beyond the ones listed.
+ */
+function ResultGroup<T>({ title, group, label, onOpen }: ResultGroupProps<T>) {
+  if (group.total === 0) return null;
+  return (
+    <ListItem nested>
+      <ListSubheader>
+        {title} ({group.total})
+      </ListSubheader>
+      <List>
+        {group.hits.map((hit, index) => (
+          <ListItem key={index}>
+            {onOpen ? (
+              <ListItemButton onClick={() => onOpen(hit.item)}>
+                {label(hit.item)}
+              </ListItemButton>
+            ) : (
+              <Typography level="body-sm">{label(hit.item)}</Typography>
+            )}
+          </ListItem>
+        ))}
+      </List>
+    </ListItem>
+  );
+}
+
 /**
  * Search bar component for filtering or searching items.
- * @param onSearch Callback function triggered when the user presses Enter.
+ * Filters the page through onSearch as the user types, and lists the best matching channels,
+ * channel links, personal links and users from a single grouped search below the input.
+ * Every matching report, personal or posted in a channel, can then be paged through.
+ * @param onSearch Callback function triggered whenever the query changes.
  * @returns The SearchBar component.
  */
 function SearchBar({ onSearch }: SearchBarProps) {
+  const [query, setQuery] = useState("");
+  const [results, setResults] = useState<SearchResults | null>(null);
+  const [open, setOpen] = useState(false);
+  const [reports, setReports] = useState<LinkSearchHit[] | null>(null);
+  const [totalReports, setTotalReports] = useState(0);
+  const [reportsPage, setReportsPage] = useState(0);
+  const latestRequest = useRef(0); // Ignores results of queries typed over since
+  const navigate = useNavigate();
+
+  useEffect(() => {
+    const request = ++latestRequest.current;
+    setReports(null);
+    if (query.trim() === "") {
+      setResults(null);
+      return;
+    }
+    const timer = setTimeout(() => {
+      Search(query).then((found) => {
+        if (request === latestRequest.current) setResults(found);
+      });
+    }, SEARCH_DELAY);
+    return () => clearTimeout(timer);
+  }, [query]);
+
   const handleChange = (event: React.ChangeEvent<HTMLInputElement>) => {
     const query = event.target.value;
+    setQuery(query);
+    setOpen(true);
     onSearch(query);
   };
 
+  const openResult = (path: string) => {
+    setOpen(false);
+    navigate(path);
+  };
+
+  // Pages through every matching report, ranked like the grouped results
+  const loadReports = (page: number) => {
+    const request = latestRequest.current;
+    SearchLinks(query, page, REPORTS_PAGE_SIZE).then((found) => {
+      if (request !== latestRequest.current) return;
+      setReports((loaded) =>
+        page === 0 || loaded === null
+          ? found.content
+          : [...loaded, ...found.content],
+      );
+      setTotalReports(found.page.totalElements);
+      setReportsPage(page);
+    });
+  };
+
+  const openReport = (hit: LinkSearchHit) => {
+    if (hit.channelLink) {
+      openResult(`/channel/${hit.channelLink.channel.id}/${hit.channelLink.id}`);
+    } else if (hit.link) {
+      openResult(`/link/${hit.link.id}`);
+    }
+  };
+
+  const hasResults =
+    results !== null &&
+    results.channels.total +
+      results.channelLinks.total +
+      results.links.total +
+      results.users.total >
+      0;
+
   return (
-    <Box width={"75vw"}>
+    <Box width={"75vw"} position={"relative"}>
       <Input
         size="lg"
         startDecorator={<SearchIcon />}
-        placeholder="Search channels"
+        placeholder="Search channels, reports and users"
         autoFocus
         onChange={handleChange}
+        onFocus={() => setOpen(true)}
+        onBlur={() => setOpen(false)}
         sx={{
           "--Input-radius": "0px",
           borderBottom: "2px solid",
@@ -45,6 +172,83 @@ function SearchBar({ onSearch }: SearchBarProps) {
           },
         }}
       />
+      {open && hasResults && results && (
+        <Sheet
+          variant="outlined"
+          // Keep the input focused while a result is clicked
+          onMouseDown={(event) => event.preventDefault()}
+          sx={{
+            position: "absolute",
+            zIndex: 10,
+            width: "100%",
+            maxHeight: "60vh",
+            overflowY: "auto",
+            boxShadow: "md",
+          }}
+        >
+          {reports ? (
+            <List size="sm">
+              <ListItem nested>
+                <ListSubheader>Reports ({totalReports})</ListSubheader>
+                <List>
+                  {reports.map((hit, index) => (
+                    <ListItem key={index}>
+                      <ListItemButton onClick={() => openReport(hit)}>
+                        {hit.channelLink?.title ?? hit.link?.title}
+                      </ListItemButton>
+                    </ListItem>
+                  ))}
+                </List>
+              </ListItem>
+              {reports.length < totalReports && (
+                <ListItem>
+                  <Button
+                    variant="plain"
+                    onClick={() => loadReports(reportsPage + 1)}
+                  >
+                    Load more
+                  </Button>
+                </ListItem>
+              )}
+            </List>
+          ) : (
+            <List size="sm">
+              <ResultGroup
+                title="Channels"
+                group={results.channels}
+                label={(channel) => channel.name}
+                onOpen={(channel) => openResult(`/channel/${channel.id}`)}
+              />
+              <ResultGroup
+                title="Channel reports"
+                group={results.channelLinks}
+                label={(channelLink) => channelLink.title}
+                onOpen={(channelLink) =>
+                  openResult(`/channel/${channelLink.channel.id}/${channelLink.id}`)
+                }
+              />
+              <ResultGroup
+                title="My reports"
+                group={results.links}
+                label={(link) => link.title}
+                onOpen={(link) => openResult(`/link/${link.id}`)}
+              />
+              <ResultGroup
+                title="Users"
+                group={results.users}
+                label={(user) => user.email}
+              />
+              {results.channelLinks.total + results.links.total > 0 && (
+                <ListItem>
+                  <Button variant="plain" onClick={() => loadReports(0)}>
+                    Show all matching reports
+                  </Button>
+                </ListItem>
+              )}
+            </List>
+          )}
+        </Sheet>
+      )}
     </Box>
   );
 }
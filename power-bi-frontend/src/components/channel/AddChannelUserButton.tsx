@@ -54,23 +54,21 @@ function AddChannelUserButton({
   channelAdmins,
   channelOwners,
 }: AddUserButtonProps) {
-  const [users, setUsers] = useState<User[]>([]);
   const [search, setSearch] = useState("");
   const [filteredUsers, setFilteredUsers] = useState<User[]>([]);
   const [open, setOpen] = useState(false);
   const [selectedUser, setSelectedUser] = useState<User | null>(null);
 
   useEffect(() => {
-    GetUsers().then(setUsers);
-  }, []);
-
-  useEffect(() => {
-    setFilteredUsers(
-      users.filter((user) =>
-        user.email.toLowerCase().includes(search.toLowerCase()),
-      ),
-    );
-  }, [search, users]);
+    // Ignore responses for searches typed over before they arrived
+    let current = true;
+    GetUsers(search).then((users) => {
+      if (current) setFilteredUsers(users.content);
+    });
+    return () => {
+      current = false;
+    };
+  }, [search]);
 
   const handleAddUser = async (role: ChannelRole["role"]) => {
     if (!selectedUser) return;
@@ -1,5 +1,5 @@
 import { useEffect, useState } from "react";
-import { GetChannels } from "../../api/ChannelCalls";
+import { GetAllChannels } from "../../api/ChannelCalls";
 import { Channel } from "../../models/Channel";
 import { Box, Button, Dropdown, Menu, MenuButton, MenuItem } from "@mui/joy";
 
@@ -18,7 +18,7 @@ function LinkChannelMenu({ channel, setChannel }: LinkChannelMenuProps) {
   const [channels, setChannels] = useState<Channel[]>([]);
 
   useEffect(() => {
-    GetChannels("")
+    GetAllChannels()
       .then((channels) => {
         setChannels(channels);
       })
@@ -11,8 +11,8 @@ export interface ChannelAdmin {
   /** The user who is the admin. */
   user: User;
 
-  /** The channel where the user is an admin. */
-  channel: Channel;
+  /** The channel where the user is an admin, listings only carry its ID. */
+  channel: Pick<Channel, "id">;
 
   /** Date when the user was assigned as an admin. */
   dateCreated: Date;
@@ -14,8 +14,8 @@ export interface ChannelLink {
   /** The link object associated with the channel. */
   link: Link;
 
-  /** The channel where the link is associated. */
-  channel: Channel;
+  /** The channel where the link is associated, listings only carry its ID. */
+  channel: Pick<Channel, "id">;
 
   /** Date when the channel link was created. */
   dateCreated: Date;
@@ -11,8 +11,8 @@ export interface ChannelMember {
   /** The user who is a member of the channel. */
   user: User;
 
-  /** The channel where the user is a member. */
-  channel: Channel;
+  /** The channel where the user is a member, listings only carry its ID. */
+  channel: Pick<Channel, "id">;
 
   /** Date when the user joined the channel. */
   dateCreated: Date;
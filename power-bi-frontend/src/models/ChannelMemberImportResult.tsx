@@ -0,0 +1,29 @@
+import { User } from "./User";
+
+/**
+ * Represents the outcome for one user of a channel member import.
+ */
+export interface ChannelMemberImportRow {
+  /** The user ID or email as given in the request. */
+  input: string;
+
+  /** What happened to the user. */
+  status: "ADDED" | "ALREADY_IN_CHANNEL" | "DUPLICATE" | "NOT_FOUND";
+
+  /** The matched user, or null if none was found. */
+  user: User | null;
+}
+
+/**
+ * Represents the outcome of a channel member import.
+ */
+export interface ChannelMemberImportResult {
+  /** Number of users added as members. */
+  added: number;
+
+  /** Number of requested users not added. */
+  skipped: number;
+
+  /** Outcome for each requested user, user IDs first, then emails. */
+  rows: ChannelMemberImportRow[];
+}
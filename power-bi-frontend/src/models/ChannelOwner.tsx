@@ -11,8 +11,8 @@ export interface ChannelOwner {
   /** The user who is the owner of the channel. */
   user: User;
 
-  /** The channel where the user is the owner. */
-  channel: Channel;
+  /** The channel where the user is the owner, listings only carry its ID. */
+  channel: Pick<Channel, "id">;
 
   /** Date when the user was assigned as the owner. */
   dateCreated: Date;
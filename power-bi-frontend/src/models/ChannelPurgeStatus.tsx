@@ -0,0 +1,28 @@
+/**
+ * Represents the progress of the background purge of a deleted channel.
+ */
+export interface ChannelPurgeStatus {
+  /** ID of the deleted channel. */
+  channelId: number;
+
+  /** Where the purge stands. */
+  state: "PENDING" | "RUNNING" | "DONE" | "FAILED";
+
+  /** Table being purged, or null before the purge starts and after it ends. */
+  table: string | null;
+
+  /** Number of dependent rows removed so far. */
+  rowsDeleted: number;
+
+  /** Number of times a server started the purge; failed purges are retried. */
+  attempts: number;
+
+  /** Date when the purge was requested. */
+  dateRequested: Date;
+
+  /** Date when the purge finished or last failed, or null while it is pending or running. */
+  dateFinished: Date | null;
+
+  /** Date when a failed purge is retried, or null if it is not waiting for a retry. */
+  dateNextAttempt: Date | null;
+}
@@ -0,0 +1,67 @@
+import { Channel } from "./Channel";
+import { ChannelLink } from "./ChannelLink";
+
+/**
+ * Represents a named group of a channel's links.
+ */
+export interface Cluster {
+  /** Unique identifier for the cluster. */
+  id: number;
+
+  /** Name of the cluster. */
+  name: string;
+
+  /** The channel the cluster belongs to, listings only carry its ID. */
+  channel: Pick<Channel, "id">;
+
+  /** Date when the cluster was created. */
+  dateCreated: Date;
+}
+
+/**
+ * Represents a channel link placed in a cluster.
+ */
+export interface ClusterLink {
+  /** Unique identifier for the cluster link. */
+  id: number;
+
+  /** ID of the cluster holding the link. */
+  clusterId: number;
+
+  /** Ordering key of the link within the cluster, lower first. */
+  idx: number;
+
+  /** The channel link placed in the cluster. */
+  channelLink: ChannelLink;
+
+  /** Date when the link was added to the cluster. */
+  dateCreated: Date;
+}
+
+/**
+ * Represents one cluster of a channel layout, with its links in order.
+ */
+export interface ClusterLayout {
+  /** Unique identifier for the cluster. */
+  id: number;
+
+  /** Name of the cluster. */
+  name: string;
+
+  /** Date when the cluster was created. */
+  dateCreated: Date;
+
+  /** The cluster's links, in order. */
+  links: ClusterLink[];
+}
+
+/**
+ * Represents the layout of a channel page: every cluster with its links.
+ */
+export interface ChannelLayout {
+  /** ID of the channel. */
+  channelId: number;
+
+  /** The channel's clusters, ordered by ID. */
+  clusters: ClusterLayout[];
+}
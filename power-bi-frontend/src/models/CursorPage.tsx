@@ -0,0 +1,10 @@
+/**
+ * Represents one page of a cursor-paginated listing.
+ */
+export interface CursorPage<T> {
+  /** Items on this page. */
+  items: T[];
+
+  /** Cursor to request the next page with, or null on the last page. */
+  nextCursor: string | null;
+}
@@ -0,0 +1,19 @@
+import { ChannelLink } from "./ChannelLink";
+import { Link } from "./Link";
+
+/**
+ * Represents one ranked result of a link search.
+ */
+export interface LinkSearchHit {
+  /** LINK for a personal link, CHANNEL_LINK for a link posted in a channel. */
+  type: "LINK" | "CHANNEL_LINK";
+
+  /** Relevance of the result, higher is better. */
+  score: number;
+
+  /** The personal link, set when the type is LINK. */
+  link: Link | null;
+
+  /** The channel link, set when the type is CHANNEL_LINK. */
+  channelLink: ChannelLink | null;
+}
@@ -0,0 +1,22 @@
+/**
+ * Represents one page of results returned by a paged endpoint.
+ */
+export interface Page<T> {
+  /** Items on this page. */
+  content: T[];
+
+  /** Position of this page within the full result. */
+  page: {
+    /** Maximum number of items per page. */
+    size: number;
+
+    /** Zero-based index of this page. */
+    number: number;
+
+    /** Total number of items across all pages. */
+    totalElements: number;
+
+    /** Total number of pages. */
+    totalPages: number;
+  };
+}
@@ -0,0 +1,43 @@
+import { Channel } from "./Channel";
+import { ChannelLink } from "./ChannelLink";
+import { Link } from "./Link";
+import { User } from "./User";
+
+/**
+ * Represents one ranked result of a global search.
+ */
+export interface SearchHit<T> {
+  /** Relevance of the result, higher is better. */
+  score: number;
+
+  /** The matching item. */
+  item: T;
+}
+
+/**
+ * Represents the best results of a global search for one kind of item.
+ */
+export interface SearchGroup<T> {
+  /** Number of matching items the user can see. */
+  total: number;
+
+  /** The best matches, best first. */
+  hits: SearchHit<T>[];
+}
+
+/**
+ * Represents the results of a global search, grouped by kind.
+ */
+export interface SearchResults {
+  /** Matching channels. */
+  channels: SearchGroup<Channel>;
+
+  /** Matching links posted in channels. */
+  channelLinks: SearchGroup<ChannelLink>;
+
+  /** Matching personal links of the user. */
+  links: SearchGroup<Link>;
+
+  /** Matching users. */
+  users: SearchGroup<User>;
+}
@@ -1,34 +1,54 @@
-import { Box, LinearProgress, Stack, Typography } from "@mui/joy";
+import { Box, Button, LinearProgress, Stack, Typography } from "@mui/joy";
 import SearchBar from "../components/SearchBar";
 import { Channel } from "../models/Channel";
-import { useEffect, useState } from "react";
+import { useEffect, useRef, useState } from "react";
 import CreateChannelButton from "../components/channel/CreateChannelButton";
 import { GetChannels } from "../api/ChannelCalls";
 import ChannelsGrid from "../components/channel/ChannelsGrid";
 
+/** Number of channels loaded per page. */
+const PAGE_SIZE = 50;
+
 /**
  * Home Page
- * Displays a search bar and a grid of channels.
- * Allows users to explore channels and create new ones.
+ * Displays a search bar and a grid of channels, a page at a time.
+ * Allows users to explore channels, load more of them and create new ones.
  */
 function HomePage() {
   const [channels, setChannels] = useState<Channel[]>([]);
+  const [search, setSearch] = useState("");
+  const [page, setPage] = useState(0);
+  const [totalChannels, setTotalChannels] = useState(0);
   const [loading, setLoading] = useState(false);
+  const latestRequest = useRef(0); // Ignores responses to searches typed over since
 
-  const handleSearch = (search: string) => {
-    GetChannels(search)
-      .then((channels) => {
-        setChannels(channels);
+  const loadChannels = (search: string, page: number) => {
+    const request = ++latestRequest.current;
+    setLoading(true);
+    GetChannels(search, page, PAGE_SIZE)
+      .then((result) => {
+        if (request !== latestRequest.current) return;
+        setChannels((loaded) =>
+          page === 0 ? result.content : [...loaded, ...result.content],
+        );
+        setTotalChannels(result.page.totalElements);
+        setPage(page);
       })
       .catch((error) => {
         console.error("Error getting channels:", error);
+      })
+      .finally(() => {
+        if (request === latestRequest.current) setLoading(false);
       });
   };
 
+  const handleSearch = (search: string) => {
+    setSearch(search);
+    loadChannels(search, 0);
+  };
+
   useEffect(() => {
-    setLoading(true);
-    handleSearch("");
-    setLoading(false);
+    loadChannels("", 0);
   }, []);
 
   return (
@@ -48,7 +68,25 @@ function HomePage() {
             <Typography level="h3"> Explore Channels</Typography>
             <CreateChannelButton />
           </Stack>
-          {loading ? <LinearProgress /> : <ChannelsGrid channels={channels} />}
+          {loading && channels.length === 0 ? (
+            <LinearProgress />
+          ) : (
+            <ChannelsGrid channels={channels} />
+          )}
+          <Stack direction={"row"} alignItems={"center"} gap={2}>
+            <Typography level="body-sm">
+              Showing {channels.length} of {totalChannels} channels
+            </Typography>
+            {channels.length < totalChannels && (
+              <Button
+                variant="soft"
+                loading={loading}
+                onClick={() => loadChannels(search, page + 1)}
+              >
+                Load more
+              </Button>
+            )}
+          </Stack>
         </Stack>
       </Stack>
     </Box>
@@ -5,7 +5,7 @@ import { Link } from "../models/Link";
 import { GetLink } from "../api/LinkCalls";
 import { Box } from "@mui/joy";
 import { Channel } from "../models/Channel";
-import { GetChannels } from "../api/ChannelCalls";
+import { GetAllChannels } from "../api/ChannelCalls";
 
 /**
  * Link Page
@@ -27,7 +27,7 @@ function LinkPage() {
           console.error(error);
           setLink(null);
         });
-      GetChannels().then((channels) => {
+      GetAllChannels().then((channels) => {
         setAvaliableChannels(channels);
       });
     }
@@ -1,7 +1,8 @@
-import { useEffect, useState } from "react";
+import { useEffect, useRef, useState } from "react";
 import {
   Box,
   Button,
+  Input,
   Stack,
   Typography,
   Modal,
@@ -22,13 +23,21 @@ import ChannelUserCard from "../components/channel/ChannelUserCard";
 import { GetChannelRole } from "../api/ChannelCalls";
 import { useNavigate } from "react-router-dom";
 
+/** Number of users loaded per page. */
+const PAGE_SIZE = 50;
+
 /**
  * Super User Page
  * Allows management of super users and regular users, including adding, removing, and deleting users.
+ * Users are searched by email or display name and loaded a page at a time.
  * Redirects non-super users to the home page.
  */
 function SuperUserPage() {
   const [users, setUsers] = useState<User[]>([]);
+  const [search, setSearch] = useState("");
+  const [page, setPage] = useState(0);
+  const [totalUsers, setTotalUsers] = useState(0);
+  const latestRequest = useRef(0); // Ignores responses to searches typed over since
   const [superUsers, setSuperUsers] = useState<SuperUser[]>([]);
   const [openDialog, setOpenDialog] = useState(false);
   const [selectedUserId, setSelectedUserId] = useState<number | null>(null);
@@ -45,13 +54,26 @@ function SuperUserPage() {
         navigate("/"); // Redirect to home page if not a super user
       }
     });
-    fetchUsers();
     fetchSuperUsers();
   }, [navigate]);
 
-  const fetchUsers = () => {
-    GetUsers()
-      .then((fetchedUsers) => setUsers(fetchedUsers))
+  useEffect(() => {
+    fetchUsers(search, 0);
+  }, [search]);
+
+  const fetchUsers = (search: string, page: number) => {
+    const request = ++latestRequest.current;
+    GetUsers(search, page, PAGE_SIZE)
+      .then((fetchedUsers) => {
+        if (request !== latestRequest.current) return;
+        setUsers((loaded) =>
+          page === 0
+            ? fetchedUsers.content
+            : [...loaded, ...fetchedUsers.content],
+        );
+        setTotalUsers(fetchedUsers.page.totalElements);
+        setPage(page);
+      })
       .catch(() =>
         setSnackbar({
           open: true,
@@ -83,7 +105,7 @@ function SuperUserPage() {
             color: "warning",
           });
         } else {
-          fetchUsers();
+          fetchUsers(search, 0);
           setSnackbar({
             open: true,
             message: "User deleted successfully",
@@ -193,6 +215,12 @@ function SuperUserPage() {
         {/* All Users Section */}
         <Stack spacing={2} width="100%" alignItems={"flex-start"}>
           <Typography level="h4">All Users</Typography>
+          <Input
+            placeholder="Search users by email or name..."
+            value={search}
+            onChange={(e) => setSearch(e.target.value)}
+            sx={{ width: "40vw" }}
+          />
           <Stack spacing={2}>
             {users.map((user) => (
               <ChannelUserCard
@@ -202,6 +230,19 @@ function SuperUserPage() {
               />
             ))}
           </Stack>
+          <Stack direction={"row"} alignItems={"center"} gap={2}>
+            <Typography level="body-sm">
+              Showing {users.length} of {totalUsers} users
+            </Typography>
+            {users.length < totalUsers && (
+              <Button
+                variant="soft"
+                onClick={() => fetchUsers(search, page + 1)}
+              >
+                Load more
+              </Button>
+            )}
+          </Stack>
         </Stack>
       </Stack>
 
@@ -210,6 +251,11 @@ function SuperUserPage() {
         <ModalDialog>
           <Typography level="h4">Add Super User</Typography>
           <Stack spacing={3}>
+            <Input
+              placeholder="Search users by email or name..."
+              value={search}
+              onChange={(e) => setSearch(e.target.value)}
+            />
             <Stack spacing={2} maxHeight="300px" overflow="auto">
               {users.map((user) => {
                 const isSuperUser = superUsers.some(
@@ -12,7 +12,7 @@ import {
   Typography,
 } from "@mui/joy";
 import { Channel, ChannelRole } from "../models/Channel";
-import { GetChannelRole, GetChannels } from "../api/ChannelCalls";
+import { GetAllChannels, GetChannelRole } from "../api/ChannelCalls";
 import SmallLinkCardList from "../components/link/SmallLinkCardList";
 import ChannelsGrid from "../components/channel/ChannelsGrid";
 import { User } from "../models/User";
@@ -38,7 +38,7 @@ function UserPage() {
       }
     });
     GetLinks().then(setLinks);
-    GetChannels().then(setChannels);
+    GetAllChannels().then(setChannels);
   }, []);
 
   useEffect(() => {
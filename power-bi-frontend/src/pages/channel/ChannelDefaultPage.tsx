@@ -1,13 +1,14 @@
 import { useState, useEffect, useMemo } from "react";
 import { useParams } from "react-router-dom";
 import { GetChannel } from "../../api/ChannelCalls";
-import { GetChannelLinks } from "../../api/ChannelLinkCalls";
+import { GetAllChannelLinks, GetChannelLinks } from "../../api/ChannelLinkCalls";
 import { Channel } from "../../models/Channel";
 import { ChannelLink } from "../../models/ChannelLink";
 import SmallLinkCardList from "../../components/link/SmallLinkCardList";
 import ChannelBanner from "../../components/channel/ChannelBanner";
 import {
   Box,
+  Button,
   Dropdown,
   IconButton,
   Input,
@@ -35,6 +36,7 @@ export default function ChannelDefaultPage() {
     visibility: "PUBLIC",
     dateCreated: new Date(),
   });
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [isSmallCardView, setIsSmallCardView] = useState(false);
   const [search, setSearch] = useState("");
   const { id } = useParams();
@@ -53,14 +55,41 @@ export default function ChannelDefaultPage() {
       });
 
     GetChannelLinks(Number(channelId))
-      .then((linksData) => {
-        setChannelLinks(linksData);
+      .then((linksPage) => {
+        setChannelLinks(linksPage.items);
+        setNextCursor(linksPage.nextCursor);
       })
       .catch((error) => {
         console.error("Failed to fetch channel links:", error);
       });
   }, [channelId]);
 
+  // Append the next page of links
+  const handleLoadMore = () => {
+    if (!channelId || !nextCursor) return;
+    GetChannelLinks(Number(channelId), nextCursor)
+      .then((linksPage) => {
+        setChannelLinks((links) => [...links, ...linksPage.items]);
+        setNextCursor(linksPage.nextCursor);
+      })
+      .catch((error) => {
+        console.error("Failed to fetch channel links:", error);
+      });
+  };
+
+  // The filter runs on the loaded links, so load the remaining pages once a search starts
+  useEffect(() => {
+    if (!channelId || !nextCursor || search === "") return;
+    GetAllChannelLinks(Number(channelId), nextCursor)
+      .then((links) => {
+        setChannelLinks((loaded) => [...loaded, ...links]);
+        setNextCursor(null);
+      })
+      .catch((error) => {
+        console.error("Failed to fetch channel links:", error);
+      });
+  }, [channelId, nextCursor, search]);
+
   // Filter links based on the search query
   const filteredLinks = useMemo(() => {
     return channelLinks.filter((link) =>
@@ -141,6 +170,11 @@ export default function ChannelDefaultPage() {
           ) : (
             <LinkCardList items={filteredLinks} />
           )}
+          {nextCursor && (
+            <Button variant="outlined" color="neutral" onClick={handleLoadMore}>
+              Load more
+            </Button>
+          )}
         </Stack>
       </Stack>
     </Box>
@@ -2,7 +2,7 @@ import { Outlet, useNavigate, useParams } from "react-router-dom";
 import { Box, Stack } from "@mui/joy";
 import { useState, useEffect } from "react";
 import { GetChannel, GetChannelRole } from "../../api/ChannelCalls";
-import { GetChannelLinks } from "../../api/ChannelLinkCalls";
+import { GetAllChannelLinks } from "../../api/ChannelLinkCalls";
 import ChannelSidebar from "../../components/channel/ChannelSidebar";
 import { Channel, ChannelRole } from "../../models/Channel";
 import { ChannelLink } from "../../models/ChannelLink";
@@ -46,9 +46,10 @@ function ChannelPage() {
         console.error("Failed to fetch channel data:", error);
       });
 
-    GetChannelLinks(Number(channelId))
-      .then((linksData) => {
-        setChannelLinks(linksData);
+    // The sidebar lists every link, so follow the cursor through all pages
+    GetAllChannelLinks(Number(channelId))
+      .then((links) => {
+        setChannelLinks(links);
       })
       .catch((error) => {
         console.error("Failed to fetch channel links:", error);